@@ -0,0 +1,107 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.jmh.agg;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grouped aggregation over a length window, with the default aggregation state and with the
+ * columnar aggregation state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupedAggregationBenchmark
+{
+    public enum AggregationState
+    {
+        DEFAULT(""),
+        COLUMNAR("@Hint('enable_columnar_aggregation') ");
+
+        private final String hint;
+
+        AggregationState(String hint) {
+            this.hint = hint;
+        }
+    }
+
+    @Param({"DEFAULT", "COLUMNAR"})
+    public AggregationState state;
+
+    @Param({"100", "10000"})
+    public int numGroups;
+
+    @Param({"1000"})
+    public int windowSize;
+
+    private EPServiceProvider engine;
+    private EPRuntime runtime;
+    private AggregationEvent[] events;
+    private int count;
+
+    @Setup
+    public void setup()
+    {
+        Configuration configuration = new Configuration();
+        configuration.addEventType("AggregationEvent", AggregationEvent.class);
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        engine = EPServiceProviderManager.getProvider(this.getClass().getName() + "_" + state + "_" + numGroups, configuration);
+        runtime = engine.getEPRuntime();
+        engine.getEPAdministrator().createEPL(state.hint +
+                "select groupId, sum(price), avg(price), stddev(price), count(*) " +
+                "from AggregationEvent.win:length(" + windowSize + ") group by groupId");
+
+        Random random = new Random(0);
+        events = new AggregationEvent[1024];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new AggregationEvent("G" + random.nextInt(numGroups), random.nextDouble() * 100);
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        engine.destroy();
+    }
+
+    @Benchmark
+    public void aggregate()
+    {
+        runtime.sendEvent(events[count++ & (events.length - 1)]);
+    }
+
+    public static class AggregationEvent
+    {
+        private final String groupId;
+        private final double price;
+
+        public AggregationEvent(String groupId, double price) {
+            this.groupId = groupId;
+            this.price = price;
+        }
+
+        public String getGroupId() {
+            return groupId;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.jmh.filter;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.filter.FilterHandle;
+import com.espertech.esper.filter.FilterService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter index matching per filter index type.
+ * <p>
+ * Statements are created with the filter of the index type under test, so that the engine plans
+ * the filter index itself, and the benchmark evaluates events against the filter service only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterIndexBenchmark
+{
+    public enum IndexType
+    {
+        EQUALS("id = %1$d"),                                                // FilterParamIndexEquals
+        NOT_EQUALS("id != %1$d"),                                           // FilterParamIndexNotEquals
+        IS("name is 'n%1$d'"),                                              // FilterParamIndexEqualsIs
+        IS_NOT("name is not 'n%1$d'"),                                      // FilterParamIndexNotEqualsIs
+        COMPARE("id > %1$d"),                                               // FilterParamIndexCompare
+        COMPARE_STRING("name > 'n%1$d'"),                                   // FilterParamIndexCompareString
+        RANGE("id between %1$d and %2$d"),                                  // FilterParamIndexDoubleRange
+        RANGE_INVERTED("id not between %1$d and %2$d"),                     // FilterParamIndexDoubleRangeInverted
+        STRING_RANGE("name between 'n%1$d' and 'n%2$d'"),                   // FilterParamIndexStringRange
+        STRING_RANGE_INVERTED("name not between 'n%1$d' and 'n%2$d'"),      // FilterParamIndexStringRangeInverted
+        IN("id in (%1$d, %2$d)"),                                           // FilterParamIndexIn
+        NOT_IN("id not in (%1$d, %2$d)"),                                   // FilterParamIndexNotIn
+        BOOLEAN_EXPR("id + 1 = %1$d");                                      // FilterParamIndexBooleanExpr
+
+        private final String format;
+
+        IndexType(String format) {
+            this.format = format;
+        }
+
+        private String getFilter(int value) {
+            return String.format(format, value, value + 10);
+        }
+    }
+
+    @Param({"EQUALS", "NOT_EQUALS", "IS", "IS_NOT", "COMPARE", "COMPARE_STRING", "RANGE", "RANGE_INVERTED",
+            "STRING_RANGE", "STRING_RANGE_INVERTED", "IN", "NOT_IN", "BOOLEAN_EXPR"})
+    public IndexType indexType;
+
+    @Param({"100", "1000"})
+    public int numFilters;
+
+    private EPServiceProviderSPI engine;
+    private FilterService filterService;
+    private EventBean[] events;
+
+    @Setup
+    public void setup()
+    {
+        Configuration configuration = new Configuration();
+        configuration.addEventType("IndexEvent", IndexEvent.class);
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        engine = (EPServiceProviderSPI) EPServiceProviderManager.getProvider(this.getClass().getName() + "_" + indexType + "_" + numFilters, configuration);
+        filterService = engine.getFilterService();
+
+        for (int i = 0; i < numFilters; i++) {
+            engine.getEPAdministrator().createEPL("select * from IndexEvent(" + indexType.getFilter(i) + ")");
+        }
+
+        events = new EventBean[1024];
+        for (int i = 0; i < events.length; i++) {
+            int id = i % (numFilters * 2);
+            events[i] = engine.getEventAdapterService().adapterForBean(new IndexEvent(id, "n" + id));
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        engine.destroy();
+    }
+
+    @Benchmark
+    public void evaluate(EvaluatorState state, Blackhole blackhole)
+    {
+        EventBean theEvent = events[state.count++ & (events.length - 1)];
+        blackhole.consume(filterService.evaluate(theEvent, state.matches));
+        state.matches.clear();
+    }
+
+    @State(Scope.Thread)
+    public static class EvaluatorState
+    {
+        private final List<FilterHandle> matches = new ArrayList<FilterHandle>();
+        private int count;
+    }
+
+    public static class IndexEvent
+    {
+        private final int id;
+        private final String name;
+
+        public IndexEvent(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
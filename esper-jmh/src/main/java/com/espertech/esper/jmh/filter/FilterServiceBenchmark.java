@@ -0,0 +1,162 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.jmh.filter;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.filter.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter service evaluation throughput per filter service profile.
+ * <p>
+ * Run with increasing thread counts to compare the scaling of the profiles, for example
+ * <pre>java -jar target/benchmarks.jar FilterServiceBenchmark.evaluate -t 8</pre>
+ * The "churn" group evaluates on all but one thread while the remaining thread adds and removes filters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterServiceBenchmark
+{
+    @Param({"READMOSTLY", "READWRITE", "LOCKFREE"})
+    public ConfigurationEngineDefaults.FilterServiceProfile profile;
+
+    @Param({"1000"})
+    public int numFilters;
+
+    private EPServiceProviderSPI engine;
+    private FilterServiceSPI filterService;
+    private EventType eventType;
+    private EventBean[] events;
+
+    @Setup
+    public void setup()
+    {
+        Configuration configuration = new Configuration();
+        configuration.addEventType("FilterEvent", FilterEvent.class);
+        engine = (EPServiceProviderSPI) EPServiceProviderManager.getProvider(this.getClass().getName() + "_" + profile, configuration);
+        eventType = engine.getEventAdapterService().getExistsTypeByName("FilterEvent");
+        filterService = FilterServiceProvider.newService(profile, false);
+
+        // equals, in and relational operator filters
+        for (int i = 0; i < numFilters; i++) {
+            filterService.add(makeFilter("id", FilterOperator.EQUAL, i), new BenchmarkFilterHandle(i));
+        }
+        for (int i = 0; i < numFilters / 10; i++) {
+            filterService.add(makeFilter("id", FilterOperator.IN_LIST_OF_VALUES, new MultiKeyUntyped(new Object[] {i, i + 1, i + 2})), new BenchmarkFilterHandle(i));
+            filterService.add(makeFilter("price", FilterOperator.GREATER, (double) i * 10), new BenchmarkFilterHandle(i));
+        }
+
+        events = new EventBean[1024];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = engine.getEventAdapterService().adapterForBean(new FilterEvent(i % (numFilters * 2), i % 10));
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        filterService.destroy();
+        engine.destroy();
+    }
+
+    @Benchmark
+    public void evaluate(EvaluatorState state, Blackhole blackhole)
+    {
+        evaluateNext(state, blackhole);
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(3)
+    public void churnEvaluate(EvaluatorState state, Blackhole blackhole)
+    {
+        evaluateNext(state, blackhole);
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(1)
+    public void churnAddRemove(ChurnState state)
+    {
+        int value = numFilters + (state.count++ % numFilters);
+        FilterServiceEntry entry = filterService.add(makeFilter("id", FilterOperator.EQUAL, value), state.handle);
+        filterService.remove(state.handle, entry);
+    }
+
+    private void evaluateNext(EvaluatorState state, Blackhole blackhole)
+    {
+        EventBean theEvent = events[state.count++ & (events.length - 1)];
+        blackhole.consume(filterService.evaluate(theEvent, state.matches));
+        state.matches.clear();
+    }
+
+    private FilterValueSet makeFilter(String property, FilterOperator operator, Object value)
+    {
+        FilterSpecLookupable lookupable = new FilterSpecLookupable(property, eventType.getGetter(property), eventType.getPropertyType(property), false);
+        FilterValueSetParam param = new FilterValueSetParamImpl(lookupable, operator, value);
+        return new FilterValueSetImpl(eventType, new FilterValueSetParam[][] {{param}});
+    }
+
+    @State(Scope.Thread)
+    public static class EvaluatorState
+    {
+        private final List<FilterHandle> matches = new ArrayList<FilterHandle>();
+        private int count;
+    }
+
+    @State(Scope.Thread)
+    public static class ChurnState
+    {
+        private final BenchmarkFilterHandle handle = new BenchmarkFilterHandle(-1);
+        private int count;
+    }
+
+    public static class FilterEvent
+    {
+        private final int id;
+        private final double price;
+
+        public FilterEvent(int id, double price) {
+            this.id = id;
+            this.price = price;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+    }
+
+    private static class BenchmarkFilterHandle implements FilterHandle
+    {
+        private final int statementId;
+
+        private BenchmarkFilterHandle(int statementId) {
+            this.statementId = statementId;
+        }
+
+        public int getStatementId() {
+            return statementId;
+        }
+    }
+}
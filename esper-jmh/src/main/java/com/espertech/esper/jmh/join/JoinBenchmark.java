@@ -0,0 +1,127 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.jmh.join;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-stream inner join over length windows by key equality, with an unkeyed range condition for the
+ * "range" join type. Events alternate between the left and the right stream.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JoinBenchmark
+{
+    public enum JoinType
+    {
+        KEYED("l.joinKey = r.joinKey"),
+        KEYED_RANGE("l.joinKey = r.joinKey and r.value between l.value - 10 and l.value + 10"),
+        RANGE("r.value between l.value - 1 and l.value + 1");
+
+        private final String where;
+
+        JoinType(String where) {
+            this.where = where;
+        }
+    }
+
+    @Param({"KEYED", "KEYED_RANGE", "RANGE"})
+    public JoinType joinType;
+
+    @Param({"1000", "10000"})
+    public int windowSize;
+
+    private EPServiceProvider engine;
+    private EPRuntime runtime;
+    private Object[] events;
+    private int count;
+
+    @Setup
+    public void setup()
+    {
+        Configuration configuration = new Configuration();
+        configuration.addEventType("JoinLeft", JoinLeft.class);
+        configuration.addEventType("JoinRight", JoinRight.class);
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        engine = EPServiceProviderManager.getProvider(this.getClass().getName() + "_" + joinType + "_" + windowSize, configuration);
+        runtime = engine.getEPRuntime();
+        engine.getEPAdministrator().createEPL("select * from " +
+                "JoinLeft.win:length(" + windowSize + ") as l, JoinRight.win:length(" + windowSize + ") as r " +
+                "where " + joinType.where);
+
+        Random random = new Random(0);
+        events = new Object[1024];
+        for (int i = 0; i < events.length; i++) {
+            String key = "K" + random.nextInt(windowSize);
+            double value = random.nextDouble() * windowSize;
+            events[i] = i % 2 == 0 ? new JoinLeft(key, value) : new JoinRight(key, value);
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        engine.destroy();
+    }
+
+    @Benchmark
+    public void join()
+    {
+        runtime.sendEvent(events[count++ & (events.length - 1)]);
+    }
+
+    public static class JoinLeft
+    {
+        private final String joinKey;
+        private final double value;
+
+        public JoinLeft(String joinKey, double value) {
+            this.joinKey = joinKey;
+            this.value = value;
+        }
+
+        public String getJoinKey() {
+            return joinKey;
+        }
+
+        public double getValue() {
+            return value;
+        }
+    }
+
+    public static class JoinRight
+    {
+        private final String joinKey;
+        private final double value;
+
+        public JoinRight(String joinKey, double value) {
+            this.joinKey = joinKey;
+            this.value = value;
+        }
+
+        public String getJoinKey() {
+            return joinKey;
+        }
+
+        public double getValue() {
+            return value;
+        }
+    }
+}
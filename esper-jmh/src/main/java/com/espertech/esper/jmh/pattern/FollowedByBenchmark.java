@@ -0,0 +1,98 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.jmh.pattern;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pattern followed-by spawning: each start event spawns a followed-by sub-expression, and each end
+ * event completes the sub-expression spawned the given number of start events earlier, so that the
+ * number of active sub-expressions stays the same.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FollowedByBenchmark
+{
+    @Param({"100", "10000"})
+    public int numActive;
+
+    @Param({"false", "true"})
+    public boolean withTimer;
+
+    private EPServiceProvider engine;
+    private EPRuntime runtime;
+    private int count;
+
+    @Setup
+    public void setup()
+    {
+        Configuration configuration = new Configuration();
+        configuration.addEventType("StartEvent", StartEvent.class);
+        configuration.addEventType("EndEvent", EndEvent.class);
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        engine = EPServiceProviderManager.getProvider(this.getClass().getName() + "_" + numActive + "_" + withTimer, configuration);
+        runtime = engine.getEPRuntime();
+        String end = withTimer ? "(b=EndEvent(id=a.id) and not timer:interval(1 hour))" : "b=EndEvent(id=a.id)";
+        engine.getEPAdministrator().createEPL("select * from pattern [every a=StartEvent -> " + end + "]");
+        for (int i = 0; i < numActive; i++) {
+            runtime.sendEvent(new StartEvent(i));
+        }
+        count = numActive;
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        engine.destroy();
+    }
+
+    @Benchmark
+    public void spawnAndComplete()
+    {
+        runtime.sendEvent(new StartEvent(count));
+        runtime.sendEvent(new EndEvent(count - numActive));
+        count++;
+    }
+
+    public static class StartEvent
+    {
+        private final int id;
+
+        public StartEvent(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+    }
+
+    public static class EndEvent
+    {
+        private final int id;
+
+        public EndEvent(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+    }
+}
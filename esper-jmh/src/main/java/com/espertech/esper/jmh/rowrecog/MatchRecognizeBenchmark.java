@@ -0,0 +1,93 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.jmh.rowrecog;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Match-recognize NFA matching of a partitioned pattern with a reluctant and a greedy quantifier.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchRecognizeBenchmark
+{
+    @Param({"1", "1000"})
+    public int numPartitions;
+
+    private EPServiceProvider engine;
+    private EPRuntime runtime;
+    private RowEvent[] events;
+    private int count;
+
+    @Setup
+    public void setup()
+    {
+        Configuration configuration = new Configuration();
+        configuration.addEventType("RowEvent", RowEvent.class);
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        engine = EPServiceProviderManager.getProvider(this.getClass().getName() + "_" + numPartitions, configuration);
+        runtime = engine.getEPRuntime();
+        engine.getEPAdministrator().createEPL("select * from RowEvent match_recognize (" +
+                " partition by partitionId" +
+                " measures A.value as a, last(B.value) as b, first(C.value) as c" +
+                " pattern (A B*? C+)" +
+                " define" +
+                "  A as A.value < 20," +
+                "  B as B.value between 20 and 80," +
+                "  C as C.value > 80)");
+
+        Random random = new Random(0);
+        events = new RowEvent[1024];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new RowEvent("P" + random.nextInt(numPartitions), random.nextInt(100));
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        engine.destroy();
+    }
+
+    @Benchmark
+    public void match()
+    {
+        runtime.sendEvent(events[count++ & (events.length - 1)]);
+    }
+
+    public static class RowEvent
+    {
+        private final String partitionId;
+        private final int value;
+
+        public RowEvent(String partitionId, int value) {
+            this.partitionId = partitionId;
+            this.value = value;
+        }
+
+        public String getPartitionId() {
+            return partitionId;
+        }
+
+        public int getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.jmh.schedule;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.schedule.ScheduleHandle;
+import com.espertech.esper.schedule.SchedulingServiceProvider;
+import com.espertech.esper.schedule.SchedulingServiceSPI;
+import com.espertech.esper.timer.TimeSourceServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduling service add, remove and evaluate per scheduling service profile.
+ * <p>
+ * The service holds a steady number of schedules. Each operation advances time by one millisecond,
+ * evaluates and re-adds the schedules that are due, the same way time windows and pattern timers do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulingServiceBenchmark
+{
+    @Param({"SORTED", "TIMINGWHEEL"})
+    public ConfigurationEngineDefaults.SchedulingServiceProfile profile;
+
+    @Param({"1000", "100000"})
+    public int numSchedules;
+
+    @Param({"10000"})
+    public int maxDelay;
+
+    private SchedulingServiceSPI schedulingService;
+    private BenchmarkScheduleHandle[] handles;
+    private List<ScheduleHandle> triggered;
+    private Random random;
+    private long currentTime;
+    private int next;
+
+    @Setup
+    public void setup()
+    {
+        schedulingService = SchedulingServiceProvider.newService(profile, new TimeSourceServiceImpl());
+        schedulingService.setTime(0);
+        triggered = new ArrayList<ScheduleHandle>();
+        random = new Random(0);
+        handles = new BenchmarkScheduleHandle[numSchedules];
+        for (int i = 0; i < numSchedules; i++) {
+            handles[i] = new BenchmarkScheduleHandle(i);
+            schedulingService.add(1 + random.nextInt(maxDelay), handles[i], i);
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        schedulingService.destroy();
+    }
+
+    @Benchmark
+    public void addEvaluate(Blackhole blackhole)
+    {
+        currentTime++;
+        schedulingService.setTime(currentTime);
+        schedulingService.evaluate(triggered);
+        for (ScheduleHandle handle : triggered) {
+            schedulingService.add(1 + random.nextInt(maxDelay), handle, ((BenchmarkScheduleHandle) handle).statementId);
+        }
+        blackhole.consume(triggered.size());
+        triggered.clear();
+    }
+
+    @Benchmark
+    public void addRemove()
+    {
+        BenchmarkScheduleHandle handle = handles[next];
+        next = next + 1 == handles.length ? 0 : next + 1;
+        schedulingService.remove(handle, handle.statementId);
+        schedulingService.add(1 + random.nextInt(maxDelay), handle, handle.statementId);
+    }
+
+    private static class BenchmarkScheduleHandle implements ScheduleHandle
+    {
+        private final int statementId;
+
+        private BenchmarkScheduleHandle(int statementId) {
+            this.statementId = statementId;
+        }
+
+        public int getStatementId() {
+            return statementId;
+        }
+
+        public int getAgentInstanceId() {
+            return 0;
+        }
+    }
+}
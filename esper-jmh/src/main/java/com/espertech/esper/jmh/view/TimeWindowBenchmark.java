@@ -0,0 +1,84 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.jmh.view;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time window churn: every event advances time by one millisecond, so that each event enters the
+ * time window and, once the window is filled, one event expires.
+ * <p>
+ * The window size is the number of events the time window holds.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeWindowBenchmark
+{
+    @Param({"SORTED", "TIMINGWHEEL"})
+    public ConfigurationEngineDefaults.SchedulingServiceProfile profile;
+
+    @Param({"1000", "100000"})
+    public int windowSize;
+
+    private EPServiceProvider engine;
+    private EPRuntime runtime;
+    private long currentTime;
+
+    @Setup
+    public void setup()
+    {
+        Configuration configuration = new Configuration();
+        configuration.addEventType("WindowEvent", WindowEvent.class);
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.getEngineDefaults().getExecution().setSchedulingServiceProfile(profile);
+        engine = EPServiceProviderManager.getProvider(this.getClass().getName() + "_" + profile + "_" + windowSize, configuration);
+        runtime = engine.getEPRuntime();
+        runtime.sendEvent(new CurrentTimeEvent(0));
+        engine.getEPAdministrator().createEPL("select irstream * from WindowEvent.win:time(" + windowSize + " msec)");
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        engine.destroy();
+    }
+
+    @Benchmark
+    public void churn()
+    {
+        currentTime++;
+        runtime.sendEvent(new CurrentTimeEvent(currentTime));
+        runtime.sendEvent(new WindowEvent(currentTime));
+    }
+
+    public static class WindowEvent
+    {
+        private final long id;
+
+        public WindowEvent(long id) {
+            this.id = id;
+        }
+
+        public long getId() {
+            return id;
+        }
+    }
+}
@@ -315,6 +315,11 @@ public class ConfigurationEngineDefaults implements Serializable
         private Integer threadPoolInboundCapacity;
         private Integer threadPoolRouteExecCapacity;
         private Integer threadPoolOutboundCapacity;
+        private boolean isThreadPoolContextHash;
+        private int threadPoolContextHashNumThreads;
+        private Integer threadPoolContextHashCapacity;
+        private boolean isThreadPoolRingBuffer;
+        private WaitStrategy threadPoolRingBufferWaitStrategy;
 
         private boolean engineFairlock;
 
@@ -347,6 +352,12 @@ public class ConfigurationEngineDefaults implements Serializable
             threadPoolInboundNumThreads = 2;
             threadPoolRouteExecNumThreads = 2;
             threadPoolOutboundNumThreads = 2;
+
+            isThreadPoolContextHash = false;
+            threadPoolContextHashNumThreads = 2;
+
+            isThreadPoolRingBuffer = false;
+            threadPoolRingBufferWaitStrategy = WaitStrategy.PARK;
         }
 
         /**
@@ -732,6 +743,104 @@ public class ConfigurationEngineDefaults implements Serializable
             this.threadPoolOutboundCapacity = capacity;
         }
 
+        /**
+         * Returns true for context-hash threading enabled, the default is false for not enabled.
+         * <p>
+         * With context-hash threading each range of hash codes of a hash-segmented context is pinned to one thread
+         * that executes all event and timer processing of the context partitions in that range.
+         * @return indicator whether context-hash threading is enabled
+         */
+        public boolean isThreadPoolContextHash()
+        {
+            return isThreadPoolContextHash;
+        }
+
+        /**
+         * Set to true for context-hash threading enabled, the default is false for not enabled.
+         * @param threadPoolContextHash indicator whether context-hash threading is enabled
+         */
+        public void setThreadPoolContextHash(boolean threadPoolContextHash)
+        {
+            isThreadPoolContextHash = threadPoolContextHash;
+        }
+
+        /**
+         * Returns the number of threads for context-hash threading, each of which owns one range of hash codes.
+         * @return number of threads
+         */
+        public int getThreadPoolContextHashNumThreads()
+        {
+            return threadPoolContextHashNumThreads;
+        }
+
+        /**
+         * Sets the number of threads for context-hash threading, each of which owns one range of hash codes.
+         * @param num number of threads, at least 1
+         */
+        public void setThreadPoolContextHashNumThreads(int num)
+        {
+            this.threadPoolContextHashNumThreads = num;
+        }
+
+        /**
+         * Returns the capacity of the queue of each context-hash thread, or null if none defined (the unbounded case, default).
+         * @return capacity or null if none defined
+         */
+        public Integer getThreadPoolContextHashCapacity()
+        {
+            return threadPoolContextHashCapacity;
+        }
+
+        /**
+         * Sets the capacity of the queue of each context-hash thread, or null if none defined (the unbounded case, default).
+         * @param capacity capacity or null if none defined
+         */
+        public void setThreadPoolContextHashCapacity(Integer capacity)
+        {
+            this.threadPoolContextHashCapacity = capacity;
+        }
+
+        /**
+         * Returns true if the engine thread pools hand work to their threads via a pre-allocated ring buffer
+         * rather than a blocking queue (default is false).
+         * @return true for ring buffer
+         */
+        public boolean isThreadPoolRingBuffer()
+        {
+            return isThreadPoolRingBuffer;
+        }
+
+        /**
+         * Set to true to have the engine thread pools hand work to their threads via a pre-allocated ring buffer
+         * rather than a blocking queue (default is false).
+         * <p>
+         * The capacity of each pool is rounded up to a power of two, and pools without a capacity
+         * use a ring buffer of 65536 slots.
+         * @param threadPoolRingBuffer true for ring buffer
+         */
+        public void setThreadPoolRingBuffer(boolean threadPoolRingBuffer)
+        {
+            isThreadPoolRingBuffer = threadPoolRingBuffer;
+        }
+
+        /**
+         * Returns the strategy by which ring buffer threads wait for work or for free capacity (default is yield).
+         * @return wait strategy
+         */
+        public WaitStrategy getThreadPoolRingBufferWaitStrategy()
+        {
+            return threadPoolRingBufferWaitStrategy;
+        }
+
+        /**
+         * Sets the strategy by which ring buffer threads wait for work or for free capacity (default is yield).
+         * @param threadPoolRingBufferWaitStrategy wait strategy
+         */
+        public void setThreadPoolRingBufferWaitStrategy(WaitStrategy threadPoolRingBufferWaitStrategy)
+        {
+            this.threadPoolRingBufferWaitStrategy = threadPoolRingBufferWaitStrategy;
+        }
+
         /**
          * Returns true if the engine-level lock is configured as a fair lock (default is false).
          * <p>
@@ -823,7 +932,37 @@ public class ConfigurationEngineDefaults implements Serializable
              * Blocking that suspends a thread and notifies a thread to wake up can be
              * more expensive then spin locks.
              */
-            SUSPEND
+            SUSPEND,
+
+            /**
+             * Non-blocking ordering by sequence number and reorder buffer: a thread never waits for another thread,
+             * and the thread that completes a gap in the sequence delivers the events that were waiting for the gap.
+             * Applies to insert-into and named window consumer dispatch, and behaves as {@link #SUSPEND} for listener dispatch.
+             */
+            REORDER
+        }
+
+        /**
+         * Enumeration of wait strategies for ring buffer thread pools.
+         */
+        public enum WaitStrategy
+        {
+            /**
+             * Threads spin without giving up the processor, for lowest latency at the cost of a fully used core per thread.
+             */
+            BUSYSPIN,
+
+            /**
+             * Threads yield the processor between attempts and park for short intervals only after a longer
+             * idle period, a compromise between latency and processor use.
+             */
+            YIELD,
+
+            /**
+             * Threads yield briefly and then park for short intervals, for lowest processor use when idle
+             * and therefore the default.
+             */
+            PARK
         }
     }
 
@@ -1135,6 +1274,7 @@ public class ConfigurationEngineDefaults implements Serializable
     public static class Variables implements Serializable
     {
         private long msecVersionRelease;
+        private VersionStorage versionStorage;
         private static final long serialVersionUID = 8276015152830052323L;
 
         /**
@@ -1143,6 +1283,7 @@ public class ConfigurationEngineDefaults implements Serializable
         protected Variables()
         {
             msecVersionRelease = 15000;
+            versionStorage = VersionStorage.LIST;
         }
 
         /**
@@ -1172,6 +1313,43 @@ public class ConfigurationEngineDefaults implements Serializable
         {
             this.msecVersionRelease = msecVersionRelease;
         }
+
+        /**
+         * Returns how the engine holds versions of variable values.
+         * @return version storage
+         */
+        public VersionStorage getVersionStorage()
+        {
+            return versionStorage;
+        }
+
+        /**
+         * Sets how the engine holds versions of variable values.
+         * @param versionStorage version storage
+         */
+        public void setVersionStorage(VersionStorage versionStorage)
+        {
+            this.versionStorage = versionStorage;
+        }
+
+        /**
+         * Storage for versions of variable values.
+         */
+        public enum VersionStorage
+        {
+            /**
+             * The current and prior version are read without locking, and older versions are held in a list
+             * that is read under a lock and expires old versions by time. This is the default.
+             */
+            LIST,
+
+            /**
+             * Versions are immutable snapshots that are all read without locking. Old versions are released as soon as
+             * no thread reads them, or at the latest after the version release time. Preferable for variables that
+             * are updated frequently and read by many statements.
+             */
+            SNAPSHOT
+        }
     }
 
     /**
@@ -1428,6 +1606,7 @@ public class ConfigurationEngineDefaults implements Serializable
         private boolean duckTyping;
         private MathContext mathContext;
         private TimeZone timeZone;
+        private boolean compileBytecode;
 
         /**
          * Ctor.
@@ -1600,6 +1779,27 @@ public class ConfigurationEngineDefaults implements Serializable
         public void setTimeZone(TimeZone timeZone) {
             this.timeZone = timeZone;
         }
+
+        /**
+         * Returns true to compile expressions of the where-clause, having-clause and select-clause into generated classes,
+         * or false (the default) to interpret expressions.
+         * @return indicator
+         */
+        public boolean isCompileBytecode() {
+            return compileBytecode;
+        }
+
+        /**
+         * Set to true to compile expressions of the where-clause, having-clause and select-clause into generated classes,
+         * or false (the default) to interpret expressions.
+         * <p>
+         * Compilation applies to arithmetic, relational, equals, and, or and not expressions and falls back
+         * to interpreted evaluation for any sub-expression that cannot be compiled.
+         * @param compileBytecode indicator
+         */
+        public void setCompileBytecode(boolean compileBytecode) {
+            this.compileBytecode = compileBytecode;
+        }
     }
 
     /**
@@ -1614,6 +1814,7 @@ public class ConfigurationEngineDefaults implements Serializable
         private ThreadingProfile threadingProfile = ThreadingProfile.NORMAL;
         private FilterServiceProfile filterServiceProfile = FilterServiceProfile.READMOSTLY;
         private int filterServiceMaxFilterWidth = 16;
+        private SchedulingServiceProfile schedulingServiceProfile = SchedulingServiceProfile.SORTED;
 
         private static final long serialVersionUID = 0L;
 
@@ -1746,6 +1947,22 @@ public class ConfigurationEngineDefaults implements Serializable
         public void setFilterServiceMaxFilterWidth(int filterServiceMaxFilterWidth) {
             this.filterServiceMaxFilterWidth = filterServiceMaxFilterWidth;
         }
+
+        /**
+         * Returns the scheduling service profile for tuning schedule operations.
+         * @return scheduling service profile
+         */
+        public SchedulingServiceProfile getSchedulingServiceProfile() {
+            return schedulingServiceProfile;
+        }
+
+        /**
+         * Set the scheduling service profile for tuning schedule operations.
+         * @param schedulingServiceProfile scheduling service profile
+         */
+        public void setSchedulingServiceProfile(SchedulingServiceProfile schedulingServiceProfile) {
+            this.schedulingServiceProfile = schedulingServiceProfile;
+        }
     }
 
     /**
@@ -1777,7 +1994,30 @@ public class ConfigurationEngineDefaults implements Serializable
         /**
          * For very dynamic filters that come and go in a highly threaded environment.
          */
-        READWRITE
+        READWRITE,
+
+        /**
+         * For filters that rarely change in a highly threaded environment: event evaluation does not lock
+         * and filter changes publish copy-on-write snapshots of filter indexes.
+         */
+        LOCKFREE
+    }
+
+    /**
+     * Scheduling service profile.
+     */
+    public enum SchedulingServiceProfile
+    {
+        /**
+         * Schedules are kept sorted by time, the default.
+         */
+        SORTED,
+
+        /**
+         * For a large number of schedules that are frequently added and removed, such as pattern timers and time windows:
+         * schedules are kept in a hierarchical timing wheel.
+         */
+        TIMINGWHEEL
     }
 
     /**
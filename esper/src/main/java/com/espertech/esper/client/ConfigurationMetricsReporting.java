@@ -29,6 +29,7 @@ public class ConfigurationMetricsReporting implements Serializable
     private boolean isThreading;
     private long engineInterval;
     private long statementInterval;
+    private int profilerSampleRate;
     private Map<String, StmtGroupMetrics> statementGroups;
     private static final long serialVersionUID = -7265780298667075895L;
 
@@ -164,6 +165,26 @@ public class ConfigurationMetricsReporting implements Serializable
         this.jmxEngineMetrics = jmxEngineMetrics;
     }
 
+    /**
+     * Returns the sample rate of the sampling profiler, i.e. the profiler samples one in every N events per thread,
+     * or zero when the profiler is not installed (default).
+     * @return sample rate or zero
+     */
+    public int getProfilerSampleRate() {
+        return profilerSampleRate;
+    }
+
+    /**
+     * Sets the sample rate of the sampling profiler, i.e. the profiler samples one in every N events per thread.
+     * <p>
+     * A positive value has the engine runtime install its own profiler when the engine initializes.
+     * Use zero to not install the profiler.
+     * @param profilerSampleRate sample rate or zero
+     */
+    public void setProfilerSampleRate(int profilerSampleRate) {
+        this.profilerSampleRate = profilerSampleRate;
+    }
+
     /**
      * Sets a new interval for a statement group identified by name.
      * @param stmtGroupName name of statement group as assigned through configuration
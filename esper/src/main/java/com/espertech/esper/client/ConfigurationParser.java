@@ -1179,6 +1179,25 @@ class ConfigurationParser {
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecNumThreads(result.getNumThreads());
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecCapacity(result.getCapacity());
             }
+            if (subElement.getNodeName().equals("threadpool-contexthash"))
+            {
+                ThreadPoolConfig result = parseThreadPoolConfig(subElement);
+                configuration.getEngineDefaults().getThreading().setThreadPoolContextHash(result.isEnabled());
+                configuration.getEngineDefaults().getThreading().setThreadPoolContextHashNumThreads(result.getNumThreads());
+                configuration.getEngineDefaults().getThreading().setThreadPoolContextHashCapacity(result.getCapacity());
+            }
+            if (subElement.getNodeName().equals("threadpool-ringbuffer"))
+            {
+                String enabledText = getRequiredAttribute(subElement, "enabled");
+                configuration.getEngineDefaults().getThreading().setThreadPoolRingBuffer(Boolean.parseBoolean(enabledText));
+
+                String waitStrategy = getOptionalAttribute(subElement, "wait-strategy");
+                if (waitStrategy != null)
+                {
+                    configuration.getEngineDefaults().getThreading().setThreadPoolRingBufferWaitStrategy(
+                            ConfigurationEngineDefaults.Threading.WaitStrategy.valueOf(waitStrategy.toUpperCase()));
+                }
+            }
         }
     }
 
@@ -1276,6 +1295,12 @@ class ConfigurationParser {
                 Long value = Long.parseLong(valueText);
                 configuration.getEngineDefaults().getVariables().setMsecVersionRelease(value);
             }
+            if (subElement.getNodeName().equals("version-storage"))
+            {
+                String valueText = getRequiredAttribute(subElement, "value");
+                ConfigurationEngineDefaults.Variables.VersionStorage value = ConfigurationEngineDefaults.Variables.VersionStorage.valueOf(valueText.toUpperCase());
+                configuration.getEngineDefaults().getVariables().setVersionStorage(value);
+            }
         }
     }
 
@@ -1417,6 +1442,12 @@ class ConfigurationParser {
             configuration.getEngineDefaults().getMetricsReporting().setJmxEngineMetrics(Boolean.parseBoolean(jmxEngineMetrics));
         }
 
+        String profilerSampleRate = getOptionalAttribute(parentElement, "profiler-sample-rate");
+        if (profilerSampleRate != null)
+        {
+            configuration.getEngineDefaults().getMetricsReporting().setProfilerSampleRate(Integer.parseInt(profilerSampleRate));
+        }
+
         DOMElementIterator nodeIterator = new DOMElementIterator(parentElement.getChildNodes());
         while (nodeIterator.hasNext())
         {
@@ -1519,6 +1550,13 @@ class ConfigurationParser {
             TimeZone timeZone = TimeZone.getTimeZone(timeZoneStr);
             configuration.getEngineDefaults().getExpression().setTimeZone(timeZone);
         }
+
+        String compileBytecodeStr = getOptionalAttribute(parentElement, "compile-bytecode");
+        if (compileBytecodeStr != null)
+        {
+            boolean compileBytecode = Boolean.parseBoolean(compileBytecodeStr);
+            configuration.getEngineDefaults().getExpression().setCompileBytecode(compileBytecode);
+        }
     }
 
     private static void handleExecution(Configuration configuration, Element parentElement)
@@ -1558,6 +1596,12 @@ class ConfigurationParser {
         {
             configuration.getEngineDefaults().getExecution().setFilterServiceMaxFilterWidth(Integer.parseInt(filterServiceMaxFilterWidthStr));
         }
+        String schedulingServiceProfileStr = getOptionalAttribute(parentElement, "scheduling-service-profile");
+        if (schedulingServiceProfileStr != null)
+        {
+            ConfigurationEngineDefaults.SchedulingServiceProfile profile = ConfigurationEngineDefaults.SchedulingServiceProfile.valueOf(schedulingServiceProfileStr.toUpperCase());
+            configuration.getEngineDefaults().getExecution().setSchedulingServiceProfile(profile);
+        }
         String allowIsolatedServiceStr = getOptionalAttribute(parentElement, "allow-isolated-service");
         if (allowIsolatedServiceStr != null)
         {
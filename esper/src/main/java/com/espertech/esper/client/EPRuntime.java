@@ -76,6 +76,48 @@ public interface EPRuntime
      */
     public void sendEvent(org.w3c.dom.Node node) throws EPException;
 
+    /**
+     * Send a batch of events represented by plain Java objects to the event stream processing runtime.
+     * <p>
+     * Each event is processed and its results are delivered to listeners before the next event of the batch
+     * is processed, exactly as if each event was sent via {@link #sendEvent(Object)} in array order.
+     * The runtime however sets up event processing once per batch, and keeps the engine lock across consecutive
+     * events of the batch that produce no results to deliver, so statement management waits until such events are processed.
+     * Null array elements are ignored.
+     *
+     * @param events is the events to send to the runtime
+     * @throws EPException is thrown when the processing of an event lead to an error, in which case the remaining events of the batch are not processed
+     */
+    public void sendEventBatch(Object[] events) throws EPException;
+
+    /**
+     * Send a batch of maps containing event property values to the event stream processing runtime.
+     * <p>
+     * Each event is processed and its results are delivered to listeners before the next event of the batch
+     * is processed, exactly as if each event was sent via {@link #sendEvent(java.util.Map, String)} in array order.
+     * The runtime however resolves the event type and sets up event processing once per batch, and keeps the engine lock
+     * across consecutive events of the batch that produce no results to deliver.
+     *
+     * @param maps - maps that contain event property values
+     * @param mapEventTypeName - the name for the Map event type that was previously configured
+     * @throws EPException - when the processing of an event leads to an error, in which case the remaining events of the batch are not processed
+     */
+    public void sendEventBatch(Map[] maps, String mapEventTypeName) throws EPException;
+
+    /**
+     * Send a batch of object arrays containing event property values to the event stream processing runtime.
+     * <p>
+     * Each event is processed and its results are delivered to listeners before the next event of the batch
+     * is processed, exactly as if each event was sent via {@link #sendEvent(Object[], String)} in array order.
+     * The runtime however resolves the event type and sets up event processing once per batch, and keeps the engine lock
+     * across consecutive events of the batch that produce no results to deliver.
+     *
+     * @param objectarrays - arrays that contain event property values, each in the order the properties have been declared
+     * @param objectArrayEventTypeName - the name for the Object-array event type that was previously configured
+     * @throws EPException - when the processing of an event leads to an error, in which case the remaining events of the batch are not processed
+     */
+    public void sendEventBatch(Object[][] objectarrays, String objectArrayEventTypeName) throws EPException;
+
     /**
      * Number of events evaluated over the lifetime of the event stream processing runtime,
      * or since the last resetStats() call.
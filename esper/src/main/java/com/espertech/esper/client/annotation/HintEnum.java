@@ -63,6 +63,14 @@ public enum HintEnum
      */
     DISABLE_WINDOW_SUBQUERY_INDEXSHARE("DISABLE_WINDOW_SUBQUERY_INDEXSHARE", false, false, false),
 
+    /**
+     * For use with create-named-window statements only, to indicate that the named window keeps the property values of
+     * object-array and map events in direct memory outside of the Java heap, and on-heap only a handle per event.
+     * <p>
+     * Requires a single keep-all, unique, length, time, length-batch, time-batch, externally-timed or last-event data window.
+     */
+    ENABLE_WINDOW_OFFHEAP_STORAGE("ENABLE_WINDOW_OFFHEAP_STORAGE", false, false, false),
+
     /**
      * For use with subqueries and on-select, on-merge, on-update and on-delete to specify the query engine neither
      * build an implicit index nor use an existing index, always performing a full table scan.
@@ -107,7 +115,22 @@ public enum HintEnum
     /**
      * For use with output rate limiting to enable certain optimization that may however change output.
      */
-    ENABLE_OUTPUTLIMIT_OPT("ENABLE_OUTPUTLIMIT_OPT", false, false, false);
+    ENABLE_OUTPUTLIMIT_OPT("ENABLE_OUTPUTLIMIT_OPT", false, false, false),
+
+    /**
+     * For use with group-by, keep aggregation state for all groups in primitive arrays indexed by group rather than in per-group aggregators.
+     */
+    ENABLE_COLUMNAR_AGGREGATION("ENABLE_COLUMNAR_AGGREGATION", false, false, false),
+
+    /**
+     * For use with fire-and-forget queries, the maximum number of parts to filter events and context partitions in parallel.
+     */
+    PARALLEL_QUERY("PARALLEL_QUERY", true, true, false),
+
+    /**
+     * For use with create-table, the number of lock stripes that rows are assigned to by primary key, allowing into-table aggregation into different rows to proceed concurrently.
+     */
+    TABLE_LOCK_STRIPES("TABLE_LOCK_STRIPES", true, true, false);
 
     private final String value;
     private final boolean acceptsParameters;
@@ -17,6 +17,7 @@ public class EngineMetric extends MetricEvent
     private final long inputCount;
     private final long inputCountDelta;
     private final long scheduleDepth;
+    private final LatencyHistogram latency;
 
     /**
      * Ctor.
@@ -27,12 +28,27 @@ public class EngineMetric extends MetricEvent
      * @param scheduleDepth schedule depth
      */
     public EngineMetric(String engineURI, long timestamp, long inputCount, long inputCountDelta, long scheduleDepth)
+    {
+        this(engineURI, timestamp, inputCount, inputCountDelta, scheduleDepth, new LatencyHistogram());
+    }
+
+    /**
+     * Ctor.
+     * @param engineURI engine URI
+     * @param timestamp engine timestamp
+     * @param inputCount number of input events
+     * @param inputCountDelta number of input events since last
+     * @param scheduleDepth schedule depth
+     * @param latency event processing latency since last
+     */
+    public EngineMetric(String engineURI, long timestamp, long inputCount, long inputCountDelta, long scheduleDepth, LatencyHistogram latency)
     {
         super(engineURI);
         this.timestamp = timestamp;
         this.inputCount = inputCount;
         this.inputCountDelta = inputCountDelta;
         this.scheduleDepth = scheduleDepth;
+        this.latency = latency;
     }
 
     /**
@@ -69,4 +85,13 @@ public class EngineMetric extends MetricEvent
     public long getInputCountDelta() {
         return inputCountDelta;
     }
+
+    /**
+     * Returns the histogram of event processing wall times since last reporting period,
+     * one value per event sent into the engine.
+     * @return event processing latency histogram
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
 }
@@ -0,0 +1,217 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.client.metric;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram in nanoseconds with fixed memory and lock-free recording.
+ * <p>
+ * Values are counted in log-linear buckets: values below 32 nanoseconds are counted exactly,
+ * larger values fall into one of 16 linear sub-buckets per power of two, for a relative error
+ * of at most 1/16 (6.25%). Values at or above 2^40 nanoseconds (about 18 minutes) are counted in the
+ * last bucket.
+ * <p>
+ * Recording is a single atomic increment plus a maximum comparison and may be performed by
+ * multiple threads concurrently. Reads are not atomic in respect to concurrent recording.
+ */
+public class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+    private static final int MAX_VALUE_BITS = 40;
+    private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_VALUE_BITS - SUB_BUCKET_BITS) * SUB_BUCKET_HALF;
+
+    private final AtomicLongArray counts;
+    private final AtomicLong max;
+
+    /**
+     * Ctor.
+     */
+    public LatencyHistogram()
+    {
+        counts = new AtomicLongArray(BUCKET_COUNT);
+        max = new AtomicLong();
+    }
+
+    /**
+     * Records a latency value.
+     * @param nanos latency in nanoseconds, negative values count as zero
+     */
+    public void record(long nanos)
+    {
+        if (nanos < 0)
+        {
+            nanos = 0;
+        }
+        counts.incrementAndGet(getBucketIndex(nanos));
+
+        long currentMax = max.get();
+        while (nanos > currentMax)
+        {
+            if (max.compareAndSet(currentMax, nanos))
+            {
+                break;
+            }
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Adds all values recorded by another histogram to this histogram.
+     * @param other to add
+     */
+    public void add(LatencyHistogram other)
+    {
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            long count = other.counts.get(i);
+            if (count != 0)
+            {
+                counts.addAndGet(i, count);
+            }
+        }
+        long otherMax = other.getMax();
+        long currentMax = max.get();
+        while (otherMax > currentMax)
+        {
+            if (max.compareAndSet(currentMax, otherMax))
+            {
+                break;
+            }
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Returns the number of values recorded.
+     * @return count
+     */
+    public long getCount()
+    {
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the largest value recorded in nanoseconds.
+     * @return maximum or zero if none recorded
+     */
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    /**
+     * Returns the value in nanoseconds at or below which the given percentage of recorded values fall.
+     * <p>
+     * The value returned is the upper bound of the bucket that holds the percentile, and never exceeds the maximum.
+     * @param percentile percentile between 0 and 100
+     * @return value or zero if none recorded
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0)
+        {
+            return 0;
+        }
+
+        double bounded = Math.min(Math.max(percentile, 0d), 100d);
+        long target = Math.max(1, (long) (bounded / 100d * total + 0.5d));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            cumulative += snapshot[i];
+            if (cumulative >= target)
+            {
+                return Math.min(getBucketUpperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Returns the median latency in nanoseconds.
+     * @return 50th percentile
+     */
+    public long getP50()
+    {
+        return getValueAtPercentile(50);
+    }
+
+    /**
+     * Returns the 99th percentile latency in nanoseconds.
+     * @return 99th percentile
+     */
+    public long getP99()
+    {
+        return getValueAtPercentile(99);
+    }
+
+    /**
+     * Returns the 99.9th percentile latency in nanoseconds.
+     * @return 99.9th percentile
+     */
+    public long getP999()
+    {
+        return getValueAtPercentile(99.9);
+    }
+
+    public String toString()
+    {
+        return "LatencyHistogram{" +
+                "count=" + getCount() +
+                ", p50=" + getP50() +
+                ", p99=" + getP99() +
+                ", p999=" + getP999() +
+                ", max=" + getMax() +
+                '}';
+    }
+
+    private static int getBucketIndex(long value)
+    {
+        if (value < SUB_BUCKET_COUNT)
+        {
+            return (int) value;
+        }
+        if (value > MAX_VALUE)
+        {
+            value = MAX_VALUE;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> shift);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (subBucket - SUB_BUCKET_HALF);
+    }
+
+    private static long getBucketUpperBound(int index)
+    {
+        if (index < SUB_BUCKET_COUNT)
+        {
+            return index;
+        }
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / SUB_BUCKET_HALF + 1;
+        long subBucket = offset % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
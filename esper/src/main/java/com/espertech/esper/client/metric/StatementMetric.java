@@ -22,6 +22,8 @@ public class StatementMetric extends MetricEvent
     private AtomicLong numInput;
     private AtomicLong numOutputRStream;
     private AtomicLong numOutputIStream;
+    private LatencyHistogram latency;
+    private LatencyHistogram dispatchLatency;
 
     /**
      * Ctor.
@@ -37,6 +39,8 @@ public class StatementMetric extends MetricEvent
         this.numOutputIStream = new AtomicLong();
         this.numOutputRStream = new AtomicLong();
         this.numInput = new AtomicLong();
+        this.latency = new LatencyHistogram();
+        this.dispatchLatency = new LatencyHistogram();
     }
 
     /**
@@ -154,4 +158,22 @@ public class StatementMetric extends MetricEvent
     {
         numInput.addAndGet(numInputAdd);
     }
+
+    /**
+     * Returns the histogram of statement processing wall times, one value per processing invocation.
+     * @return processing latency histogram
+     */
+    public LatencyHistogram getLatency()
+    {
+        return latency;
+    }
+
+    /**
+     * Returns the histogram of wall times for delivering statement results to listeners and subscribers.
+     * @return listener dispatch latency histogram
+     */
+    public LatencyHistogram getDispatchLatency()
+    {
+        return dispatchLatency;
+    }
 }
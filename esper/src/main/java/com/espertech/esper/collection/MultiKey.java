@@ -8,6 +8,8 @@
  **************************************************************************************/
 package com.espertech.esper.collection;
 
+import com.espertech.esper.util.MurmurHash;
+
 import java.util.Arrays;
 
 /**
@@ -31,16 +33,7 @@ public final class MultiKey<T>
             throw new IllegalArgumentException("The array of keys must not be null");
         }
 
-        int total = 0;
-        for (int i = 0; i < keys.length; i++)
-        {
-            if (keys[i] != null) {
-                total *= 31;
-                total ^= keys[i].hashCode();
-            }
-        }
-
-        this.hashCode = total;
+        this.hashCode = MurmurHash.hashObjects(keys);
         this.keys = keys;
     }
 
@@ -8,6 +8,8 @@
  **************************************************************************************/
 package com.espertech.esper.collection;
 
+import com.espertech.esper.util.MurmurHash;
+
 import java.util.Arrays;
 
 public final class MultiKeyInt
@@ -34,7 +36,7 @@ public final class MultiKeyInt
     }
 
     public int hashCode() {
-        return Arrays.hashCode(keys);
+        return MurmurHash.hashInts(keys);
     }
 }
 
@@ -9,6 +9,7 @@
 package com.espertech.esper.collection;
 
 import com.espertech.esper.util.MetaDefItem;
+import com.espertech.esper.util.MurmurHash;
 
 import java.util.Arrays;
 import java.io.Serializable;
@@ -16,7 +17,8 @@ import java.io.Serializable;
 /**
  * Functions as a key value for Maps where keys need to be composite values.
  * The class allows a Map that uses MultiKeyUntyped entries for key values to use multiple objects as keys.
- * It calculates the hashCode from the key objects on construction and caches the hashCode.
+ * It calculates the hashCode from the key objects on construction, using MurmurHash mixing so that keys that
+ * differ only in the order of their values or that repeat a value spread well, and caches the hashCode.
  */
 public final class MultiKeyUntyped implements MetaDefItem, Serializable
 {
@@ -35,16 +37,7 @@ public final class MultiKeyUntyped implements MetaDefItem, Serializable
             throw new IllegalArgumentException("The array of keys must not be null");
         }
 
-        int total = 0;
-        for (int i = 0; i < keys.length; i++)
-        {
-            if (keys[i] != null) {
-                total *= 31;
-                total ^= keys[i].hashCode();
-            }
-        }
-
-        this.hashCode = total;
+        this.hashCode = MurmurHash.hashObjects(keys);
         this.keys = keys;
     }
 
@@ -9,6 +9,7 @@
 package com.espertech.esper.collection;
 
 import com.espertech.esper.util.MetaDefItem;
+import com.espertech.esper.util.MurmurHash;
 import com.espertech.esper.client.EventBean;
 
 import java.util.Arrays;
@@ -38,16 +39,7 @@ public final class MultiKeyUntypedEventPair implements MetaDefItem, Serializable
             throw new IllegalArgumentException("The array of keys must not be null");
         }
 
-        int total = 0;
-        for (int i = 0; i < keys.length; i++)
-        {
-            if (keys[i] != null) {
-                total *= 31;
-                total ^= keys[i].hashCode();
-            }
-        }
-
-        this.hashCode = total;
+        this.hashCode = MurmurHash.hashObjects(keys);
         this.keys = keys;
         this.eventBean = eventBean;
     }
@@ -12,7 +12,8 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.view.DataWindowViewFactory;
 import com.espertech.esper.view.ViewDataVisitor;
 
-import java.util.*;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * Container for events per time slot. The time is provided as long milliseconds by client classes.
@@ -20,16 +21,32 @@ import java.util.*;
  * Events can be expired from the window via the expireEvents method when their timestamp is before
  * (or less then) an expiry timestamp passed in. Expiry removes the event from the window.
  * The window allows iteration through its contents.
- *
+ * <p>
  * It is assumed that the timestamp passed to the add method is ascending. The window is backed by a
- * collection reflecting the timestamp order rather then any sorted map or linked hash map for performance reasons.
+ * ring buffer of parallel timestamp and event arrays reflecting the timestamp order rather then any sorted map
+ * or linked hash map for performance reasons, and does not allocate per event added.
+ * <p>
+ * When removal is supported the window keeps an open-addressing reverse index of event and ring buffer position.
+ * Removing an event leaves an empty slot that is skipped by iteration and expiry.
  */
-public final class TimeWindow implements Iterable
+public final class TimeWindow implements Iterable<EventBean>
 {
-    private ArrayDeque<TimeWindowPair> window;
-    private Map<EventBean, TimeWindowPair> reverseIndex;
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Ring buffer, the slot for a sequence number is the sequence number masked
+    private long[] timestamps;
+    private EventBean[] events;
+    private int mask;
+    private long headSequence;
+    private long tailSequence;
     private int size;
 
+    // Reverse index of event and sequence number, when removal is supported
+    private final boolean isSupportRemoveStream;
+    private EventBean[] indexKeys;
+    private long[] indexSequences;
+    private int indexSize;
+
     /**
      * Ctor.
      * @param isSupportRemoveStream true to indicate the time window should support effective removal of events
@@ -37,11 +54,15 @@ public final class TimeWindow implements Iterable
      */
     public TimeWindow(boolean isSupportRemoveStream)
     {
-        this.window = new ArrayDeque<TimeWindowPair>();
+        this.timestamps = new long[INITIAL_CAPACITY];
+        this.events = new EventBean[INITIAL_CAPACITY];
+        this.mask = INITIAL_CAPACITY - 1;
+        this.isSupportRemoveStream = isSupportRemoveStream;
 
         if (isSupportRemoveStream)
         {
-            reverseIndex = new HashMap<EventBean, TimeWindowPair>();
+            indexKeys = new EventBean[INITIAL_CAPACITY];
+            indexSequences = new long[INITIAL_CAPACITY];
         }
     }
 
@@ -51,9 +72,9 @@ public final class TimeWindow implements Iterable
      */
     public void adjust(long delta)
     {
-        for (TimeWindowPair data : window)
+        for (long sequence = headSequence; sequence < tailSequence; sequence++)
         {
-            data.setTimestamp(data.getTimestamp() + delta);
+            timestamps[(int) sequence & mask] += delta;
         }
     }
 
@@ -64,52 +85,38 @@ public final class TimeWindow implements Iterable
      */
     public final void add(long timestamp, EventBean bean)
     {
-        // Empty window
-        if (window.isEmpty())
+        if (tailSequence - headSequence == events.length)
         {
-            TimeWindowPair pair = new TimeWindowPair(timestamp, bean);
-            window.add(pair);
-
-            if (reverseIndex != null) {
-                reverseIndex.put(bean, pair);
-            }
-            size = 1;
-            return;
+            resize(events.length << 1);
         }
+        int slot = (int) tailSequence & mask;
+        timestamps[slot] = timestamp;
+        events[slot] = bean;
+        if (indexKeys != null) {
+            indexPut(bean, tailSequence);
+        }
+        tailSequence++;
+        size++;
+    }
 
-        TimeWindowPair lastPair = window.getLast();
-
-        // Windows last timestamp matches the one supplied
-        if (lastPair.getTimestamp() == timestamp)
+    /**
+     * Adds event to the time window for the specified timestamp, or if the event is already in the window,
+     * changes the event's timestamp keeping its position. Requires remove stream handling to be enabled.
+     * @param timestamp - the time slot for the event
+     * @param bean - event to add
+     */
+    public final void put(long timestamp, EventBean bean)
+    {
+        if (indexKeys == null)
         {
-            if (lastPair.getEventHolder() instanceof List) {
-                List<EventBean> list = (List<EventBean>) lastPair.getEventHolder();
-                list.add(bean);
-            }
-            else if (lastPair.getEventHolder() == null) {
-                lastPair.setEventHolder(bean);
-            }
-            else {
-                EventBean existing = (EventBean) lastPair.getEventHolder();
-                List<EventBean> list = new ArrayList<EventBean>(4);
-                list.add(existing);
-                list.add(bean);
-                lastPair.setEventHolder(list);
-            }
-            if (reverseIndex != null) {
-                reverseIndex.put(bean, lastPair);
-            }
-            size++;
-            return;
+            throw new UnsupportedOperationException("Time window does not accept event replacement");
         }
-
-        // Append to window
-        TimeWindowPair pair = new TimeWindowPair(timestamp, bean);
-        if (reverseIndex != null) {
-            reverseIndex.put(bean, pair);
+        int indexSlot = indexFind(bean);
+        if (indexSlot == -1) {
+            add(timestamp, bean);
+            return;
         }
-        window.add(pair);
-        size++;
+        timestamps[(int) indexSequences[indexSlot] & mask] = timestamp;
     }
 
     /**
@@ -118,79 +125,129 @@ public final class TimeWindow implements Iterable
      */
     public final void remove(EventBean theEvent)
     {
-        if (reverseIndex == null)
+        if (indexKeys == null)
         {
             throw new UnsupportedOperationException("Time window does not accept event removal");
         }
-        TimeWindowPair pair = reverseIndex.get(theEvent);
-        if (pair != null) {
-            if (pair.getEventHolder() != null && pair.getEventHolder().equals(theEvent)) {
-                pair.setEventHolder(null);
-                size--;
-            }
-            else if (pair.getEventHolder() != null) {
-                List<EventBean> list = (List<EventBean>) pair.getEventHolder();
-                boolean removed = list.remove(theEvent);
-                if (removed) {
-                    size--;
-                }
-            }
-            reverseIndex.remove(theEvent);
+        int indexSlot = indexFind(theEvent);
+        if (indexSlot == -1) {
+            return;
+        }
+        long sequence = indexSequences[indexSlot];
+        indexRemoveAt(indexSlot);
+
+        int slot = (int) sequence & mask;
+        if (events[slot] == null) {
+            return;
+        }
+        events[slot] = null;
+        size--;
+
+        // discard empty slots at either end
+        while (headSequence < tailSequence && events[(int) headSequence & mask] == null) {
+            headSequence++;
+        }
+        while (tailSequence > headSequence && events[(int) (tailSequence - 1) & mask] == null) {
+            tailSequence--;
         }
     }
 
     /**
      * Return and remove events in time-slots earlier (less) then the timestamp passed in,
-     * returning the list of events expired.
+     * returning the events expired.
+     * <p>
+     * The array returned is not retained by the window and can be handed to child views as is.
      * @param expireBefore is the timestamp from which on to keep events in the window
-     * @return a list of events expired and removed from the window, or null if none expired
+     * @return events expired and removed from the window, or null if none expired
      */
-    public final ArrayDeque<EventBean> expireEvents(long expireBefore)
+    public final EventBean[] expireEvents(long expireBefore)
     {
-        if (window.isEmpty())
-        {
-            return null;
+        // Determine the number of slots and events to expire, the timestamp being ascending
+        long endSequence = headSequence;
+        int count = 0;
+        while (endSequence < tailSequence) {
+            int slot = (int) endSequence & mask;
+            if (timestamps[slot] >= expireBefore) {
+                break;
+            }
+            if (events[slot] != null) {
+                count++;
+            }
+            endSequence++;
         }
-
-        TimeWindowPair pair = window.getFirst();
-
-        // If the first entry's timestamp is after the expiry date, nothing to expire
-        if (pair.getTimestamp() >= expireBefore)
-        {
+        if (endSequence == headSequence) {
             return null;
         }
 
-        ArrayDeque<EventBean> resultBeans = new ArrayDeque<EventBean>();
-
-        // Repeat until the window is empty or the timestamp is above the expiry time
-        do {
-            if (pair.getEventHolder() != null) {
-                if (pair.getEventHolder() instanceof EventBean) {
-                    resultBeans.add((EventBean) pair.getEventHolder());
-                }
-                else {
-                    resultBeans.addAll((List<EventBean>) pair.getEventHolder());
-                }
+        EventBean[] expired = count == 0 ? null : new EventBean[count];
+        int index = 0;
+        for (long sequence = headSequence; sequence < endSequence; sequence++) {
+            int slot = (int) sequence & mask;
+            EventBean theEvent = events[slot];
+            if (theEvent == null) {
+                continue;
             }
-
-            window.removeFirst();
-
-            if (window.isEmpty()) {
-                break;
+            expired[index++] = theEvent;
+            events[slot] = null;
+            if (indexKeys != null) {
+                indexRemoveExpired(theEvent, sequence);
             }
+        }
+        headSequence = endSequence;
+        size -= count;
 
-            pair = window.getFirst();
+        // discard empty slots following the expired events
+        while (headSequence < tailSequence && events[(int) headSequence & mask] == null) {
+            headSequence++;
+        }
+        if (events.length > INITIAL_CAPACITY && (tailSequence - headSequence) < (events.length >> 2)) {
+            resize(events.length >> 1);
         }
-        while (pair.getTimestamp() < expireBefore);
+        return expired;
+    }
 
-        if (reverseIndex != null) {
-            for (EventBean expired : resultBeans) {
-                reverseIndex.remove(expired);
+    /**
+     * Returns all events in the window in the order added.
+     * @return events or null if the window is empty
+     */
+    public final EventBean[] toArray()
+    {
+        if (size == 0) {
+            return null;
+        }
+        EventBean[] result = new EventBean[size];
+        int index = 0;
+        for (long sequence = headSequence; sequence < tailSequence; sequence++) {
+            EventBean theEvent = events[(int) sequence & mask];
+            if (theEvent != null) {
+                result[index++] = theEvent;
             }
         }
+        return result;
+    }
 
-        size -= resultBeans.size();
-        return resultBeans;
+    /**
+     * Removes all events from the window.
+     */
+    public final void clear()
+    {
+        for (long sequence = headSequence; sequence < tailSequence; sequence++) {
+            events[(int) sequence & mask] = null;
+        }
+        headSequence = tailSequence;
+        size = 0;
+        if (indexKeys != null) {
+            if (indexKeys.length > INITIAL_CAPACITY) {
+                indexKeys = new EventBean[INITIAL_CAPACITY];
+                indexSequences = new long[INITIAL_CAPACITY];
+            }
+            else {
+                for (int i = 0; i < indexKeys.length; i++) {
+                    indexKeys[i] = null;
+                }
+            }
+            indexSize = 0;
+        }
     }
 
     /**
@@ -199,7 +256,7 @@ public final class TimeWindow implements Iterable
      */
     public final Iterator<EventBean> iterator()
     {
-        return new TimeWindowIterator(window);
+        return new TimeWindowRingIterator();
     }
 
     /**
@@ -209,18 +266,36 @@ public final class TimeWindow implements Iterable
      */
     public final Long getOldestTimestamp()
     {
-        if (window.isEmpty()) {
+        if (size == 0) {
             return null;
         }
-        if (window.getFirst().getEventHolder() != null) {
-            return window.getFirst().getTimestamp();
+        return timestamps[(int) headSequence & mask];
+    }
+
+    /**
+     * Returns the newest event in the collection if there is at least one entry,
+     * else it returns null if the window is empty.
+     * @return null if empty, newest event if not empty
+     */
+    public final EventBean getNewestEvent()
+    {
+        if (size == 0) {
+            return null;
         }
-        for (TimeWindowPair pair : window) {
-            if (pair.getEventHolder() != null) {
-                return pair.getTimestamp();
-            }
+        return events[(int) (tailSequence - 1) & mask];
+    }
+
+    /**
+     * Returns the timestamp of the newest event in the collection if there is at least one entry,
+     * else it returns null if the window is empty.
+     * @return null if empty, newest event timestamp if not empty
+     */
+    public final Long getNewestTimestamp()
+    {
+        if (size == 0) {
+            return null;
         }
-        return null;
+        return timestamps[(int) (tailSequence - 1) & mask];
     }
 
     /**
@@ -229,31 +304,181 @@ public final class TimeWindow implements Iterable
      */
     public final boolean isEmpty()
     {
-        return getOldestTimestamp() == null;
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of events in the window.
+     * @return size
+     */
+    public final int size()
+    {
+        return size;
     }
 
     /**
-     * Returns the reverse index, for testing purposes.
-     * @return reverse index
+     * Returns the number of events in the reverse index, for testing purposes.
+     * @return reverse index size
      */
-    public Map<EventBean, TimeWindowPair> getReverseIndex() {
-        return reverseIndex;
+    public int getReverseIndexSize() {
+        return indexSize;
     }
 
-    public ArrayDeque<TimeWindowPair> getWindow() {
-        return window;
+    /**
+     * Returns true if the time window supports removal of events.
+     * @return indicator
+     */
+    public boolean isSupportRemoveStream() {
+        return isSupportRemoveStream;
     }
 
-    public void setWindow(ArrayDeque<TimeWindowPair> window, int size) {
-        this.window = window;
-        this.size = size;
+    public void visitView(ViewDataVisitor viewDataVisitor, DataWindowViewFactory viewFactory) {
+        viewDataVisitor.visitPrimary(toArray(), viewFactory.getViewName());
     }
 
-    public void setReverseIndex(Map<EventBean, TimeWindowPair> reverseIndex) {
-        this.reverseIndex = reverseIndex;
+    private void resize(int capacity)
+    {
+        long[] newTimestamps = new long[capacity];
+        EventBean[] newEvents = new EventBean[capacity];
+        int newMask = capacity - 1;
+        for (long sequence = headSequence; sequence < tailSequence; sequence++) {
+            int slot = (int) sequence & mask;
+            int newSlot = (int) sequence & newMask;
+            newTimestamps[newSlot] = timestamps[slot];
+            newEvents[newSlot] = events[slot];
+        }
+        timestamps = newTimestamps;
+        events = newEvents;
+        mask = newMask;
     }
 
-    public void visitView(ViewDataVisitor viewDataVisitor, DataWindowViewFactory viewFactory) {
-        viewDataVisitor.visitPrimary(window, false, viewFactory.getViewName(), size);
+    private static int hash(EventBean theEvent) {
+        int h = theEvent.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int indexFind(EventBean theEvent) {
+        int indexMask = indexKeys.length - 1;
+        int slot = hash(theEvent) & indexMask;
+        while (true) {
+            EventBean key = indexKeys[slot];
+            if (key == null) {
+                return -1;
+            }
+            if (key == theEvent || key.equals(theEvent)) {
+                return slot;
+            }
+            slot = (slot + 1) & indexMask;
+        }
+    }
+
+    private void indexPut(EventBean theEvent, long sequence) {
+        int indexMask = indexKeys.length - 1;
+        int slot = hash(theEvent) & indexMask;
+        while (true) {
+            EventBean key = indexKeys[slot];
+            if (key == null) {
+                break;
+            }
+            if (key == theEvent || key.equals(theEvent)) {
+                indexSequences[slot] = sequence;
+                return;
+            }
+            slot = (slot + 1) & indexMask;
+        }
+        indexKeys[slot] = theEvent;
+        indexSequences[slot] = sequence;
+        indexSize++;
+        if (indexSize > (indexKeys.length >> 1)) {
+            indexRehash(indexKeys.length << 1);
+        }
+    }
+
+    private void indexRemoveExpired(EventBean theEvent, long sequence) {
+        int indexSlot = indexFind(theEvent);
+        // the same event may have been added again later
+        if (indexSlot != -1 && indexSequences[indexSlot] == sequence) {
+            indexRemoveAt(indexSlot);
+        }
+    }
+
+    private void indexRemoveAt(int slot) {
+        int indexMask = indexKeys.length - 1;
+        indexKeys[slot] = null;
+        indexSize--;
+
+        // shift back following entries of the probe sequence
+        int free = slot;
+        int current = (slot + 1) & indexMask;
+        while (indexKeys[current] != null) {
+            int home = hash(indexKeys[current]) & indexMask;
+            if (((current - home) & indexMask) >= ((current - free) & indexMask)) {
+                indexKeys[free] = indexKeys[current];
+                indexSequences[free] = indexSequences[current];
+                indexKeys[current] = null;
+                free = current;
+            }
+            current = (current + 1) & indexMask;
+        }
+
+        if (indexKeys.length > INITIAL_CAPACITY && indexSize < (indexKeys.length >> 3)) {
+            indexRehash(indexKeys.length >> 1);
+        }
+    }
+
+    private void indexRehash(int capacity) {
+        EventBean[] oldKeys = indexKeys;
+        long[] oldSequences = indexSequences;
+        indexKeys = new EventBean[capacity];
+        indexSequences = new long[capacity];
+        int indexMask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == null) {
+                continue;
+            }
+            int slot = hash(oldKeys[i]) & indexMask;
+            while (indexKeys[slot] != null) {
+                slot = (slot + 1) & indexMask;
+            }
+            indexKeys[slot] = oldKeys[i];
+            indexSequences[slot] = oldSequences[i];
+        }
+    }
+
+    private class TimeWindowRingIterator implements Iterator<EventBean>
+    {
+        private long sequence;
+
+        private TimeWindowRingIterator() {
+            this.sequence = headSequence;
+            skipEmpty();
+        }
+
+        public boolean hasNext() {
+            return sequence < tailSequence;
+        }
+
+        public EventBean next() {
+            if (sequence >= tailSequence) {
+                throw new NoSuchElementException();
+            }
+            EventBean result = events[(int) sequence & mask];
+            sequence++;
+            skipEmpty();
+            return result;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void skipEmpty() {
+            if (sequence < headSequence) {
+                sequence = headSequence;
+            }
+            while (sequence < tailSequence && events[(int) sequence & mask] == null) {
+                sequence++;
+            }
+        }
     }
 }
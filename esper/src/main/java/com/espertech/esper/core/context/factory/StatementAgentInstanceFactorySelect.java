@@ -31,6 +31,8 @@ import com.espertech.esper.core.service.StreamJoinAnalysisResult;
 import com.espertech.esper.core.start.*;
 import com.espertech.esper.epl.agg.service.AggregationService;
 import com.espertech.esper.epl.core.*;
+import com.espertech.esper.epl.expression.codegen.ExprNodeCompiler;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.epl.expression.core.ExprNodeUtility;
 import com.espertech.esper.epl.expression.prev.ExprPreviousEvalStrategy;
@@ -88,6 +90,7 @@ public class StatementAgentInstanceFactorySelect extends StatementAgentInstanceF
     protected final SubSelectStrategyCollection subSelectStrategyCollection;
     protected final ViewResourceDelegateVerified viewResourceDelegate;
     protected final OutputProcessViewFactory outputProcessViewFactory;
+    protected final ExprEvaluator filterRootEvaluator;
 
     public StatementAgentInstanceFactorySelect(int numStreams, ViewableActivator[] eventStreamParentViewableActivators, StatementContext statementContext, StatementSpecCompiled statementSpec, EPServicesContext services, StreamTypeService typeService, ViewFactoryChain[] unmaterializedViewChain, ResultSetProcessorFactoryDesc resultSetProcessorFactoryDesc, StreamJoinAnalysisResult joinAnalysisResult, boolean recoveringResilient, JoinSetComposerPrototype joinSetComposerPrototype, SubSelectStrategyCollection subSelectStrategyCollection, ViewResourceDelegateVerified viewResourceDelegate, OutputProcessViewFactory outputProcessViewFactory) {
         super(statementSpec.getAnnotations());
@@ -104,6 +107,8 @@ public class StatementAgentInstanceFactorySelect extends StatementAgentInstanceF
         this.subSelectStrategyCollection = subSelectStrategyCollection;
         this.viewResourceDelegate = viewResourceDelegate;
         this.outputProcessViewFactory = outputProcessViewFactory;
+        this.filterRootEvaluator = statementSpec.getFilterRootNode() == null ? null :
+                ExprNodeCompiler.getEvaluator(statementSpec.getFilterRootNode(), statementContext.getConfigSnapshot().getEngineDefaults().getExpression().isCompileBytecode());
     }
 
     public ViewResourceDelegateVerified getViewResourceDelegate() {
@@ -471,7 +476,7 @@ public class StatementAgentInstanceFactorySelect extends StatementAgentInstanceF
         // Add filter view that evaluates the filter expression
         if (statementSpec.getFilterRootNode() != null)
         {
-            FilterExprView filterView = new FilterExprView(statementSpec.getFilterRootNode(), statementSpec.getFilterRootNode().getExprEvaluator(), agentInstanceContext);
+            FilterExprView filterView = new FilterExprView(statementSpec.getFilterRootNode(), filterRootEvaluator, agentInstanceContext);
             finalView.addView(filterView);
             finalView = filterView;
         }
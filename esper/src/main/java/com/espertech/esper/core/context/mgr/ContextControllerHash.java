@@ -14,7 +14,9 @@ package com.espertech.esper.core.context.mgr;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.context.*;
 import com.espertech.esper.core.context.util.ContextControllerSelectorUtil;
+import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
 import com.espertech.esper.core.context.util.StatementAgentInstanceUtil;
+import com.espertech.esper.core.thread.ThreadingService;
 import com.espertech.esper.epl.spec.ContextDetailHashItem;
 
 import java.util.*;
@@ -176,6 +178,26 @@ public class ContextControllerHash implements ContextController, ContextControll
         factory.getFactoryContext().getStateCache().addContextPath(factoryContext.getOutermostContextName(), factoryContext.getNestingLevel(), pathId, currentSubpathId, handle.getContextPartitionOrPathId(), id, factory.getBinding());
     }
 
+    /**
+     * Pins the agent instance of a context partition to the context-hash thread that owns the range of hash codes
+     * that the partition's hash code falls into, if context-hash threading is enabled.
+     * @param partitionKey hash code of the context partition
+     * @param handle agent instance handle
+     */
+    public void assignAffinity(Object partitionKey, EPStatementAgentInstanceHandle handle) {
+        ThreadingService threadingService = factory.getFactoryContext().getServicesContext().getThreadingService();
+        if (!threadingService.isContextHashThreading() || !(partitionKey instanceof Integer)) {
+            return;
+        }
+        int granularity = factory.getHashedSpec().getGranularity();
+        int bucket = ((Integer) partitionKey) % granularity;
+        if (bucket < 0) {
+            bucket += granularity;
+        }
+        int affinity = (int) ((long) bucket * threadingService.getContextHashNumThreads() / granularity);
+        handle.setContextHashAffinity(affinity);
+    }
+
     public ContextControllerFactory getFactory() {
         return factory;
     }
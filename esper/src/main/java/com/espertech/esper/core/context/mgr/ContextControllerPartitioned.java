@@ -19,6 +19,10 @@ import com.espertech.esper.core.context.util.StatementAgentInstanceUtil;
 import com.espertech.esper.client.context.ContextPartitionState;
 import com.espertech.esper.epl.spec.ContextDetailPartitionItem;
 import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.filter.FilterHandle;
+import com.espertech.esper.filter.FilterServiceEntry;
+import com.espertech.esper.filter.FilterServiceSPI;
+import com.espertech.esper.filter.FilterValueSet;
 
 import java.util.*;
 
@@ -103,10 +107,24 @@ public class ContextControllerPartitioned implements ContextController, ContextC
         ContextControllerFactoryContext factoryContext = factory.getFactoryContext();
         this.activationFilterAddendum = filterAddendum;
 
-        for (ContextDetailPartitionItem item : factory.getSegmentedSpec().getItems()) {
-            ContextControllerPartitionedFilterCallback callback = new ContextControllerPartitionedFilterCallback(factoryContext.getServicesContext(), factoryContext.getAgentInstanceContextCreate(), item, this, filterAddendum);
+        // register the filters of all partition items in one operation
+        List<ContextDetailPartitionItem> items = factory.getSegmentedSpec().getItems();
+        FilterValueSet[] filterValueSets = new FilterValueSet[items.size()];
+        FilterHandle[] filterHandles = new FilterHandle[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            ContextControllerPartitionedFilterCallback callback = new ContextControllerPartitionedFilterCallback(factoryContext.getAgentInstanceContextCreate(), items.get(i), this, filterAddendum);
             filterCallbacks.add(callback);
+            filterValueSets[i] = callback.getFilterValueSet();
+            filterHandles[i] = callback.getFilterHandle();
+        }
+        FilterServiceSPI filterService = factoryContext.getServicesContext().getFilterService();
+        FilterServiceEntry[] entries = filterService.removeAddBulk(null, null, filterValueSets, filterHandles);
+        for (int i = 0; i < entries.length; i++) {
+            filterCallbacks.get(i).setFilterServiceEntry(entries[i]);
+        }
+        setStatementFilterVersion(filterService);
 
+        for (ContextControllerPartitionedFilterCallback callback : filterCallbacks) {
             if (optionalTriggeringEvent != null) {
                 boolean match = StatementAgentInstanceUtil.evaluateFilterForStatement(factoryContext.getServicesContext(), optionalTriggeringEvent, factoryContext.getAgentInstanceContextCreate(), callback.getFilterHandle());
 
@@ -137,14 +155,28 @@ public class ContextControllerPartitioned implements ContextController, ContextC
 
     public synchronized void deactivate() {
         ContextControllerFactoryContext factoryContext = factory.getFactoryContext();
-        for (ContextControllerPartitionedFilterCallback callback : filterCallbacks) {
-            callback.destroy(factoryContext.getServicesContext().getFilterService());
+        if (!filterCallbacks.isEmpty()) {
+            // remove the filters of all partition items in one operation
+            FilterHandle[] filterHandles = new FilterHandle[filterCallbacks.size()];
+            FilterServiceEntry[] entries = new FilterServiceEntry[filterCallbacks.size()];
+            for (int i = 0; i < filterCallbacks.size(); i++) {
+                filterHandles[i] = filterCallbacks.get(i).getFilterHandle();
+                entries[i] = filterCallbacks.get(i).getFilterServiceEntry();
+            }
+            FilterServiceSPI filterService = factoryContext.getServicesContext().getFilterService();
+            filterService.removeAddBulk(filterHandles, entries, null, null);
+            setStatementFilterVersion(filterService);
         }
         partitionKeys.clear();
         filterCallbacks.clear();
         factory.getFactoryContext().getStateCache().removeContextParentPath(factoryContext.getOutermostContextName(), factoryContext.getNestingLevel(), pathId);
     }
 
+    private void setStatementFilterVersion(FilterServiceSPI filterService) {
+        long filtersVersion = filterService.getFiltersVersion();
+        factory.getFactoryContext().getAgentInstanceContextCreate().getEpStatementAgentInstanceHandle().getStatementFilterVersion().setStmtFilterVersion(filtersVersion);
+    }
+
     public synchronized void create(Object key, EventBean theEvent) {
         boolean exists = partitionKeys.containsKey(key);
         if (exists) {
@@ -15,7 +15,6 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.core.context.util.AgentInstanceContext;
-import com.espertech.esper.core.service.EPServicesContext;
 import com.espertech.esper.core.service.EPStatementHandleCallback;
 import com.espertech.esper.epl.spec.ContextDetailPartitionItem;
 import com.espertech.esper.filter.*;
@@ -28,9 +27,10 @@ public class ContextControllerPartitionedFilterCallback implements FilterHandleC
     private final EventPropertyGetter[] getters;
     private final ContextControllerPartitionedInstanceCreateCallback callback;
     private final EPStatementHandleCallback filterHandle;
-    private final FilterServiceEntry filterServiceEntry;
+    private final FilterValueSet filterValueSet;
+    private FilterServiceEntry filterServiceEntry;
 
-    public ContextControllerPartitionedFilterCallback(EPServicesContext servicesContext, AgentInstanceContext agentInstanceContextCreateContext, ContextDetailPartitionItem partitionItem, ContextControllerPartitionedInstanceCreateCallback callback, ContextInternalFilterAddendum filterAddendum) {
+    public ContextControllerPartitionedFilterCallback(AgentInstanceContext agentInstanceContextCreateContext, ContextDetailPartitionItem partitionItem, ContextControllerPartitionedInstanceCreateCallback callback, ContextInternalFilterAddendum filterAddendum) {
         this.agentInstanceContextCreateContext = agentInstanceContextCreateContext;
         this.callback = callback;
 
@@ -44,10 +44,7 @@ public class ContextControllerPartitionedFilterCallback implements FilterHandleC
         }
 
         FilterValueSetParam[][] addendum = filterAddendum != null ? filterAddendum.getFilterAddendum(partitionItem.getFilterSpecCompiled()) : null;
-        FilterValueSet filterValueSet = partitionItem.getFilterSpecCompiled().getValueSet(null, null, addendum);
-        filterServiceEntry = servicesContext.getFilterService().add(filterValueSet, filterHandle);
-        long filtersVersion = servicesContext.getFilterService().getFiltersVersion();
-        agentInstanceContextCreateContext.getEpStatementAgentInstanceHandle().getStatementFilterVersion().setStmtFilterVersion(filtersVersion);
+        filterValueSet = partitionItem.getFilterSpecCompiled().getValueSet(null, null, addendum);
     }
 
     public void matchFound(EventBean theEvent, Collection<FilterHandleCallback> allStmtMatches) {
@@ -74,13 +71,19 @@ public class ContextControllerPartitionedFilterCallback implements FilterHandleC
         return agentInstanceContextCreateContext.getStatementContext().getStatementId();
     }
 
-    public void destroy(FilterService filterService) {
-        filterService.remove(filterHandle, filterServiceEntry);
-        long filtersVersion = agentInstanceContextCreateContext.getStatementContext().getFilterService().getFiltersVersion();
-        agentInstanceContextCreateContext.getEpStatementAgentInstanceHandle().getStatementFilterVersion().setStmtFilterVersion(filtersVersion);
-    }
-
     public EPStatementHandleCallback getFilterHandle() {
         return filterHandle;
     }
+
+    public FilterValueSet getFilterValueSet() {
+        return filterValueSet;
+    }
+
+    public FilterServiceEntry getFilterServiceEntry() {
+        return filterServiceEntry;
+    }
+
+    public void setFilterServiceEntry(FilterServiceEntry filterServiceEntry) {
+        this.filterServiceEntry = filterServiceEntry;
+    }
 }
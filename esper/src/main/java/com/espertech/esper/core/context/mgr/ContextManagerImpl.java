@@ -423,6 +423,9 @@ public class ContextManagerImpl implements ContextManager, ContextControllerLife
 
         // activate
         StatementAgentInstanceFactoryResult result = StatementAgentInstanceUtil.start(servicesContext, statementDesc.getStatement(), false, contextId, contextBean, proxy, isRecoveringResilient);
+        if (originator instanceof ContextControllerHash) {
+            ((ContextControllerHash) originator).assignAffinity(partitionKey, result.getAgentInstanceContext().getEpStatementAgentInstanceHandle());
+        }
 
         // save only instance data
         return new AgentInstance(result.getStopCallback(), result.getAgentInstanceContext(), result.getFinalView());
@@ -525,6 +525,9 @@ public class ContextManagerNested implements ContextManager, ContextControllerLi
 
         // activate
         StatementAgentInstanceFactoryResult result = StatementAgentInstanceUtil.start(servicesContext, statementDesc.getStatement(), false, contextId, contextBean, proxy, isRecoveringResilient);
+        if (originator instanceof ContextControllerHash) {
+            ((ContextControllerHash) originator).assignAffinity(partitionKey, result.getAgentInstanceContext().getEpStatementAgentInstanceHandle());
+        }
         return new AgentInstance(result.getStopCallback(), result.getAgentInstanceContext(), result.getFinalView());
     }
 
@@ -150,7 +150,7 @@ public class SubSelectStrategyFactoryIndexShare implements SubSelectStrategyFact
             Lock lock = agentInstanceContext.getStatementContext().isWritesToTables() ?
                     state.getTableLevelRWLock().writeLock() : state.getTableLevelRWLock().readLock();
             if (queryPlan == null) {
-                subqueryLookup = new SubordFullTableScanTableLookupStrategy(lock, state.getIterableTableScan());
+                subqueryLookup = new SubordFullTableScanTableLookupStrategy(lock, state);
             }
             else {
                 EventTable[] indexes = new EventTable[queryPlan.getIndexDescs().length];
@@ -158,7 +158,7 @@ public class SubSelectStrategyFactoryIndexShare implements SubSelectStrategyFact
                     indexes[i] = state.getIndexRepository().getIndexByDesc(queryPlan.getIndexDescs()[i].getIndexMultiKey());
                 }
                 subqueryLookup = queryPlan.getLookupStrategyFactory().makeStrategy(indexes, null);
-                subqueryLookup = new SubordIndexedTableLookupTableStrategy(subqueryLookup, lock);
+                subqueryLookup = new SubordIndexedTableLookupTableStrategy(subqueryLookup, lock, state);
             }
         }
 
@@ -23,6 +23,7 @@ public class EPStatementAgentInstanceHandle {
     private final StatementAgentInstanceFilterVersion statementFilterVersion;
     private EPStatementDispatch optionalDispatchable;
     private boolean destroyed;
+    private int contextHashAffinity = -1;
 
     private final int hashCode;
     private FilterFaultHandler filterFaultHandler;
@@ -154,6 +155,18 @@ public class EPStatementAgentInstanceHandle {
         this.filterFaultHandler = filterFaultHandler;
     }
 
+    /**
+     * Returns the index of the context-hash thread that processes this agent instance, or -1 if not pinned to a thread.
+     * @return thread index or -1
+     */
+    public int getContextHashAffinity() {
+        return contextHashAffinity;
+    }
+
+    public void setContextHashAffinity(int contextHashAffinity) {
+        this.contextHashAffinity = contextHashAffinity;
+    }
+
     public int getStatementId() {
         return statementHandle.getStatementId();
     }
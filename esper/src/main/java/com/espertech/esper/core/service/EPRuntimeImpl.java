@@ -14,6 +14,8 @@ import com.espertech.esper.client.context.ContextPartitionSelector;
 import com.espertech.esper.client.context.ContextPartitionVariableState;
 import com.espertech.esper.client.dataflow.EPDataFlowRuntime;
 import com.espertech.esper.client.hook.ExceptionHandlerExceptionType;
+import com.espertech.esper.client.metric.EngineMetric;
+import com.espertech.esper.client.metric.LatencyHistogram;
 import com.espertech.esper.client.soda.EPStatementObjectModel;
 import com.espertech.esper.client.time.CurrentTimeEvent;
 import com.espertech.esper.client.time.CurrentTimeSpanEvent;
@@ -35,6 +37,9 @@ import com.espertech.esper.epl.expression.core.ExprValidationException;
 import com.espertech.esper.epl.expression.subquery.ExprSubselectNode;
 import com.espertech.esper.epl.expression.visitor.ExprNodeSubselectDeclaredDotVisitor;
 import com.espertech.esper.epl.metric.MetricReportingPath;
+import com.espertech.esper.epl.named.NamedWindowConsumerLatchFactory;
+import com.espertech.esper.epl.named.NamedWindowMgmtService;
+import com.espertech.esper.epl.named.NamedWindowProcessor;
 import com.espertech.esper.epl.script.AgentInstanceScriptContext;
 import com.espertech.esper.epl.spec.*;
 import com.espertech.esper.epl.spec.util.StatementSpecRawAnalyzer;
@@ -42,15 +47,20 @@ import com.espertech.esper.epl.table.mgmt.TableExprEvaluatorContext;
 import com.espertech.esper.epl.variable.VariableMetaData;
 import com.espertech.esper.epl.variable.VariableReader;
 import com.espertech.esper.epl.variable.VariableService;
+import com.espertech.esper.event.EventAdapterServiceHelper;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.map.MapEventType;
 import com.espertech.esper.event.util.EventRendererImpl;
 import com.espertech.esper.filter.FilterHandle;
 import com.espertech.esper.filter.FilterHandleCallback;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.metrics.instrumentation.InstrumentationSampling;
 import com.espertech.esper.metrics.jmx.JmxGetter;
 import com.espertech.esper.schedule.*;
 import com.espertech.esper.timer.TimerCallback;
 import com.espertech.esper.util.ExecutionPathDebugLog;
 import com.espertech.esper.util.MetricUtil;
+import com.espertech.esper.util.SequencedReorderBuffer;
 import com.espertech.esper.util.ThreadLogUtil;
 import com.espertech.esper.util.UuidGenerator;
 import org.apache.commons.logging.Log;
@@ -83,6 +93,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     protected ThreadLocal<ArrayBackedCollection<ScheduleHandle>> scheduleArrayThreadLocal;
     protected ThreadLocal<Map<EPStatementAgentInstanceHandle, Object>> matchesPerStmtThreadLocal;
     protected ThreadLocal<Map<EPStatementAgentInstanceHandle, Object>> schedulePerStmtThreadLocal;
+    protected volatile InstrumentationSampling profilerSampling;
 
     /**
      * Constructor.
@@ -95,6 +106,10 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         isLatchStatementInsertStream = this.services.getEngineSettingsService().getEngineSettings().getThreading().isInsertIntoDispatchPreserveOrder();
         isUsingExternalClocking = !this.services.getEngineSettingsService().getEngineSettings().getThreading().isInternalTimerEnabled();
         isPrioritized = services.getEngineSettingsService().getEngineSettings().getExecution().isPrioritized();
+        int profilerSampleRate = services.getEngineSettingsService().getEngineSettings().getMetricsReporting().getProfilerSampleRate();
+        if (profilerSampleRate > 0) {
+            profilerSampling = new InstrumentationSampling(profilerSampleRate);
+        }
         routedInternal = new AtomicLong();
         routedExternal = new AtomicLong();
         engineFilterAndDispatchTimeContext = new ExprEvaluatorContext()
@@ -176,6 +191,50 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         return routedExternal.get();
     }
 
+    public InstrumentationSampling getProfilerSampling()
+    {
+        return profilerSampling;
+    }
+
+    public void setProfilerSampling(InstrumentationSampling profilerSampling)
+    {
+        this.profilerSampling = profilerSampling;
+    }
+
+    @JmxGetter(name="EventLatencyP50", description = "Median event processing latency in nanoseconds in the last engine metrics reporting period")
+    public long getEventLatencyP50()
+    {
+        LatencyHistogram latency = getLastEngineLatency();
+        return latency == null ? 0 : latency.getP50();
+    }
+
+    @JmxGetter(name="EventLatencyP99", description = "99th percentile event processing latency in nanoseconds in the last engine metrics reporting period")
+    public long getEventLatencyP99()
+    {
+        LatencyHistogram latency = getLastEngineLatency();
+        return latency == null ? 0 : latency.getP99();
+    }
+
+    @JmxGetter(name="EventLatencyP999", description = "99.9th percentile event processing latency in nanoseconds in the last engine metrics reporting period")
+    public long getEventLatencyP999()
+    {
+        LatencyHistogram latency = getLastEngineLatency();
+        return latency == null ? 0 : latency.getP999();
+    }
+
+    @JmxGetter(name="EventLatencyMax", description = "Maximum event processing latency in nanoseconds in the last engine metrics reporting period")
+    public long getEventLatencyMax()
+    {
+        LatencyHistogram latency = getLastEngineLatency();
+        return latency == null ? 0 : latency.getMax();
+    }
+
+    private LatencyHistogram getLastEngineLatency()
+    {
+        EngineMetric metric = services.getMetricsReportingService().getLastEngineMetric();
+        return metric == null ? null : metric.getLatency();
+    }
+
     public void timerCallback()
     {
         long msec = services.getTimeSource().getTimeMillis();
@@ -208,7 +267,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         // Process event
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
         {
-            services.getThreadingService().submitInbound(new InboundUnitSendEvent(theEvent, this));
+            services.getThreadingService().submitInboundEvent(theEvent, this);
         }
         else
         {
@@ -312,6 +371,214 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
     }
 
+    public void sendEventBatch(Object[] events) throws EPException
+    {
+        if (events == null)
+        {
+            throw new IllegalArgumentException("Invalid null event batch");
+        }
+
+        if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled()))
+        {
+            log.debug(".sendEventBatch Processing " + events.length + " events");
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
+        {
+            for (Object theEvent : events)
+            {
+                if (theEvent != null)
+                {
+                    services.getThreadingService().submitInboundEvent(theEvent, this);
+                }
+            }
+            return;
+        }
+
+        processBatch(events, null);
+    }
+
+    public void sendEventBatch(Map[] maps, String mapEventTypeName) throws EPException
+    {
+        checkBatch(maps);
+
+        if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled()))
+        {
+            log.debug(".sendEventBatch Processing " + maps.length + " map events");
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
+        {
+            for (Map map : maps)
+            {
+                services.getThreadingService().submitInbound(new InboundUnitSendMap(map, mapEventTypeName, services, this));
+            }
+            return;
+        }
+
+        EventType eventType = services.getEventAdapterService().getExistsTypeByName(mapEventTypeName);
+        if (!(eventType instanceof MapEventType))
+        {
+            throw new EPException(EventAdapterServiceHelper.getMessageExpecting(mapEventTypeName, eventType, "Map"));
+        }
+
+        processBatch(maps, eventType);
+    }
+
+    public void sendEventBatch(Object[][] objectarrays, String objectArrayEventTypeName) throws EPException
+    {
+        checkBatch(objectarrays);
+
+        if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled()))
+        {
+            log.debug(".sendEventBatch Processing " + objectarrays.length + " object-array events");
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
+        {
+            for (Object[] propertyValues : objectarrays)
+            {
+                services.getThreadingService().submitInbound(new InboundUnitSendObjectArray(propertyValues, objectArrayEventTypeName, services, this));
+            }
+            return;
+        }
+
+        EventType eventType = services.getEventAdapterService().getExistsTypeByName(objectArrayEventTypeName);
+        if (!(eventType instanceof ObjectArrayEventType))
+        {
+            throw new EPException(EventAdapterServiceHelper.getMessageExpecting(objectArrayEventTypeName, eventType, "Object-array"));
+        }
+
+        processBatch(objectarrays, eventType);
+    }
+
+    /**
+     * Processes a batch of events, holding the engine read lock across consecutive events that
+     * produce nothing to dispatch or route. The read lock is released and the results are dispatched
+     * and the work queue is worked off after each event that produced results, so that listeners
+     * observe the same results in the same order as for individual sends.
+     * @param items is the underlying events
+     * @param eventType is the Map or Object-array event type, or null for plain objects, event beans and time events
+     */
+    private void processBatch(Object[] items, EventType eventType)
+    {
+        ArrayBackedCollection<FilterHandle> matches = matchesArrayThreadLocal.get();
+        Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks = matchesPerStmtThreadLocal.get();
+        DualWorkQueue queues = threadWorkQueue.getThreadQueue();
+        boolean locked = false;
+        try
+        {
+            for (Object item : items)
+            {
+                if (item == null)
+                {
+                    continue;
+                }
+                if (item instanceof TimerEvent && eventType == null)
+                {
+                    if (locked)
+                    {
+                        services.getEventProcessingRWLock().releaseReadLock();
+                        locked = false;
+                    }
+                    processTimeEvent((TimerEvent) item);
+                    continue;
+                }
+
+                EventBean eventBean;
+                if (eventType instanceof MapEventType)
+                {
+                    eventBean = services.getEventAdapterService().adapterForTypedMap((Map) item, eventType);
+                }
+                else if (eventType instanceof ObjectArrayEventType)
+                {
+                    eventBean = services.getEventAdapterService().adapterForTypedObjectArray((Object[]) item, eventType);
+                }
+                else if (item instanceof EventBean)
+                {
+                    eventBean = (EventBean) item;
+                }
+                else
+                {
+                    eventBean = wrapEvent(item);
+                }
+
+                if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qStimulantEvent(eventBean, services.getEngineURI());}
+                if (internalEventRouter.isHasPreprocessing())
+                {
+                    eventBean = internalEventRouter.preprocess(eventBean, engineFilterAndDispatchTimeContext);
+                    if (eventBean == null)
+                    {
+                        continue;
+                    }
+                }
+                InstrumentationSampling sampling = profilerSampling;
+                if (sampling != null) { sampling.qStimulantEvent(eventBean, services.getEngineURI());}
+
+                long wallTimeBefore = MetricReportingPath.isMetricsEnabled ? MetricUtil.getWall() : 0;
+                if (!locked)
+                {
+                    services.getEventProcessingRWLock().acquireReadLock();
+                    locked = true;
+                }
+                if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qEvent(eventBean, services.getEngineURI(), true);}
+                try
+                {
+                    processMatches(eventBean, matches, stmtCallbacks);
+                }
+                catch (RuntimeException ex)
+                {
+                    matches.clear();
+                    throw new EPException(ex);
+                }
+                finally
+                {
+                    if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aEvent();}
+                }
+
+                // Dispatch and route outside of the read-lock, only when there is something to dispatch or route
+                if (services.getDispatchService().isDispatchPending() ||
+                    services.getNamedWindowDispatchService().isDispatchPending() ||
+                    !queues.getFrontQueue().isEmpty() || !queues.getBackQueue().isEmpty())
+                {
+                    services.getEventProcessingRWLock().releaseReadLock();
+                    locked = false;
+                    dispatch();
+                    processThreadWorkQueue();
+                }
+
+                if (MetricReportingPath.isMetricsEnabled)
+                {
+                    services.getMetricsReportingService().accountEngineLatency(MetricUtil.getWall() - wallTimeBefore);
+                }
+                if (sampling != null) { sampling.aStimulantEvent();}
+                if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aStimulantEvent();}
+            }
+        }
+        finally
+        {
+            if (locked)
+            {
+                services.getEventProcessingRWLock().releaseReadLock();
+            }
+        }
+    }
+
+    private static void checkBatch(Object[] batch)
+    {
+        if (batch == null)
+        {
+            throw new IllegalArgumentException("Invalid null event batch");
+        }
+        for (Object item : batch)
+        {
+            if (item == null)
+            {
+                throw new IllegalArgumentException("Invalid null event object");
+            }
+        }
+    }
+
     public EventBean wrapEvent(Map map, String eventTypeName) {
         return services.getEventAdapterService().adapterForMap(map, eventTypeName);
     }
@@ -463,6 +730,25 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     }
 
     public void processWrappedEvent(EventBean eventBean)
+    {
+        processWrappedEvent(eventBean, matchesArrayThreadLocal.get(), matchesPerStmtThreadLocal.get());
+    }
+
+    private void processWrappedEvent(EventBean eventBean, ArrayBackedCollection<FilterHandle> matches, Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks)
+    {
+        if (MetricReportingPath.isMetricsEnabled)
+        {
+            long wallTimeBefore = MetricUtil.getWall();
+            processWrappedEventInternal(eventBean, matches, stmtCallbacks);
+            services.getMetricsReportingService().accountEngineLatency(MetricUtil.getWall() - wallTimeBefore);
+        }
+        else
+        {
+            processWrappedEventInternal(eventBean, matches, stmtCallbacks);
+        }
+    }
+
+    private void processWrappedEventInternal(EventBean eventBean, ArrayBackedCollection<FilterHandle> matches, Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks)
     {
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qStimulantEvent(eventBean, services.getEngineURI());}
 
@@ -474,17 +760,19 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
                 return;
             }
         }
+        InstrumentationSampling sampling = profilerSampling;
+        if (sampling != null) { sampling.qStimulantEvent(eventBean, services.getEngineURI());}
 
         // Acquire main processing lock which locks out statement management
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qEvent(eventBean, services.getEngineURI(), true);}
         services.getEventProcessingRWLock().acquireReadLock();
         try
         {
-            processMatches(eventBean);
+            processMatches(eventBean, matches, stmtCallbacks);
         }
         catch (RuntimeException ex)
         {
-            matchesArrayThreadLocal.get().clear();
+            matches.clear();
             throw new EPException(ex);
         }
         finally
@@ -500,6 +788,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         // Work off the event queue if any events accumulated in there via a route() or insert-into
         processThreadWorkQueue();
 
+        if (sampling != null) { sampling.aStimulantEvent();}
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aStimulantEvent();}
     }
 
@@ -531,6 +820,8 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             long currentTime = current.getTimeInMillis();
 
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qStimulantTime(currentTime, services.getEngineURI());}
+            InstrumentationSampling sampling = profilerSampling;
+            if (sampling != null) { sampling.qStimulantTime(currentTime, services.getEngineURI());}
 
             // Evaluation of all time events is protected from statement management
             if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled()) && (ExecutionPathDebugLog.isTimerDebugEnabled))
@@ -554,12 +845,15 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
 
             processSchedule(currentTime);
 
+            processReorderExpired();
+
             // Let listeners know of results
             dispatch();
 
             // Work off the event queue if any events accumulated in there via a route()
             processThreadWorkQueue();
 
+            if (sampling != null) { sampling.aStimulantTime();}
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aStimulantTime();}
 
             return;
@@ -604,6 +898,8 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             }
 
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qStimulantTime(currentTime, services.getEngineURI());}
+            InstrumentationSampling sampling = profilerSampling;
+            if (sampling != null) { sampling.qStimulantTime(currentTime, services.getEngineURI());}
 
             // Evaluation of all time events is protected from statement management
             if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled()) && (ExecutionPathDebugLog.isTimerDebugEnabled))
@@ -620,12 +916,15 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
 
             processSchedule(currentTime);
 
+            processReorderExpired();
+
             // Let listeners know of results
             dispatch();
 
             // Work off the event queue if any events accumulated in there via a route()
             processThreadWorkQueue();
 
+            if (sampling != null) { sampling.aStimulantTime();}
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aStimulantTime();}
         }
     }
@@ -698,7 +997,11 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             }
             else
             {
-                if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isTimerThreading()))
+                if ((ThreadingOption.isThreadingEnabled) && (handle.getAgentInstanceHandle().getContextHashAffinity() != -1))
+                {
+                    services.getThreadingService().submitContextHash(handle.getAgentInstanceHandle().getContextHashAffinity(), new TimerUnitSingle(services, this, handle));
+                }
+                else if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isTimerThreading()))
                 {
                     services.getThreadingService().submitTimerWork(new TimerUnitSingle(services, this, handle));
                 }
@@ -771,7 +1074,11 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             }
             else
             {
-                if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isTimerThreading()))
+                if ((ThreadingOption.isThreadingEnabled) && (handle.getContextHashAffinity() != -1))
+                {
+                    services.getThreadingService().submitContextHash(handle.getContextHashAffinity(), new TimerUnitMultiple(services, this, handle, callbackObject));
+                }
+                else if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isTimerThreading()))
                 {
                     services.getThreadingService().submitTimerWork(new TimerUnitMultiple(services, this, handle, callbackObject));
                 }
@@ -822,6 +1129,10 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             {
                 processThreadWorkQueueLatchedWait((InsertIntoLatchWait) item);
             }
+            else if (item instanceof InsertIntoLatchReorder)
+            {
+                processThreadWorkQueueLatchedReorder((InsertIntoLatchReorder) item);
+            }
             else
             {
                 processThreadWorkQueueUnlatched(item);
@@ -851,6 +1162,10 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             {
                 processThreadWorkQueueLatchedWait((InsertIntoLatchWait) item);
             }
+            else if (item instanceof InsertIntoLatchReorder)
+            {
+                processThreadWorkQueueLatchedReorder((InsertIntoLatchReorder) item);
+            }
             else
             {
                 processThreadWorkQueueUnlatched(item);
@@ -916,6 +1231,117 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         dispatch();
     }
 
+    private void processThreadWorkQueueLatchedReorder(InsertIntoLatchReorder insertIntoLatch)
+    {
+        // never waits: the events are processed by the thread that completes the sequence
+        processReorderedEvents(insertIntoLatch.getBuffer(), insertIntoLatch.add());
+    }
+
+    private void processReorderExpired()
+    {
+        // Release what reorder buffers hold behind a timed-out gap, such items would otherwise wait for the next item to arrive
+        ConfigurationEngineDefaults.Threading threading = services.getEngineSettingsService().getEngineSettings().getThreading();
+        boolean insertInto = threading.isInsertIntoDispatchPreserveOrder() && threading.getInsertIntoDispatchLocking() == ConfigurationEngineDefaults.Threading.Locking.REORDER;
+        boolean namedWindow = threading.isNamedWindowConsumerDispatchPreserveOrder() && threading.getNamedWindowConsumerDispatchLocking() == ConfigurationEngineDefaults.Threading.Locking.REORDER;
+        if (!insertInto && !namedWindow)
+        {
+            return;
+        }
+
+        // Statement management changes statements and named windows under the write lock
+        List<SequencedReorderBuffer<EventBean>> insertIntoBuffers = new ArrayList<SequencedReorderBuffer<EventBean>>();
+        List<NamedWindowConsumerLatchFactory> namedWindowLatchFactories = new ArrayList<NamedWindowConsumerLatchFactory>();
+        services.getEventProcessingRWLock().acquireReadLock();
+        try
+        {
+            if (insertInto)
+            {
+                for (EPStatement statement : services.getStatementLifecycleSvc().getStmtNameToStmt().values())
+                {
+                    if (statement.getServiceIsolated() != null)
+                    {
+                        continue;
+                    }
+                    EPStatementHandle handle = ((EPStatementSPI) statement).getStatementContext().getEpStatementHandle();
+                    addReorderBuffer(insertIntoBuffers, handle.getInsertIntoFrontLatchFactory());
+                    addReorderBuffer(insertIntoBuffers, handle.getInsertIntoBackLatchFactory());
+                }
+            }
+            if (namedWindow)
+            {
+                NamedWindowMgmtService namedWindowMgmtService = services.getNamedWindowMgmtService();
+                for (String name : namedWindowMgmtService.getNamedWindows())
+                {
+                    NamedWindowProcessor processor = namedWindowMgmtService.getProcessor(name);
+                    if (processor != null)
+                    {
+                        namedWindowLatchFactories.add(processor.getTailView().getLatchFactory());
+                    }
+                }
+            }
+        }
+        finally
+        {
+            services.getEventProcessingRWLock().releaseReadLock();
+        }
+
+        for (SequencedReorderBuffer<EventBean> buffer : insertIntoBuffers)
+        {
+            processReorderedEvents(buffer, buffer.releaseExpired());
+        }
+        for (NamedWindowConsumerLatchFactory latchFactory : namedWindowLatchFactories)
+        {
+            services.getNamedWindowDispatchService().dispatchExpired(latchFactory);
+        }
+    }
+
+    private static void addReorderBuffer(List<SequencedReorderBuffer<EventBean>> buffers, InsertIntoLatchFactory latchFactory)
+    {
+        if (latchFactory != null && latchFactory.getReorderBuffer() != null)
+        {
+            buffers.add(latchFactory.getReorderBuffer());
+        }
+    }
+
+    private void processReorderedEvents(SequencedReorderBuffer<EventBean> buffer, List<EventBean> events)
+    {
+        while (events != null)
+        {
+            int index = 0;
+            try
+            {
+                for (; index < events.size(); index++)
+                {
+                    EventBean eventBean = events.get(index);
+                    if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qEvent(eventBean, services.getEngineURI(), false);}
+                    services.getEventProcessingRWLock().acquireReadLock();
+                    try
+                    {
+                        processMatches(eventBean);
+                    }
+                    catch (RuntimeException ex)
+                    {
+                        matchesArrayThreadLocal.get().clear();
+                        throw ex;
+                    }
+                    finally
+                    {
+                        services.getEventProcessingRWLock().releaseReadLock();
+                        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aEvent();}
+                    }
+
+                    dispatch();
+                }
+            }
+            catch (RuntimeException ex)
+            {
+                buffer.abandon(events.subList(index + 1, events.size()));
+                throw ex;
+            }
+            events = buffer.next();
+        }
+    }
+
     private void processThreadWorkQueueUnlatched(Object item)
     {
         EventBean eventBean;
@@ -949,9 +1375,13 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     }
 
     protected void processMatches(EventBean theEvent)
+    {
+        processMatches(theEvent, matchesArrayThreadLocal.get(), matchesPerStmtThreadLocal.get());
+    }
+
+    private void processMatches(EventBean theEvent, ArrayBackedCollection<FilterHandle> matches, Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks)
     {
         // get matching filters
-        ArrayBackedCollection<FilterHandle> matches = matchesArrayThreadLocal.get();
         long version = services.getFilterService().evaluate(theEvent, matches);
 
         if (ThreadLogUtil.ENABLED_TRACE)
@@ -978,7 +1408,6 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             return;
         }
 
-        Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks = matchesPerStmtThreadLocal.get();
         Object[] matchArray = matches.getArray();
         int entryCount = matches.size();
 
@@ -1023,7 +1452,11 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             }
             else
             {
-                if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isRouteThreading()))
+                if ((ThreadingOption.isThreadingEnabled) && (handle.getContextHashAffinity() != -1))
+                {
+                    services.getThreadingService().submitContextHash(handle.getContextHashAffinity(), new RouteUnitSingle(this, handleCallback, theEvent, version));
+                }
+                else if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isRouteThreading()))
                 {
                     services.getThreadingService().submitRoute(new RouteUnitSingle(this, handleCallback, theEvent, version));
                 }
@@ -1063,7 +1496,11 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             }
             else
             {
-                if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isRouteThreading()))
+                if ((ThreadingOption.isThreadingEnabled) && (handle.getContextHashAffinity() != -1))
+                {
+                    services.getThreadingService().submitContextHash(handle.getContextHashAffinity(), new RouteUnitMultiple(this, callbackList, theEvent, handle, version));
+                }
+                else if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isRouteThreading()))
                 {
                     services.getThreadingService().submitRoute(new RouteUnitMultiple(this, callbackList, theEvent, handle, version));
                 }
@@ -1174,6 +1611,8 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     public void processStatementFilterMultiple(EPStatementAgentInstanceHandle handle, Object callbackList, EventBean theEvent, long version)
     {
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qEventCP(theEvent, handle, services.getSchedulingService().getTime());}
+        InstrumentationSampling sampling = profilerSampling;
+        if (sampling != null) { sampling.qEventCP(theEvent, handle, services.getSchedulingService().getTime());}
         handle.getStatementAgentInstanceLock().acquireWriteLock();
         try
         {
@@ -1212,6 +1651,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
                 services.getTableService().getTableExprEvaluatorContext().releaseAcquiredLocks();
             }
             handle.getStatementAgentInstanceLock().releaseWriteLock();
+            if (sampling != null) { sampling.aEventCP();}
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aEventCP();}
         }
     }
@@ -1226,6 +1666,8 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     public void processStatementFilterSingle(EPStatementAgentInstanceHandle handle, EPStatementHandleCallback handleCallback, EventBean theEvent, long version)
     {
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qEventCP(theEvent, handle, services.getSchedulingService().getTime());}
+        InstrumentationSampling sampling = profilerSampling;
+        if (sampling != null) { sampling.qEventCP(theEvent, handle, services.getSchedulingService().getTime());}
         handle.getStatementAgentInstanceLock().acquireWriteLock();
         try
         {
@@ -1258,6 +1700,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
                 services.getTableService().getTableExprEvaluatorContext().releaseAcquiredLocks();
             }
             handleCallback.getAgentInstanceHandle().getStatementAgentInstanceLock().releaseWriteLock();
+            if (sampling != null) { sampling.aEventCP();}
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aEventCP();}
         }
     }
@@ -463,6 +463,10 @@ public class EPRuntimeIsolatedImpl implements EPRuntimeIsolatedSPI, InternalEven
             {
                 processThreadWorkQueueLatchedWait((InsertIntoLatchWait) item);
             }
+            else if (item instanceof InsertIntoLatchReorder)
+            {
+                processThreadWorkQueueLatchedReorder((InsertIntoLatchReorder) item);
+            }
             else
             {
                 processThreadWorkQueueUnlatched(item);
@@ -492,6 +496,10 @@ public class EPRuntimeIsolatedImpl implements EPRuntimeIsolatedSPI, InternalEven
             {
                 processThreadWorkQueueLatchedWait((InsertIntoLatchWait) item);
             }
+            else if (item instanceof InsertIntoLatchReorder)
+            {
+                processThreadWorkQueueLatchedReorder((InsertIntoLatchReorder) item);
+            }
             else
             {
                 processThreadWorkQueueUnlatched(item);
@@ -553,6 +561,45 @@ public class EPRuntimeIsolatedImpl implements EPRuntimeIsolatedSPI, InternalEven
         dispatch();
     }
 
+    private void processThreadWorkQueueLatchedReorder(InsertIntoLatchReorder insertIntoLatch)
+    {
+        // never waits: the events are processed by the thread that completes the sequence
+        List<EventBean> events = insertIntoLatch.add();
+        while (events != null)
+        {
+            int index = 0;
+            try
+            {
+                for (; index < events.size(); index++)
+                {
+                    EventBean eventBean = events.get(index);
+                    unisolatedServices.getEventProcessingRWLock().acquireReadLock();
+                    try
+                    {
+                        processMatches(eventBean);
+                    }
+                    catch (RuntimeException ex)
+                    {
+                        matchesArrayThreadLocal.get().clear();
+                        throw ex;
+                    }
+                    finally
+                    {
+                        unisolatedServices.getEventProcessingRWLock().releaseReadLock();
+                    }
+
+                    dispatch();
+                }
+            }
+            catch (RuntimeException ex)
+            {
+                insertIntoLatch.getBuffer().abandon(events.subList(index + 1, events.size()));
+                throw ex;
+            }
+            events = insertIntoLatch.getBuffer().next();
+        }
+    }
+
     private void processThreadWorkQueueUnlatched(Object item)
     {
         EventBean eventBean;
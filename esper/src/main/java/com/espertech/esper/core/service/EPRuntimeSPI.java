@@ -11,6 +11,7 @@ package com.espertech.esper.core.service;
 import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EPRuntime;
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.metrics.instrumentation.InstrumentationSampling;
 
 import java.util.Map;
 
@@ -44,6 +45,18 @@ public interface EPRuntimeSPI extends EPRuntime
      */
     public long getRoutedExternal();
 
+    /**
+     * Returns the sampling profiler of this engine.
+     * @return profiler or null if not sampling
+     */
+    public InstrumentationSampling getProfilerSampling();
+
+    /**
+     * Sets the sampling profiler of this engine, taking effect with the next event or time event.
+     * @param profilerSampling profiler or null to stop sampling
+     */
+    public void setProfilerSampling(InstrumentationSampling profilerSampling);
+
     public void destroy();
 
     public Map<String, Long> getStatementNearestSchedules();
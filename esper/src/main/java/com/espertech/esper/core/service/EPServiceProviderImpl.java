@@ -429,7 +429,8 @@ public class EPServiceProviderImpl implements EPServiceProviderSPI
                 configSnapshot.getEngineDefaults().getThreading().isThreadPoolTimerExec() ||
                 configSnapshot.getEngineDefaults().getThreading().isThreadPoolInbound() ||
                 configSnapshot.getEngineDefaults().getThreading().isThreadPoolRouteExec() ||
-                configSnapshot.getEngineDefaults().getThreading().isThreadPoolOutbound());
+                configSnapshot.getEngineDefaults().getThreading().isThreadPoolOutbound() ||
+                configSnapshot.getEngineDefaults().getThreading().isThreadPoolContextHash());
         
         if (engine != null)
         {
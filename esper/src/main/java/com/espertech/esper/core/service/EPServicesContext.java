@@ -18,7 +18,6 @@ import com.espertech.esper.core.service.multimatch.MultiMatchHandlerFactory;
 import com.espertech.esper.core.thread.ThreadingService;
 import com.espertech.esper.dataflow.core.DataFlowService;
 import com.espertech.esper.dispatch.DispatchService;
-import com.espertech.esper.dispatch.DispatchServiceProvider;
 import com.espertech.esper.epl.core.EngineImportService;
 import com.espertech.esper.epl.core.EngineSettingsService;
 import com.espertech.esper.epl.core.ResultSetProcessorHelperFactory;
@@ -139,6 +138,7 @@ public final class EPServicesContext
      * @param engineEnvContext is engine environment/directory information for use with adapters and external env
      * @param plugInPatternObjects resolves plug-in pattern objects
      * @param timerService is the timer service
+     * @param dispatchService is the dispatch service for listener and subscriber delivery
      * @param filterService the filter service
      * @param streamFactoryService is hooking up filters to streams
      * @param namedWindowMgmtService is holding information about the named windows active in the system
@@ -168,6 +168,7 @@ public final class EPServicesContext
                              StatementContextFactory statementContextFactory,
                              PluggableObjectCollection plugInPatternObjects,
                              TimerService timerService,
+                             DispatchService dispatchService,
                              FilterServiceSPI filterService,
                              StreamFactoryService streamFactoryService,
                              NamedWindowMgmtService namedWindowMgmtService,
@@ -218,7 +219,7 @@ public final class EPServicesContext
         this.databaseConfigService = databaseConfigService;
         this.filterService = filterService;
         this.timerService = timerService;
-        this.dispatchService = DispatchServiceProvider.newService();
+        this.dispatchService = dispatchService;
         this.viewService = ViewServiceProvider.newService();
         this.streamFactoryService = streamFactoryService;
         this.plugInViews = plugInViews;
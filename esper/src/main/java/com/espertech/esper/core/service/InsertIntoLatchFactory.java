@@ -11,6 +11,7 @@ package com.espertech.esper.core.service;
 import com.espertech.esper.client.ConfigurationEngineDefaults;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.timer.TimeSourceService;
+import com.espertech.esper.util.SequencedReorderBuffer;
 
 /**
  * Class to hold a current latch per statement that uses an insert-into stream (per statement and insert-into stream
@@ -26,6 +27,8 @@ public class InsertIntoLatchFactory
 
     private InsertIntoLatchSpin currentLatchSpin;
     private InsertIntoLatchWait currentLatchWait;
+    private SequencedReorderBuffer<EventBean> reorderBuffer;
+    private long currentSequence;
 
     /**
      * Ctor.
@@ -49,6 +52,10 @@ public class InsertIntoLatchFactory
         {
             currentLatchSpin = new InsertIntoLatchSpin(this);
         }
+        else if (locking == ConfigurationEngineDefaults.Threading.Locking.REORDER)
+        {
+            reorderBuffer = new SequencedReorderBuffer<EventBean>(name, msecWait, timeSourceService);
+        }
         else
         {
             currentLatchWait = new InsertIntoLatchWait(this);
@@ -73,6 +80,10 @@ public class InsertIntoLatchFactory
             currentLatchSpin = nextLatch;
             return nextLatch;
         }
+        else if (reorderBuffer != null)
+        {
+            return new InsertIntoLatchReorder(reorderBuffer, currentSequence++, payload);
+        }
         else
         {
             InsertIntoLatchWait nextLatch = new InsertIntoLatchWait(currentLatchWait, msecWait, payload);
@@ -89,4 +100,12 @@ public class InsertIntoLatchFactory
     public String getName() {
         return name;
     }
+
+    /**
+     * Returns the reorder buffer when using the reorder strategy.
+     * @return buffer or null if not using the reorder strategy
+     */
+    public SequencedReorderBuffer<EventBean> getReorderBuffer() {
+        return reorderBuffer;
+    }
 }
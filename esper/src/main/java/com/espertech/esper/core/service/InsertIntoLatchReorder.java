@@ -0,0 +1,58 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.util.SequencedReorderBuffer;
+
+import java.util.List;
+
+/**
+ * A non-blocking implementation of a latch for use in guaranteeing delivery between
+ * a single event produced by a single statement and consumable by another statement:
+ * the event carries a sequence number and is released through a reorder buffer
+ * by whichever thread completes the sequence.
+ */
+public class InsertIntoLatchReorder
+{
+    private final SequencedReorderBuffer<EventBean> buffer;
+    private final long sequence;
+    private final EventBean payload;
+
+    /**
+     * Ctor.
+     * @param buffer the reorder buffer of the producing statement
+     * @param sequence the sequence number of the payload
+     * @param payload the payload is an event to deliver
+     */
+    public InsertIntoLatchReorder(SequencedReorderBuffer<EventBean> buffer, long sequence, EventBean payload)
+    {
+        this.buffer = buffer;
+        this.sequence = sequence;
+        this.payload = payload;
+    }
+
+    /**
+     * Adds the payload to the reorder buffer, never blocks.
+     * @return events that the calling thread must process in order, or null if another thread delivers the payload
+     */
+    public List<EventBean> add()
+    {
+        return buffer.add(sequence, payload);
+    }
+
+    /**
+     * Returns the reorder buffer.
+     * @return buffer
+     */
+    public SequencedReorderBuffer<EventBean> getBuffer()
+    {
+        return buffer;
+    }
+}
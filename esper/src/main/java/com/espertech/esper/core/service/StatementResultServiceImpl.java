@@ -27,6 +27,7 @@ import com.espertech.esper.event.NaturalEventBean;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.util.AuditPath;
 import com.espertech.esper.util.ExecutionPathDebugLog;
+import com.espertech.esper.util.MetricUtil;
 import com.espertech.esper.view.ViewSupport;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -240,6 +241,20 @@ public class StatementResultServiceImpl implements StatementResultService
      * @param events to indicate
      */
     public void processDispatch(UniformPair<EventBean[]> events)
+    {
+        if ((MetricReportingPath.isMetricsEnabled) && (statementMetricHandle.isEnabled()))
+        {
+            long wallTimeBefore = MetricUtil.getWall();
+            processDispatchInternal(events);
+            metricReportingService.accountDispatch(statementMetricHandle, MetricUtil.getWall() - wallTimeBefore);
+        }
+        else
+        {
+            processDispatchInternal(events);
+        }
+    }
+
+    private void processDispatchInternal(UniformPair<EventBean[]> events)
     {
         // Plain all-events delivery
         if (!forClauseDelivery) {
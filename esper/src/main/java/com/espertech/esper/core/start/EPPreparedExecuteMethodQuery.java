@@ -10,6 +10,8 @@ package com.espertech.esper.core.start;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.annotation.Hint;
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.client.context.ContextPartitionSelector;
 import com.espertech.esper.collection.MultiKey;
 import com.espertech.esper.collection.Pair;
@@ -22,6 +24,7 @@ import com.espertech.esper.core.service.StatementContext;
 import com.espertech.esper.core.service.StreamJoinAnalysisResult;
 import com.espertech.esper.epl.core.*;
 import com.espertech.esper.epl.expression.table.ExprTableAccessNode;
+import com.espertech.esper.epl.fafquery.FireAndForgetQueryExecParallel;
 import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.epl.expression.core.ExprNodeUtility;
 import com.espertech.esper.epl.expression.core.ExprValidationException;
@@ -44,6 +47,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.util.*;
+import java.util.concurrent.Callable;
 
 /**
  * Starts and provides the stop method for EPL statements.
@@ -62,6 +66,7 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
     private JoinSetComposerPrototype joinSetComposerPrototype;
     private final FilterSpecCompiled[] filters;
     private boolean hasTableAccess;
+    private final int parallelism;
 
     /**
      * Ctor.
@@ -90,6 +95,7 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
         this.services = services;
 
         EPPreparedExecuteMethodHelper.validateFAFQuery(statementSpec);
+        this.parallelism = getParallelism(statementSpec);
 
         int numStreams = statementSpec.getStreamSpecs().length;
         EventType[] typesPerStream = new EventType[numStreams];
@@ -231,13 +237,29 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
                 }
             }
 
+            // filter context partitions, in parallel when requested and there are multiple context partitions
+            List<Collection<EventBean>> snapshots;
+            if (statementSpec.getFilterRootNode() == null) {
+                snapshots = new ArrayList<Collection<EventBean>>(contextPartitionResults.size());
+                for (ContextPartitionResult contextPartitionResult : contextPartitionResults) {
+                    snapshots.add(contextPartitionResult.getEvents());
+                }
+            }
+            else if (parallelism > 1 && contextPartitionResults.size() > 1) {
+                snapshots = getFilteredContextPartitionsParallel(contextPartitionResults);
+            }
+            else {
+                snapshots = new ArrayList<Collection<EventBean>>(contextPartitionResults.size());
+                for (ContextPartitionResult contextPartitionResult : contextPartitionResults) {
+                    snapshots.add(getFiltered(contextPartitionResult.getEvents(), Collections.singletonList(statementSpec.getFilterRootNode())));
+                }
+            }
+
             // process context partitions
             ArrayDeque<EventBean[]> events = new ArrayDeque<EventBean[]>();
-            for (ContextPartitionResult contextPartitionResult : contextPartitionResults) {
-                Collection<EventBean> snapshot = contextPartitionResult.getEvents();
-                if (statementSpec.getFilterRootNode() != null) {
-                    snapshot = getFiltered(snapshot, Collections.singletonList(statementSpec.getFilterRootNode()));
-                }
+            for (int i = 0; i < contextPartitionResults.size(); i++) {
+                ContextPartitionResult contextPartitionResult = contextPartitionResults.get(i);
+                Collection<EventBean> snapshot = snapshots.get(i);
                 EventBean[] rows = snapshot.toArray(new EventBean[snapshot.size()]);
                 resultSetProcessor.setAgentInstanceContext(contextPartitionResult.getContext());
                 UniformPair<EventBean[]> results = resultSetProcessor.processViewResult(rows, null, true);
@@ -356,11 +378,56 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
 
     private Collection<EventBean> getFiltered(Collection<EventBean> snapshot, List<ExprNode> filterExpressions)
     {
+        if (parallelism > 1) {
+            return FireAndForgetQueryExecParallel.filter(snapshot, filterExpressions, agentInstanceContext, services.getThreadingService().getFireAndForgetThreadPool(), parallelism);
+        }
         ArrayDeque<EventBean> deque = new ArrayDeque<EventBean>(Math.min(snapshot.size(), 16));
         ExprNodeUtility.applyFilterExpressionsIterable(snapshot, filterExpressions, agentInstanceContext, deque);
         return deque;
     }
 
+    private List<Collection<EventBean>> getFilteredContextPartitionsParallel(List<ContextPartitionResult> contextPartitionResults)
+    {
+        final List<ExprNode> filterExpressions = Collections.singletonList(statementSpec.getFilterRootNode());
+        List<Callable<Collection<EventBean>>> tasks = new ArrayList<Callable<Collection<EventBean>>>(contextPartitionResults.size());
+        for (ContextPartitionResult contextPartitionResult : contextPartitionResults) {
+            final Collection<EventBean> snapshot = contextPartitionResult.getEvents();
+            tasks.add(new Callable<Collection<EventBean>>() {
+                public Collection<EventBean> call() throws Exception {
+                    ArrayDeque<EventBean> deque = new ArrayDeque<EventBean>(Math.min(snapshot.size(), 16));
+                    ExprNodeUtility.applyFilterExpressionsIterable(snapshot, filterExpressions, agentInstanceContext, deque);
+                    return deque;
+                }
+            });
+        }
+        return FireAndForgetQueryExecParallel.invokeAll(services.getThreadingService().getFireAndForgetThreadPool(), tasks);
+    }
+
+    private static int getParallelism(StatementSpecCompiled statementSpec) throws ExprValidationException
+    {
+        Hint hint = HintEnum.PARALLEL_QUERY.getHint(statementSpec.getAnnotations());
+        if (hint == null) {
+            return 1;
+        }
+        String hintValue = HintEnum.PARALLEL_QUERY.getHintAssignedValue(hint);
+        int parallelism;
+        try {
+            parallelism = Integer.parseInt(hintValue.trim());
+        }
+        catch (NumberFormatException ex) {
+            parallelism = 0;
+        }
+        if (parallelism < 1) {
+            throw new ExprValidationException("Hint '" + HintEnum.PARALLEL_QUERY.getValue() + "' requires a positive number of parts, received '" + hintValue + "'");
+        }
+        boolean hasTableNodes = statementSpec.getTableNodes() != null && statementSpec.getTableNodes().length > 0;
+        boolean hasSubselects = statementSpec.getSubSelectExpressions() != null && statementSpec.getSubSelectExpressions().length > 0;
+        if (hasTableNodes || hasSubselects) {
+            throw new ExprValidationException("Hint '" + HintEnum.PARALLEL_QUERY.getValue() + "' is not supported for queries with table-access expressions or subqueries");
+        }
+        return parallelism;
+    }
+
     public EPServicesContext getServices() {
         return services;
     }
@@ -9,6 +9,8 @@
 package com.espertech.esper.core.start;
 
 import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.annotation.Hint;
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.core.context.factory.StatementAgentInstanceFactoryCreateTable;
 import com.espertech.esper.core.context.factory.StatementAgentInstanceFactoryCreateTableResult;
@@ -43,6 +45,7 @@ import com.espertech.esper.view.Viewable;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.lang.annotation.Annotation;
 import java.util.*;
 
 /**
@@ -84,10 +87,13 @@ public class EPStatementStartMethodCreateTable extends EPStatementStartMethodBas
             TableAccessAnalysisResult plan = analyzePlanAggregations(createDesc.getTableName(), statementContext, columnDescs, services, internalTypeName, publicTypeName);
             final TableStateRowFactory tableStateRowFactory = plan.getStateRowFactory();
 
+            // determine row-level locking
+            int lockStripes = getLockStripes(statementSpec.getAnnotations(), keyTypes);
+
             // register new table
             boolean queryPlanLogging = services.getConfigSnapshot().getEngineDefaults().getLogging().isEnableQueryPlan();
             metadata = services.getTableService().addTable(createDesc.getTableName(), statementContext.getExpression(), statementContext.getStatementName(), keyTypes, plan.getTableColumns(), tableStateRowFactory, plan.getNumberMethodAggregations(), statementContext, plan.getInternalEventType(),
-                    plan.getPublicEventType(), plan.getEventToPublic(), queryPlanLogging);
+                    plan.getPublicEventType(), plan.getEventToPublic(), queryPlanLogging, lockStripes);
         }
         catch (ExprValidationException ex) {
             services.getEventAdapterService().removeType(internalTypeName);
@@ -147,6 +153,30 @@ public class EPStatementStartMethodCreateTable extends EPStatementStartMethodBas
         return new EPStatementStartResult(outputView, stopStatementMethod, destroyStatementMethod);
     }
 
+    private static int getLockStripes(Annotation[] annotations, Class[] keyTypes)
+            throws ExprValidationException
+    {
+        Hint hint = HintEnum.TABLE_LOCK_STRIPES.getHint(annotations);
+        if (hint == null) {
+            return 0;
+        }
+        String hintValue = HintEnum.TABLE_LOCK_STRIPES.getHintAssignedValue(hint);
+        int lockStripes;
+        try {
+            lockStripes = Integer.parseInt(hintValue.trim());
+        }
+        catch (NumberFormatException ex) {
+            lockStripes = 0;
+        }
+        if (lockStripes < 1) {
+            throw new ExprValidationException("Hint '" + HintEnum.TABLE_LOCK_STRIPES.getValue() + "' requires a positive number of lock stripes, received '" + hintValue + "'");
+        }
+        if (keyTypes.length == 0) {
+            throw new ExprValidationException("Hint '" + HintEnum.TABLE_LOCK_STRIPES.getValue() + "' requires a table with primary key columns");
+        }
+        return lockStripes;
+    }
+
     private Class[] getKeyTypes(List<CreateTableColumn> columns, EngineImportService engineImportService)
             throws ExprValidationException
     {
@@ -33,11 +33,15 @@ import com.espertech.esper.epl.spec.StatementSpecCompiled;
 import com.espertech.esper.epl.view.OutputProcessViewFactory;
 import com.espertech.esper.epl.view.OutputProcessViewFactoryFactory;
 import com.espertech.esper.epl.virtualdw.VirtualDWViewFactory;
+import com.espertech.esper.event.offheap.OffHeapEventStore;
 import com.espertech.esper.event.vaevent.ValueAddEventProcessor;
 import com.espertech.esper.metrics.instrumentation.InstrumentationAgent;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.util.StopCallback;
 import com.espertech.esper.view.*;
+import com.espertech.esper.view.std.LastElementViewFactory;
+import com.espertech.esper.view.std.UniqueByPropertyViewFactory;
+import com.espertech.esper.view.window.*;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -96,7 +100,11 @@ public class EPStatementStartMethodCreateWindow extends EPStatementStartMethodBa
         boolean isBatchingDataWindow = determineBatchingDataWindow(unmaterializedViewChain.getViewFactoryChain());
         final VirtualDWViewFactory virtualDataWindowFactory = determineVirtualDataWindow(unmaterializedViewChain.getViewFactoryChain());
         Set<String> optionalUniqueKeyProps = ViewServiceHelper.getUniqueCandidateProperties(unmaterializedViewChain.getViewFactoryChain(), statementSpec.getAnnotations());
-        NamedWindowProcessor processor = services.getNamedWindowMgmtService().addProcessor(windowName, contextName, filterStreamSpec.getFilterSpec().getResultEventType(), statementContext.getStatementResultService(), optionalRevisionProcessor, statementContext.getExpression(), statementContext.getStatementName(), isPrioritized, isEnableSubqueryIndexShare, isBatchingDataWindow, virtualDataWindowFactory != null, optionalUniqueKeyProps,
+        boolean isOffHeapStorage = HintEnum.ENABLE_WINDOW_OFFHEAP_STORAGE.getHint(statementSpec.getAnnotations()) != null;
+        if (isOffHeapStorage) {
+            verifyOffHeapStorage(unmaterializedViewChain.getViewFactoryChain(), filterStreamSpec.getFilterSpec().getResultEventType(), optionalRevisionProcessor);
+        }
+        NamedWindowProcessor processor = services.getNamedWindowMgmtService().addProcessor(windowName, contextName, filterStreamSpec.getFilterSpec().getResultEventType(), statementContext.getStatementResultService(), optionalRevisionProcessor, statementContext.getExpression(), statementContext.getStatementName(), isPrioritized, isEnableSubqueryIndexShare, isBatchingDataWindow, virtualDataWindowFactory != null, isOffHeapStorage, optionalUniqueKeyProps,
                 statementSpec.getCreateWindowDesc().getAsEventTypeName(),
                 statementContext, services.getNamedWindowDispatchService());
 
@@ -226,4 +234,25 @@ public class EPStatementStartMethodCreateWindow extends EPStatementStartMethodBa
         }
         throw new ExprValidationException(NamedWindowMgmtService.ERROR_MSG_DATAWINDOWS);
     }
+
+    private void verifyOffHeapStorage(List<ViewFactory> viewFactories, EventType eventType, ValueAddEventProcessor optionalRevisionProcessor) throws ExprValidationException {
+        if (optionalRevisionProcessor != null || !OffHeapEventStore.isSupported(eventType)) {
+            throw new ExprValidationException("Off-heap storage requires a named window holding object-array or map events");
+        }
+        // each event that enters must leave through the data window remove stream for its memory to be freed
+        if (viewFactories.size() == 1) {
+            ViewFactory viewFactory = viewFactories.get(0);
+            if (viewFactory instanceof KeepAllViewFactory ||
+                viewFactory instanceof UniqueByPropertyViewFactory ||
+                viewFactory instanceof LengthWindowViewFactory ||
+                viewFactory instanceof TimeWindowViewFactory ||
+                viewFactory instanceof LengthBatchViewFactory ||
+                viewFactory instanceof TimeBatchViewFactory ||
+                viewFactory instanceof ExternallyTimedWindowViewFactory ||
+                viewFactory instanceof LastElementViewFactory) {
+                return;
+            }
+        }
+        throw new ExprValidationException("Off-heap storage requires a single keep-all, unique, length, time, length-batch, time-batch, externally-timed or last-event data window");
+    }
 }
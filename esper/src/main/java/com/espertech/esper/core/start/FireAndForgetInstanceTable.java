@@ -82,6 +82,7 @@ public class FireAndForgetInstanceTable extends FireAndForgetInstance {
 
     public Collection<EventBean> snapshotBestEffort(EPPreparedExecuteMethodQuery query, FilterSpecCompiled filter, Annotation[] annotations) {
         ExprTableEvalLockUtil.obtainLockUnless(instance.getTableLevelRWLock().readLock(), query.getAgentInstanceContext());
+        ExprTableEvalLockUtil.obtainAllRowLocksUnless(instance, query.getAgentInstanceContext());
         Collection<EventBean> events = snapshotNullWhenNoIndex(filter, annotations, null, null);
         if (events != null) {
             return events;
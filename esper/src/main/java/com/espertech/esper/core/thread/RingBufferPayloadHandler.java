@@ -0,0 +1,24 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.thread;
+
+/**
+ * Processes payloads published to a ring buffer thread pool without a unit.
+ */
+public interface RingBufferPayloadHandler
+{
+    /**
+     * Process the payload.
+     * @param payload published
+     */
+    public void handle(Object payload);
+}
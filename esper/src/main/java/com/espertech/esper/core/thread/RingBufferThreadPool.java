@@ -0,0 +1,270 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Thread pool over a bounded ring buffer of pre-allocated slots.
+ * <p>
+ * Submitting threads claim a slot and publish into it, worker threads claim published slots, both by
+ * compare-and-set on a position and without taking a lock. Each slot carries a sequence number that tells
+ * whether the slot is free for the current lap of publishers or published for the current lap of workers.
+ * Slots are reused, and publishing a payload for the payload handler does not allocate.
+ * <p>
+ * When the ring buffer is full the submitting thread waits, and when it is empty the worker threads wait,
+ * according to the wait strategy.
+ */
+public class RingBufferThreadPool
+{
+    private static final Log log = LogFactory.getLog(RingBufferThreadPool.class);
+
+    private static final int DEFAULT_CAPACITY = 64 * 1024;
+    private static final long PARK_NANOS = 1000;
+    private static final int PARK_SPINS = 100;
+    private static final int YIELD_SPINS = 10000;
+
+    private final String name;
+    private final ConfigurationEngineDefaults.Threading.WaitStrategy waitStrategy;
+    private final RingBufferPayloadHandler payloadHandler;
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final Runnable[] units;
+    private final Object[] payloads;
+    private final AtomicLong publishPosition = new AtomicLong();
+    private final AtomicLong consumePosition = new AtomicLong();
+    private final Thread[] threads;
+    private volatile boolean running = true;
+
+    /**
+     * Ctor.
+     * @param engineURI engine URI
+     * @param name name of pool
+     * @param capacity number of slots, rounded up to a power of two, or null for the default
+     * @param numThreads number of worker threads
+     * @param waitStrategy strategy for waiting threads
+     * @param payloadHandler handler for payloads published without a unit, or null if not used
+     */
+    public RingBufferThreadPool(String engineURI, String name, Integer capacity, int numThreads, ConfigurationEngineDefaults.Threading.WaitStrategy waitStrategy, RingBufferPayloadHandler payloadHandler)
+    {
+        if (log.isInfoEnabled())
+        {
+            log.info("Starting ring buffer pool " + name + " with " + numThreads + " threads");
+        }
+
+        int size = getSize(capacity);
+        this.name = name;
+        this.waitStrategy = waitStrategy;
+        this.payloadHandler = payloadHandler;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.units = new Runnable[size];
+        this.payloads = new Object[size];
+        for (int i = 0; i < size; i++)
+        {
+            sequences.set(i, i);
+        }
+
+        if (engineURI == null)
+        {
+            engineURI = "default";
+        }
+        String threadGroupName = "com.espertech.esper." + engineURI + "-" + name;
+        EngineThreadFactory threadFactory = new EngineThreadFactory(engineURI, name, new ThreadGroup(threadGroupName), Thread.NORM_PRIORITY);
+        Runnable worker = new Runnable() {
+            public void run() {
+                work();
+            }
+        };
+        threads = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++)
+        {
+            threads[i] = threadFactory.newThread(worker);
+            threads[i].start();
+        }
+    }
+
+    /**
+     * Submit a unit for execution by a worker thread.
+     * @param unit to execute
+     */
+    public void submit(Runnable unit)
+    {
+        publish(unit, null);
+    }
+
+    /**
+     * Submit a payload for the payload handler.
+     * @param payload to handle
+     */
+    public void submitPayload(Object payload)
+    {
+        publish(null, payload);
+    }
+
+    /**
+     * Returns the number of units and payloads published and not yet taken by a worker thread.
+     * @return size
+     */
+    public int size()
+    {
+        long size = publishPosition.get() - consumePosition.get();
+        return size < 0 ? 0 : (int) size;
+    }
+
+    /**
+     * Discards units not yet taken, and stops the worker threads waiting for the given time at most.
+     * @param timeoutMSec time to wait for worker threads
+     */
+    public void shutdown(long timeoutMSec)
+    {
+        if (log.isInfoEnabled())
+        {
+            log.info("Shutting down ring buffer pool " + name);
+        }
+
+        running = false;
+        long deadline = System.currentTimeMillis() + timeoutMSec;
+        for (Thread thread : threads)
+        {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0)
+            {
+                break;
+            }
+            try
+            {
+                thread.join(remaining);
+            }
+            catch (InterruptedException e)
+            {
+                log.error("Interruped awaiting termination", e);
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    private void publish(Runnable unit, Object payload)
+    {
+        int idleCount = 0;
+        while (true)
+        {
+            long position = publishPosition.get();
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0)
+            {
+                if (publishPosition.compareAndSet(position, position + 1))
+                {
+                    units[index] = unit;
+                    payloads[index] = payload;
+                    sequences.lazySet(index, position + 1);
+                    return;
+                }
+            }
+            else if (difference < 0)
+            {
+                // full
+                if (!running)
+                {
+                    return;
+                }
+                idleCount = idle(idleCount);
+            }
+        }
+    }
+
+    private void work()
+    {
+        int idleCount = 0;
+        while (running)
+        {
+            long position = consumePosition.get();
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0)
+            {
+                if (consumePosition.compareAndSet(position, position + 1))
+                {
+                    Runnable unit = units[index];
+                    Object payload = payloads[index];
+                    units[index] = null;
+                    payloads[index] = null;
+                    sequences.lazySet(index, position + mask + 1);
+                    idleCount = 0;
+                    execute(unit, payload);
+                }
+            }
+            else if (difference < 0)
+            {
+                // empty
+                idleCount = idle(idleCount);
+            }
+        }
+    }
+
+    private void execute(Runnable unit, Object payload)
+    {
+        try
+        {
+            if (unit != null)
+            {
+                unit.run();
+            }
+            else
+            {
+                payloadHandler.handle(payload);
+            }
+        }
+        catch (RuntimeException e)
+        {
+            log.error("Unexpected error executing unit in pool " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+    private int idle(int idleCount)
+    {
+        if (waitStrategy == ConfigurationEngineDefaults.Threading.WaitStrategy.BUSYSPIN)
+        {
+            return idleCount;
+        }
+        int spins = waitStrategy == ConfigurationEngineDefaults.Threading.WaitStrategy.YIELD ? YIELD_SPINS : PARK_SPINS;
+        if (idleCount < spins)
+        {
+            Thread.yield();
+            return idleCount + 1;
+        }
+        LockSupport.parkNanos(PARK_NANOS);
+        return idleCount;
+    }
+
+    private static int getSize(Integer capacity)
+    {
+        if ((capacity == null) || (capacity <= 0) || (capacity == Integer.MAX_VALUE))
+        {
+            return DEFAULT_CAPACITY;
+        }
+        if (capacity > (1 << 30))
+        {
+            return 1 << 30;
+        }
+        int size = Integer.highestOneBit(capacity);
+        return size == capacity ? size : size << 1;
+    }
+}
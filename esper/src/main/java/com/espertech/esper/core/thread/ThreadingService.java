@@ -15,6 +15,7 @@ import com.espertech.esper.core.service.EPRuntimeImpl;
 import com.espertech.esper.core.service.EPServicesContext;
 
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 
 /**
@@ -58,6 +59,13 @@ public interface ThreadingService
      */
     public void submitInbound(InboundUnitRunnable unit);
 
+    /**
+     * Submit an unwrapped event for inbound processing.
+     * @param theEvent to process
+     * @param runtime to process event
+     */
+    public void submitInboundEvent(Object theEvent, EPRuntimeImpl runtime);
+
     /**
      * Returns true for route execution threading enabled.
      * @return indicator
@@ -82,6 +90,32 @@ public interface ThreadingService
      */
     public void submitOutbound(OutboundUnitRunnable unit);
 
+    /**
+     * Returns true for context-hash threading enabled.
+     * @return indicator
+     */
+    public boolean isContextHashThreading();
+
+    /**
+     * Returns the number of context-hash threads.
+     * @return number of threads
+     */
+    public int getContextHashNumThreads();
+
+    /**
+     * Submit work for the context partitions pinned to the given context-hash thread.
+     * @param affinity index of the context-hash thread
+     * @param unit unit of work
+     */
+    public void submitContextHash(int affinity, Runnable unit);
+
+    /**
+     * Returns the thread pool for executing parts of fire-and-forget queries in parallel,
+     * starting the thread pool upon first use.
+     * @return thread pool
+     */
+    public ExecutorService getFireAndForgetThreadPool();
+
     /**
      * Returns the outbound queue.
      * @return queue
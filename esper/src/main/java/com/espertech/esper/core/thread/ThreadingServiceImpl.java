@@ -12,6 +12,7 @@
 package com.espertech.esper.core.thread;
 
 import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.client.ConfigurationException;
 import com.espertech.esper.core.service.EPRuntimeImpl;
 import com.espertech.esper.core.service.EPServicesContext;
 import org.apache.commons.logging.Log;
@@ -31,6 +32,7 @@ public class ThreadingServiceImpl implements ThreadingService
     private final boolean isInboundThreading;
     private final boolean isRouteThreading;
     private final boolean isOutboundThreading;
+    private final boolean isContextHashThreading;
 
     private BlockingQueue<Runnable> timerQueue;
     private BlockingQueue<Runnable> inboundQueue;
@@ -42,6 +44,19 @@ public class ThreadingServiceImpl implements ThreadingService
     private ThreadPoolExecutor routeThreadPool;
     private ThreadPoolExecutor outboundThreadPool;
 
+    private BlockingQueue<Runnable>[] contextHashQueues;
+    private ThreadPoolExecutor[] contextHashThreadPools;
+
+    private RingBufferThreadPool timerRingBuffer;
+    private RingBufferThreadPool inboundRingBuffer;
+    private RingBufferThreadPool routeRingBuffer;
+    private RingBufferThreadPool outboundRingBuffer;
+    private RingBufferThreadPool[] contextHashRingBuffers;
+
+    private String engineURI;
+    private BlockingQueue<Runnable> fireAndForgetQueue;
+    private ThreadPoolExecutor fireAndForgetThreadPool;
+
     /**
      * Ctor.
      * @param threadingConfig configuration
@@ -55,6 +70,11 @@ public class ThreadingServiceImpl implements ThreadingService
             isInboundThreading = threadingConfig.isThreadPoolInbound();
             isRouteThreading = threadingConfig.isThreadPoolRouteExec();
             isOutboundThreading = threadingConfig.isThreadPoolOutbound();
+            isContextHashThreading = threadingConfig.isThreadPoolContextHash();
+            if (isContextHashThreading && threadingConfig.getThreadPoolContextHashNumThreads() < 1)
+            {
+                throw new ConfigurationException("Invalid number of threads for the context-hash thread pool, expecting a value of at least 1 but received " + threadingConfig.getThreadPoolContextHashNumThreads());
+            }
         }
         else
         {
@@ -62,6 +82,7 @@ public class ThreadingServiceImpl implements ThreadingService
             isInboundThreading = false;
             isRouteThreading = false;
             isOutboundThreading = false;
+            isContextHashThreading = false;
         }
     }
 
@@ -85,8 +106,26 @@ public class ThreadingServiceImpl implements ThreadingService
         return isOutboundThreading;
     }
 
-    public void initThreading(EPServicesContext services, EPRuntimeImpl runtime)
+    public boolean isContextHashThreading()
+    {
+        return isContextHashThreading;
+    }
+
+    public int getContextHashNumThreads()
     {
+        return config.getThreadPoolContextHashNumThreads();
+    }
+
+    public void initThreading(EPServicesContext services, final EPRuntimeImpl runtime)
+    {
+        engineURI = services.getEngineURI();
+
+        if (config.isThreadPoolRingBuffer())
+        {
+            initRingBuffers(services.getEngineURI(), runtime);
+            return;
+        }
+
         if (isInboundThreading)
         {
             inboundQueue = makeQueue(config.getThreadPoolInboundCapacity());
@@ -110,6 +149,65 @@ public class ThreadingServiceImpl implements ThreadingService
             outboundQueue = makeQueue(config.getThreadPoolOutboundCapacity());
             outboundThreadPool = getThreadPool(services.getEngineURI(), "Outbound", outboundQueue, config.getThreadPoolOutboundNumThreads());
         }
+
+        // each context-hash thread has its own queue so that work for a range of hash codes stays on one thread
+        if (isContextHashThreading)
+        {
+            int numThreads = config.getThreadPoolContextHashNumThreads();
+            contextHashQueues = new BlockingQueue[numThreads];
+            contextHashThreadPools = new ThreadPoolExecutor[numThreads];
+            for (int i = 0; i < numThreads; i++)
+            {
+                contextHashQueues[i] = makeQueue(config.getThreadPoolContextHashCapacity());
+                contextHashThreadPools[i] = getThreadPool(services.getEngineURI(), "ContextHash-" + i, contextHashQueues[i], 1);
+            }
+        }
+    }
+
+    private void initRingBuffers(String engineURI, final EPRuntimeImpl runtime)
+    {
+        ConfigurationEngineDefaults.Threading.WaitStrategy waitStrategy = config.getThreadPoolRingBufferWaitStrategy();
+        if (isInboundThreading)
+        {
+            RingBufferPayloadHandler sendEventHandler = new RingBufferPayloadHandler() {
+                public void handle(Object payload) {
+                    try
+                    {
+                        runtime.processEvent(payload);
+                    }
+                    catch (RuntimeException e)
+                    {
+                        log.error("Unexpected error processing unwrapped event: " + e.getMessage(), e);
+                    }
+                }
+            };
+            inboundRingBuffer = new RingBufferThreadPool(engineURI, "Inbound", config.getThreadPoolInboundCapacity(), config.getThreadPoolInboundNumThreads(), waitStrategy, sendEventHandler);
+        }
+
+        if (isTimerThreading)
+        {
+            timerRingBuffer = new RingBufferThreadPool(engineURI, "TimerExec", config.getThreadPoolTimerExecCapacity(), config.getThreadPoolTimerExecNumThreads(), waitStrategy, null);
+        }
+
+        if (isRouteThreading)
+        {
+            routeRingBuffer = new RingBufferThreadPool(engineURI, "RouteExec", config.getThreadPoolRouteExecCapacity(), config.getThreadPoolRouteExecNumThreads(), waitStrategy, null);
+        }
+
+        if (isOutboundThreading)
+        {
+            outboundRingBuffer = new RingBufferThreadPool(engineURI, "Outbound", config.getThreadPoolOutboundCapacity(), config.getThreadPoolOutboundNumThreads(), waitStrategy, null);
+        }
+
+        if (isContextHashThreading)
+        {
+            int numThreads = config.getThreadPoolContextHashNumThreads();
+            contextHashRingBuffers = new RingBufferThreadPool[numThreads];
+            for (int i = 0; i < numThreads; i++)
+            {
+                contextHashRingBuffers[i] = new RingBufferThreadPool(engineURI, "ContextHash-" + i, config.getThreadPoolContextHashCapacity(), 1, waitStrategy, null);
+            }
+        }
     }
 
     private BlockingQueue<Runnable> makeQueue(Integer threadPoolTimerExecCapacity)
@@ -128,6 +226,11 @@ public class ThreadingServiceImpl implements ThreadingService
 
     public void submitRoute(RouteUnitRunnable unit)
     {
+        if (routeRingBuffer != null)
+        {
+            routeRingBuffer.submit(unit);
+            return;
+        }
         try
         {
             routeQueue.put(unit);
@@ -140,6 +243,11 @@ public class ThreadingServiceImpl implements ThreadingService
 
     public void submitInbound(InboundUnitRunnable unit)
     {
+        if (inboundRingBuffer != null)
+        {
+            inboundRingBuffer.submit(unit);
+            return;
+        }
         try
         {
             inboundQueue.put(unit);
@@ -150,8 +258,23 @@ public class ThreadingServiceImpl implements ThreadingService
         }
     }
 
+    public void submitInboundEvent(Object theEvent, EPRuntimeImpl runtime)
+    {
+        if (inboundRingBuffer != null)
+        {
+            inboundRingBuffer.submitPayload(theEvent);
+            return;
+        }
+        submitInbound(new InboundUnitSendEvent(theEvent, runtime));
+    }
+
     public void submitOutbound(OutboundUnitRunnable unit)
     {
+        if (outboundRingBuffer != null)
+        {
+            outboundRingBuffer.submit(unit);
+            return;
+        }
         try
         {
             outboundQueue.put(unit);
@@ -162,8 +285,30 @@ public class ThreadingServiceImpl implements ThreadingService
         }
     }
 
+    public void submitContextHash(int affinity, Runnable unit)
+    {
+        if (contextHashRingBuffers != null)
+        {
+            contextHashRingBuffers[affinity].submit(unit);
+            return;
+        }
+        try
+        {
+            contextHashQueues[affinity].put(unit);
+        }
+        catch (InterruptedException e)
+        {
+            log.info("Submit interrupted:" + e);
+        }
+    }
+
     public void submitTimerWork(TimerUnit unit)
     {
+        if (timerRingBuffer != null)
+        {
+            timerRingBuffer.submit(unit);
+            return;
+        }
         try
         {
             timerQueue.put(unit);
@@ -214,8 +359,23 @@ public class ThreadingServiceImpl implements ThreadingService
         return inboundThreadPool;
     }
 
+    public synchronized ExecutorService getFireAndForgetThreadPool()
+    {
+        if (fireAndForgetThreadPool == null)
+        {
+            fireAndForgetQueue = new LinkedBlockingQueue<Runnable>();
+            fireAndForgetThreadPool = getThreadPool(engineURI, "FireAndForget", fireAndForgetQueue, Runtime.getRuntime().availableProcessors());
+        }
+        return fireAndForgetThreadPool;
+    }
+
     public synchronized void destroy()
     {
+        if (fireAndForgetThreadPool != null)
+        {
+            stopPool(fireAndForgetThreadPool, fireAndForgetQueue, "FireAndForget");
+            fireAndForgetThreadPool = null;
+        }
         if (timerThreadPool != null)
         {
             stopPool(timerThreadPool, timerQueue, "TimerExec");
@@ -232,11 +392,49 @@ public class ThreadingServiceImpl implements ThreadingService
         {
             stopPool(inboundThreadPool, inboundQueue, "Inbound");
         }
+        if (contextHashThreadPools != null)
+        {
+            for (int i = 0; i < contextHashThreadPools.length; i++)
+            {
+                stopPool(contextHashThreadPools[i], contextHashQueues[i], "ContextHash-" + i);
+            }
+        }
 
         timerThreadPool = null;
         routeThreadPool = null;
         outboundThreadPool = null;
         inboundThreadPool = null;
+        contextHashThreadPools = null;
+
+        if (timerRingBuffer != null)
+        {
+            timerRingBuffer.shutdown(10000);
+        }
+        if (routeRingBuffer != null)
+        {
+            routeRingBuffer.shutdown(10000);
+        }
+        if (outboundRingBuffer != null)
+        {
+            outboundRingBuffer.shutdown(10000);
+        }
+        if (inboundRingBuffer != null)
+        {
+            inboundRingBuffer.shutdown(10000);
+        }
+        if (contextHashRingBuffers != null)
+        {
+            for (RingBufferThreadPool ringBuffer : contextHashRingBuffers)
+            {
+                ringBuffer.shutdown(10000);
+            }
+        }
+
+        timerRingBuffer = null;
+        routeRingBuffer = null;
+        outboundRingBuffer = null;
+        inboundRingBuffer = null;
+        contextHashRingBuffers = null;
     }
 
     private ThreadPoolExecutor getThreadPool(String engineURI, String name, BlockingQueue<Runnable> queue, int numThreads)
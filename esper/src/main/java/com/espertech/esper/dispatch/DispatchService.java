@@ -36,4 +36,10 @@ public interface DispatchService
      */
     public void dispatch();
 
+    /**
+     * Returns indicator whether any Dispatchable was added by the current thread and not yet executed.
+     * @return true for pending dispatches
+     */
+    public boolean isDispatchPending();
+
 }
@@ -0,0 +1,31 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+/**
+ * Aggregation method that accepts primitive double values, for use with evaluators that
+ * compute a primitive double result so that the value is not boxed.
+ * <p>
+ * Entering or leaving a primitive value has the same effect as entering or leaving the equivalent non-null number.
+ * For filtered aggregations the caller evaluates the filter and only enters or leaves values that pass the filter.
+ */
+public interface AggregationMethodDouble extends AggregationMethod
+{
+    /**
+     * Apply the value as entering aggregation (entering window).
+     * @param value to add to aggregate
+     */
+    public void enterDouble(double value);
+
+    /**
+     * Apply the value as leaving aggregation (leaving window).
+     * @param value to remove from aggregate
+     */
+    public void leaveDouble(double value);
+}
@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Average that generates double-typed numbers.
  */
-public class AggregatorAvg implements AggregationMethod
+public class AggregatorAvg implements AggregationMethodDouble
 {
     protected double sum;
     protected long numDataPoints;
@@ -45,6 +45,23 @@ public class AggregatorAvg implements AggregationMethod
         }
     }
 
+    public void enterDouble(double value)
+    {
+        numDataPoints++;
+        sum += value;
+    }
+
+    public void leaveDouble(double value)
+    {
+        if (numDataPoints <= 1) {
+            clear();
+        }
+        else {
+            numDataPoints--;
+            sum -= value;
+        }
+    }
+
     public Object getValue()
     {
         if (numDataPoints == 0) {
@@ -14,7 +14,7 @@ import com.espertech.esper.collection.SortedRefCountedSet;
 /**
  * Min/max aggregator for all values.
  */
-public class AggregatorMinMax implements AggregationMethod
+public class AggregatorMinMax implements AggregationMethodDouble, AggregationMethodLong
 {
     protected final MinMaxTypeEnum minMaxTypeEnum;
 
@@ -54,6 +54,26 @@ public class AggregatorMinMax implements AggregationMethod
         refSet.remove(object);
     }
 
+    public void enterDouble(double value)
+    {
+        refSet.add(value);
+    }
+
+    public void leaveDouble(double value)
+    {
+        refSet.remove(value);
+    }
+
+    public void enterLong(long value)
+    {
+        refSet.add(value);
+    }
+
+    public void leaveLong(long value)
+    {
+        refSet.remove(value);
+    }
+
     public Object getValue()
     {
         if (minMaxTypeEnum == MinMaxTypeEnum.MAX)
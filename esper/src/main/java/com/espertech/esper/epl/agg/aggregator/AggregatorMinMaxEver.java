@@ -15,7 +15,7 @@ import org.apache.commons.logging.LogFactory;
 /**
  * Min/max aggregator for all values, not considering events leaving the aggregation (i.e. ever).
  */
-public class AggregatorMinMaxEver implements AggregationMethod
+public class AggregatorMinMaxEver implements AggregationMethodDouble, AggregationMethodLong
 {
     private static final Log log = LogFactory.getLog(AggregatorMinMaxEver.class);
 
@@ -66,6 +66,41 @@ public class AggregatorMinMaxEver implements AggregationMethod
         log.warn(".leave Received remove stream, none was expected");
     }
 
+    public void enterDouble(double value)
+    {
+        // compared as Double.compareTo does, the value is only boxed when it becomes the new minimum or maximum
+        if (currentMinMax == null) {
+            currentMinMax = value;
+            return;
+        }
+        int compared = Double.compare((Double) currentMinMax, value);
+        if (minMaxTypeEnum == MinMaxTypeEnum.MAX ? compared < 0 : compared > 0) {
+            currentMinMax = value;
+        }
+    }
+
+    public void leaveDouble(double value)
+    {
+        log.warn(".leaveDouble Received remove stream, none was expected");
+    }
+
+    public void enterLong(long value)
+    {
+        if (currentMinMax == null) {
+            currentMinMax = value;
+            return;
+        }
+        long current = (Long) currentMinMax;
+        if (minMaxTypeEnum == MinMaxTypeEnum.MAX ? current < value : current > value) {
+            currentMinMax = value;
+        }
+    }
+
+    public void leaveLong(long value)
+    {
+        log.warn(".leaveLong Received remove stream, none was expected");
+    }
+
     public Object getValue()
     {
         return currentMinMax;
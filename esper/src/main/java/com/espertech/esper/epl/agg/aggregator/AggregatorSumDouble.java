@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Sum for double values.
  */
-public class AggregatorSumDouble implements AggregationMethod
+public class AggregatorSumDouble implements AggregationMethodDouble
 {
     protected double sum;
     protected long numDataPoints;
@@ -47,6 +47,23 @@ public class AggregatorSumDouble implements AggregationMethod
         }
     }
 
+    public void enterDouble(double value)
+    {
+        numDataPoints++;
+        sum += value;
+    }
+
+    public void leaveDouble(double value)
+    {
+        if (numDataPoints <= 1) {
+            clear();
+        }
+        else {
+            numDataPoints--;
+            sum -= value;
+        }
+    }
+
     public Object getValue()
     {
         if (numDataPoints == 0)
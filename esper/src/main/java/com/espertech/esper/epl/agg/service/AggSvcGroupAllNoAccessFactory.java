@@ -18,13 +18,16 @@ import com.espertech.esper.epl.expression.core.ExprEvaluator;
  */
 public class AggSvcGroupAllNoAccessFactory extends AggregationServiceFactoryBase
 {
-    public AggSvcGroupAllNoAccessFactory(ExprEvaluator evaluators[], AggregationMethodFactory aggregators[]) {
+    private final AggSvcPrimitiveEvaluator[] primitiveEvaluators;
+
+    public AggSvcGroupAllNoAccessFactory(ExprEvaluator evaluators[], AggregationMethodFactory aggregators[], boolean join) {
         super(evaluators, aggregators);
+        this.primitiveEvaluators = AggSvcGroupByUtil.getPrimitiveEvaluators(evaluators, aggregators, join);
     }
 
     public AggregationService makeService(AgentInstanceContext agentInstanceContext, EngineImportService engineImportService, boolean isSubquery, Integer subqueryNumber) {
 
         AggregationMethod[] aggregatorsAgentInstance = AggSvcGroupByUtil.newAggregators(super.aggregators);
-        return new AggSvcGroupAllNoAccessImpl(evaluators, aggregatorsAgentInstance, aggregators);
+        return new AggSvcGroupAllNoAccessImpl(evaluators, aggregatorsAgentInstance, aggregators, primitiveEvaluators);
     }
 }
@@ -21,14 +21,19 @@ import java.util.Collection;
  */
 public class AggSvcGroupAllNoAccessImpl extends AggregationServiceBaseUngrouped
 {
+    private final AggSvcPrimitiveEvaluator[] primitiveEvaluators;
+
     /**
      * Ctor.
      * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
      * @param aggregators - collect the aggregation state that evaluators evaluate to
+     * @param aggregatorFactories - aggregation method factories
+     * @param primitiveEvaluators - primitive evaluators for aggregations that enter and leave primitive longs or doubles, or null
      */
-    public AggSvcGroupAllNoAccessImpl(ExprEvaluator evaluators[], AggregationMethod aggregators[], AggregationMethodFactory aggregatorFactories[])
+    public AggSvcGroupAllNoAccessImpl(ExprEvaluator evaluators[], AggregationMethod aggregators[], AggregationMethodFactory aggregatorFactories[], AggSvcPrimitiveEvaluator[] primitiveEvaluators)
     {
         super(evaluators, aggregators, aggregatorFactories, new AggregationStateFactory[0]);
+        this.primitiveEvaluators = primitiveEvaluators != null ? primitiveEvaluators : new AggSvcPrimitiveEvaluator[evaluators.length];
     }
 
     public void applyEnter(EventBean[] eventsPerStream, Object optionalGroupKeyPerRow, ExprEvaluatorContext exprEvaluatorContext)
@@ -37,8 +42,13 @@ public class AggSvcGroupAllNoAccessImpl extends AggregationServiceBaseUngrouped
         for (int j = 0; j < evaluators.length; j++)
         {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(true, j, aggregators[j], aggregatorFactories[j].getAggregationExpression());}
-            Object columnResult = evaluators[j].evaluate(eventsPerStream, true, exprEvaluatorContext);
-            aggregators[j].enter(columnResult);
+            if (primitiveEvaluators[j] != null) {
+                primitiveEvaluators[j].apply(aggregators[j], true, eventsPerStream, exprEvaluatorContext);
+            }
+            else {
+                Object columnResult = evaluators[j].evaluate(eventsPerStream, true, exprEvaluatorContext);
+                aggregators[j].enter(columnResult);
+            }
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(true, j, aggregators[j]);}
         }
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationUngroupedApplyEnterLeave(true);}
@@ -50,8 +60,13 @@ public class AggSvcGroupAllNoAccessImpl extends AggregationServiceBaseUngrouped
         for (int j = 0; j < evaluators.length; j++)
         {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(false, j, aggregators[j], aggregatorFactories[j].getAggregationExpression());}
-            Object columnResult = evaluators[j].evaluate(eventsPerStream, false, exprEvaluatorContext);
-            aggregators[j].leave(columnResult);
+            if (primitiveEvaluators[j] != null) {
+                primitiveEvaluators[j].apply(aggregators[j], false, eventsPerStream, exprEvaluatorContext);
+            }
+            else {
+                Object columnResult = evaluators[j].evaluate(eventsPerStream, false, exprEvaluatorContext);
+                aggregators[j].leave(columnResult);
+            }
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(false, j, aggregators[j]);}
         }
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationUngroupedApplyEnterLeave(false);}
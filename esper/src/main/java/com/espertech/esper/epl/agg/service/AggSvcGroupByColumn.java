@@ -0,0 +1,688 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.epl.agg.aggregator.*;
+import com.espertech.esper.epl.agg.factory.AggregationMethodFactoryAvg;
+import com.espertech.esper.epl.agg.factory.AggregationMethodFactoryCount;
+import com.espertech.esper.epl.agg.factory.AggregationMethodFactoryStddev;
+import com.espertech.esper.epl.agg.factory.AggregationMethodFactorySum;
+
+import java.util.Arrays;
+
+/**
+ * Aggregation state of one aggregation function for all groups, kept in flat primitive arrays indexed by group slot.
+ * <p>
+ * Each implementation computes the same values as the aggregator it stands in for.
+ */
+public abstract class AggSvcGroupByColumn
+{
+    /**
+     * Number of values per slot.
+     */
+    protected long[] numDataPoints;
+
+    /**
+     * Apply the value as entering aggregation for the slot.
+     * @param slot group slot
+     * @param value to add
+     */
+    public abstract void enter(int slot, Object value);
+
+    /**
+     * Apply the value as leaving aggregation for the slot.
+     * @param slot group slot
+     * @param value to remove
+     */
+    public abstract void leave(int slot, Object value);
+
+    /**
+     * Returns the current value for the slot.
+     * @param slot group slot
+     * @return value
+     */
+    public abstract Object getValue(int slot);
+
+    /**
+     * Ctor.
+     * @param capacity number of slots
+     */
+    protected AggSvcGroupByColumn(int capacity)
+    {
+        numDataPoints = new long[capacity];
+    }
+
+    /**
+     * Apply the primitive value as entering aggregation for the slot.
+     * @param slot group slot
+     * @param value to add
+     */
+    public void enterDouble(int slot, double value)
+    {
+        enter(slot, value);
+    }
+
+    /**
+     * Apply the primitive value as leaving aggregation for the slot.
+     * @param slot group slot
+     * @param value to remove
+     */
+    public void leaveDouble(int slot, double value)
+    {
+        leave(slot, value);
+    }
+
+    /**
+     * Apply the primitive value as entering aggregation for the slot.
+     * @param slot group slot
+     * @param value to add
+     */
+    public void enterLong(int slot, long value)
+    {
+        enter(slot, value);
+    }
+
+    /**
+     * Apply the primitive value as leaving aggregation for the slot.
+     * @param slot group slot
+     * @param value to remove
+     */
+    public void leaveLong(int slot, long value)
+    {
+        leave(slot, value);
+    }
+
+    /**
+     * Resets the state of the slot.
+     * @param slot group slot
+     */
+    public void clear(int slot)
+    {
+        numDataPoints[slot] = 0;
+    }
+
+    /**
+     * Resets the state of all slots.
+     */
+    public void clear()
+    {
+        Arrays.fill(numDataPoints, 0);
+    }
+
+    /**
+     * Grows the arrays to the number of slots.
+     * @param capacity number of slots
+     */
+    public void grow(int capacity)
+    {
+        numDataPoints = Arrays.copyOf(numDataPoints, capacity);
+    }
+
+    /**
+     * Returns a column that computes the same values as the aggregator, or null if the aggregator has no columnar equivalent.
+     * @param prototype aggregator
+     * @param capacity number of slots
+     * @return column or null
+     */
+    public static AggSvcGroupByColumn make(AggregationMethod prototype, int capacity)
+    {
+        Class clazz = prototype.getClass();
+        if (clazz == AggregatorSumDouble.class)
+        {
+            return new SumDouble(capacity);
+        }
+        if (clazz == AggregatorSumLong.class)
+        {
+            return new SumLong(capacity);
+        }
+        if (clazz == AggregatorSumInteger.class)
+        {
+            return new SumInteger(capacity);
+        }
+        if (clazz == AggregatorAvg.class)
+        {
+            return new Avg(capacity);
+        }
+        if (clazz == AggregatorStddev.class)
+        {
+            return new Stddev(capacity);
+        }
+        if (clazz == AggregatorCount.class)
+        {
+            return new Count(capacity);
+        }
+        if (clazz == AggregatorCountNonNull.class)
+        {
+            return new CountNonNull(capacity);
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if each aggregation has a columnar equivalent.
+     * @param prototypes aggregation method factories
+     * @return indicator
+     */
+    public static boolean isSupported(AggregationMethodFactory[] prototypes)
+    {
+        for (AggregationMethodFactory prototype : prototypes)
+        {
+            // only built-in factories have a columnar equivalent, making a plug-in prototype would count as an application instance
+            if (!isColumnarFactory(prototype))
+            {
+                return false;
+            }
+            if (make(prototype.make(), 0) == null)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isColumnarFactory(AggregationMethodFactory prototype)
+    {
+        return prototype instanceof AggregationMethodFactorySum ||
+               prototype instanceof AggregationMethodFactoryAvg ||
+               prototype instanceof AggregationMethodFactoryStddev ||
+               prototype instanceof AggregationMethodFactoryCount;
+    }
+
+    /**
+     * Sum of double values.
+     */
+    public static class SumDouble extends AggSvcGroupByColumn
+    {
+        private double[] sum;
+
+        /**
+         * Ctor.
+         * @param capacity number of slots
+         */
+        public SumDouble(int capacity)
+        {
+            super(capacity);
+            sum = new double[capacity];
+        }
+
+        public void enter(int slot, Object value)
+        {
+            if (value == null)
+            {
+                return;
+            }
+            enterDouble(slot, (Double) value);
+        }
+
+        public void leave(int slot, Object value)
+        {
+            if (value == null)
+            {
+                return;
+            }
+            leaveDouble(slot, (Double) value);
+        }
+
+        public void enterDouble(int slot, double value)
+        {
+            numDataPoints[slot]++;
+            sum[slot] += value;
+        }
+
+        public void leaveDouble(int slot, double value)
+        {
+            if (numDataPoints[slot] <= 1)
+            {
+                clear(slot);
+            }
+            else
+            {
+                numDataPoints[slot]--;
+                sum[slot] -= value;
+            }
+        }
+
+        public Object getValue(int slot)
+        {
+            if (numDataPoints[slot] == 0)
+            {
+                return null;
+            }
+            return sum[slot];
+        }
+
+        public void clear(int slot)
+        {
+            super.clear(slot);
+            sum[slot] = 0;
+        }
+
+        public void clear()
+        {
+            super.clear();
+            Arrays.fill(sum, 0);
+        }
+
+        public void grow(int capacity)
+        {
+            super.grow(capacity);
+            sum = Arrays.copyOf(sum, capacity);
+        }
+    }
+
+    /**
+     * Sum of long values.
+     */
+    public static class SumLong extends AggSvcGroupByColumn
+    {
+        private long[] sum;
+
+        /**
+         * Ctor.
+         * @param capacity number of slots
+         */
+        public SumLong(int capacity)
+        {
+            super(capacity);
+            sum = new long[capacity];
+        }
+
+        public void enter(int slot, Object value)
+        {
+            if (value == null)
+            {
+                return;
+            }
+            enterLong(slot, (Long) value);
+        }
+
+        public void leave(int slot, Object value)
+        {
+            if (value == null)
+            {
+                return;
+            }
+            leaveLong(slot, (Long) value);
+        }
+
+        public void enterLong(int slot, long value)
+        {
+            numDataPoints[slot]++;
+            sum[slot] += value;
+        }
+
+        public void leaveLong(int slot, long value)
+        {
+            if (numDataPoints[slot] <= 1)
+            {
+                clear(slot);
+            }
+            else
+            {
+                numDataPoints[slot]--;
+                sum[slot] -= value;
+            }
+        }
+
+        public Object getValue(int slot)
+        {
+            if (numDataPoints[slot] == 0)
+            {
+                return null;
+            }
+            return sum[slot];
+        }
+
+        public void clear(int slot)
+        {
+            super.clear(slot);
+            sum[slot] = 0;
+        }
+
+        public void clear()
+        {
+            super.clear();
+            Arrays.fill(sum, 0);
+        }
+
+        public void grow(int capacity)
+        {
+            super.grow(capacity);
+            sum = Arrays.copyOf(sum, capacity);
+        }
+    }
+
+    /**
+     * Sum of int values.
+     */
+    public static class SumInteger extends AggSvcGroupByColumn
+    {
+        private int[] sum;
+
+        /**
+         * Ctor.
+         * @param capacity number of slots
+         */
+        public SumInteger(int capacity)
+        {
+            super(capacity);
+            sum = new int[capacity];
+        }
+
+        public void enter(int slot, Object value)
+        {
+            if (value == null)
+            {
+                return;
+            }
+            numDataPoints[slot]++;
+            sum[slot] += (Integer) value;
+        }
+
+        public void leave(int slot, Object value)
+        {
+            if (value == null)
+            {
+                return;
+            }
+            if (numDataPoints[slot] <= 1)
+            {
+                clear(slot);
+            }
+            else
+            {
+                numDataPoints[slot]--;
+                sum[slot] -= (Integer) value;
+            }
+        }
+
+        public Object getValue(int slot)
+        {
+            if (numDataPoints[slot] == 0)
+            {
+                return null;
+            }
+            return sum[slot];
+        }
+
+        public void clear(int slot)
+        {
+            super.clear(slot);
+            sum[slot] = 0;
+        }
+
+        public void clear()
+        {
+            super.clear();
+            Arrays.fill(sum, 0);
+        }
+
+        public void grow(int capacity)
+        {
+            super.grow(capacity);
+            sum = Arrays.copyOf(sum, capacity);
+        }
+    }
+
+    /**
+     * Average of numeric values.
+     */
+    public static class Avg extends AggSvcGroupByColumn
+    {
+        private double[] sum;
+
+        /**
+         * Ctor.
+         * @param capacity number of slots
+         */
+        public Avg(int capacity)
+        {
+            super(capacity);
+            sum = new double[capacity];
+        }
+
+        public void enter(int slot, Object value)
+        {
+            if (value == null)
+            {
+                return;
+            }
+            enterDouble(slot, ((Number) value).doubleValue());
+        }
+
+        public void leave(int slot, Object value)
+        {
+            if (value == null)
+            {
+                return;
+            }
+            leaveDouble(slot, ((Number) value).doubleValue());
+        }
+
+        public void enterDouble(int slot, double value)
+        {
+            numDataPoints[slot]++;
+            sum[slot] += value;
+        }
+
+        public void leaveDouble(int slot, double value)
+        {
+            if (numDataPoints[slot] <= 1)
+            {
+                clear(slot);
+            }
+            else
+            {
+                numDataPoints[slot]--;
+                sum[slot] -= value;
+            }
+        }
+
+        public Object getValue(int slot)
+        {
+            if (numDataPoints[slot] == 0)
+            {
+                return null;
+            }
+            return sum[slot] / numDataPoints[slot];
+        }
+
+        public void clear(int slot)
+        {
+            super.clear(slot);
+            sum[slot] = 0;
+        }
+
+        public void clear()
+        {
+            super.clear();
+            Arrays.fill(sum, 0);
+        }
+
+        public void grow(int capacity)
+        {
+            super.grow(capacity);
+            sum = Arrays.copyOf(sum, capacity);
+        }
+    }
+
+    /**
+     * Standard deviation of numeric values, computing the running variance per Knuth's method.
+     */
+    public static class Stddev extends AggSvcGroupByColumn
+    {
+        private double[] mean;
+        private double[] qn;
+
+        /**
+         * Ctor.
+         * @param capacity number of slots
+         */
+        public Stddev(int capacity)
+        {
+            super(capacity);
+            mean = new double[capacity];
+            qn = new double[capacity];
+        }
+
+        public void enter(int slot, Object value)
+        {
+            if (value == null)
+            {
+                return;
+            }
+            enterDouble(slot, ((Number) value).doubleValue());
+        }
+
+        public void leave(int slot, Object value)
+        {
+            if (value == null)
+            {
+                return;
+            }
+            leaveDouble(slot, ((Number) value).doubleValue());
+        }
+
+        public void enterDouble(int slot, double p)
+        {
+            if (numDataPoints[slot] == 0)
+            {
+                mean[slot] = p;
+                qn[slot] = 0;
+                numDataPoints[slot] = 1;
+            }
+            else
+            {
+                numDataPoints[slot]++;
+                double oldmean = mean[slot];
+                mean[slot] += (p - mean[slot]) / numDataPoints[slot];
+                qn[slot] += (p - oldmean) * (p - mean[slot]);
+            }
+        }
+
+        public void leaveDouble(int slot, double p)
+        {
+            if (numDataPoints[slot] <= 1)
+            {
+                clear(slot);
+            }
+            else
+            {
+                numDataPoints[slot]--;
+                double oldmean = mean[slot];
+                mean[slot] -= (p - mean[slot]) / numDataPoints[slot];
+                qn[slot] -= (p - oldmean) * (p - mean[slot]);
+            }
+        }
+
+        public Object getValue(int slot)
+        {
+            if (numDataPoints[slot] < 2)
+            {
+                return null;
+            }
+            return Math.sqrt(qn[slot] / (numDataPoints[slot] - 1));
+        }
+
+        public void clear(int slot)
+        {
+            super.clear(slot);
+            mean[slot] = 0;
+            qn[slot] = 0;
+        }
+
+        public void clear()
+        {
+            super.clear();
+            Arrays.fill(mean, 0);
+            Arrays.fill(qn, 0);
+        }
+
+        public void grow(int capacity)
+        {
+            super.grow(capacity);
+            mean = Arrays.copyOf(mean, capacity);
+            qn = Arrays.copyOf(qn, capacity);
+        }
+    }
+
+    /**
+     * Count of all values including null values.
+     */
+    public static class Count extends AggSvcGroupByColumn
+    {
+        /**
+         * Ctor.
+         * @param capacity number of slots
+         */
+        public Count(int capacity)
+        {
+            super(capacity);
+        }
+
+        public void enter(int slot, Object value)
+        {
+            numDataPoints[slot]++;
+        }
+
+        public void leave(int slot, Object value)
+        {
+            if (numDataPoints[slot] > 0)
+            {
+                numDataPoints[slot]--;
+            }
+        }
+
+        public Object getValue(int slot)
+        {
+            return numDataPoints[slot];
+        }
+    }
+
+    /**
+     * Count of non-null values.
+     */
+    public static class CountNonNull extends AggSvcGroupByColumn
+    {
+        /**
+         * Ctor.
+         * @param capacity number of slots
+         */
+        public CountNonNull(int capacity)
+        {
+            super(capacity);
+        }
+
+        public void enter(int slot, Object value)
+        {
+            if (value == null)
+            {
+                return;
+            }
+            numDataPoints[slot]++;
+        }
+
+        public void leave(int slot, Object value)
+        {
+            if (value == null)
+            {
+                return;
+            }
+            if (numDataPoints[slot] > 0)
+            {
+                numDataPoints[slot]--;
+            }
+        }
+
+        public Object getValue(int slot)
+        {
+            return numDataPoints[slot];
+        }
+    }
+}
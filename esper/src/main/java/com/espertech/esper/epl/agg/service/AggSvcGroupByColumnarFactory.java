@@ -0,0 +1,40 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.epl.core.EngineImportService;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+
+/**
+ * Implementation for handling aggregation with grouping by group-keys that keeps aggregation state in columns.
+ */
+public class AggSvcGroupByColumnarFactory extends AggregationServiceFactoryBase
+{
+    private final AggSvcPrimitiveEvaluator[] primitiveEvaluators;
+    private final boolean isRefcounted;
+
+    /**
+     * Ctor.
+     * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
+     * @param prototypes - aggregation method factories, each having a columnar equivalent
+     * @param join - true for joins
+     * @param isRefcounted - true to remove groups that have no data points
+     */
+    public AggSvcGroupByColumnarFactory(ExprEvaluator evaluators[], AggregationMethodFactory prototypes[], boolean join, boolean isRefcounted)
+    {
+        super(evaluators, prototypes);
+        this.primitiveEvaluators = AggSvcGroupByUtil.getPrimitiveEvaluators(evaluators, prototypes, join);
+        this.isRefcounted = isRefcounted;
+    }
+
+    public AggregationService makeService(AgentInstanceContext agentInstanceContext, EngineImportService engineImportService, boolean isSubquery, Integer subqueryNumber) {
+        return new AggSvcGroupByColumnarImpl(evaluators, aggregators, primitiveEvaluators, isRefcounted);
+    }
+}
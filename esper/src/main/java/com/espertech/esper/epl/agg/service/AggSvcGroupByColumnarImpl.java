@@ -0,0 +1,285 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementation for handling aggregation with grouping by group-keys that keeps aggregation state in columns.
+ * <p>
+ * Each group key is assigned a slot and each aggregation keeps the state for all groups in flat primitive arrays
+ * indexed by slot, see {@link AggSvcGroupByColumn}. Slots of removed groups are reused.
+ * <p>
+ * When reference-counting, a group is removed when it has no more data points, lazily upon the next enter, as
+ * for {@link AggSvcGroupByRefcountedNoAccessImpl}. Otherwise groups are not removed, as for {@link AggSvcGroupByNoAccessImpl}.
+ */
+public class AggSvcGroupByColumnarImpl extends AggregationServiceBaseGrouped
+{
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final AggSvcPrimitiveEvaluator[] primitiveEvaluators;
+    private final boolean isRefcounted;
+    private final AggSvcGroupByColumnarKeyIndex keyIndex;
+    private final AggSvcGroupByColumn[] columns;
+    private int[] refcounts;
+    private int capacity;
+
+    // maintain a current slot for random access into the aggregation state, or -1 for a group without state
+    private int currentSlot;
+    private Object currentGroupKey;
+
+    // values for a group without state
+    private final AggregationMethod[] emptyRow;
+    private final List<Object> removedKeys;
+
+    /**
+     * Ctor.
+     * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
+     * @param prototypes - aggregation method factories, each having a columnar equivalent
+     * @param primitiveEvaluators - primitive evaluators for aggregations that enter and leave primitive longs or doubles, or null
+     * @param isRefcounted - true to remove groups that have no data points
+     */
+    public AggSvcGroupByColumnarImpl(ExprEvaluator evaluators[], AggregationMethodFactory prototypes[], AggSvcPrimitiveEvaluator[] primitiveEvaluators, boolean isRefcounted)
+    {
+        super(evaluators, prototypes);
+        this.primitiveEvaluators = primitiveEvaluators != null ? primitiveEvaluators : new AggSvcPrimitiveEvaluator[evaluators.length];
+        this.isRefcounted = isRefcounted;
+        this.keyIndex = new AggSvcGroupByColumnarKeyIndex(INITIAL_CAPACITY);
+        this.capacity = keyIndex.getSlotCapacity();
+        this.emptyRow = AggSvcGroupByUtil.newAggregators(prototypes);
+        this.columns = new AggSvcGroupByColumn[prototypes.length];
+        for (int i = 0; i < prototypes.length; i++)
+        {
+            columns[i] = AggSvcGroupByColumn.make(emptyRow[i], capacity);
+            if (columns[i] == null)
+            {
+                throw new IllegalArgumentException("Aggregation method " + emptyRow[i].getClass().getSimpleName() + " has no columnar equivalent");
+            }
+        }
+        if (isRefcounted)
+        {
+            refcounts = new int[capacity];
+            removedKeys = new ArrayList<Object>();
+        }
+        else
+        {
+            removedKeys = null;
+        }
+        currentSlot = -1;
+    }
+
+    public void clearResults(ExprEvaluatorContext exprEvaluatorContext)
+    {
+        keyIndex.clear();
+        for (AggSvcGroupByColumn column : columns)
+        {
+            column.clear();
+        }
+        if (isRefcounted)
+        {
+            Arrays.fill(refcounts, 0);
+            removedKeys.clear();
+        }
+        currentSlot = -1;
+    }
+
+    public void applyEnter(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggregationGroupedApplyEnterLeave(true, aggregators.length, 0, groupByKey);}
+        if (isRefcounted)
+        {
+            handleRemovedKeys();
+        }
+
+        int slot = keyIndex.get(groupByKey);
+
+        // The state for this group does not exist, assign a slot
+        if (slot == -1)
+        {
+            slot = addGroup(groupByKey);
+        }
+        else if (isRefcounted)
+        {
+            refcounts[slot]++;
+        }
+
+        // For this slot, evaluate sub-expressions, enter result
+        currentSlot = slot;
+        for (int i = 0; i < evaluators.length; i++)
+        {
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(true, i, null, aggregators[i].getAggregationExpression());}
+            if (primitiveEvaluators[i] != null) {
+                primitiveEvaluators[i].apply(columns[i], slot, true, eventsPerStream, exprEvaluatorContext);
+            }
+            else {
+                Object columnResult = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
+                columns[i].enter(slot, columnResult);
+            }
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(true, i, null);}
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(true);}
+    }
+
+    public void applyLeave(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggregationGroupedApplyEnterLeave(false, aggregators.length, 0, groupByKey);}
+        int slot = keyIndex.get(groupByKey);
+
+        // The state for this group does not exist, assign a slot
+        if (slot == -1)
+        {
+            slot = addGroup(groupByKey);
+        }
+
+        // For this slot, evaluate sub-expressions, enter result
+        currentSlot = slot;
+        for (int i = 0; i < evaluators.length; i++)
+        {
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(false, i, null, aggregators[i].getAggregationExpression());}
+            if (primitiveEvaluators[i] != null) {
+                primitiveEvaluators[i].apply(columns[i], slot, false, eventsPerStream, exprEvaluatorContext);
+            }
+            else {
+                Object columnResult = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
+                columns[i].leave(slot, columnResult);
+            }
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(false, i, null);}
+        }
+
+        if (isRefcounted)
+        {
+            refcounts[slot]--;
+            if (refcounts[slot] <= 0)
+            {
+                removedKeys.add(groupByKey);
+            }
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(false);}
+    }
+
+    public void setCurrentAccess(Object groupByKey, int agentInstanceId, AggregationGroupByRollupLevel rollupLevel)
+    {
+        currentSlot = keyIndex.get(groupByKey);
+        currentGroupKey = groupByKey;
+
+        if ((currentSlot == -1) && (!isRefcounted))
+        {
+            currentSlot = addGroup(groupByKey);
+        }
+    }
+
+    public Object getValue(int column, int agentInstanceId, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        if (currentSlot == -1)
+        {
+            return emptyRow[column].getValue();
+        }
+        return columns[column].getValue(currentSlot);
+    }
+
+    public Collection<EventBean> getCollectionOfEvents(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public Collection<Object> getCollectionScalar(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public EventBean getEventBean(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public void setRemovedCallback(AggregationRowRemovedCallback callback) {
+        // not applicable
+    }
+
+    public void accept(AggregationServiceVisitor visitor) {
+        visitor.visitAggregations(keyIndex.size(), (Object) columns);
+    }
+
+    public void acceptGroupDetail(AggregationServiceVisitorWGroupDetail visitor) {
+        visitor.visitGrouped(keyIndex.size());
+        for (int slot : keyIndex.getSlots()) {
+            Object[] values = new Object[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                values[i] = columns[i].getValue(slot);
+            }
+            visitor.visitGroup(keyIndex.getKey(slot), values);
+        }
+    }
+
+    public boolean isGrouped() {
+        return true;
+    }
+
+    public Object getGroupKey(int agentInstanceId) {
+        return currentGroupKey;
+    }
+
+    public Collection<Object> getGroupKeys(ExprEvaluatorContext exprEvaluatorContext) {
+        if (isRefcounted) {
+            handleRemovedKeys();
+        }
+        return keyIndex.getKeys();
+    }
+
+    private int addGroup(Object groupByKey)
+    {
+        int slot = keyIndex.add(groupByKey);
+        if (keyIndex.getSlotCapacity() > capacity)
+        {
+            capacity = keyIndex.getSlotCapacity();
+            for (AggSvcGroupByColumn column : columns)
+            {
+                column.grow(capacity);
+            }
+            if (isRefcounted)
+            {
+                refcounts = Arrays.copyOf(refcounts, capacity);
+            }
+        }
+
+        // a reused slot may hold state of a removed group
+        for (AggSvcGroupByColumn column : columns)
+        {
+            column.clear(slot);
+        }
+        if (isRefcounted)
+        {
+            refcounts[slot] = 1;
+        }
+        return slot;
+    }
+
+    private void handleRemovedKeys()
+    {
+        if (!removedKeys.isEmpty())     // we collect removed keys lazily on the next enter to reduce the chance of empty-group queries creating empty aggregators temporarily
+        {
+            for (Object removedKey : removedKeys)
+            {
+                int slot = keyIndex.get(removedKey);
+                if (slot != -1)
+                {
+                    keyIndex.remove(slot);
+                }
+            }
+            removedKeys.clear();
+            currentSlot = -1;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Assigns each group key an int slot, for use as an index into flat per-group state.
+ * <p>
+ * Uses open addressing with linear probing on a table of slot numbers, so that the table
+ * itself holds no entry objects. Slots of removed keys are reused by subsequently added keys.
+ * Removal shifts back following entries of the same probe sequence and does not leave deleted markers.
+ */
+public class AggSvcGroupByColumnarKeyIndex
+{
+    private static final int MIN_CAPACITY = 16;
+
+    // slot number plus one for each occupied position, zero for empty positions
+    private int[] table;
+    private int mask;
+
+    // key and hash for each slot
+    private Object[] keys;
+    private int[] hashes;
+
+    // slots of removed keys, as a stack
+    private int[] freeSlots;
+    private int numFreeSlots;
+
+    // number of slots handed out, including free slots
+    private int numSlotsUsed;
+    private int size;
+
+    /**
+     * Ctor.
+     * @param initialCapacity number of slots to allocate initially
+     */
+    public AggSvcGroupByColumnarKeyIndex(int initialCapacity)
+    {
+        int capacity = Math.max(MIN_CAPACITY, initialCapacity);
+        int tableSize = Integer.highestOneBit(capacity - 1) << 2;
+        this.table = new int[tableSize];
+        this.mask = tableSize - 1;
+        this.keys = new Object[capacity];
+        this.hashes = new int[capacity];
+        this.freeSlots = new int[MIN_CAPACITY];
+    }
+
+    /**
+     * Returns the slot assigned to the key.
+     * @param key group key, may be null
+     * @return slot or -1 if the key has no slot
+     */
+    public int get(Object key)
+    {
+        int hash = hash(key);
+        int position = hash & mask;
+        while (true)
+        {
+            int entry = table[position];
+            if (entry == 0)
+            {
+                return -1;
+            }
+            int slot = entry - 1;
+            if ((hashes[slot] == hash) && equalsKey(keys[slot], key))
+            {
+                return slot;
+            }
+            position = (position + 1) & mask;
+        }
+    }
+
+    /**
+     * Assigns a slot to a key that does not currently have a slot.
+     * <p>
+     * The slot capacity may grow, callers that keep state per slot must compare against {@link #getSlotCapacity()}.
+     * @param key group key, may be null
+     * @return slot
+     */
+    public int add(Object key)
+    {
+        int slot;
+        if (numFreeSlots > 0)
+        {
+            slot = freeSlots[--numFreeSlots];
+        }
+        else
+        {
+            if (numSlotsUsed == keys.length)
+            {
+                int capacity = keys.length << 1;
+                keys = Arrays.copyOf(keys, capacity);
+                hashes = Arrays.copyOf(hashes, capacity);
+            }
+            slot = numSlotsUsed++;
+        }
+
+        int hash = hash(key);
+        keys[slot] = key;
+        hashes[slot] = hash;
+        size++;
+        if (size << 1 > table.length)
+        {
+            rehash(table.length << 1);
+        }
+        insert(slot, hash);
+        return slot;
+    }
+
+    /**
+     * Removes the key assigned to the slot, making the slot available for reuse.
+     * @param slot to free
+     */
+    public void remove(int slot)
+    {
+        int gap = hashes[slot] & mask;
+        while (table[gap] != slot + 1)
+        {
+            gap = (gap + 1) & mask;
+        }
+
+        // shift back entries that probed past the removed entry
+        int position = (gap + 1) & mask;
+        while (table[position] != 0)
+        {
+            int home = hashes[table[position] - 1] & mask;
+            if (((position - home) & mask) >= ((position - gap) & mask))
+            {
+                table[gap] = table[position];
+                gap = position;
+            }
+            position = (position + 1) & mask;
+        }
+        table[gap] = 0;
+
+        keys[slot] = null;
+        if (numFreeSlots == freeSlots.length)
+        {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length << 1);
+        }
+        freeSlots[numFreeSlots++] = slot;
+        size--;
+    }
+
+    /**
+     * Returns the key assigned to the slot.
+     * @param slot slot
+     * @return key
+     */
+    public Object getKey(int slot)
+    {
+        return keys[slot];
+    }
+
+    /**
+     * Returns the number of keys.
+     * @return size
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the number of slots that state kept per slot must provide for.
+     * @return slot capacity
+     */
+    public int getSlotCapacity()
+    {
+        return keys.length;
+    }
+
+    /**
+     * Returns the slots assigned to keys, in no particular order.
+     * @return slots
+     */
+    public int[] getSlots()
+    {
+        int[] slots = new int[size];
+        int count = 0;
+        for (int entry : table)
+        {
+            if (entry != 0)
+            {
+                slots[count++] = entry - 1;
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Returns the keys, in no particular order.
+     * @return keys
+     */
+    public List<Object> getKeys()
+    {
+        List<Object> result = new ArrayList<Object>(size);
+        for (int entry : table)
+        {
+            if (entry != 0)
+            {
+                result.add(keys[entry - 1]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes all keys.
+     */
+    public void clear()
+    {
+        Arrays.fill(table, 0);
+        Arrays.fill(keys, 0, numSlotsUsed, null);
+        numSlotsUsed = 0;
+        numFreeSlots = 0;
+        size = 0;
+    }
+
+    private void insert(int slot, int hash)
+    {
+        int position = hash & mask;
+        while (table[position] != 0)
+        {
+            position = (position + 1) & mask;
+        }
+        table[position] = slot + 1;
+    }
+
+    private void rehash(int tableSize)
+    {
+        int[] oldTable = table;
+        table = new int[tableSize];
+        mask = tableSize - 1;
+        for (int entry : oldTable)
+        {
+            if (entry != 0)
+            {
+                insert(entry - 1, hashes[entry - 1]);
+            }
+        }
+    }
+
+    private static int hash(Object key)
+    {
+        if (key == null)
+        {
+            return 0;
+        }
+        int hash = key.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean equalsKey(Object existing, Object key)
+    {
+        if (existing == null)
+        {
+            return key == null;
+        }
+        return existing.equals(key);
+    }
+}
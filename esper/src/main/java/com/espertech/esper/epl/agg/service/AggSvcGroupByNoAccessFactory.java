@@ -17,17 +17,21 @@ import com.espertech.esper.epl.expression.core.ExprEvaluator;
  */
 public class AggSvcGroupByNoAccessFactory extends AggregationServiceFactoryBase
 {
+    private final AggSvcPrimitiveEvaluator[] primitiveEvaluators;
+
     /**
      * Ctor.
      * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
      * @param prototypes - collect the aggregation state that evaluators evaluate to, act as prototypes for new aggregations
+     * @param join - true for joins
      */
-    public AggSvcGroupByNoAccessFactory(ExprEvaluator evaluators[], AggregationMethodFactory prototypes[])
+    public AggSvcGroupByNoAccessFactory(ExprEvaluator evaluators[], AggregationMethodFactory prototypes[], boolean join)
     {
         super(evaluators, prototypes);
+        this.primitiveEvaluators = AggSvcGroupByUtil.getPrimitiveEvaluators(evaluators, prototypes, join);
     }
 
     public AggregationService makeService(AgentInstanceContext agentInstanceContext, EngineImportService engineImportService, boolean isSubquery, Integer subqueryNumber) {
-        return new AggSvcGroupByNoAccessImpl(evaluators, aggregators);
+        return new AggSvcGroupByNoAccessImpl(evaluators, aggregators, primitiveEvaluators);
     }
 }
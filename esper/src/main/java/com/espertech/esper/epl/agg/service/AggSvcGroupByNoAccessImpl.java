@@ -31,15 +31,20 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped
     private AggregationMethod[] currentAggregatorRow;
     private Object currentGroupKey;
 
+    // evaluators for aggregations that enter and leave primitive doubles, with null elements for the others
+    private final AggSvcPrimitiveEvaluator[] primitiveEvaluators;
+
     /**
      * Ctor.
      * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
      * @param prototypes - collect the aggregation state that evaluators evaluate to, act as prototypes for new aggregations
      * aggregation states for each group
+     * @param primitiveEvaluators - primitive evaluators for aggregations that enter and leave primitive longs or doubles, or null
      */
-    public AggSvcGroupByNoAccessImpl(ExprEvaluator evaluators[], AggregationMethodFactory prototypes[])
+    public AggSvcGroupByNoAccessImpl(ExprEvaluator evaluators[], AggregationMethodFactory prototypes[], AggSvcPrimitiveEvaluator[] primitiveEvaluators)
     {
         super(evaluators, prototypes);
+        this.primitiveEvaluators = primitiveEvaluators != null ? primitiveEvaluators : new AggSvcPrimitiveEvaluator[evaluators.length];
         this.aggregatorsPerGroup = new HashMap<Object, AggregationMethod[]>();
     }
 
@@ -65,8 +70,13 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped
         for (int i = 0; i < evaluators.length; i++)
         {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(true, i, groupAggregators[i], aggregators[i].getAggregationExpression());}
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
-            groupAggregators[i].enter(columnResult);
+            if (primitiveEvaluators[i] != null) {
+                primitiveEvaluators[i].apply(groupAggregators[i], true, eventsPerStream, exprEvaluatorContext);
+            }
+            else {
+                Object columnResult = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
+                groupAggregators[i].enter(columnResult);
+            }
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(true, i, groupAggregators[i]);}
         }
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(true);}
@@ -89,8 +99,13 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped
         for (int i = 0; i < evaluators.length; i++)
         {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(false, i, groupAggregators[i], aggregators[i].getAggregationExpression());}
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
-            groupAggregators[i].leave(columnResult);
+            if (primitiveEvaluators[i] != null) {
+                primitiveEvaluators[i].apply(groupAggregators[i], false, eventsPerStream, exprEvaluatorContext);
+            }
+            else {
+                Object columnResult = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
+                groupAggregators[i].leave(columnResult);
+            }
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(false, i, groupAggregators[i]);}
         }
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(false);}
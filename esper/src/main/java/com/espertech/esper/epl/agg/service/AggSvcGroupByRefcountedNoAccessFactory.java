@@ -17,19 +17,24 @@ import com.espertech.esper.epl.expression.core.ExprEvaluator;
  */
 public class AggSvcGroupByRefcountedNoAccessFactory extends AggregationServiceFactoryBase
 {
+    private final AggSvcPrimitiveEvaluator[] primitiveEvaluators;
+
     /**
      * Ctor.
      * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
      * @param prototypes - collect the aggregation state that evaluators evaluate to, act as prototypes for new aggregations
      * aggregation states for each group
+     * @param join - true for joins
      */
     public AggSvcGroupByRefcountedNoAccessFactory(ExprEvaluator evaluators[],
-                                                  AggregationMethodFactory prototypes[])
+                                                  AggregationMethodFactory prototypes[],
+                                                  boolean join)
     {
         super(evaluators, prototypes);
+        this.primitiveEvaluators = AggSvcGroupByUtil.getPrimitiveEvaluators(evaluators, prototypes, join);
     }
 
     public AggregationService makeService(AgentInstanceContext agentInstanceContext, EngineImportService engineImportService, boolean isSubquery, Integer subqueryNumber) {
-        return new AggSvcGroupByRefcountedNoAccessImpl(evaluators, aggregators);
+        return new AggSvcGroupByRefcountedNoAccessImpl(evaluators, aggregators, primitiveEvaluators);
     }
 }
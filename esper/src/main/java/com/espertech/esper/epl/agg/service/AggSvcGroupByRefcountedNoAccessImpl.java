@@ -29,6 +29,9 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
     private AggregationMethod[] currentAggregatorRow;
     private Object currentGroupKey;
 
+    // evaluators for aggregations that enter and leave primitive doubles, with null elements for the others
+    private final AggSvcPrimitiveEvaluator[] primitiveEvaluators;
+
     private List<Object> removedKeys;
 
     /**
@@ -36,11 +39,14 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
      * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
      * @param prototypes - collect the aggregation state that evaluators evaluate to, act as prototypes for new aggregations
      * aggregation states for each group
+     * @param primitiveEvaluators - primitive evaluators for aggregations that enter and leave primitive longs or doubles, or null
      */
     public AggSvcGroupByRefcountedNoAccessImpl(ExprEvaluator evaluators[],
-                                       AggregationMethodFactory prototypes[])
+                                       AggregationMethodFactory prototypes[],
+                                       AggSvcPrimitiveEvaluator[] primitiveEvaluators)
     {
         super(evaluators, prototypes);
+        this.primitiveEvaluators = primitiveEvaluators != null ? primitiveEvaluators : new AggSvcPrimitiveEvaluator[evaluators.length];
         this.aggregatorsPerGroup = new HashMap<Object, AggregationMethodRow>();
         removedKeys = new ArrayList<Object>();
     }
@@ -75,8 +81,13 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
         currentAggregatorRow = groupAggregators;
         for (int i = 0; i < evaluators.length; i++) {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(true, i, groupAggregators[i], aggregators[i].getAggregationExpression());}
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
-            groupAggregators[i].enter(columnResult);
+            if (primitiveEvaluators[i] != null) {
+                primitiveEvaluators[i].apply(groupAggregators[i], true, eventsPerStream, exprEvaluatorContext);
+            }
+            else {
+                Object columnResult = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
+                groupAggregators[i].enter(columnResult);
+            }
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(true, i, groupAggregators[i]);}
         }
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(true);}
@@ -104,8 +115,13 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
         currentAggregatorRow = groupAggregators;
         for (int i = 0; i < evaluators.length; i++) {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(false, i, groupAggregators[i], aggregators[i].getAggregationExpression());}
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
-            groupAggregators[i].leave(columnResult);
+            if (primitiveEvaluators[i] != null) {
+                primitiveEvaluators[i].apply(groupAggregators[i], false, eventsPerStream, exprEvaluatorContext);
+            }
+            else {
+                Object columnResult = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
+                groupAggregators[i].leave(columnResult);
+            }
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(false, i, groupAggregators[i]);}
         }
 
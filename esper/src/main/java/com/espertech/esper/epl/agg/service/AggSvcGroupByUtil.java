@@ -14,6 +14,18 @@ package com.espertech.esper.epl.agg.service;
 import com.espertech.esper.epl.agg.access.AggregationServicePassThru;
 import com.espertech.esper.epl.agg.access.AggregationState;
 import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethodDouble;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethodLong;
+import com.espertech.esper.epl.agg.factory.AggregationMethodFactoryPlugIn;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorDouble;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorLong;
+import com.espertech.esper.epl.expression.methodagg.ExprAvgNode;
+import com.espertech.esper.epl.expression.methodagg.ExprMinMaxAggrNode;
+import com.espertech.esper.epl.expression.methodagg.ExprStddevNode;
+import com.espertech.esper.epl.expression.methodagg.ExprSumNode;
+import com.espertech.esper.util.JavaClassHelper;
 
 public class AggSvcGroupByUtil {
     public static AggregationMethod[] newAggregators(AggregationMethodFactory[] prototypes) {
@@ -24,6 +36,68 @@ public class AggSvcGroupByUtil {
         return row;
     }
 
+    /**
+     * Returns, for each aggregation, the evaluator that enters and leaves the value to aggregate as a primitive long
+     * or double, or null when the value expression or the aggregation method does not support primitive values.
+     * <p>
+     * An aggregation uses primitive longs when its result type is Long and primitive doubles when its result type is Double,
+     * so that the aggregation method receives the same type of value as for the evaluation of objects.
+     * For filtered aggregations, which have the filter expression as their second parameter, the value expression
+     * is the first parameter.
+     * @param evaluators evaluators of the value to aggregate
+     * @param prototypes aggregation method factories
+     * @param join true for joins, for which an outer join may not provide an event for each stream
+     * @return primitive evaluators, with null elements for aggregations that enter and leave objects
+     */
+    public static AggSvcPrimitiveEvaluator[] getPrimitiveEvaluators(ExprEvaluator[] evaluators, AggregationMethodFactory[] prototypes, boolean join) {
+        AggSvcPrimitiveEvaluator[] primitiveEvaluators = new AggSvcPrimitiveEvaluator[evaluators.length];
+        if (join) {
+            return primitiveEvaluators;
+        }
+        for (int i = 0; i < evaluators.length; i++) {
+            // plug-in aggregators are application code, making a prototype would count as an application instance
+            if (prototypes[i] instanceof AggregationMethodFactoryPlugIn) {
+                continue;
+            }
+            ExprEvaluator valueEvaluator = evaluators[i];
+            ExprEvaluator filter = null;
+            ExprAggregateNodeBase aggregateNode = prototypes[i].getAggregationExpression();
+            if (isHasFilter(aggregateNode)) {
+                valueEvaluator = aggregateNode.getPositionalParams()[0].getExprEvaluator();
+                filter = aggregateNode.getPositionalParams()[1].getExprEvaluator();
+            }
+
+            Class resultType = JavaClassHelper.getBoxedType(prototypes[i].getResultType());
+            if (resultType == Long.class &&
+                valueEvaluator instanceof ExprEvaluatorLong && ((ExprEvaluatorLong) valueEvaluator).isLongEvaluable() &&
+                prototypes[i].make() instanceof AggregationMethodLong) {
+                primitiveEvaluators[i] = new AggSvcPrimitiveEvaluator(null, (ExprEvaluatorLong) valueEvaluator, filter);
+            }
+            else if (resultType == Double.class &&
+                valueEvaluator instanceof ExprEvaluatorDouble && ((ExprEvaluatorDouble) valueEvaluator).isDoubleEvaluable() &&
+                prototypes[i].make() instanceof AggregationMethodDouble) {
+                primitiveEvaluators[i] = new AggSvcPrimitiveEvaluator((ExprEvaluatorDouble) valueEvaluator, null, filter);
+            }
+        }
+        return primitiveEvaluators;
+    }
+
+    private static boolean isHasFilter(ExprAggregateNodeBase aggregateNode) {
+        if (aggregateNode instanceof ExprSumNode) {
+            return ((ExprSumNode) aggregateNode).isHasFilter();
+        }
+        if (aggregateNode instanceof ExprAvgNode) {
+            return ((ExprAvgNode) aggregateNode).isHasFilter();
+        }
+        if (aggregateNode instanceof ExprStddevNode) {
+            return ((ExprStddevNode) aggregateNode).isHasFilter();
+        }
+        if (aggregateNode instanceof ExprMinMaxAggrNode) {
+            return ((ExprMinMaxAggrNode) aggregateNode).isHasFilter();
+        }
+        return false;
+    }
+
     public static AggregationState[] newAccesses(int agentInstanceId, boolean isJoin, AggregationStateFactory[] accessAggSpecs, Object groupKey, AggregationServicePassThru passThru) {
         AggregationState[] row = new AggregationState[accessAggSpecs.length];
         int i = 0;
@@ -16,6 +16,7 @@ import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.epl.table.mgmt.TableColumnMethodPair;
+import com.espertech.esper.epl.table.mgmt.TableExprEvaluatorContext;
 import com.espertech.esper.epl.table.mgmt.TableMetadata;
 import com.espertech.esper.epl.table.mgmt.TableStateInstanceGrouped;
 import com.espertech.esper.epl.table.strategy.ExprTableEvalLockUtil;
@@ -37,6 +38,7 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService
     protected final int[] targetStates;
     protected final ExprNode[] accessStateExpr;
     private final AggregationAgent[] agents;
+    private final TableExprEvaluatorContext rowLockingContext;
 
     // maintain a current row for random access into the aggregator state table
     // (row=groups, columns=expression nodes that have aggregation functions)
@@ -44,7 +46,7 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService
     protected AggregationState[] currentAggregatorStates;
     protected Object currentGroupKey;
 
-    public AggSvcGroupByWTableBase(TableMetadata tableMetadata, TableColumnMethodPair[] methodPairs, AggregationAccessorSlotPair[] accessors, boolean join, TableStateInstanceGrouped tableStateInstance, int[] targetStates, ExprNode[] accessStateExpr, AggregationAgent[] agents) {
+    public AggSvcGroupByWTableBase(TableMetadata tableMetadata, TableColumnMethodPair[] methodPairs, AggregationAccessorSlotPair[] accessors, boolean join, TableStateInstanceGrouped tableStateInstance, int[] targetStates, ExprNode[] accessStateExpr, AggregationAgent[] agents, TableExprEvaluatorContext rowLockingContext) {
         this.tableMetadata = tableMetadata;
         this.methodPairs = methodPairs;
         this.accessors = accessors;
@@ -53,6 +55,7 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService
         this.targetStates = targetStates;
         this.accessStateExpr = accessStateExpr;
         this.agents = agents;
+        this.rowLockingContext = rowLockingContext;
     }
 
     public abstract void applyEnterInternal(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext);
@@ -60,19 +63,33 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService
 
     public void applyEnter(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext)
     {
-        // acquire table-level write lock
-        ExprTableEvalLockUtil.obtainLockUnless(tableStateInstance.getTableLevelRWLock().writeLock(), exprEvaluatorContext);
+        obtainTableLock(exprEvaluatorContext);
         applyEnterInternal(eventsPerStream, groupByKey, exprEvaluatorContext);
     }
 
     public void applyLeave(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext)
     {
-        // acquire table-level write lock
-        ExprTableEvalLockUtil.obtainLockUnless(tableStateInstance.getTableLevelRWLock().writeLock(), exprEvaluatorContext);
+        obtainTableLock(exprEvaluatorContext);
         applyLeaveInternal(eventsPerStream, groupByKey, exprEvaluatorContext);
     }
 
+    private void obtainTableLock(ExprEvaluatorContext exprEvaluatorContext) {
+        // acquire table-level write lock, unless rows are locked individually
+        if (rowLockingContext == null) {
+            ExprTableEvalLockUtil.obtainLockUnless(tableStateInstance.getTableLevelRWLock().writeLock(), exprEvaluatorContext);
+        }
+    }
+
+    protected void obtainRowLock(Object groupByKey) {
+        // acquire table-level read lock and the row lock
+        if (rowLockingContext != null) {
+            ExprTableEvalLockUtil.obtainLockUnless(tableStateInstance.getTableLevelRWLock().readLock(), rowLockingContext);
+            ExprTableEvalLockUtil.obtainRowLockUnless(tableStateInstance, groupByKey, rowLockingContext);
+        }
+    }
+
     protected void applyEnterGroupKey(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext) {
+        obtainRowLock(groupByKey);
         ObjectArrayBackedEventBean bean = tableStateInstance.getCreateRowIntoTable(groupByKey, exprEvaluatorContext);
         AggregationRowPair row = (AggregationRowPair) bean.getProperties()[0];
 
@@ -103,6 +120,7 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService
 
     protected void applyLeaveGroupKey(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext)
     {
+        obtainRowLock(groupByKey);
         ObjectArrayBackedEventBean bean = tableStateInstance.getCreateRowIntoTable(groupByKey, exprEvaluatorContext);
         AggregationRowPair row = (AggregationRowPair) bean.getProperties()[0];
 
@@ -133,6 +151,7 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService
 
     public void setCurrentAccess(Object groupByKey, int agentInstanceId, AggregationGroupByRollupLevel rollupLevel)
     {
+        obtainRowLock(groupByKey);
         ObjectArrayBackedEventBean bean = tableStateInstance.getRowForGroupKey(groupByKey);
 
         if (bean != null) {
@@ -13,7 +13,9 @@ import com.espertech.esper.epl.agg.access.AggregationAccessorSlotPair;
 import com.espertech.esper.epl.agg.access.AggregationAgent;
 import com.espertech.esper.epl.core.EngineImportService;
 import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.spec.StatementSpecCompiled;
 import com.espertech.esper.epl.table.mgmt.TableColumnMethodPair;
+import com.espertech.esper.epl.table.mgmt.TableExprEvaluatorContext;
 import com.espertech.esper.epl.table.mgmt.TableMetadata;
 import com.espertech.esper.epl.table.mgmt.TableStateInstanceGrouped;
 
@@ -44,17 +46,30 @@ public class AggSvcGroupByWTableFactory implements AggregationServiceFactory
 
     public AggregationService makeService(AgentInstanceContext agentInstanceContext, EngineImportService engineImportService, boolean isSubquery, Integer subqueryNumber) {
         TableStateInstanceGrouped tableState = (TableStateInstanceGrouped) agentInstanceContext.getStatementContext().getTableService().getState(tableMetadata.getTableName(), agentInstanceContext.getAgentInstanceId());
+        TableExprEvaluatorContext rowLockingContext = null;
+        if (isRowLocking(agentInstanceContext.getStatementContext().getStatementSpecCompiled())) {
+            rowLockingContext = agentInstanceContext.getStatementContext().getTableExprEvaluatorContext();
+        }
         if (groupByRollupDesc == null) {
             return new AggSvcGroupByWTableImpl(tableMetadata, methodPairs, accessors, isJoin,
-                    tableState, targetStates, accessStateExpr, agents);
+                    tableState, targetStates, accessStateExpr, agents, rowLockingContext);
         }
         if (tableMetadata.getKeyTypes().length > 1) {
             return new AggSvcGroupByWTableRollupMultiKeyImpl(tableMetadata, methodPairs, accessors, isJoin,
-                    tableState, targetStates, accessStateExpr, agents, groupByRollupDesc);
+                    tableState, targetStates, accessStateExpr, agents, rowLockingContext, groupByRollupDesc);
         }
         else {
             return new AggSvcGroupByWTableRollupSingleKeyImpl(tableMetadata, methodPairs, accessors, isJoin,
-                    tableState, targetStates, accessStateExpr, agents);
+                    tableState, targetStates, accessStateExpr, agents, rowLockingContext);
+        }
+    }
+
+    // Statements that also read the same table by subquery or join take the table-level write lock for that access,
+    // which cannot be obtained while holding the read lock, therefore these aggregate under the table-level write lock.
+    private boolean isRowLocking(StatementSpecCompiled spec) {
+        if (tableMetadata.getLockStripes() == 0 || isJoin || spec == null) {
+            return false;
         }
+        return spec.getSubSelectExpressions() == null || spec.getSubSelectExpressions().length == 0;
     }
 }
@@ -0,0 +1,130 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethodDouble;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethodLong;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorDouble;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorLong;
+
+/**
+ * Enters and leaves the value of an aggregation as a primitive double or long, for aggregation methods
+ * that implement {@link AggregationMethodDouble} or {@link AggregationMethodLong}.
+ * <p>
+ * For filtered aggregations the filter is evaluated here and only values that pass the filter are entered or left.
+ */
+public final class AggSvcPrimitiveEvaluator
+{
+    private final ExprEvaluatorDouble doubleEvaluator;
+    private final ExprEvaluatorLong longEvaluator;
+    private final ExprEvaluator optionalFilter;
+
+    /**
+     * Ctor.
+     * @param doubleEvaluator evaluator for aggregations of primitive doubles, or null when aggregating primitive longs
+     * @param longEvaluator evaluator for aggregations of primitive longs, or null when aggregating primitive doubles
+     * @param optionalFilter filter expression evaluator, or null for aggregations without filter
+     */
+    public AggSvcPrimitiveEvaluator(ExprEvaluatorDouble doubleEvaluator, ExprEvaluatorLong longEvaluator, ExprEvaluator optionalFilter) {
+        this.doubleEvaluator = doubleEvaluator;
+        this.longEvaluator = longEvaluator;
+        this.optionalFilter = optionalFilter;
+    }
+
+    /**
+     * Evaluates and enters or leaves the value.
+     * @param aggregator aggregation method, implementing the primitive interface of this evaluator
+     * @param enter true to enter, false to leave
+     * @param eventsPerStream event tuple
+     * @param context context for expression evaluation
+     */
+    public void apply(AggregationMethod aggregator, boolean enter, EventBean[] eventsPerStream, ExprEvaluatorContext context) {
+        if (!pass(eventsPerStream, enter, context)) {
+            return;
+        }
+        if (longEvaluator != null) {
+            long value = longEvaluator.evaluateLong(eventsPerStream, enter, context);
+            if (enter) {
+                ((AggregationMethodLong) aggregator).enterLong(value);
+            }
+            else {
+                ((AggregationMethodLong) aggregator).leaveLong(value);
+            }
+        }
+        else {
+            double value = doubleEvaluator.evaluateDouble(eventsPerStream, enter, context);
+            if (enter) {
+                ((AggregationMethodDouble) aggregator).enterDouble(value);
+            }
+            else {
+                ((AggregationMethodDouble) aggregator).leaveDouble(value);
+            }
+        }
+    }
+
+    /**
+     * Evaluates and enters or leaves the value for a group slot of a columnar aggregation.
+     * @param column aggregation column
+     * @param slot group slot
+     * @param enter true to enter, false to leave
+     * @param eventsPerStream event tuple
+     * @param context context for expression evaluation
+     */
+    public void apply(AggSvcGroupByColumn column, int slot, boolean enter, EventBean[] eventsPerStream, ExprEvaluatorContext context) {
+        if (!pass(eventsPerStream, enter, context)) {
+            return;
+        }
+        if (longEvaluator != null) {
+            long value = longEvaluator.evaluateLong(eventsPerStream, enter, context);
+            if (enter) {
+                column.enterLong(slot, value);
+            }
+            else {
+                column.leaveLong(slot, value);
+            }
+        }
+        else {
+            double value = doubleEvaluator.evaluateDouble(eventsPerStream, enter, context);
+            if (enter) {
+                column.enterDouble(slot, value);
+            }
+            else {
+                column.leaveDouble(slot, value);
+            }
+        }
+    }
+
+    /**
+     * Returns true when aggregating primitive longs, false for primitive doubles.
+     * @return indicator
+     */
+    public boolean isLong() {
+        return longEvaluator != null;
+    }
+
+    /**
+     * Returns the filter expression evaluator, or null for aggregations without filter.
+     * @return filter
+     */
+    public ExprEvaluator getOptionalFilter() {
+        return optionalFilter;
+    }
+
+    private boolean pass(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        if (optionalFilter == null) {
+            return true;
+        }
+        Boolean pass = (Boolean) optionalFilter.evaluate(eventsPerStream, isNewData, context);
+        return pass != null && pass;
+    }
+}
@@ -297,6 +297,9 @@ public class AggregationServiceFactoryFactory
 
         AggregationServiceFactory serviceFactory;
 
+        // primitive evaluation of the values to aggregate requires each stream to provide an event
+        boolean isMultiStream = isJoin || typesPerStream.length > 1;
+
         // analyze local group by
         AggregationLocalGroupByPlan localGroupByPlan = null;
         if (localGroupDesc != null) {
@@ -318,7 +321,7 @@ public class AggregationServiceFactoryFactory
                 serviceFactory = factoryService.getNoGroupLocalGroupBy(isJoin, localGroupByPlan, isUnidirectional, isFireAndForget, isOnSelect);
             }
             else if ((methodAggEvaluators.length > 0) && (accessorPairs.length == 0)) {
-                serviceFactory = factoryService.getNoGroupNoAccess(methodAggEvaluators, methodAggFactories, isUnidirectional, isFireAndForget, isOnSelect);
+                serviceFactory = factoryService.getNoGroupNoAccess(methodAggEvaluators, methodAggFactories, isMultiStream, isUnidirectional, isFireAndForget, isOnSelect);
             }
             else if ((methodAggEvaluators.length == 0) && (accessorPairs.length > 0)) {
                 serviceFactory = factoryService.getNoGroupAccessOnly(accessorPairs, accessAggregations, isJoin, isUnidirectional, isFireAndForget, isOnSelect);
@@ -331,6 +334,7 @@ public class AggregationServiceFactoryFactory
             boolean hasNoReclaim = HintEnum.DISABLE_RECLAIM_GROUP.getHint(annotations) != null;
             Hint reclaimGroupAged = HintEnum.RECLAIM_GROUP_AGED.getHint(annotations);
             Hint reclaimGroupFrequency = HintEnum.RECLAIM_GROUP_AGED.getHint(annotations);
+            boolean isColumnar = HintEnum.ENABLE_COLUMNAR_AGGREGATION.getHint(annotations) != null && AggSvcGroupByColumn.isSupported(methodAggFactories);
             if (localGroupByPlan != null) {
                 serviceFactory = factoryService.getGroupLocalGroupBy(isJoin, localGroupByPlan, isUnidirectional, isFireAndForget, isOnSelect);
             }
@@ -340,8 +344,11 @@ public class AggregationServiceFactoryFactory
                     if (groupByRollupDesc != null) {
                         throw getRollupReclaimEx();
                     }
-                    if ((methodAggEvaluators.length > 0) && (accessorPairs.length == 0)) {
-                        serviceFactory = factoryService.getGroupedNoReclaimNoAccess(groupByNodes, methodAggEvaluators, methodAggFactories, isUnidirectional, isFireAndForget, isOnSelect);
+                    if ((methodAggEvaluators.length > 0) && (accessorPairs.length == 0) && isColumnar) {
+                        serviceFactory = factoryService.getGroupColumnarNoAccess(groupByNodes, methodAggEvaluators, methodAggFactories, isMultiStream, false, isUnidirectional, isFireAndForget, isOnSelect);
+                    }
+                    else if ((methodAggEvaluators.length > 0) && (accessorPairs.length == 0)) {
+                        serviceFactory = factoryService.getGroupedNoReclaimNoAccess(groupByNodes, methodAggEvaluators, methodAggFactories, isMultiStream, isUnidirectional, isFireAndForget, isOnSelect);
                     }
                     else if ((methodAggEvaluators.length == 0) && (accessorPairs.length > 0)) {
                         serviceFactory = factoryService.getGroupNoReclaimAccessOnly(groupByNodes, accessorPairs, accessAggregations, isJoin, isUnidirectional, isFireAndForget, isOnSelect);
@@ -362,8 +369,11 @@ public class AggregationServiceFactoryFactory
                 }
                 else
                 {
-                    if ((methodAggEvaluators.length > 0) && (accessorPairs.length == 0)) {
-                        serviceFactory = factoryService.getGroupReclaimNoAccess(groupByNodes, methodAggEvaluators, methodAggFactories, accessorPairs, accessAggregations, isJoin, isUnidirectional, isFireAndForget, isOnSelect);
+                    if ((methodAggEvaluators.length > 0) && (accessorPairs.length == 0) && isColumnar) {
+                        serviceFactory = factoryService.getGroupColumnarNoAccess(groupByNodes, methodAggEvaluators, methodAggFactories, isMultiStream, true, isUnidirectional, isFireAndForget, isOnSelect);
+                    }
+                    else if ((methodAggEvaluators.length > 0) && (accessorPairs.length == 0)) {
+                        serviceFactory = factoryService.getGroupReclaimNoAccess(groupByNodes, methodAggEvaluators, methodAggFactories, accessorPairs, accessAggregations, isMultiStream, isUnidirectional, isFireAndForget, isOnSelect);
                     }
                     else {
                         serviceFactory = factoryService.getGroupReclaimMixable(groupByNodes, methodAggEvaluators, methodAggFactories, accessorPairs, accessAggregations, isJoin, isUnidirectional, isFireAndForget, isOnSelect);
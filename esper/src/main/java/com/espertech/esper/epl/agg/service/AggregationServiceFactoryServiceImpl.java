@@ -31,8 +31,8 @@ public class AggregationServiceFactoryServiceImpl implements AggregationServiceF
         return AggregationServiceNullFactory.AGGREGATION_SERVICE_NULL_FACTORY;
     }
 
-    public AggregationServiceFactory getNoGroupNoAccess(ExprEvaluator[] evaluatorsArr, AggregationMethodFactory[] aggregatorsArr, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
-        return new AggSvcGroupAllNoAccessFactory(evaluatorsArr, aggregatorsArr);
+    public AggregationServiceFactory getNoGroupNoAccess(ExprEvaluator[] evaluatorsArr, AggregationMethodFactory[] aggregatorsArr, boolean join, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
+        return new AggSvcGroupAllNoAccessFactory(evaluatorsArr, aggregatorsArr, join);
     }
 
     public AggregationServiceFactory getNoGroupAccessOnly(AggregationAccessorSlotPair[] pairs, AggregationStateFactory[] accessAggSpecs, boolean join, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
@@ -43,8 +43,8 @@ public class AggregationServiceFactoryServiceImpl implements AggregationServiceF
         return new AggSvcGroupAllMixedAccessFactory(evaluatorsArr, aggregatorsArr, pairs, accessAggregations, join);
     }
 
-    public AggregationServiceFactory getGroupedNoReclaimNoAccess(ExprNode[] groupByNodes, ExprEvaluator[] evaluatorsArr, AggregationMethodFactory[] aggregatorsArr, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
-        return new AggSvcGroupByNoAccessFactory(evaluatorsArr, aggregatorsArr);
+    public AggregationServiceFactory getGroupedNoReclaimNoAccess(ExprNode[] groupByNodes, ExprEvaluator[] evaluatorsArr, AggregationMethodFactory[] aggregatorsArr, boolean join, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
+        return new AggSvcGroupByNoAccessFactory(evaluatorsArr, aggregatorsArr, join);
     }
 
     public AggregationServiceFactory getGroupNoReclaimAccessOnly(ExprNode[] groupByNodes, AggregationAccessorSlotPair[] pairs, AggregationStateFactory[] accessAggSpecs, boolean join, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
@@ -60,7 +60,11 @@ public class AggregationServiceFactoryServiceImpl implements AggregationServiceF
     }
 
     public AggregationServiceFactory getGroupReclaimNoAccess(ExprNode[] groupByNodes, ExprEvaluator[] evaluatorsArr, AggregationMethodFactory[] aggregatorsArr, AggregationAccessorSlotPair[] pairs, AggregationStateFactory[] accessAggregations, boolean join, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
-        return new AggSvcGroupByRefcountedNoAccessFactory(evaluatorsArr, aggregatorsArr);
+        return new AggSvcGroupByRefcountedNoAccessFactory(evaluatorsArr, aggregatorsArr, join);
+    }
+
+    public AggregationServiceFactory getGroupColumnarNoAccess(ExprNode[] groupByNodes, ExprEvaluator[] evaluatorsArr, AggregationMethodFactory[] aggregatorsArr, boolean join, boolean isRefcounted, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
+        return new AggSvcGroupByColumnarFactory(evaluatorsArr, aggregatorsArr, join, isRefcounted);
     }
 
     public AggregationServiceFactory getGroupReclaimMixable(ExprNode[] groupByNodes, ExprEvaluator[] evaluatorsArr, AggregationMethodFactory[] aggregatorsArr, AggregationAccessorSlotPair[] pairs, AggregationStateFactory[] accessAggregations, boolean join, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
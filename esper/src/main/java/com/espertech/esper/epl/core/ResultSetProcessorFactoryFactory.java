@@ -31,6 +31,7 @@ import com.espertech.esper.epl.declexpr.ExprDeclaredNode;
 import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
 import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeGroupKey;
 import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeUtil;
+import com.espertech.esper.epl.expression.codegen.ExprNodeCompiler;
 import com.espertech.esper.epl.expression.core.*;
 import com.espertech.esper.epl.expression.prev.ExprPreviousNode;
 import com.espertech.esper.epl.expression.prior.ExprPriorNode;
@@ -361,7 +362,7 @@ public class ResultSetProcessorFactoryFactory
             isSelectRStream = true;
         }
 
-        ExprEvaluator optionHavingEval = optionalHavingNode == null ? null : optionalHavingNode.getExprEvaluator();
+        ExprEvaluator optionHavingEval = optionalHavingNode == null ? null : ExprNodeCompiler.getEvaluator(optionalHavingNode, stmtContext.getConfigSnapshot().getEngineDefaults().getExpression().isCompileBytecode());
         boolean hasOutputLimitOptHint = HintEnum.ENABLE_OUTPUTLIMIT_OPT.getHint(statementSpec.getAnnotations()) != null;
 
         // Determine output-first condition factory
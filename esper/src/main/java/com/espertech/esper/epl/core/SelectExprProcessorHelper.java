@@ -12,6 +12,7 @@ import com.espertech.esper.client.*;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.epl.agg.service.AggregationGroupByRollupLevel;
 import com.espertech.esper.epl.core.eval.*;
+import com.espertech.esper.epl.expression.codegen.ExprNodeCompiler;
 import com.espertech.esper.epl.expression.core.*;
 import com.espertech.esper.epl.named.NamedWindowMgmtService;
 import com.espertech.esper.epl.named.NamedWindowProcessor;
@@ -208,6 +209,7 @@ public class SelectExprProcessorHelper
         EPType[] insertIntoTargetsPerCol = determineInsertedEventTypeTargets(insertIntoTargetType, selectionList);
 
         // Get expression nodes
+        boolean compileBytecode = configuration != null && configuration.getEngineDefaults().getExpression().isCompileBytecode();
         ExprEvaluator[] exprEvaluators = new ExprEvaluator[selectionList.size()];
         ExprNode[] exprNodes = new ExprNode[selectionList.size()];
         Object[] expressionReturnTypes = new Object[selectionList.size()];
@@ -215,7 +217,7 @@ public class SelectExprProcessorHelper
         {
             SelectClauseExprCompiledSpec spec = selectionList.get(i);
             ExprNode expr = spec.getSelectExpression();
-            ExprEvaluator evaluator = expr.getExprEvaluator();
+            ExprEvaluator evaluator = ExprNodeCompiler.getEvaluator(expr, compileBytecode);
             exprNodes[i] = expr;
 
             // if there is insert-into specification, use that
@@ -0,0 +1,57 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.codegen;
+
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+
+/**
+ * Base class for evaluators generated by {@link ExprNodeCompiler}.
+ * <p>
+ * The generated subclass implements the evaluate-method and reads event properties through
+ * the getters and evaluates sub-expressions that are not compiled through the interpreted evaluators
+ * held by this class.
+ */
+public abstract class ExprEvaluatorCompiledBase implements ExprEvaluator
+{
+    /**
+     * Property getters, referenced by index from the generated code.
+     */
+    protected final EventPropertyGetter[] getters;
+
+    /**
+     * Interpreted evaluators of sub-expressions that are not compiled, referenced by index from the generated code.
+     */
+    protected final ExprEvaluator[] evaluators;
+
+    private final Class type;
+    private final String expressionText;
+
+    /**
+     * Ctor.
+     * @param type result type
+     * @param expressionText expression text for logging
+     * @param getters property getters
+     * @param evaluators interpreted evaluators
+     */
+    protected ExprEvaluatorCompiledBase(Class type, String expressionText, EventPropertyGetter[] getters, ExprEvaluator[] evaluators) {
+        this.type = type;
+        this.expressionText = expressionText;
+        this.getters = getters;
+        this.evaluators = evaluators;
+    }
+
+    public Class getType() {
+        return type;
+    }
+
+    public String toString() {
+        return this.getClass().getSimpleName() + " expression=" + expressionText;
+    }
+}
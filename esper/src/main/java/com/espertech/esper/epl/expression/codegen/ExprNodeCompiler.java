@@ -0,0 +1,673 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.codegen;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.epl.expression.core.*;
+import com.espertech.esper.epl.expression.ops.*;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.type.MathArithTypeEnum;
+import com.espertech.esper.type.RelationalOpEnum;
+import com.espertech.esper.util.JavaClassHelper;
+import net.sf.cglib.asm.ClassWriter;
+import net.sf.cglib.asm.Label;
+import net.sf.cglib.asm.MethodVisitor;
+import net.sf.cglib.asm.Opcodes;
+import net.sf.cglib.asm.Type;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compiles a validated expression tree into a generated evaluator class, as an alternative to
+ * evaluating the tree of interpreted evaluators.
+ * <p>
+ * The generated code keeps intermediate results in primitive local variables and thereby avoids
+ * boxing and the virtual call per node. It supports identifiers, constants, the arithmetic operators for
+ * int, long, float and double, the relational operators, equals and not-equals of numeric values,
+ * and the and, or and not operators. Any other sub-expression is evaluated through its interpreted evaluator.
+ * The root node itself must be one of the supported operators, else the expression is not compiled.
+ */
+public class ExprNodeCompiler
+{
+    private static final Log log = LogFactory.getLog(ExprNodeCompiler.class);
+
+    private static final AtomicLong classNumber = new AtomicLong();
+
+    private static final String CLASS_NAME_PREFIX = ExprNodeCompiler.class.getName().replace("ExprNodeCompiler", "ExprEvaluatorCompiled");
+    private static final String BASE_CLASS = Type.getInternalName(ExprEvaluatorCompiledBase.class);
+    private static final String GETTER_ARRAY_DESC = Type.getDescriptor(EventPropertyGetter[].class);
+    private static final String EVALUATOR_ARRAY_DESC = Type.getDescriptor(ExprEvaluator[].class);
+    private static final String CTOR_DESC = "(" + Type.getDescriptor(Class.class) + Type.getDescriptor(String.class) + GETTER_ARRAY_DESC + EVALUATOR_ARRAY_DESC + ")V";
+    private static final String EVALUATE_DESC = "(" + Type.getDescriptor(EventBean[].class) + "Z" + Type.getDescriptor(ExprEvaluatorContext.class) + ")" + Type.getDescriptor(Object.class);
+    private static final String GETTER_DESC = "(" + Type.getDescriptor(EventBean.class) + ")" + Type.getDescriptor(Object.class);
+
+    private static final int LOCAL_THIS = 0;
+    private static final int LOCAL_EVENTS = 1;
+    private static final int LOCAL_ISNEWDATA = 2;
+    private static final int LOCAL_CONTEXT = 3;
+    private static final int LOCAL_FIRST_FREE = 4;
+
+    private ExprNodeCompiler() {
+    }
+
+    /**
+     * Returns the evaluator for the expression, compiled when compilation is enabled and the expression
+     * is compilable, or the interpreted evaluator of the expression otherwise.
+     * @param node validated expression
+     * @param compileBytecode indicator whether compilation is enabled
+     * @return evaluator
+     */
+    public static ExprEvaluator getEvaluator(ExprNode node, boolean compileBytecode) {
+        if (compileBytecode) {
+            ExprEvaluator compiled = compile(node);
+            if (compiled != null) {
+                return compiled;
+            }
+        }
+        return node.getExprEvaluator();
+    }
+
+    /**
+     * Compiles a validated expression.
+     * @param node validated expression
+     * @return generated evaluator, or null if the expression root is not compilable
+     */
+    public static ExprEvaluator compile(ExprNode node) {
+        // the generated code does not report to instrumentation
+        if (InstrumentationHelper.ENABLED || node.isConstantResult() || node instanceof ExprIdentNode || !isCompiledNode(node)) {
+            return null;
+        }
+
+        Class resultType = node.getExprEvaluator().getType();
+        String expressionText = ExprNodeUtility.toExpressionStringMinPrecedenceSafe(node);
+        String className = CLASS_NAME_PREFIX + classNumber.incrementAndGet();
+        try {
+            ClassWriter cw = new ExprNodeCompilerClassWriter();
+            cw.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className.replace('.', '/'), null, BASE_CLASS, null);
+
+            MethodVisitor ctor = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", CTOR_DESC, null, null);
+            ctor.visitCode();
+            ctor.visitVarInsn(Opcodes.ALOAD, 0);
+            ctor.visitVarInsn(Opcodes.ALOAD, 1);
+            ctor.visitVarInsn(Opcodes.ALOAD, 2);
+            ctor.visitVarInsn(Opcodes.ALOAD, 3);
+            ctor.visitVarInsn(Opcodes.ALOAD, 4);
+            ctor.visitMethodInsn(Opcodes.INVOKESPECIAL, BASE_CLASS, "<init>", CTOR_DESC);
+            ctor.visitInsn(Opcodes.RETURN);
+            ctor.visitMaxs(0, 0);
+            ctor.visitEnd();
+
+            MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "evaluate", EVALUATE_DESC, null, null);
+            mv.visitCode();
+            CodegenContext codegen = new CodegenContext(mv);
+            Label onNull = new Label();
+            Kind kind = codegen.generate(node, onNull);
+            codegen.box(kind, resultType);
+            mv.visitInsn(Opcodes.ARETURN);
+            mv.visitLabel(onNull);
+            mv.visitInsn(Opcodes.ACONST_NULL);
+            mv.visitInsn(Opcodes.ARETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+            cw.visitEnd();
+
+            ExprNodeCompilerClassLoader classLoader = new ExprNodeCompilerClassLoader(ExprNodeCompiler.class.getClassLoader());
+            Class clazz = classLoader.defineClass(className, cw.toByteArray());
+            EventPropertyGetter[] getters = codegen.getters.toArray(new EventPropertyGetter[codegen.getters.size()]);
+            ExprEvaluator[] evaluators = codegen.evaluators.toArray(new ExprEvaluator[codegen.evaluators.size()]);
+            return (ExprEvaluator) clazz.getConstructor(Class.class, String.class, EventPropertyGetter[].class, ExprEvaluator[].class)
+                    .newInstance(resultType, expressionText, getters, evaluators);
+        }
+        catch (Throwable t) {
+            log.warn("Failed to compile expression '" + expressionText + "', using interpreted evaluation: " + t.getMessage(), t);
+            return null;
+        }
+    }
+
+    /**
+     * Returns true if the node is generated as code, or false if the node can only be evaluated by delegating
+     * to its interpreted evaluator.
+     */
+    private static boolean isCompiledNode(ExprNode node) {
+        if (node instanceof ExprIdentNode) {
+            ExprEvaluator evaluator = node.getExprEvaluator();
+            return evaluator instanceof ExprIdentNodeEvaluatorImpl && Kind.of(evaluator.getType()) != null;
+        }
+        if (node instanceof ExprConstantNodeImpl) {
+            ExprConstantNodeImpl constant = (ExprConstantNodeImpl) node;
+            return constant.getConstantValue(null) != null && Kind.of(constant.getConstantType()) != null;
+        }
+        if (node instanceof ExprMathNode) {
+            Kind kind = Kind.of(((ExprMathNode) node).getType());
+            return kind != null && kind.isNumeric() && isNumericOperands(node);
+        }
+        if (node instanceof ExprRelationalOpNodeImpl) {
+            return isNumericOperands(node) && getNumericCompareKind(node) != null;
+        }
+        if (node instanceof ExprEqualsNodeImpl) {
+            ExprEqualsNodeImpl equals = (ExprEqualsNodeImpl) node;
+            return !equals.isIs() && isNumericOperands(node) && getNumericCompareKind(node) != null;
+        }
+        if (node instanceof ExprAndNodeImpl || node instanceof ExprOrNode || node instanceof ExprNotNode) {
+            for (ExprNode child : node.getChildNodes()) {
+                if (getOperandKind(child) != Kind.BOOLEAN) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isNumericOperands(ExprNode node) {
+        if (node.getChildNodes().length != 2) {
+            return false;
+        }
+        for (ExprNode child : node.getChildNodes()) {
+            Kind kind = getOperandKind(child);
+            if (kind == null || !kind.isNumeric()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the kind of value that a child node provides, either as generated code or through its interpreted evaluator.
+     */
+    private static Kind getOperandKind(ExprNode node) {
+        if (node instanceof ExprConstantNodeImpl && ((ExprConstantNodeImpl) node).getConstantValue(null) == null) {
+            return null;
+        }
+        return Kind.of(node.getExprEvaluator().getType());
+    }
+
+    private static Kind getNumericCompareKind(ExprNode node) {
+        Class typeOne = JavaClassHelper.getBoxedType(node.getChildNodes()[0].getExprEvaluator().getType());
+        Class typeTwo = JavaClassHelper.getBoxedType(node.getChildNodes()[1].getExprEvaluator().getType());
+        if (typeOne == typeTwo) {
+            return Kind.of(typeOne);
+        }
+        Class coercionType = JavaClassHelper.getCompareToCoercionType(typeOne, typeTwo);
+        if (coercionType != Integer.class && coercionType != Long.class && coercionType != Float.class && coercionType != Double.class) {
+            return null;
+        }
+        return Kind.of(coercionType);
+    }
+
+    /**
+     * Kind of primitive value that the generated code keeps on the operand stack.
+     */
+    private enum Kind
+    {
+        INT(Opcodes.ILOAD, Opcodes.ISTORE, "intValue", "I", Integer.class),
+        LONG(Opcodes.LLOAD, Opcodes.LSTORE, "longValue", "J", Long.class),
+        FLOAT(Opcodes.FLOAD, Opcodes.FSTORE, "floatValue", "F", Float.class),
+        DOUBLE(Opcodes.DLOAD, Opcodes.DSTORE, "doubleValue", "D", Double.class),
+        BOOLEAN(Opcodes.ILOAD, Opcodes.ISTORE, "booleanValue", "Z", Boolean.class);
+
+        private final int loadOpcode;
+        private final int storeOpcode;
+        private final String unboxMethod;
+        private final String descriptor;
+        private final Class boxedType;
+
+        Kind(int loadOpcode, int storeOpcode, String unboxMethod, String descriptor, Class boxedType) {
+            this.loadOpcode = loadOpcode;
+            this.storeOpcode = storeOpcode;
+            this.unboxMethod = unboxMethod;
+            this.descriptor = descriptor;
+            this.boxedType = boxedType;
+        }
+
+        static Kind of(Class type) {
+            Class boxed = JavaClassHelper.getBoxedType(type);
+            if (boxed == Integer.class || boxed == Short.class || boxed == Byte.class) {
+                return INT;
+            }
+            if (boxed == Long.class) {
+                return LONG;
+            }
+            if (boxed == Float.class) {
+                return FLOAT;
+            }
+            if (boxed == Double.class) {
+                return DOUBLE;
+            }
+            if (boxed == Boolean.class) {
+                return BOOLEAN;
+            }
+            return null;
+        }
+
+        boolean isNumeric() {
+            return this != BOOLEAN;
+        }
+
+        boolean isWide() {
+            return this == LONG || this == DOUBLE;
+        }
+
+        /**
+         * Returns the opcode offset of the type-specific variant of an int instruction, such as IADD.
+         */
+        int getOpcodeOffset() {
+            return ordinal();
+        }
+    }
+
+    /**
+     * Generates the evaluate-method body. Each generate-method is invoked with an empty operand stack and either
+     * leaves the primitive result on the stack or jumps to the null-label with an empty operand stack.
+     */
+    private static class CodegenContext
+    {
+        private final MethodVisitor mv;
+        private final List<EventPropertyGetter> getters = new ArrayList<EventPropertyGetter>();
+        private final List<ExprEvaluator> evaluators = new ArrayList<ExprEvaluator>();
+        private int nextLocal = LOCAL_FIRST_FREE;
+
+        private CodegenContext(MethodVisitor mv) {
+            this.mv = mv;
+        }
+
+        private Kind generate(ExprNode node, Label onNull) {
+            if (!isCompiledNode(node)) {
+                return generateDelegate(node, onNull);
+            }
+            if (node instanceof ExprIdentNode) {
+                return generateIdent((ExprIdentNodeEvaluatorImpl) node.getExprEvaluator(), onNull);
+            }
+            if (node instanceof ExprConstantNodeImpl) {
+                return generateConstant((ExprConstantNodeImpl) node);
+            }
+            if (node instanceof ExprMathNode) {
+                return generateMath((ExprMathNode) node, onNull);
+            }
+            if (node instanceof ExprRelationalOpNodeImpl) {
+                return generateRelationalOp((ExprRelationalOpNodeImpl) node, onNull);
+            }
+            if (node instanceof ExprEqualsNodeImpl) {
+                return generateEquals((ExprEqualsNodeImpl) node, onNull);
+            }
+            if (node instanceof ExprNotNode) {
+                generate(node.getChildNodes()[0], onNull);
+                mv.visitInsn(Opcodes.ICONST_1);
+                mv.visitInsn(Opcodes.IXOR);
+                return Kind.BOOLEAN;
+            }
+            return generateAndOr(node, node instanceof ExprAndNodeImpl, onNull);
+        }
+
+        private Kind generateIdent(ExprIdentNodeEvaluatorImpl evaluator, Label onNull) {
+            int eventLocal = newLocal(false);
+            mv.visitVarInsn(Opcodes.ALOAD, LOCAL_EVENTS);
+            pushInt(evaluator.getStreamNum());
+            mv.visitInsn(Opcodes.AALOAD);
+            mv.visitVarInsn(Opcodes.ASTORE, eventLocal);
+            mv.visitVarInsn(Opcodes.ALOAD, eventLocal);
+            mv.visitJumpInsn(Opcodes.IFNULL, onNull);
+
+            mv.visitVarInsn(Opcodes.ALOAD, LOCAL_THIS);
+            mv.visitFieldInsn(Opcodes.GETFIELD, BASE_CLASS, "getters", GETTER_ARRAY_DESC);
+            pushInt(getters.size());
+            getters.add(evaluator.getGetter());
+            mv.visitInsn(Opcodes.AALOAD);
+            mv.visitVarInsn(Opcodes.ALOAD, eventLocal);
+            mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(EventPropertyGetter.class), "get", GETTER_DESC);
+            return unboxOrNull(Kind.of(evaluator.getType()), onNull);
+        }
+
+        private Kind generateDelegate(ExprNode node, Label onNull) {
+            ExprEvaluator evaluator = node.getExprEvaluator();
+            mv.visitVarInsn(Opcodes.ALOAD, LOCAL_THIS);
+            mv.visitFieldInsn(Opcodes.GETFIELD, BASE_CLASS, "evaluators", EVALUATOR_ARRAY_DESC);
+            pushInt(evaluators.size());
+            evaluators.add(evaluator);
+            mv.visitInsn(Opcodes.AALOAD);
+            mv.visitVarInsn(Opcodes.ALOAD, LOCAL_EVENTS);
+            mv.visitVarInsn(Opcodes.ILOAD, LOCAL_ISNEWDATA);
+            mv.visitVarInsn(Opcodes.ALOAD, LOCAL_CONTEXT);
+            mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(ExprEvaluator.class), "evaluate", EVALUATE_DESC);
+            return unboxOrNull(getOperandKind(node), onNull);
+        }
+
+        private Kind generateConstant(ExprConstantNodeImpl node) {
+            Object value = node.getConstantValue(null);
+            Kind kind = Kind.of(node.getConstantType());
+            switch (kind) {
+                case INT:
+                    mv.visitLdcInsn(((Number) value).intValue());
+                    break;
+                case LONG:
+                    mv.visitLdcInsn(((Number) value).longValue());
+                    break;
+                case FLOAT:
+                    mv.visitLdcInsn(((Number) value).floatValue());
+                    break;
+                case DOUBLE:
+                    mv.visitLdcInsn(((Number) value).doubleValue());
+                    break;
+                default:
+                    mv.visitInsn((Boolean) value ? Opcodes.ICONST_1 : Opcodes.ICONST_0);
+            }
+            return kind;
+        }
+
+        private Kind generateMath(ExprMathNode node, Label onNull) {
+            Kind kind = Kind.of(node.getType());
+            int left = generateOperand(node.getChildNodes()[0], kind, onNull);
+            int right = generateOperand(node.getChildNodes()[1], kind, onNull);
+
+            MathArithTypeEnum arith = node.getMathArithTypeEnum();
+            if (arith == MathArithTypeEnum.DIVIDE && isDivisionByZeroNull(node, kind)) {
+                mv.visitVarInsn(kind.loadOpcode, right);
+                pushZero(kind);
+                compareToZero(kind);
+                mv.visitJumpInsn(Opcodes.IFEQ, onNull);
+            }
+
+            mv.visitVarInsn(kind.loadOpcode, left);
+            mv.visitVarInsn(kind.loadOpcode, right);
+            int opcode;
+            switch (arith) {
+                case ADD:
+                    opcode = Opcodes.IADD;
+                    break;
+                case SUBTRACT:
+                    opcode = Opcodes.ISUB;
+                    break;
+                case MULTIPLY:
+                    opcode = Opcodes.IMUL;
+                    break;
+                case DIVIDE:
+                    opcode = Opcodes.IDIV;
+                    break;
+                default:
+                    opcode = Opcodes.IREM;
+            }
+            mv.visitInsn(opcode + kind.getOpcodeOffset());
+            return kind;
+        }
+
+        /**
+         * Division of floating point values returns null for a zero divisor only when configured, while integer division
+         * always returns null for a zero divisor, same as {@link MathArithTypeEnum}.
+         */
+        private static boolean isDivisionByZeroNull(ExprMathNode node, Kind kind) {
+            if (kind == Kind.DOUBLE) {
+                return node.isDivisionByZeroReturnsNull();
+            }
+            return true;
+        }
+
+        private Kind generateRelationalOp(ExprRelationalOpNodeImpl node, Label onNull) {
+            Kind kind = getNumericCompareKind(node);
+            int left = generateOperand(node.getChildNodes()[0], kind, onNull);
+            int right = generateOperand(node.getChildNodes()[1], kind, onNull);
+
+            Label isFalse = new Label();
+            Label end = new Label();
+            mv.visitVarInsn(kind.loadOpcode, left);
+            mv.visitVarInsn(kind.loadOpcode, right);
+            RelationalOpEnum op = node.getRelationalOpEnum();
+            boolean isLess = op == RelationalOpEnum.LT || op == RelationalOpEnum.LE;
+            int jumpIfFalse;
+            switch (op) {
+                case GT:
+                    jumpIfFalse = Opcodes.IFLE;
+                    break;
+                case GE:
+                    jumpIfFalse = Opcodes.IFLT;
+                    break;
+                case LT:
+                    jumpIfFalse = Opcodes.IFGE;
+                    break;
+                default:
+                    jumpIfFalse = Opcodes.IFGT;
+            }
+            switch (kind) {
+                case INT:
+                    // IF_ICMPxx has the same order as IFxx
+                    mv.visitJumpInsn(jumpIfFalse + (Opcodes.IF_ICMPEQ - Opcodes.IFEQ), isFalse);
+                    break;
+                case LONG:
+                    mv.visitInsn(Opcodes.LCMP);
+                    mv.visitJumpInsn(jumpIfFalse, isFalse);
+                    break;
+                case FLOAT:
+                    // comparing with NaN yields false
+                    mv.visitInsn(isLess ? Opcodes.FCMPG : Opcodes.FCMPL);
+                    mv.visitJumpInsn(jumpIfFalse, isFalse);
+                    break;
+                default:
+                    mv.visitInsn(isLess ? Opcodes.DCMPG : Opcodes.DCMPL);
+                    mv.visitJumpInsn(jumpIfFalse, isFalse);
+            }
+            pushBooleanResult(isFalse, end);
+            return Kind.BOOLEAN;
+        }
+
+        private Kind generateEquals(ExprEqualsNodeImpl node, Label onNull) {
+            Kind kind = getNumericCompareKind(node);
+
+            // both sides are evaluated before checking for null
+            int leftIsNull = newLocal(false);
+            Label leftNull = new Label();
+            Label leftDone = new Label();
+            int left = generateOperand(node.getChildNodes()[0], kind, leftNull);
+            mv.visitInsn(Opcodes.ICONST_0);
+            mv.visitVarInsn(Opcodes.ISTORE, leftIsNull);
+            mv.visitJumpInsn(Opcodes.GOTO, leftDone);
+            mv.visitLabel(leftNull);
+            pushZero(kind);
+            mv.visitVarInsn(kind.storeOpcode, left);
+            mv.visitInsn(Opcodes.ICONST_1);
+            mv.visitVarInsn(Opcodes.ISTORE, leftIsNull);
+            mv.visitLabel(leftDone);
+
+            int right = generateOperand(node.getChildNodes()[1], kind, onNull);
+            mv.visitVarInsn(Opcodes.ILOAD, leftIsNull);
+            mv.visitJumpInsn(Opcodes.IFNE, onNull);
+
+            // floating point values compare same as Double.equals and Float.equals
+            Label isFalse = new Label();
+            Label end = new Label();
+            mv.visitVarInsn(kind.loadOpcode, left);
+            mv.visitVarInsn(kind.loadOpcode, right);
+            int jumpIfFalse = node.isNotEquals() ? Opcodes.IFEQ : Opcodes.IFNE;
+            switch (kind) {
+                case INT:
+                    mv.visitJumpInsn(jumpIfFalse + (Opcodes.IF_ICMPEQ - Opcodes.IFEQ), isFalse);
+                    break;
+                case LONG:
+                    mv.visitInsn(Opcodes.LCMP);
+                    mv.visitJumpInsn(jumpIfFalse, isFalse);
+                    break;
+                case FLOAT:
+                    mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(Float.class), "compare", "(FF)I");
+                    mv.visitJumpInsn(jumpIfFalse, isFalse);
+                    break;
+                default:
+                    mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(Double.class), "compare", "(DD)I");
+                    mv.visitJumpInsn(jumpIfFalse, isFalse);
+            }
+            pushBooleanResult(isFalse, end);
+            return Kind.BOOLEAN;
+        }
+
+        /**
+         * Three-valued logic same as the interpreted and-node and or-node: a false (and) or true (or) operand
+         * determines the result, else any null operand makes the result null.
+         */
+        private Kind generateAndOr(ExprNode node, boolean isAnd, Label onNull) {
+            int sawNull = newLocal(false);
+            mv.visitInsn(Opcodes.ICONST_0);
+            mv.visitVarInsn(Opcodes.ISTORE, sawNull);
+            Label determined = new Label();
+            Label end = new Label();
+            for (ExprNode child : node.getChildNodes()) {
+                Label childNull = new Label();
+                Label next = new Label();
+                generate(child, childNull);
+                mv.visitJumpInsn(isAnd ? Opcodes.IFEQ : Opcodes.IFNE, determined);
+                mv.visitJumpInsn(Opcodes.GOTO, next);
+                mv.visitLabel(childNull);
+                mv.visitInsn(Opcodes.ICONST_1);
+                mv.visitVarInsn(Opcodes.ISTORE, sawNull);
+                mv.visitLabel(next);
+            }
+            mv.visitVarInsn(Opcodes.ILOAD, sawNull);
+            mv.visitJumpInsn(Opcodes.IFNE, onNull);
+            mv.visitInsn(isAnd ? Opcodes.ICONST_1 : Opcodes.ICONST_0);
+            mv.visitJumpInsn(Opcodes.GOTO, end);
+            mv.visitLabel(determined);
+            mv.visitInsn(isAnd ? Opcodes.ICONST_0 : Opcodes.ICONST_1);
+            mv.visitLabel(end);
+            return Kind.BOOLEAN;
+        }
+
+        /**
+         * Generates an operand, widens it to the given kind and stores it in a new local variable.
+         */
+        private int generateOperand(ExprNode node, Kind kind, Label onNull) {
+            Kind operandKind = generate(node, onNull);
+            widen(operandKind, kind);
+            int local = newLocal(kind.isWide());
+            mv.visitVarInsn(kind.storeOpcode, local);
+            return local;
+        }
+
+        private void widen(Kind from, Kind to) {
+            if (from == to) {
+                return;
+            }
+            if (from == Kind.INT) {
+                mv.visitInsn(to == Kind.LONG ? Opcodes.I2L : to == Kind.FLOAT ? Opcodes.I2F : Opcodes.I2D);
+            }
+            else if (from == Kind.LONG) {
+                mv.visitInsn(to == Kind.FLOAT ? Opcodes.L2F : Opcodes.L2D);
+            }
+            else if (from == Kind.FLOAT && to == Kind.DOUBLE) {
+                mv.visitInsn(Opcodes.F2D);
+            }
+            else {
+                throw new IllegalStateException("Cannot widen " + from + " to " + to);
+            }
+        }
+
+        /**
+         * Takes the object on the operand stack, jumps to the null-label for a null value, and unboxes it otherwise.
+         */
+        private Kind unboxOrNull(Kind kind, Label onNull) {
+            int valueLocal = newLocal(false);
+            mv.visitVarInsn(Opcodes.ASTORE, valueLocal);
+            mv.visitVarInsn(Opcodes.ALOAD, valueLocal);
+            mv.visitJumpInsn(Opcodes.IFNULL, onNull);
+            mv.visitVarInsn(Opcodes.ALOAD, valueLocal);
+            String owner = Type.getInternalName(kind == Kind.BOOLEAN ? Boolean.class : Number.class);
+            mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, owner, kind.unboxMethod, "()" + kind.descriptor);
+            return kind;
+        }
+
+        private void box(Kind kind, Class resultType) {
+            Class boxed = JavaClassHelper.getBoxedType(resultType);
+            if (boxed != kind.boxedType) {
+                throw new IllegalStateException("Unexpected result type " + resultType.getName() + " for " + kind);
+            }
+            String owner = Type.getInternalName(boxed);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, owner, "valueOf", "(" + kind.descriptor + ")L" + owner + ";");
+        }
+
+        private void pushBooleanResult(Label isFalse, Label end) {
+            mv.visitInsn(Opcodes.ICONST_1);
+            mv.visitJumpInsn(Opcodes.GOTO, end);
+            mv.visitLabel(isFalse);
+            mv.visitInsn(Opcodes.ICONST_0);
+            mv.visitLabel(end);
+        }
+
+        private void pushZero(Kind kind) {
+            switch (kind) {
+                case LONG:
+                    mv.visitInsn(Opcodes.LCONST_0);
+                    break;
+                case FLOAT:
+                    mv.visitInsn(Opcodes.FCONST_0);
+                    break;
+                case DOUBLE:
+                    mv.visitInsn(Opcodes.DCONST_0);
+                    break;
+                default:
+                    mv.visitInsn(Opcodes.ICONST_0);
+            }
+        }
+
+        /**
+         * Compares the two values on the operand stack leaving zero on the operand stack when equal.
+         */
+        private void compareToZero(Kind kind) {
+            switch (kind) {
+                case LONG:
+                    mv.visitInsn(Opcodes.LCMP);
+                    break;
+                case FLOAT:
+                    mv.visitInsn(Opcodes.FCMPL);
+                    break;
+                case DOUBLE:
+                    mv.visitInsn(Opcodes.DCMPL);
+                    break;
+                default:
+                    mv.visitInsn(Opcodes.ISUB);
+            }
+        }
+
+        private void pushInt(int value) {
+            if (value <= 5) {
+                mv.visitInsn(Opcodes.ICONST_0 + value);
+            }
+            else if (value <= Byte.MAX_VALUE) {
+                mv.visitIntInsn(Opcodes.BIPUSH, value);
+            }
+            else {
+                mv.visitLdcInsn(value);
+            }
+        }
+
+        /**
+         * Allocates a new local variable. Locals are not reused so that no slot holds different types in different branches.
+         */
+        private int newLocal(boolean wide) {
+            int local = nextLocal;
+            nextLocal += wide ? 2 : 1;
+            return local;
+        }
+    }
+
+    /**
+     * The generated code never merges different reference types in a frame, therefore the common super class
+     * does not require loading classes.
+     */
+    private static class ExprNodeCompilerClassWriter extends ClassWriter
+    {
+        private ExprNodeCompilerClassWriter() {
+            super(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        }
+
+        protected String getCommonSuperClass(String typeOne, String typeTwo) {
+            return Type.getInternalName(Object.class);
+        }
+    }
+}
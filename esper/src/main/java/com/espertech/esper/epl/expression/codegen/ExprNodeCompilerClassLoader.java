@@ -6,23 +6,19 @@
  * The software in this package is published under the terms of the GPL license       *
  * a copy of which has been included with this distribution in the license.txt file.  *
  **************************************************************************************/
-package com.espertech.esper.collection;
+package com.espertech.esper.epl.expression.codegen;
 
-import java.util.ArrayDeque;
-
-public final class TimeWindowIterator extends MixedEventBeanAndCollectionIteratorBase
+/**
+ * Class loader for a single generated evaluator class, so that the class can be unloaded
+ * when the statement that uses it is destroyed.
+ */
+class ExprNodeCompilerClassLoader extends ClassLoader
 {
-    /**
-     * Ctor.
-     * @param window is the time-slotted collection
-     */
-    public TimeWindowIterator(ArrayDeque<TimeWindowPair> window)
-    {
-        super(window.iterator());
-        init();
+    ExprNodeCompilerClassLoader(ClassLoader parent) {
+        super(parent);
     }
 
-    protected Object getValue(Object iteratorKeyValue) {
-        return ((TimeWindowPair) iteratorKeyValue).getEventHolder();
+    Class defineClass(String name, byte[] bytes) {
+        return defineClass(name, bytes, 0, bytes.length);
     }
 }
@@ -12,11 +12,13 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 
 /**
  * Represents a constant in an expressiun tree.
  */
-public class ExprConstantNodeImpl extends ExprNodeBase implements ExprConstantNode, ExprEvaluator
+public class ExprConstantNodeImpl extends ExprNodeBase implements ExprConstantNode, ExprEvaluatorDouble, ExprEvaluatorLong
 {
     private Object value;
     private final Class clazz;
@@ -114,6 +116,22 @@ public class ExprConstantNodeImpl extends ExprNodeBase implements ExprConstantNo
         return value;
     }
 
+    public boolean isDoubleEvaluable() {
+        return value instanceof Number && !(value instanceof BigDecimal) && !(value instanceof BigInteger);
+    }
+
+    public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext) {
+        return ((Number) value).doubleValue();
+    }
+
+    public boolean isLongEvaluable() {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext) {
+        return ((Number) value).longValue();
+    }
+
     public ExprEvaluator getExprEvaluator()
     {
         return this;
@@ -0,0 +1,40 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.core;
+
+import com.espertech.esper.client.EventBean;
+
+/**
+ * Evaluator that can also compute its result as a primitive long, without boxing the result.
+ * <p>
+ * The primitive result is only available when {@link #isLongEvaluable()} returns true,
+ * that is when the result is integral and cannot be null for any event present in the event tuple.
+ */
+public interface ExprEvaluatorLong extends ExprEvaluator
+{
+    /**
+     * Returns true if the evaluator can evaluate to a primitive long, false if not.
+     * <p>
+     * Only to be called after validation.
+     * @return indicator whether the primitive evaluation is available
+     */
+    public boolean isLongEvaluable();
+
+    /**
+     * Evaluate event tuple and return the result as a primitive long.
+     * <p>
+     * The caller must ensure the evaluator is long-evaluable and that the event tuple provides
+     * each event that the evaluator reads.
+     * @param eventsPerStream - event tuple
+     * @param isNewData - indicates whether we are dealing with new data (istream) or old data (rstream)
+     * @param context context for expression evaluation
+     * @return evaluation result
+     */
+    public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context);
+}
@@ -27,6 +27,8 @@ public class ExprEvaluatorProxy implements java.lang.reflect.InvocationHandler {
     private static Method targetEvaluateCollEvents = JavaClassHelper.getMethodByName(ExprEvaluatorEnumeration.class, "evaluateGetROCollectionEvents");
     private static Method targetEvaluateCollScalar = JavaClassHelper.getMethodByName(ExprEvaluatorEnumeration.class, "evaluateGetROCollectionScalar");
     private static Method targetEvaluateBean = JavaClassHelper.getMethodByName(ExprEvaluatorEnumeration.class, "evaluateGetEventBean");
+    private static Method targetIsDoubleEvaluable = JavaClassHelper.getMethodByName(ExprEvaluatorDouble.class, "isDoubleEvaluable");
+    private static Method targetIsLongEvaluable = JavaClassHelper.getMethodByName(ExprEvaluatorLong.class, "isLongEvaluable");
 
     private final String engineURI;
     private final String statementName;
@@ -105,6 +107,11 @@ public class ExprEvaluatorProxy implements java.lang.reflect.InvocationHandler {
             }
             return result;
         }
+
+        // audited evaluation must go through the evaluate method
+        if (m.equals(targetIsDoubleEvaluable) || m.equals(targetIsLongEvaluable)) {
+            return false;
+        }
         return m.invoke(evaluator, args);
     }
 }
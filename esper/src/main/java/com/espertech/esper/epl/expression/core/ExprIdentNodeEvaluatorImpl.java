@@ -10,9 +10,10 @@ package com.espertech.esper.epl.expression.core;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.event.bean.GeneratedPropertyGetterBase;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
-public class ExprIdentNodeEvaluatorImpl implements ExprIdentNodeEvaluator
+public class ExprIdentNodeEvaluatorImpl implements ExprIdentNodeEvaluator, ExprEvaluatorDouble, ExprEvaluatorLong
 {
     private final int streamNum;
     private final EventPropertyGetter propertyGetter;
@@ -48,6 +49,32 @@ public class ExprIdentNodeEvaluatorImpl implements ExprIdentNodeEvaluator
         return propertyType;
     }
 
+    /**
+     * Returns true for simple properties of a primitive numeric type of a JavaBean event that the generated getter
+     * reads as a primitive double, as such properties cannot be null and are read without boxing.
+     * @return indicator
+     */
+    public boolean isDoubleEvaluable() {
+        return propertyGetter instanceof GeneratedPropertyGetterBase && ((GeneratedPropertyGetterBase) propertyGetter).isDoubleReadable();
+    }
+
+    public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext) {
+        return ((GeneratedPropertyGetterBase) propertyGetter).getBeanPropDouble(eventsPerStream[streamNum].getUnderlying());
+    }
+
+    /**
+     * Returns true for simple properties of a primitive integral type of a JavaBean event that the generated getter
+     * reads as a primitive long, as such properties cannot be null and are read without boxing.
+     * @return indicator
+     */
+    public boolean isLongEvaluable() {
+        return propertyGetter instanceof GeneratedPropertyGetterBase && ((GeneratedPropertyGetterBase) propertyGetter).isLongReadable();
+    }
+
+    public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext) {
+        return ((GeneratedPropertyGetterBase) propertyGetter).getBeanPropLong(eventsPerStream[streamNum].getUnderlying());
+    }
+
     public EventPropertyGetter getGetter() {
         return propertyGetter;
     }
@@ -34,4 +34,12 @@ public class ExprIdentNodeEvaluatorLogging extends ExprIdentNodeEvaluatorImpl
         }
         return result;
     }
+
+    public boolean isDoubleEvaluable() {
+        return false;
+    }
+
+    public boolean isLongEvaluable() {
+        return false;
+    }
 }
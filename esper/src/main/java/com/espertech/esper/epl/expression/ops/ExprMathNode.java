@@ -20,7 +20,7 @@ import java.math.BigDecimal;
 /**
  * Represents a simple Math (+/-/divide/*) in a filter expression tree.
  */
-public class ExprMathNode extends ExprNodeBase implements ExprEvaluator
+public class ExprMathNode extends ExprNodeBase implements ExprEvaluatorDouble, ExprEvaluatorLong
 {
     private final MathArithTypeEnum mathArithTypeEnum;
     private final boolean isIntegerDivision;
@@ -141,6 +141,67 @@ public class ExprMathNode extends ExprNodeBase implements ExprEvaluator
         return arithTypeEnumComputer.compute((Number) valueChildOne, (Number) valueChildTwo);
     }
 
+    /**
+     * Returns true when the result is a double and both sub-expressions evaluate to primitive doubles,
+     * unless a division by zero returns null.
+     * @return indicator
+     */
+    public boolean isDoubleEvaluable() {
+        if (resultType != Double.class) {
+            return false;
+        }
+        if ((mathArithTypeEnum == MathArithTypeEnum.DIVIDE) && (isDivisionByZeroReturnsNull)) {
+            return false;
+        }
+        return isDoubleEvaluable(evaluatorLeft) && isDoubleEvaluable(evaluatorRight);
+    }
+
+    public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        double left = ((ExprEvaluatorDouble) evaluatorLeft).evaluateDouble(eventsPerStream, isNewData, exprEvaluatorContext);
+        double right = ((ExprEvaluatorDouble) evaluatorRight).evaluateDouble(eventsPerStream, isNewData, exprEvaluatorContext);
+        switch (mathArithTypeEnum) {
+            case ADD:
+                return left + right;
+            case SUBTRACT:
+                return left - right;
+            case MULTIPLY:
+                return left * right;
+            case DIVIDE:
+                return left / right;
+            default:
+                return left % right;
+        }
+    }
+
+    /**
+     * Returns true when the result is a long and both sub-expressions evaluate to primitive longs,
+     * unless the operation is a division, which returns null for a division by zero.
+     * @return indicator
+     */
+    public boolean isLongEvaluable() {
+        if (resultType != Long.class || mathArithTypeEnum == MathArithTypeEnum.DIVIDE) {
+            return false;
+        }
+        return isLongEvaluable(evaluatorLeft) && isLongEvaluable(evaluatorRight);
+    }
+
+    public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        long left = ((ExprEvaluatorLong) evaluatorLeft).evaluateLong(eventsPerStream, isNewData, exprEvaluatorContext);
+        long right = ((ExprEvaluatorLong) evaluatorRight).evaluateLong(eventsPerStream, isNewData, exprEvaluatorContext);
+        switch (mathArithTypeEnum) {
+            case ADD:
+                return left + right;
+            case SUBTRACT:
+                return left - right;
+            case MULTIPLY:
+                return left * right;
+            default:
+                return left % right;
+        }
+    }
+
     public void toPrecedenceFreeEPL(StringWriter writer) {
         this.getChildNodes()[0].toEPL(writer, getPrecedence());
         writer.append(mathArithTypeEnum.getExpressionText());
@@ -175,6 +236,14 @@ public class ExprMathNode extends ExprNodeBase implements ExprEvaluator
         return true;
     }
 
+    private static boolean isDoubleEvaluable(ExprEvaluator evaluator) {
+        return evaluator instanceof ExprEvaluatorDouble && ((ExprEvaluatorDouble) evaluator).isDoubleEvaluable();
+    }
+
+    private static boolean isLongEvaluable(ExprEvaluator evaluator) {
+        return evaluator instanceof ExprEvaluatorLong && ((ExprEvaluatorLong) evaluator).isLongEvaluable();
+    }
+
     /**
      * Returns the type of math.
      * @return math type
@@ -183,4 +252,22 @@ public class ExprMathNode extends ExprNodeBase implements ExprEvaluator
     {
         return mathArithTypeEnum;
     }
+
+    /**
+     * Returns true for Java-convention integer division semantics.
+     * @return indicator
+     */
+    public boolean isIntegerDivision()
+    {
+        return isIntegerDivision;
+    }
+
+    /**
+     * Returns true if division by zero returns null rather than infinity.
+     * @return indicator
+     */
+    public boolean isDivisionByZeroReturnsNull()
+    {
+        return isDivisionByZeroReturnsNull;
+    }
 }
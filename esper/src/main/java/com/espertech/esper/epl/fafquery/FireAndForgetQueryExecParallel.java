@@ -0,0 +1,118 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.fafquery;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Parallel execution of the parts of a fire-and-forget query.
+ * <p>
+ * Filtering splits the snapshot of events into contiguous parts and filters each part on a separate thread,
+ * concatenating the results in the order of the parts so that the result keeps the order of the snapshot.
+ */
+public class FireAndForgetQueryExecParallel
+{
+    /**
+     * Minimum number of events for each part, smaller snapshots are not worth handing to other threads.
+     */
+    public static final int MIN_EVENTS_PER_PART = 1024;
+
+    /**
+     * Filter events, in parallel when there are sufficient events.
+     * @param snapshot events to filter
+     * @param filterExpressions filters
+     * @param exprEvaluatorContext context for expression evaluation
+     * @param executor thread pool
+     * @param maxParts maximum number of parts
+     * @return filtered events
+     */
+    public static Collection<EventBean> filter(Collection<EventBean> snapshot, final List<ExprNode> filterExpressions, final ExprEvaluatorContext exprEvaluatorContext, ExecutorService executor, int maxParts)
+    {
+        int numParts = Math.min(maxParts, snapshot.size() / MIN_EVENTS_PER_PART);
+        if (numParts <= 1) {
+            ArrayDeque<EventBean> deque = new ArrayDeque<EventBean>(Math.min(snapshot.size(), 16));
+            ExprNodeUtility.applyFilterExpressionsIterable(snapshot, filterExpressions, exprEvaluatorContext, deque);
+            return deque;
+        }
+
+        List<EventBean> events = Arrays.asList(snapshot.toArray(new EventBean[snapshot.size()]));
+        List<Callable<ArrayDeque<EventBean>>> parts = new ArrayList<Callable<ArrayDeque<EventBean>>>(numParts);
+        int partSize = (events.size() + numParts - 1) / numParts;
+        for (int start = 0; start < events.size(); start += partSize) {
+            final List<EventBean> part = events.subList(start, Math.min(start + partSize, events.size()));
+            parts.add(new Callable<ArrayDeque<EventBean>>() {
+                public ArrayDeque<EventBean> call() throws Exception {
+                    ArrayDeque<EventBean> deque = new ArrayDeque<EventBean>();
+                    ExprNodeUtility.applyFilterExpressionsIterable(part, filterExpressions, exprEvaluatorContext, deque);
+                    return deque;
+                }
+            });
+        }
+
+        List<ArrayDeque<EventBean>> results = invokeAll(executor, parts);
+        int size = 0;
+        for (ArrayDeque<EventBean> result : results) {
+            size += result.size();
+        }
+        ArrayDeque<EventBean> filtered = new ArrayDeque<EventBean>(Math.max(size, 16));
+        for (ArrayDeque<EventBean> result : results) {
+            filtered.addAll(result);
+        }
+        return filtered;
+    }
+
+    /**
+     * Execute tasks on the thread pool and wait for their results.
+     * @param executor thread pool
+     * @param tasks to execute
+     * @param <T> result type
+     * @return results in the order of the tasks
+     * @throws EPException if a task failed or the wait was interrupted
+     */
+    public static <T> List<T> invokeAll(ExecutorService executor, List<Callable<T>> tasks) throws EPException
+    {
+        List<Future<T>> futures;
+        try {
+            futures = executor.invokeAll(tasks);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EPException("Interrupted executing fire-and-forget query in parallel", e);
+        }
+
+        List<T> results = new ArrayList<T>(futures.size());
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new EPException("Interrupted executing fire-and-forget query in parallel", e);
+            }
+            catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new EPException("Failed executing fire-and-forget query in parallel: " + cause.getMessage(), cause);
+            }
+        }
+        return results;
+    }
+}
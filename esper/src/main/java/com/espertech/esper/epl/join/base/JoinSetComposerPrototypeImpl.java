@@ -106,6 +106,7 @@ public class JoinSetComposerPrototypeImpl implements JoinSetComposerPrototype {
         // Build indexes
         Map<TableLookupIndexReqKey, EventTable>[] indexesPerStream = new HashMap[indexSpecs.length];
         Lock[] tableSecondaryIndexLocks = new Lock[indexSpecs.length];
+        TableStateInstance[] tableStates = new TableStateInstance[indexSpecs.length];
         boolean hasTable = false;
         for (int streamNo = 0; streamNo < indexSpecs.length; streamNo++)
         {
@@ -129,6 +130,7 @@ public class JoinSetComposerPrototypeImpl implements JoinSetComposerPrototype {
                 hasTable = true;
                 tableSecondaryIndexLocks[streamNo] = agentInstanceContext.getStatementContext().isWritesToTables() ?
                         state.getTableLevelRWLock().writeLock() : state.getTableLevelRWLock().readLock();
+                tableStates[streamNo] = state;
             }
             else {
                 // build tables for implicit indexes
@@ -167,7 +169,7 @@ public class JoinSetComposerPrototypeImpl implements JoinSetComposerPrototype {
                 continue;
             }
 
-            ExecNode executionNode = planNode.makeExec(statementName, statementId, annotations, indexesPerStream, streamTypes, streamViews, historicalStreamIndexLists, externalViews, tableSecondaryIndexLocks);
+            ExecNode executionNode = planNode.makeExec(statementName, statementId, annotations, indexesPerStream, streamTypes, streamViews, historicalStreamIndexLists, externalViews, tableSecondaryIndexLocks, tableStates);
 
             if (log.isDebugEnabled())
             {
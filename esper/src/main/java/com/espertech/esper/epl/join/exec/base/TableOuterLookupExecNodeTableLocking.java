@@ -10,6 +10,8 @@ package com.espertech.esper.epl.join.exec.base;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.table.mgmt.TableStateInstance;
+import com.espertech.esper.epl.table.strategy.ExprTableEvalLockUtil;
 
 import java.util.Collection;
 import java.util.Set;
@@ -18,10 +20,12 @@ import java.util.concurrent.locks.Lock;
 public class TableOuterLookupExecNodeTableLocking extends TableOuterLookupExecNode
 {
     private final Lock lock;
+    private final TableStateInstance tableState;
 
-    public TableOuterLookupExecNodeTableLocking(int indexedStream, JoinExecTableLookupStrategy lookupStrategy, Lock lock) {
+    public TableOuterLookupExecNodeTableLocking(int indexedStream, JoinExecTableLookupStrategy lookupStrategy, Lock lock, TableStateInstance tableState) {
         super(indexedStream, lookupStrategy);
         this.lock = lock;
+        this.tableState = tableState;
     }
 
     public void process(EventBean lookupEvent, EventBean[] prefillPath, Collection<EventBean[]> result, ExprEvaluatorContext exprEvaluatorContext) {
@@ -31,6 +35,11 @@ public class TableOuterLookupExecNodeTableLocking extends TableOuterLookupExecNo
             lock.lock();
         }
 
+        // join results are read after all lookups, so with row-level locking all rows stay locked
+        if (tableState != null) {
+            ExprTableEvalLockUtil.obtainAllRowLocksUnless(tableState, exprEvaluatorContext);
+        }
+
         // lookup events
         Set<EventBean> joinedEvents = lookupStrategy.lookup(lookupEvent, null, exprEvaluatorContext);
 
@@ -15,6 +15,7 @@ import com.espertech.esper.epl.join.exec.base.LookupInstructionExec;
 import com.espertech.esper.epl.join.exec.base.LookupInstructionExecNode;
 import com.espertech.esper.epl.join.table.EventTable;
 import com.espertech.esper.epl.join.table.HistoricalStreamIndexList;
+import com.espertech.esper.epl.table.mgmt.TableStateInstance;
 import com.espertech.esper.epl.virtualdw.VirtualDWView;
 import com.espertech.esper.util.IndentWriter;
 import com.espertech.esper.view.Viewable;
@@ -63,7 +64,7 @@ public class LookupInstructionQueryPlanNode extends QueryPlanNode
         this.assemblyInstructionFactories = assemblyInstructionFactories;
     }
 
-    public ExecNode makeExec(String statementName, int statementId, Annotation[] annotations, Map<TableLookupIndexReqKey, EventTable>[] indexesPerStream, EventType[] streamTypes, Viewable[] streamViews, HistoricalStreamIndexList[] historicalStreamIndexLists, VirtualDWView[] viewExternal, Lock[] tableSecondaryIndexLocks)
+    public ExecNode makeExec(String statementName, int statementId, Annotation[] annotations, Map<TableLookupIndexReqKey, EventTable>[] indexesPerStream, EventType[] streamTypes, Viewable[] streamViews, HistoricalStreamIndexList[] historicalStreamIndexLists, VirtualDWView[] viewExternal, Lock[] tableSecondaryIndexLocks, TableStateInstance[] tableStates)
     {
         LookupInstructionExec execs[] = new LookupInstructionExec[lookupInstructions.size()];
 
@@ -13,6 +13,7 @@ import com.espertech.esper.epl.join.exec.base.ExecNode;
 import com.espertech.esper.epl.join.exec.base.NestedIterationExecNode;
 import com.espertech.esper.epl.join.table.EventTable;
 import com.espertech.esper.epl.join.table.HistoricalStreamIndexList;
+import com.espertech.esper.epl.table.mgmt.TableStateInstance;
 import com.espertech.esper.epl.virtualdw.VirtualDWView;
 import com.espertech.esper.util.IndentWriter;
 import com.espertech.esper.view.Viewable;
@@ -65,7 +66,7 @@ public class NestedIterationNode extends QueryPlanNode
         return childNodes;
     }
 
-    public ExecNode makeExec(String statementName, int statementId, Annotation[] annotations, Map<TableLookupIndexReqKey, EventTable>[] indexPerStream, EventType[] streamTypes, Viewable[] streamViews, HistoricalStreamIndexList[] historicalStreamIndexList, VirtualDWView[] viewExternal, Lock[] tableSecondaryIndexLocks)
+    public ExecNode makeExec(String statementName, int statementId, Annotation[] annotations, Map<TableLookupIndexReqKey, EventTable>[] indexPerStream, EventType[] streamTypes, Viewable[] streamViews, HistoricalStreamIndexList[] historicalStreamIndexList, VirtualDWView[] viewExternal, Lock[] tableSecondaryIndexLocks, TableStateInstance[] tableStates)
     {
         if (childNodes.isEmpty())
         {
@@ -75,7 +76,7 @@ public class NestedIterationNode extends QueryPlanNode
         NestedIterationExecNode execNode = new NestedIterationExecNode(nestingOrder);
         for (QueryPlanNode child : childNodes)
         {
-            ExecNode childExec = child.makeExec(statementName, statementId, annotations, indexPerStream, streamTypes, streamViews, historicalStreamIndexList, viewExternal, tableSecondaryIndexLocks);
+            ExecNode childExec = child.makeExec(statementName, statementId, annotations, indexPerStream, streamTypes, streamViews, historicalStreamIndexList, viewExternal, tableSecondaryIndexLocks, tableStates);
             execNode.addChildNode(childExec);
         }
         return execNode;
@@ -20,6 +20,7 @@ import com.espertech.esper.epl.join.exec.base.ExecNode;
 import com.espertech.esper.epl.join.table.EventTable;
 import com.espertech.esper.epl.join.table.HistoricalStreamIndexList;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.epl.table.mgmt.TableStateInstance;
 import com.espertech.esper.epl.virtualdw.VirtualDWView;
 import com.espertech.esper.util.IndentWriter;
 import com.espertech.esper.view.Viewable;
@@ -42,8 +43,9 @@ public abstract class QueryPlanNode
      * @param historicalStreamIndexLists index management for historical streams
      * @param viewExternal      @return execution node matching spec
      * @param tableSecondaryIndexLocks
+     * @param tableStates table state per stream, for tables with row-level locking
      */
-    public abstract ExecNode makeExec(String statementName, int statementId, Annotation[] annotations, Map<TableLookupIndexReqKey, EventTable>[] indexesPerStream, EventType[] streamTypes, Viewable[] streamViews, HistoricalStreamIndexList[] historicalStreamIndexLists, VirtualDWView[] viewExternal, Lock[] tableSecondaryIndexLocks);
+    public abstract ExecNode makeExec(String statementName, int statementId, Annotation[] annotations, Map<TableLookupIndexReqKey, EventTable>[] indexesPerStream, EventType[] streamTypes, Viewable[] streamViews, HistoricalStreamIndexList[] historicalStreamIndexLists, VirtualDWView[] viewExternal, Lock[] tableSecondaryIndexLocks, TableStateInstance[] tableStates);
 
     public abstract void addIndexes(HashSet<TableLookupIndexReqKey> usedIndexes);
 
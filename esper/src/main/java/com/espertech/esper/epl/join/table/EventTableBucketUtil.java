@@ -0,0 +1,172 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.ArrayEventIterator;
+import com.espertech.esper.collection.SingleEventIterator;
+
+import java.util.*;
+
+/**
+ * Helpers for indexes that keep the events for a key in a compact bucket.
+ * <p>
+ * A bucket is either the event itself when there is a single event for the key,
+ * an array of events when there are few events, or a set of events when there are many events.
+ */
+public class EventTableBucketUtil
+{
+    /**
+     * Maximum number of events held in an array bucket before the bucket becomes a set.
+     */
+    public static final int MAX_ARRAY_BUCKET_SIZE = 16;
+
+    /**
+     * Add an event to a bucket, ignoring events already in the bucket.
+     * <p>
+     * Arrays are replaced rather than changed so that a set returned by {@link #toSet(Object)} remains unchanged.
+     * @param bucket bucket or null for no bucket
+     * @param theEvent to add
+     * @return bucket holding the event, may be the same bucket
+     */
+    public static Object addToBucket(Object bucket, EventBean theEvent) {
+        if (bucket == null) {
+            return theEvent;
+        }
+        if (bucket instanceof EventBean) {
+            if (bucket.equals(theEvent)) {
+                return bucket;
+            }
+            return new EventBean[] {(EventBean) bucket, theEvent};
+        }
+        if (bucket instanceof EventBean[]) {
+            EventBean[] events = (EventBean[]) bucket;
+            for (EventBean event : events) {
+                if (event.equals(theEvent)) {
+                    return bucket;
+                }
+            }
+            if (events.length < MAX_ARRAY_BUCKET_SIZE) {
+                EventBean[] added = new EventBean[events.length + 1];
+                System.arraycopy(events, 0, added, 0, events.length);
+                added[events.length] = theEvent;
+                return added;
+            }
+            Set<EventBean> set = new LinkedHashSet<EventBean>();
+            Collections.addAll(set, events);
+            set.add(theEvent);
+            return set;
+        }
+        Set<EventBean> set = (Set<EventBean>) bucket;
+        set.add(theEvent);
+        return set;
+    }
+
+    /**
+     * Remove an event from a bucket.
+     * @param bucket bucket
+     * @param theEvent to remove
+     * @return remaining bucket, may be the same bucket, or null if the bucket became empty
+     */
+    public static Object removeFromBucket(Object bucket, EventBean theEvent) {
+        if (bucket instanceof EventBean) {
+            return bucket.equals(theEvent) ? null : bucket;
+        }
+        if (bucket instanceof EventBean[]) {
+            EventBean[] events = (EventBean[]) bucket;
+            int index = -1;
+            for (int i = 0; i < events.length; i++) {
+                if (events[i].equals(theEvent)) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index == -1) {
+                return bucket;
+            }
+            if (events.length == 2) {
+                return events[1 - index];
+            }
+            EventBean[] remaining = new EventBean[events.length - 1];
+            System.arraycopy(events, 0, remaining, 0, index);
+            System.arraycopy(events, index + 1, remaining, index, events.length - index - 1);
+            return remaining;
+        }
+        Set<EventBean> set = (Set<EventBean>) bucket;
+        set.remove(theEvent);
+        return set.isEmpty() ? null : set;
+    }
+
+    /**
+     * Returns the events of a bucket as a set.
+     * @param bucket bucket or null for no bucket
+     * @return set or null for no bucket
+     */
+    public static Set<EventBean> toSet(Object bucket) {
+        if (bucket == null) {
+            return null;
+        }
+        if (bucket instanceof EventBean) {
+            return Collections.singleton((EventBean) bucket);
+        }
+        if (bucket instanceof EventBean[]) {
+            return new ArrayBucketSet((EventBean[]) bucket);
+        }
+        return (Set<EventBean>) bucket;
+    }
+
+    /**
+     * Returns an iterator over the events of a bucket.
+     * @param bucket bucket
+     * @return iterator
+     */
+    public static Iterator<EventBean> toIterator(Object bucket) {
+        if (bucket instanceof EventBean) {
+            return new SingleEventIterator((EventBean) bucket);
+        }
+        if (bucket instanceof EventBean[]) {
+            return new ArrayEventIterator((EventBean[]) bucket);
+        }
+        return ((Set<EventBean>) bucket).iterator();
+    }
+
+    /**
+     * Add the events of a bucket to a collection.
+     * @param bucket bucket
+     * @param result to add to
+     */
+    public static void addAll(Object bucket, Collection<EventBean> result) {
+        if (bucket instanceof EventBean) {
+            result.add((EventBean) bucket);
+        }
+        else if (bucket instanceof EventBean[]) {
+            Collections.addAll(result, (EventBean[]) bucket);
+        }
+        else {
+            result.addAll((Set<EventBean>) bucket);
+        }
+    }
+
+    private static class ArrayBucketSet extends AbstractSet<EventBean>
+    {
+        private final EventBean[] events;
+
+        private ArrayBucketSet(EventBean[] events) {
+            this.events = events;
+        }
+
+        public Iterator<EventBean> iterator() {
+            return new ArrayEventIterator(events);
+        }
+
+        public int size() {
+            return events.length;
+        }
+    }
+}
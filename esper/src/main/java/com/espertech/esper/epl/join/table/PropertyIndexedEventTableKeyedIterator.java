@@ -0,0 +1,63 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EventBean;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator over the events of the buckets of an open-addressing index and of its overflow buckets, if any.
+ */
+public class PropertyIndexedEventTableKeyedIterator implements Iterator<EventBean>
+{
+    private final Object[] buckets;
+    private final Iterator<Object> overflowIterator;
+    private int slot;
+    private Iterator<EventBean> current;
+
+    /**
+     * Ctor.
+     * @param buckets slots holding a bucket or null
+     * @param overflowIterator iterator over overflow buckets, or null if there are none
+     */
+    public PropertyIndexedEventTableKeyedIterator(Object[] buckets, Iterator<Object> overflowIterator) {
+        this.buckets = buckets;
+        this.overflowIterator = overflowIterator;
+    }
+
+    public boolean hasNext() {
+        while (current == null || !current.hasNext()) {
+            if (overflowIterator != null && overflowIterator.hasNext()) {
+                current = EventTableBucketUtil.toIterator(overflowIterator.next());
+                continue;
+            }
+            while (slot < buckets.length && buckets[slot] == null) {
+                slot++;
+            }
+            if (slot == buckets.length) {
+                return false;
+            }
+            current = EventTableBucketUtil.toIterator(buckets[slot++]);
+        }
+        return true;
+    }
+
+    public EventBean next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
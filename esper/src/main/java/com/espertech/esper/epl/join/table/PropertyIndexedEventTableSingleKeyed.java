@@ -0,0 +1,444 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.*;
+
+/**
+ * Index that organizes events by a single property value of a known key type into an open-addressing hash table
+ * with linear probing.
+ * <p>
+ * Each slot holds the bucket for its key inline: the event itself when there is a single event for the key,
+ * an array of events when there are few duplicates, and a set of events when there are many duplicates.
+ * Compared to {@link PropertyIndexedEventTableSingleUnadorned} this saves the map entry and the bucket set per key
+ * and, for primitive keys, the boxed key object.
+ * <p>
+ * Arrays of duplicates are replaced rather than changed when events are added or removed, so that a set returned
+ * by lookup remains unchanged while the caller iterates it.
+ * <p>
+ * Property values that are null or not of the key type, which is possible for map and object-array event types,
+ * are kept in an overflow map so that lookup behaves the same as the hash map-based indexes.
+ * <p>
+ * For unique indexes each bucket holds a single event and the behavior is that of {@link PropertyIndexedEventTableSingleUnique}.
+ * Lookup strategies tell unique indexes apart by the index organization.
+ */
+public abstract class PropertyIndexedEventTableSingleKeyed extends PropertyIndexedEventTableSingle implements EventTableAsSet
+{
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final boolean unique;
+    private Object[] buckets;
+    private int shift;
+    private int resizeThreshold;
+    private int numKeys;
+    private int numEvents;
+    private Map<Object, Object> overflow;
+
+    /**
+     * Returns true if the key is of the key type of the index.
+     * @param key non-null key
+     * @return indicator
+     */
+    protected abstract boolean isKeyType(Object key);
+
+    /**
+     * Allocate the key storage, replacing the current key storage.
+     * @param capacity number of slots
+     */
+    protected abstract void allocateKeys(int capacity);
+
+    /**
+     * Returns the current key storage.
+     * @return keys
+     */
+    protected abstract Object getKeys();
+
+    /**
+     * Returns the hash code of a key of the key type.
+     * @param key key
+     * @return hash code
+     */
+    protected abstract int hashKey(Object key);
+
+    /**
+     * Returns the hash code of the key in a slot.
+     * @param keys key storage
+     * @param slot slot
+     * @return hash code
+     */
+    protected abstract int hashSlotKey(Object keys, int slot);
+
+    /**
+     * Returns true if the key in the slot equals the key.
+     * @param slot slot
+     * @param key key of the key type
+     * @return indicator
+     */
+    protected abstract boolean isSlotKey(int slot, Object key);
+
+    /**
+     * Set the key of a slot.
+     * @param slot slot
+     * @param key key of the key type
+     */
+    protected abstract void setSlotKey(int slot, Object key);
+
+    /**
+     * Copy the key of a slot into a slot of the current key storage.
+     * @param fromKeys key storage to copy from
+     * @param fromSlot slot to copy from
+     * @param toSlot slot to copy to
+     */
+    protected abstract void copySlotKey(Object fromKeys, int fromSlot, int toSlot);
+
+    /**
+     * Release the key of a slot that became empty.
+     * @param slot slot
+     */
+    protected abstract void clearSlotKey(int slot);
+
+    /**
+     * Ctor.
+     * @param propertyGetter getter for the indexed property
+     * @param organization index organization
+     */
+    protected PropertyIndexedEventTableSingleKeyed(EventPropertyGetter propertyGetter, EventTableOrganization organization)
+    {
+        super(propertyGetter, organization);
+        this.unique = organization.isUnique();
+    }
+
+    /**
+     * Allocate the initial table, to be called by the subclass constructor.
+     */
+    protected void init() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    public Set<EventBean> lookup(Object key)
+    {
+        return EventTableBucketUtil.toSet(getBucket(key));
+    }
+
+    /**
+     * Remove then add events for unique indexes, add then remove events otherwise.
+     * @param newData to add
+     * @param oldData to remove
+     */
+    @Override
+    public void addRemove(EventBean[] newData, EventBean[] oldData) {
+        if (!unique) {
+            super.addRemove(newData, oldData);
+            return;
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qIndexAddRemove(this, newData, oldData);}
+        if (oldData != null) {
+            for (EventBean theEvent : oldData) {
+                remove(theEvent);
+            }
+        }
+        if (newData != null) {
+            for (EventBean theEvent : newData) {
+                add(theEvent);
+            }
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aIndexAddRemove();}
+    }
+
+    public void add(EventBean theEvent)
+    {
+        Object key = getKey(theEvent);
+        if (key == null || !isKeyType(key)) {
+            if (overflow == null) {
+                overflow = new HashMap<Object, Object>();
+            }
+            Object bucket = overflow.get(key);
+            Object added = addToBucket(bucket, theEvent, key);
+            if (added != bucket) {
+                overflow.put(key, added);
+            }
+            return;
+        }
+
+        int slot = findSlotOrEmpty(key);
+        if (slot >= 0) {
+            buckets[slot] = addToBucket(buckets[slot], theEvent, key);
+            return;
+        }
+        slot = -slot - 1;
+        setSlotKey(slot, key);
+        buckets[slot] = theEvent;
+        numEvents++;
+        numKeys++;
+        if (numKeys > resizeThreshold) {
+            allocate(buckets.length * 2);
+        }
+    }
+
+    public void remove(EventBean theEvent)
+    {
+        Object key = getKey(theEvent);
+        if (key == null || !isKeyType(key)) {
+            if (overflow == null) {
+                return;
+            }
+            Object bucket = overflow.get(key);
+            if (bucket == null) {
+                return;
+            }
+            Object remaining = removeFromBucket(bucket, theEvent);
+            if (remaining == null) {
+                overflow.remove(key);
+            }
+            else if (remaining != bucket) {
+                overflow.put(key, remaining);
+            }
+            return;
+        }
+
+        int slot = findSlot(key);
+        if (slot == -1) {
+            return;
+        }
+        Object remaining = removeFromBucket(buckets[slot], theEvent);
+        if (remaining == null) {
+            removeSlot(slot);
+        }
+        else {
+            buckets[slot] = remaining;
+        }
+    }
+
+    public boolean isEmpty()
+    {
+        return numKeys == 0 && (overflow == null || overflow.isEmpty());
+    }
+
+    public Iterator<EventBean> iterator()
+    {
+        return new PropertyIndexedEventTableKeyedIterator(buckets, overflow == null ? null : overflow.values().iterator());
+    }
+
+    public void clear()
+    {
+        buckets = null;
+        numKeys = 0;
+        numEvents = 0;
+        allocate(INITIAL_CAPACITY);
+        overflow = null;
+    }
+
+    public void destroy() {
+        clear();
+    }
+
+    public Integer getNumberOfEvents() {
+        return numEvents;
+    }
+
+    public int getNumKeys() {
+        return numKeys + (overflow == null ? 0 : overflow.size());
+    }
+
+    /**
+     * Returns the index itself as the hash table is internal to the index, use {@link #lookup(Object)} for access.
+     * @return index
+     */
+    public Object getIndex() {
+        return this;
+    }
+
+    public Set<EventBean> allValues() {
+        if (numEvents == 0) {
+            return Collections.emptySet();
+        }
+        Set<EventBean> values = new HashSet<EventBean>();
+        for (Iterator<EventBean> it = iterator(); it.hasNext();) {
+            values.add(it.next());
+        }
+        return values;
+    }
+
+    public Class getProviderClass() {
+        return unique ? PropertyIndexedEventTableSingleUnique.class : PropertyIndexedEventTableSingle.class;
+    }
+
+    private Object getBucket(Object key) {
+        if (key == null || !isKeyType(key)) {
+            return overflow == null ? null : overflow.get(key);
+        }
+        int slot = findSlot(key);
+        return slot == -1 ? null : buckets[slot];
+    }
+
+    private Object addToBucket(Object bucket, EventBean theEvent, Object key) {
+        if (bucket == null) {
+            numEvents++;
+            return theEvent;
+        }
+        if (bucket instanceof EventBean) {
+            if (bucket.equals(theEvent)) {
+                return bucket;
+            }
+            if (unique) {
+                // same as the hash map-based unique index, the new event replaces the existing event
+                if (key == null || !isKeyType(key)) {
+                    overflow.put(key, theEvent);
+                }
+                else {
+                    buckets[findSlot(key)] = theEvent;
+                }
+                throw PropertyIndexedEventTableUnique.handleUniqueIndexViolation(organization.getIndexName(), key);
+            }
+            numEvents++;
+            return new EventBean[] {(EventBean) bucket, theEvent};
+        }
+        if (bucket instanceof EventBean[]) {
+            EventBean[] events = (EventBean[]) bucket;
+            for (EventBean event : events) {
+                if (event.equals(theEvent)) {
+                    return bucket;
+                }
+            }
+            numEvents++;
+            if (events.length < EventTableBucketUtil.MAX_ARRAY_BUCKET_SIZE) {
+                EventBean[] added = new EventBean[events.length + 1];
+                System.arraycopy(events, 0, added, 0, events.length);
+                added[events.length] = theEvent;
+                return added;
+            }
+            Set<EventBean> set = new LinkedHashSet<EventBean>();
+            Collections.addAll(set, events);
+            set.add(theEvent);
+            return set;
+        }
+        Set<EventBean> set = (Set<EventBean>) bucket;
+        if (set.add(theEvent)) {
+            numEvents++;
+        }
+        return set;
+    }
+
+    private Object removeFromBucket(Object bucket, EventBean theEvent) {
+        if (bucket instanceof EventBean) {
+            if (unique || bucket.equals(theEvent)) {
+                // same as the hash map-based unique index, removal is by key
+                numEvents--;
+                return null;
+            }
+            return bucket;
+        }
+        if (bucket instanceof EventBean[]) {
+            EventBean[] events = (EventBean[]) bucket;
+            int index = -1;
+            for (int i = 0; i < events.length; i++) {
+                if (events[i].equals(theEvent)) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index == -1) {
+                // Not an error, its possible that an old-data event is artificial (such as for statistics) and
+                // thus did not correspond to a new-data event raised earlier.
+                return bucket;
+            }
+            numEvents--;
+            if (events.length == 2) {
+                return events[1 - index];
+            }
+            EventBean[] remaining = new EventBean[events.length - 1];
+            System.arraycopy(events, 0, remaining, 0, index);
+            System.arraycopy(events, index + 1, remaining, index, events.length - index - 1);
+            return remaining;
+        }
+        Set<EventBean> set = (Set<EventBean>) bucket;
+        if (set.remove(theEvent)) {
+            numEvents--;
+        }
+        return set.isEmpty() ? null : set;
+    }
+
+    private int slotOf(int hash) {
+        return (hash * 0x9E3779B9) >>> shift;
+    }
+
+    private int findSlot(Object key) {
+        int mask = buckets.length - 1;
+        int slot = slotOf(hashKey(key));
+        while (buckets[slot] != null) {
+            if (isSlotKey(slot, key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int findSlotOrEmpty(Object key) {
+        int mask = buckets.length - 1;
+        int slot = slotOf(hashKey(key));
+        while (buckets[slot] != null) {
+            if (isSlotKey(slot, key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -slot - 1;
+    }
+
+    private void removeSlot(int slot) {
+        // backward-shift deletion, keeps probe sequences intact without tombstones
+        Object keys = getKeys();
+        int mask = buckets.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (buckets[next] != null) {
+            int home = slotOf(hashSlotKey(keys, next));
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                copySlotKey(keys, next, hole);
+                buckets[hole] = buckets[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        buckets[hole] = null;
+        clearSlotKey(hole);
+        numKeys--;
+    }
+
+    private void allocate(int capacity) {
+        Object[] oldBuckets = buckets;
+        Object oldKeys = getKeys();
+
+        buckets = new Object[capacity];
+        allocateKeys(capacity);
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+        resizeThreshold = capacity / 4 * 3;
+
+        if (oldBuckets == null) {
+            return;
+        }
+        int mask = capacity - 1;
+        for (int i = 0; i < oldBuckets.length; i++) {
+            if (oldBuckets[i] == null) {
+                continue;
+            }
+            int slot = slotOf(hashSlotKey(oldKeys, i));
+            while (buckets[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            copySlotKey(oldKeys, i, slot);
+            buckets[slot] = oldBuckets[i];
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Factory for {@link PropertyIndexedEventTableSingleKeyed} indexes, for properties of type int, long or String.
+ */
+public class PropertyIndexedEventTableSingleKeyedFactory extends PropertyIndexedEventTableSingleFactory
+{
+    private final Class keyType;
+
+    /**
+     * Ctor.
+     * @param streamNum - the stream number that is indexed
+     * @param eventType - types of events indexed
+     * @param propertyName - property name
+     * @param unique - indicator whether the index is unique
+     * @param optionalIndexName - index name, if any
+     */
+    public PropertyIndexedEventTableSingleKeyedFactory(int streamNum, EventType eventType, String propertyName, boolean unique, String optionalIndexName)
+    {
+        super(streamNum, eventType, propertyName, unique, optionalIndexName);
+        this.keyType = JavaClassHelper.getBoxedType(eventType.getPropertyType(propertyName));
+    }
+
+    /**
+     * Returns true if the property type is supported by a keyed index.
+     * @param propertyType type of the indexed property
+     * @return indicator
+     */
+    public static boolean isSupportedKeyType(Class propertyType) {
+        Class boxed = JavaClassHelper.getBoxedType(propertyType);
+        return boxed == Integer.class || boxed == Long.class || boxed == String.class;
+    }
+
+    public EventTable[] makeEventTables(EventTableFactoryTableIdent tableIdent) {
+        EventTableOrganization organization = new EventTableOrganization(optionalIndexName, unique, false, streamNum, new String[] {propertyName}, EventTableOrganizationType.HASH);
+        if (keyType == String.class) {
+            return new EventTable[] {new PropertyIndexedEventTableSingleStringKeyed(propertyGetter, organization)};
+        }
+        return new EventTable[] {new PropertyIndexedEventTableSingleLongKeyed(propertyGetter, organization, keyType)};
+    }
+}
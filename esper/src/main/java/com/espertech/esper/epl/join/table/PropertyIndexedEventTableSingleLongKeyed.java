@@ -0,0 +1,73 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EventPropertyGetter;
+
+/**
+ * Index for a single property of type int or long, keeping the keys as primitive long values,
+ * see {@link PropertyIndexedEventTableSingleKeyed}.
+ */
+public class PropertyIndexedEventTableSingleLongKeyed extends PropertyIndexedEventTableSingleKeyed
+{
+    private final Class keyType;
+    private long[] keys;
+
+    /**
+     * Ctor.
+     * @param propertyGetter getter for the indexed property
+     * @param organization index organization
+     * @param keyType boxed key type, either Integer or Long
+     */
+    public PropertyIndexedEventTableSingleLongKeyed(EventPropertyGetter propertyGetter, EventTableOrganization organization, Class keyType)
+    {
+        super(propertyGetter, organization);
+        this.keyType = keyType;
+        init();
+    }
+
+    protected boolean isKeyType(Object key) {
+        return key.getClass() == keyType;
+    }
+
+    protected void allocateKeys(int capacity) {
+        keys = new long[capacity];
+    }
+
+    protected Object getKeys() {
+        return keys;
+    }
+
+    protected int hashKey(Object key) {
+        return hash(((Number) key).longValue());
+    }
+
+    protected int hashSlotKey(Object keys, int slot) {
+        return hash(((long[]) keys)[slot]);
+    }
+
+    protected boolean isSlotKey(int slot, Object key) {
+        return keys[slot] == ((Number) key).longValue();
+    }
+
+    protected void setSlotKey(int slot, Object key) {
+        keys[slot] = ((Number) key).longValue();
+    }
+
+    protected void copySlotKey(Object fromKeys, int fromSlot, int toSlot) {
+        keys[toSlot] = ((long[]) fromKeys)[fromSlot];
+    }
+
+    protected void clearSlotKey(int slot) {
+    }
+
+    private static int hash(long value) {
+        return (int) (value ^ (value >>> 32));
+    }
+}
@@ -0,0 +1,67 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EventPropertyGetter;
+
+/**
+ * Index for a single property of type String, see {@link PropertyIndexedEventTableSingleKeyed}.
+ */
+public class PropertyIndexedEventTableSingleStringKeyed extends PropertyIndexedEventTableSingleKeyed
+{
+    private String[] keys;
+
+    /**
+     * Ctor.
+     * @param propertyGetter getter for the indexed property
+     * @param organization index organization
+     */
+    public PropertyIndexedEventTableSingleStringKeyed(EventPropertyGetter propertyGetter, EventTableOrganization organization)
+    {
+        super(propertyGetter, organization);
+        init();
+    }
+
+    protected boolean isKeyType(Object key) {
+        return key.getClass() == String.class;
+    }
+
+    protected void allocateKeys(int capacity) {
+        keys = new String[capacity];
+    }
+
+    protected Object getKeys() {
+        return keys;
+    }
+
+    protected int hashKey(Object key) {
+        return key.hashCode();
+    }
+
+    protected int hashSlotKey(Object keys, int slot) {
+        return ((String[]) keys)[slot].hashCode();
+    }
+
+    protected boolean isSlotKey(int slot, Object key) {
+        String slotKey = keys[slot];
+        return slotKey == key || slotKey.equals(key);
+    }
+
+    protected void setSlotKey(int slot, Object key) {
+        keys[slot] = (String) key;
+    }
+
+    protected void copySlotKey(Object fromKeys, int fromSlot, int toSlot) {
+        keys[toSlot] = ((String[]) fromKeys)[fromSlot];
+    }
+
+    protected void clearSlotKey(int slot) {
+        keys[slot] = null;
+    }
+}
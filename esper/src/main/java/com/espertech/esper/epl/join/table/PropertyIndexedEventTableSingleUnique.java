@@ -13,6 +13,7 @@ import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Unique index.
@@ -37,6 +38,9 @@ public class PropertyIndexedEventTableSingleUnique extends PropertyIndexedEventT
 
     public Set<EventBean> lookup(Object key)
     {
+        if (key == null && propertyIndex instanceof ConcurrentMap) {
+            return null;
+        }
         EventBean event = propertyIndex.get(key);
         if (event != null) {
             return Collections.singleton(event);
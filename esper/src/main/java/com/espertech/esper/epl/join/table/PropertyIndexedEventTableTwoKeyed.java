@@ -0,0 +1,371 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.*;
+
+/**
+ * Index that organizes events by two property values, each of type int, long or String, into an open-addressing
+ * hash table with linear probing.
+ * <p>
+ * The keys are kept per property in typed arrays, primitive long values for int and long properties and strings
+ * for String properties, so that neither adding an event nor a lookup boxes a key value or allocates
+ * a {@link MultiKeyUntyped}. Each slot holds the bucket for its key inline, as described by {@link EventTableBucketUtil}.
+ * <p>
+ * Property values that are null or not of the key type, which is possible for map and object-array event types,
+ * are kept in an overflow map by {@link MultiKeyUntyped} so that lookup behaves the same as {@link PropertyIndexedEventTableUnadorned}.
+ * <p>
+ * For unique indexes each bucket holds a single event and the behavior is that of {@link PropertyIndexedEventTableUnique}.
+ */
+public class PropertyIndexedEventTableTwoKeyed extends PropertyIndexedEventTable implements EventTableAsSet
+{
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Class[] keyTypes;
+    private final boolean unique;
+    private final long[][] longKeys = new long[2][];
+    private final String[][] stringKeys = new String[2][];
+    private Object[] buckets;
+    private int shift;
+    private int resizeThreshold;
+    private int numKeys;
+    private Map<MultiKeyUntyped, Object> overflow;
+
+    /**
+     * Ctor.
+     * @param propertyGetters getters for the two indexed properties
+     * @param organization index organization
+     * @param keyTypes boxed key type of each property, either Integer, Long or String
+     */
+    public PropertyIndexedEventTableTwoKeyed(EventPropertyGetter[] propertyGetters, EventTableOrganization organization, Class[] keyTypes)
+    {
+        super(propertyGetters, organization);
+        this.keyTypes = keyTypes;
+        this.unique = organization.isUnique();
+        allocate(INITIAL_CAPACITY);
+    }
+
+    public Set<EventBean> lookup(Object[] keys)
+    {
+        Object keyOne = keys[0];
+        Object keyTwo = keys[1];
+        Object bucket;
+        if (isKeyType(keyOne, 0) && isKeyType(keyTwo, 1)) {
+            int slot = findSlot(keyOne, keyTwo);
+            bucket = slot == -1 ? null : buckets[slot];
+        }
+        else {
+            bucket = overflow == null ? null : overflow.get(new MultiKeyUntyped(keys));
+        }
+        return EventTableBucketUtil.toSet(bucket);
+    }
+
+    /**
+     * Remove then add events for unique indexes, add then remove events otherwise.
+     * @param newData to add
+     * @param oldData to remove
+     */
+    @Override
+    public void addRemove(EventBean[] newData, EventBean[] oldData) {
+        if (!unique) {
+            super.addRemove(newData, oldData);
+            return;
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qIndexAddRemove(this, newData, oldData);}
+        if (oldData != null) {
+            for (EventBean theEvent : oldData) {
+                remove(theEvent);
+            }
+        }
+        if (newData != null) {
+            for (EventBean theEvent : newData) {
+                add(theEvent);
+            }
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aIndexAddRemove();}
+    }
+
+    public void add(EventBean theEvent)
+    {
+        Object keyOne = propertyGetters[0].get(theEvent);
+        Object keyTwo = propertyGetters[1].get(theEvent);
+        if (!isKeyType(keyOne, 0) || !isKeyType(keyTwo, 1)) {
+            if (overflow == null) {
+                overflow = new HashMap<MultiKeyUntyped, Object>();
+            }
+            MultiKeyUntyped key = new MultiKeyUntyped(new Object[] {keyOne, keyTwo});
+            Object bucket = overflow.get(key);
+            if (unique && bucket != null && !bucket.equals(theEvent)) {
+                // same as the hash map-based unique index, the new event replaces the existing event
+                overflow.put(key, theEvent);
+                throw PropertyIndexedEventTableUnique.handleUniqueIndexViolation(organization.getIndexName(), key);
+            }
+            Object added = EventTableBucketUtil.addToBucket(bucket, theEvent);
+            if (added != bucket) {
+                overflow.put(key, added);
+            }
+            return;
+        }
+
+        int slot = findSlotOrEmpty(keyOne, keyTwo);
+        if (slot >= 0) {
+            Object bucket = buckets[slot];
+            if (unique && !bucket.equals(theEvent)) {
+                buckets[slot] = theEvent;
+                throw PropertyIndexedEventTableUnique.handleUniqueIndexViolation(organization.getIndexName(), new MultiKeyUntyped(new Object[] {keyOne, keyTwo}));
+            }
+            buckets[slot] = EventTableBucketUtil.addToBucket(bucket, theEvent);
+            return;
+        }
+        slot = -slot - 1;
+        setSlotKey(slot, keyOne, 0);
+        setSlotKey(slot, keyTwo, 1);
+        buckets[slot] = theEvent;
+        numKeys++;
+        if (numKeys > resizeThreshold) {
+            allocate(buckets.length * 2);
+        }
+    }
+
+    public void remove(EventBean theEvent)
+    {
+        Object keyOne = propertyGetters[0].get(theEvent);
+        Object keyTwo = propertyGetters[1].get(theEvent);
+        if (!isKeyType(keyOne, 0) || !isKeyType(keyTwo, 1)) {
+            if (overflow == null) {
+                return;
+            }
+            MultiKeyUntyped key = new MultiKeyUntyped(new Object[] {keyOne, keyTwo});
+            Object bucket = overflow.get(key);
+            if (bucket == null) {
+                return;
+            }
+            // same as the hash map-based unique index, removal is by key
+            Object remaining = unique ? null : EventTableBucketUtil.removeFromBucket(bucket, theEvent);
+            if (remaining == null) {
+                overflow.remove(key);
+            }
+            else if (remaining != bucket) {
+                overflow.put(key, remaining);
+            }
+            return;
+        }
+
+        int slot = findSlot(keyOne, keyTwo);
+        if (slot == -1) {
+            return;
+        }
+        // Not an error if the event is not found, its possible that an old-data event is artificial (such as for statistics) and
+        // thus did not correspond to a new-data event raised earlier.
+        Object remaining = unique ? null : EventTableBucketUtil.removeFromBucket(buckets[slot], theEvent);
+        if (remaining == null) {
+            removeSlot(slot);
+        }
+        else {
+            buckets[slot] = remaining;
+        }
+    }
+
+    public boolean isEmpty()
+    {
+        return numKeys == 0 && (overflow == null || overflow.isEmpty());
+    }
+
+    public Iterator<EventBean> iterator()
+    {
+        return new PropertyIndexedEventTableKeyedIterator(buckets, overflow == null ? null : overflow.values().iterator());
+    }
+
+    public void clear()
+    {
+        buckets = null;
+        numKeys = 0;
+        allocate(INITIAL_CAPACITY);
+        overflow = null;
+    }
+
+    public void destroy() {
+        clear();
+    }
+
+    public Integer getNumberOfEvents() {
+        return unique ? getNumKeys() : null;
+    }
+
+    public int getNumKeys() {
+        return numKeys + (overflow == null ? 0 : overflow.size());
+    }
+
+    /**
+     * Returns the index itself as the hash table is internal to the index, use {@link #lookup(Object[])} for access.
+     * @return index
+     */
+    public Object getIndex() {
+        return this;
+    }
+
+    public Set<EventBean> allValues() {
+        if (isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<EventBean> values = new HashSet<EventBean>();
+        for (Iterator<EventBean> it = iterator(); it.hasNext();) {
+            values.add(it.next());
+        }
+        return values;
+    }
+
+    public Class getProviderClass() {
+        return unique ? PropertyIndexedEventTableUnique.class : PropertyIndexedEventTable.class;
+    }
+
+    private boolean isKeyType(Object key, int index) {
+        return key != null && key.getClass() == keyTypes[index];
+    }
+
+    private int hashKey(Object key, int index) {
+        if (stringKeys[index] != null) {
+            return key.hashCode();
+        }
+        return hashLong(((Number) key).longValue());
+    }
+
+    private int hashSlotKey(long[][] longKeys, String[][] stringKeys, int slot, int index) {
+        if (stringKeys[index] != null) {
+            return stringKeys[index][slot].hashCode();
+        }
+        return hashLong(longKeys[index][slot]);
+    }
+
+    private boolean isSlotKey(int slot, Object key, int index) {
+        if (stringKeys[index] != null) {
+            String slotKey = stringKeys[index][slot];
+            return slotKey == key || slotKey.equals(key);
+        }
+        return longKeys[index][slot] == ((Number) key).longValue();
+    }
+
+    private void setSlotKey(int slot, Object key, int index) {
+        if (stringKeys[index] != null) {
+            stringKeys[index][slot] = (String) key;
+        }
+        else {
+            longKeys[index][slot] = ((Number) key).longValue();
+        }
+    }
+
+    private void copySlotKey(long[][] fromLongKeys, String[][] fromStringKeys, int fromSlot, int toSlot, int index) {
+        if (stringKeys[index] != null) {
+            stringKeys[index][toSlot] = fromStringKeys[index][fromSlot];
+        }
+        else {
+            longKeys[index][toSlot] = fromLongKeys[index][fromSlot];
+        }
+    }
+
+    private int hashSlot(long[][] longKeys, String[][] stringKeys, int slot) {
+        return slotOf(hashSlotKey(longKeys, stringKeys, slot, 0) * 31 + hashSlotKey(longKeys, stringKeys, slot, 1));
+    }
+
+    private int slotOf(int hash) {
+        return (hash * 0x9E3779B9) >>> shift;
+    }
+
+    private int findSlot(Object keyOne, Object keyTwo) {
+        int mask = buckets.length - 1;
+        int slot = slotOf(hashKey(keyOne, 0) * 31 + hashKey(keyTwo, 1));
+        while (buckets[slot] != null) {
+            if (isSlotKey(slot, keyOne, 0) && isSlotKey(slot, keyTwo, 1)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int findSlotOrEmpty(Object keyOne, Object keyTwo) {
+        int mask = buckets.length - 1;
+        int slot = slotOf(hashKey(keyOne, 0) * 31 + hashKey(keyTwo, 1));
+        while (buckets[slot] != null) {
+            if (isSlotKey(slot, keyOne, 0) && isSlotKey(slot, keyTwo, 1)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -slot - 1;
+    }
+
+    private void removeSlot(int slot) {
+        // backward-shift deletion, keeps probe sequences intact without tombstones
+        int mask = buckets.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (buckets[next] != null) {
+            int home = hashSlot(longKeys, stringKeys, next);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                copySlotKey(longKeys, stringKeys, next, hole, 0);
+                copySlotKey(longKeys, stringKeys, next, hole, 1);
+                buckets[hole] = buckets[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        buckets[hole] = null;
+        for (int index = 0; index < 2; index++) {
+            if (stringKeys[index] != null) {
+                stringKeys[index][hole] = null;
+            }
+        }
+        numKeys--;
+    }
+
+    private void allocate(int capacity) {
+        Object[] oldBuckets = buckets;
+        long[][] oldLongKeys = new long[][] {longKeys[0], longKeys[1]};
+        String[][] oldStringKeys = new String[][] {stringKeys[0], stringKeys[1]};
+
+        buckets = new Object[capacity];
+        for (int index = 0; index < 2; index++) {
+            if (keyTypes[index] == String.class) {
+                stringKeys[index] = new String[capacity];
+            }
+            else {
+                longKeys[index] = new long[capacity];
+            }
+        }
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+        resizeThreshold = capacity / 4 * 3;
+
+        if (oldBuckets == null) {
+            return;
+        }
+        int mask = capacity - 1;
+        for (int i = 0; i < oldBuckets.length; i++) {
+            if (oldBuckets[i] == null) {
+                continue;
+            }
+            int slot = hashSlot(oldLongKeys, oldStringKeys, i);
+            while (buckets[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            copySlotKey(oldLongKeys, oldStringKeys, i, slot, 0);
+            copySlotKey(oldLongKeys, oldStringKeys, i, slot, 1);
+            buckets[slot] = oldBuckets[i];
+        }
+    }
+
+    private static int hashLong(long value) {
+        return (int) (value ^ (value >>> 32));
+    }
+}
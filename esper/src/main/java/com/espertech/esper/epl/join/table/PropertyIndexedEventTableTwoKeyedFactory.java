@@ -0,0 +1,53 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Factory for {@link PropertyIndexedEventTableTwoKeyed} indexes, for two properties each of type int, long or String.
+ */
+public class PropertyIndexedEventTableTwoKeyedFactory extends PropertyIndexedEventTableFactory
+{
+    private final Class[] keyTypes;
+
+    /**
+     * Ctor.
+     * @param streamNum - the stream number that is indexed
+     * @param eventType - types of events indexed
+     * @param propertyNames - the two property names
+     * @param unique - indicator whether the index is unique
+     * @param optionalIndexName - index name, if any
+     */
+    public PropertyIndexedEventTableTwoKeyedFactory(int streamNum, EventType eventType, String[] propertyNames, boolean unique, String optionalIndexName)
+    {
+        super(streamNum, eventType, propertyNames, unique, optionalIndexName);
+        keyTypes = new Class[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; i++) {
+            keyTypes[i] = JavaClassHelper.getBoxedType(eventType.getPropertyType(propertyNames[i]));
+        }
+    }
+
+    /**
+     * Returns true if there are two properties and the type of each is supported by a keyed index.
+     * @param eventType - types of events indexed
+     * @param propertyNames - property names
+     * @return indicator
+     */
+    public static boolean isSupportedKeyTypes(EventType eventType, String[] propertyNames) {
+        return propertyNames.length == 2 &&
+                PropertyIndexedEventTableSingleKeyedFactory.isSupportedKeyType(eventType.getPropertyType(propertyNames[0])) &&
+                PropertyIndexedEventTableSingleKeyedFactory.isSupportedKeyType(eventType.getPropertyType(propertyNames[1]));
+    }
+
+    public EventTable[] makeEventTables(EventTableFactoryTableIdent tableIdent) {
+        return new EventTable[] {new PropertyIndexedEventTableTwoKeyed(propertyGetters, getOrganization(), keyTypes)};
+    }
+}
@@ -11,6 +11,10 @@ package com.espertech.esper.epl.join.table;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.epl.join.exec.base.RangeIndexLookupValue;
+import com.espertech.esper.epl.join.exec.base.RangeIndexLookupValueEquals;
+import com.espertech.esper.epl.join.exec.base.RangeIndexLookupValueRange;
+import com.espertech.esper.epl.join.plan.QueryGraphRangeEnum;
+import com.espertech.esper.filter.Range;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.*;
@@ -36,7 +40,13 @@ public abstract class PropertySortedEventTable implements EventTable
     public abstract Collection<EventBean> lookupGreaterEqualColl(Object keyStart);
     public abstract Set<EventBean> lookupGreater(Object keyStart);
     public abstract Collection<EventBean> lookupGreaterColl(Object keyStart);
-    public abstract Set<EventBean> lookupConstants(RangeIndexLookupValue lookupValueBase);
+
+    /**
+     * Returns the events for the key.
+     * @param key key
+     * @return set of events with the key, or null if none found
+     */
+    protected abstract Set<EventBean> lookupEquals(Object key);
 
     /**
      * Ctor.
@@ -188,6 +198,63 @@ public abstract class PropertySortedEventTable implements EventTable
         return result;
     }
 
+    public Set<EventBean> lookupConstants(RangeIndexLookupValue lookupValueBase) {
+
+        if (lookupValueBase instanceof RangeIndexLookupValueEquals) {
+            RangeIndexLookupValueEquals equals = (RangeIndexLookupValueEquals) lookupValueBase;
+            return lookupEquals(equals.getValue());
+        }
+
+        RangeIndexLookupValueRange lookupValue = (RangeIndexLookupValueRange) lookupValueBase;
+        if (lookupValue.getOperator() == QueryGraphRangeEnum.RANGE_CLOSED) {
+            Range range = (Range) lookupValue.getValue();
+            return lookupRange(range.getLowEndpoint(), true, range.getHighEndpoint(), true, lookupValue.isAllowRangeReverse());
+        }
+        else if (lookupValue.getOperator() == QueryGraphRangeEnum.RANGE_HALF_OPEN) {
+            Range range = (Range) lookupValue.getValue();
+            return lookupRange(range.getLowEndpoint(), true, range.getHighEndpoint(), false, lookupValue.isAllowRangeReverse());
+        }
+        else if (lookupValue.getOperator() == QueryGraphRangeEnum.RANGE_HALF_CLOSED) {
+            Range range = (Range) lookupValue.getValue();
+            return lookupRange(range.getLowEndpoint(), false, range.getHighEndpoint(), true, lookupValue.isAllowRangeReverse());
+        }
+        else if (lookupValue.getOperator() == QueryGraphRangeEnum.RANGE_OPEN) {
+            Range range = (Range) lookupValue.getValue();
+            return lookupRange(range.getLowEndpoint(), false, range.getHighEndpoint(), false, lookupValue.isAllowRangeReverse());
+        }
+        else if (lookupValue.getOperator() == QueryGraphRangeEnum.NOT_RANGE_CLOSED) {
+            Range range = (Range) lookupValue.getValue();
+            return lookupRangeInverted(range.getLowEndpoint(), true, range.getHighEndpoint(), true);
+        }
+        else if (lookupValue.getOperator() == QueryGraphRangeEnum.NOT_RANGE_HALF_OPEN) {
+            Range range = (Range) lookupValue.getValue();
+            return lookupRangeInverted(range.getLowEndpoint(), true, range.getHighEndpoint(), false);
+        }
+        else if (lookupValue.getOperator() == QueryGraphRangeEnum.NOT_RANGE_HALF_CLOSED) {
+            Range range = (Range) lookupValue.getValue();
+            return lookupRangeInverted(range.getLowEndpoint(), false, range.getHighEndpoint(), true);
+        }
+        else if (lookupValue.getOperator() == QueryGraphRangeEnum.NOT_RANGE_OPEN) {
+            Range range = (Range) lookupValue.getValue();
+            return lookupRangeInverted(range.getLowEndpoint(), false, range.getHighEndpoint(), false);
+        }
+        else if (lookupValue.getOperator() == QueryGraphRangeEnum.GREATER) {
+            return lookupGreater(lookupValue.getValue());
+        }
+        else if (lookupValue.getOperator() == QueryGraphRangeEnum.GREATER_OR_EQUAL) {
+            return lookupGreaterEqual(lookupValue.getValue());
+        }
+        else if (lookupValue.getOperator() == QueryGraphRangeEnum.LESS) {
+            return lookupLess(lookupValue.getValue());
+        }
+        else if (lookupValue.getOperator() == QueryGraphRangeEnum.LESS_OR_EQUAL) {
+            return lookupLessEqual(lookupValue.getValue());
+        }
+        else {
+            throw new IllegalArgumentException("Unrecognized operator '" + lookupValue.getOperator() + "'");
+        }
+    }
+
     public String toQueryPlan() {
         return this.getClass().getSimpleName() +
                 " streamNum=" + organization.getStreamNum() +
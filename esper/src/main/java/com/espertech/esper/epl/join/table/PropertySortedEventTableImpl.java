@@ -11,11 +11,6 @@ package com.espertech.esper.epl.join.table;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.collection.SuperIterator;
-import com.espertech.esper.epl.join.exec.base.RangeIndexLookupValue;
-import com.espertech.esper.epl.join.exec.base.RangeIndexLookupValueEquals;
-import com.espertech.esper.epl.join.exec.base.RangeIndexLookupValueRange;
-import com.espertech.esper.epl.join.plan.QueryGraphRangeEnum;
-import com.espertech.esper.filter.Range;
 
 import java.util.*;
 
@@ -267,61 +262,8 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable
         clear();
     }
 
-    public Set<EventBean> lookupConstants(RangeIndexLookupValue lookupValueBase) {
-
-        if (lookupValueBase instanceof RangeIndexLookupValueEquals) {
-            RangeIndexLookupValueEquals equals = (RangeIndexLookupValueEquals) lookupValueBase;
-            return propertyIndex.get(equals.getValue());    
-        }
-
-        RangeIndexLookupValueRange lookupValue = (RangeIndexLookupValueRange) lookupValueBase;
-        if (lookupValue.getOperator() == QueryGraphRangeEnum.RANGE_CLOSED) {
-            Range range = (Range) lookupValue.getValue();
-            return lookupRange(range.getLowEndpoint(), true, range.getHighEndpoint(), true, lookupValue.isAllowRangeReverse());
-        }
-        else if (lookupValue.getOperator() == QueryGraphRangeEnum.RANGE_HALF_OPEN) {
-            Range range = (Range) lookupValue.getValue();
-            return lookupRange(range.getLowEndpoint(), true, range.getHighEndpoint(), false, lookupValue.isAllowRangeReverse());
-        }
-        else if (lookupValue.getOperator() == QueryGraphRangeEnum.RANGE_HALF_CLOSED) {
-            Range range = (Range) lookupValue.getValue();
-            return lookupRange(range.getLowEndpoint(), false, range.getHighEndpoint(), true, lookupValue.isAllowRangeReverse());
-        }
-        else if (lookupValue.getOperator() == QueryGraphRangeEnum.RANGE_OPEN) {
-            Range range = (Range) lookupValue.getValue();
-            return lookupRange(range.getLowEndpoint(), false, range.getHighEndpoint(), false, lookupValue.isAllowRangeReverse());
-        }
-        else if (lookupValue.getOperator() == QueryGraphRangeEnum.NOT_RANGE_CLOSED) {
-            Range range = (Range) lookupValue.getValue();
-            return lookupRangeInverted(range.getLowEndpoint(), true, range.getHighEndpoint(), true);
-        }
-        else if (lookupValue.getOperator() == QueryGraphRangeEnum.NOT_RANGE_HALF_OPEN) {
-            Range range = (Range) lookupValue.getValue();
-            return lookupRangeInverted(range.getLowEndpoint(), true, range.getHighEndpoint(), false);
-        }
-        else if (lookupValue.getOperator() == QueryGraphRangeEnum.NOT_RANGE_HALF_CLOSED) {
-            Range range = (Range) lookupValue.getValue();
-            return lookupRangeInverted(range.getLowEndpoint(), false, range.getHighEndpoint(), true);
-        }
-        else if (lookupValue.getOperator() == QueryGraphRangeEnum.NOT_RANGE_OPEN) {
-            Range range = (Range) lookupValue.getValue();
-            return lookupRangeInverted(range.getLowEndpoint(), false, range.getHighEndpoint(), false);
-        }
-        else if (lookupValue.getOperator() == QueryGraphRangeEnum.GREATER) {
-            return lookupGreater(lookupValue.getValue());
-        }
-        else if (lookupValue.getOperator() == QueryGraphRangeEnum.GREATER_OR_EQUAL) {
-            return lookupGreaterEqual(lookupValue.getValue());
-        }
-        else if (lookupValue.getOperator() == QueryGraphRangeEnum.LESS) {
-            return lookupLess(lookupValue.getValue());
-        }
-        else if (lookupValue.getOperator() == QueryGraphRangeEnum.LESS_OR_EQUAL) {
-            return lookupLessEqual(lookupValue.getValue());
-        }
-        else {
-            throw new IllegalArgumentException("Unrecognized operator '" + lookupValue.getOperator() + "'");
-        }
+    protected Set<EventBean> lookupEquals(Object key) {
+        return propertyIndex.get(key);
     }
 
     public Class getProviderClass() {
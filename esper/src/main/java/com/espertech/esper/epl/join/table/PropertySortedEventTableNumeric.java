@@ -0,0 +1,456 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.collection.SuperIterator;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.util.*;
+
+/**
+ * Index that organizes events by a single numeric property value into a sorted index with primitive long keys.
+ * <p>
+ * The index is a two-level B+tree: sorted blocks of keys and event buckets, and an array of the first key of each
+ * block that is binary-searched to find the block for a key. Blocks split when full and merge with a neighbour when sparse.
+ * Range lookups scan blocks in key order and collect events directly into the result, without sub-map views.
+ * <p>
+ * Integral values are kept as their long value. Floating-point values are kept as their IEEE 754 bits,
+ * transformed so that the signed order of the bits is the order of {@link Double#compareTo(Double)}.
+ * <p>
+ * Events for a key are held in a compact bucket, see {@link EventTableBucketUtil}.
+ */
+public class PropertySortedEventTableNumeric extends PropertySortedEventTable
+{
+    private static final int BLOCK_SIZE = 128;
+    private static final int INITIAL_NUM_BLOCKS = 4;
+
+    private final boolean floatingPoint;
+    private final Set<EventBean> nullKeyedValues;
+    private long[] firstKeys;
+    private Block[] blocks;
+    private int numBlocks;
+    private int numKeys;
+
+    /**
+     * Ctor.
+     * @param propertyGetter getter for the indexed property
+     * @param organization index organization
+     * @param keyType type of the indexed property
+     */
+    public PropertySortedEventTableNumeric(EventPropertyGetter propertyGetter, EventTableOrganization organization, Class keyType)
+    {
+        super(propertyGetter, organization);
+        Class boxed = JavaClassHelper.getBoxedType(keyType);
+        this.floatingPoint = boxed == Double.class || boxed == Float.class;
+        this.nullKeyedValues = new LinkedHashSet<EventBean>();
+        this.firstKeys = new long[INITIAL_NUM_BLOCKS];
+        this.blocks = new Block[INITIAL_NUM_BLOCKS];
+    }
+
+    public Set<EventBean> lookupRange(Object keyStart, boolean includeStart, Object keyEnd, boolean includeEnd, boolean allowRangeReversal) {
+        if (keyStart == null || keyEnd == null) {
+            return Collections.emptySet();
+        }
+        return (Set<EventBean>) lookupRange(toKey(keyStart), includeStart, toKey(keyEnd), includeEnd, allowRangeReversal, true, Collections.<EventBean>emptySet());
+    }
+
+    public Collection<EventBean> lookupRangeColl(Object keyStart, boolean includeStart, Object keyEnd, boolean includeEnd, boolean allowRangeReversal) {
+        if (keyStart == null || keyEnd == null) {
+            return Collections.emptyList();
+        }
+        return lookupRange(toKey(keyStart), includeStart, toKey(keyEnd), includeEnd, allowRangeReversal, false, Collections.<EventBean>emptyList());
+    }
+
+    public Set<EventBean> lookupRangeInverted(Object keyStart, boolean includeStart, Object keyEnd, boolean includeEnd) {
+        if (keyStart == null || keyEnd == null) {
+            return Collections.emptySet();
+        }
+        return (Set<EventBean>) lookupRangeInverted(toKey(keyStart), includeStart, toKey(keyEnd), includeEnd, true);
+    }
+
+    public Collection<EventBean> lookupRangeInvertedColl(Object keyStart, boolean includeStart, Object keyEnd, boolean includeEnd) {
+        if (keyStart == null || keyEnd == null) {
+            return Collections.emptySet();
+        }
+        return lookupRangeInverted(toKey(keyStart), includeStart, toKey(keyEnd), includeEnd, false);
+    }
+
+    public Set<EventBean> lookupLess(Object keyStart) {
+        if (keyStart == null) {
+            return Collections.emptySet();
+        }
+        return (Set<EventBean>) scan(0, 0, true, toKey(keyStart), false, true);
+    }
+
+    public Collection<EventBean> lookupLessThenColl(Object keyStart) {
+        if (keyStart == null) {
+            return Collections.emptyList();
+        }
+        return scan(0, 0, true, toKey(keyStart), false, false);
+    }
+
+    public Set<EventBean> lookupLessEqual(Object keyStart) {
+        if (keyStart == null) {
+            return Collections.emptySet();
+        }
+        return (Set<EventBean>) scan(0, 0, true, toKey(keyStart), true, true);
+    }
+
+    public Collection<EventBean> lookupLessEqualColl(Object keyStart) {
+        if (keyStart == null) {
+            return Collections.emptyList();
+        }
+        return scan(0, 0, true, toKey(keyStart), true, false);
+    }
+
+    public Set<EventBean> lookupGreaterEqual(Object keyStart) {
+        if (keyStart == null) {
+            return Collections.emptySet();
+        }
+        return (Set<EventBean>) scanFrom(toKey(keyStart), true, false, 0, false, true);
+    }
+
+    public Collection<EventBean> lookupGreaterEqualColl(Object keyStart) {
+        if (keyStart == null) {
+            return Collections.emptyList();
+        }
+        return scanFrom(toKey(keyStart), true, false, 0, false, false);
+    }
+
+    public Set<EventBean> lookupGreater(Object keyStart) {
+        if (keyStart == null) {
+            return Collections.emptySet();
+        }
+        return (Set<EventBean>) scanFrom(toKey(keyStart), false, false, 0, false, true);
+    }
+
+    public Collection<EventBean> lookupGreaterColl(Object keyStart) {
+        if (keyStart == null) {
+            return Collections.emptyList();
+        }
+        return scanFrom(toKey(keyStart), false, false, 0, false, false);
+    }
+
+    protected Set<EventBean> lookupEquals(Object key) {
+        if (key == null || numBlocks == 0) {
+            return null;
+        }
+        long value = toKey(key);
+        Block block = blocks[findBlock(value)];
+        int index = Arrays.binarySearch(block.keys, 0, block.size, value);
+        return index < 0 ? null : EventTableBucketUtil.toSet(block.values[index]);
+    }
+
+    public int getNumKeys() {
+        return numKeys;
+    }
+
+    /**
+     * Returns null as the sorted blocks are internal to the index.
+     * @return null
+     */
+    public Object getIndex() {
+        return null;
+    }
+
+    public void add(EventBean theEvent)
+    {
+        Object value = getIndexedValue(theEvent);
+        if (value == null) {
+            nullKeyedValues.add(theEvent);
+            return;
+        }
+        long key = toKey(value);
+
+        if (numBlocks == 0) {
+            blocks[0] = new Block();
+            numBlocks = 1;
+        }
+        int blockNum = findBlock(key);
+        Block block = blocks[blockNum];
+        int index = Arrays.binarySearch(block.keys, 0, block.size, key);
+        if (index >= 0) {
+            block.values[index] = EventTableBucketUtil.addToBucket(block.values[index], theEvent);
+            return;
+        }
+
+        index = -index - 1;
+        if (block.size == BLOCK_SIZE) {
+            splitBlock(blockNum);
+            if (index > BLOCK_SIZE / 2) {
+                blockNum++;
+                index -= BLOCK_SIZE / 2;
+                block = blocks[blockNum];
+            }
+        }
+        System.arraycopy(block.keys, index, block.keys, index + 1, block.size - index);
+        System.arraycopy(block.values, index, block.values, index + 1, block.size - index);
+        block.keys[index] = key;
+        block.values[index] = theEvent;
+        block.size++;
+        if (index == 0) {
+            firstKeys[blockNum] = key;
+        }
+        numKeys++;
+    }
+
+    public void remove(EventBean theEvent)
+    {
+        Object value = getIndexedValue(theEvent);
+        if (value == null) {
+            nullKeyedValues.remove(theEvent);
+            return;
+        }
+        if (numBlocks == 0) {
+            return;
+        }
+        long key = toKey(value);
+
+        int blockNum = findBlock(key);
+        Block block = blocks[blockNum];
+        int index = Arrays.binarySearch(block.keys, 0, block.size, key);
+        if (index < 0) {
+            return;
+        }
+
+        // Not an error if the event is not found, its possible that an old-data event is artificial (such as for statistics) and
+        // thus did not correspond to a new-data event raised earlier.
+        Object remaining = EventTableBucketUtil.removeFromBucket(block.values[index], theEvent);
+        if (remaining != null) {
+            block.values[index] = remaining;
+            return;
+        }
+
+        System.arraycopy(block.keys, index + 1, block.keys, index, block.size - index - 1);
+        System.arraycopy(block.values, index + 1, block.values, index, block.size - index - 1);
+        block.size--;
+        block.values[block.size] = null;
+        numKeys--;
+
+        if (block.size == 0) {
+            removeBlock(blockNum);
+            return;
+        }
+        if (index == 0) {
+            firstKeys[blockNum] = block.keys[0];
+        }
+        if (blockNum + 1 < numBlocks && block.size + blocks[blockNum + 1].size <= BLOCK_SIZE / 2) {
+            mergeWithNext(blockNum);
+        }
+        else if (blockNum > 0 && blocks[blockNum - 1].size + block.size <= BLOCK_SIZE / 2) {
+            mergeWithNext(blockNum - 1);
+        }
+    }
+
+    public boolean isEmpty()
+    {
+        return numKeys == 0 && nullKeyedValues.isEmpty();
+    }
+
+    public Iterator<EventBean> iterator()
+    {
+        if (nullKeyedValues.isEmpty()) {
+            return new BlockIterator();
+        }
+        return new SuperIterator<EventBean>(new BlockIterator(), nullKeyedValues.iterator());
+    }
+
+    public void clear()
+    {
+        firstKeys = new long[INITIAL_NUM_BLOCKS];
+        blocks = new Block[INITIAL_NUM_BLOCKS];
+        numBlocks = 0;
+        numKeys = 0;
+        nullKeyedValues.clear();
+    }
+
+    public void destroy() {
+        clear();
+    }
+
+    public Class getProviderClass() {
+        return PropertySortedEventTable.class;
+    }
+
+    private long toKey(Object value) {
+        if (floatingPoint) {
+            long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+            return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+        }
+        return ((Number) value).longValue();
+    }
+
+    private Collection<EventBean> lookupRange(long start, boolean includeStart, long end, boolean includeEnd, boolean allowRangeReversal, boolean resultSet, Collection<EventBean> empty) {
+        if (start > end) {
+            if (!allowRangeReversal) {
+                return empty;
+            }
+            return scanFrom(end, includeStart, true, start, includeEnd, resultSet);
+        }
+        return scanFrom(start, includeStart, true, end, includeEnd, resultSet);
+    }
+
+    private Collection<EventBean> lookupRangeInverted(long start, boolean includeStart, long end, boolean includeEnd, boolean resultSet) {
+        Collection<EventBean> head = scan(0, 0, true, start, !includeStart, resultSet);
+        Collection<EventBean> tail = scanFrom(end, !includeEnd, false, 0, false, resultSet);
+        if (head == null) {
+            return tail;
+        }
+        if (tail == null) {
+            return head;
+        }
+        Collection<EventBean> result = resultSet ? new LinkedHashSet<EventBean>() : new ArrayDeque<EventBean>();
+        result.addAll(head);
+        result.addAll(tail);
+        return result;
+    }
+
+    private Collection<EventBean> scanFrom(long start, boolean includeStart, boolean hasEnd, long end, boolean includeEnd, boolean resultSet) {
+        if (numBlocks == 0) {
+            return null;
+        }
+        int blockNum = findBlock(start);
+        Block block = blocks[blockNum];
+        int index = Arrays.binarySearch(block.keys, 0, block.size, start);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        else if (!includeStart) {
+            index++;
+        }
+        return scan(blockNum, index, hasEnd, end, includeEnd, resultSet);
+    }
+
+    /**
+     * Collect the events of the keys starting at the given position, in key order, until the end key.
+     * @return null if there are no keys, the bucket set for a single key, or a new collection of events
+     */
+    private Collection<EventBean> scan(int blockNum, int index, boolean hasEnd, long end, boolean includeEnd, boolean resultSet) {
+        Object first = null;
+        Collection<EventBean> result = null;
+        for (; blockNum < numBlocks; blockNum++, index = 0) {
+            Block block = blocks[blockNum];
+            for (; index < block.size; index++) {
+                long key = block.keys[index];
+                if (hasEnd && (key > end || (key == end && !includeEnd))) {
+                    return result != null ? result : EventTableBucketUtil.toSet(first);
+                }
+                if (first == null) {
+                    first = block.values[index];
+                    continue;
+                }
+                if (result == null) {
+                    result = resultSet ? new LinkedHashSet<EventBean>() : new ArrayDeque<EventBean>();
+                    EventTableBucketUtil.addAll(first, result);
+                }
+                EventTableBucketUtil.addAll(block.values[index], result);
+            }
+        }
+        return result != null ? result : EventTableBucketUtil.toSet(first);
+    }
+
+    /**
+     * Returns the last block with a first key less or equal to the key, or the first block if there is none.
+     */
+    private int findBlock(long key) {
+        int low = 1;
+        int high = numBlocks - 1;
+        int found = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (firstKeys[mid] <= key) {
+                found = mid;
+                low = mid + 1;
+            }
+            else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private void splitBlock(int blockNum) {
+        if (numBlocks == blocks.length) {
+            blocks = Arrays.copyOf(blocks, blocks.length * 2);
+            firstKeys = Arrays.copyOf(firstKeys, firstKeys.length * 2);
+        }
+        System.arraycopy(blocks, blockNum + 1, blocks, blockNum + 2, numBlocks - blockNum - 1);
+        System.arraycopy(firstKeys, blockNum + 1, firstKeys, blockNum + 2, numBlocks - blockNum - 1);
+
+        Block block = blocks[blockNum];
+        Block split = new Block();
+        int half = BLOCK_SIZE / 2;
+        System.arraycopy(block.keys, half, split.keys, 0, block.size - half);
+        System.arraycopy(block.values, half, split.values, 0, block.size - half);
+        Arrays.fill(block.values, half, block.size, null);
+        split.size = block.size - half;
+        block.size = half;
+
+        blocks[blockNum + 1] = split;
+        firstKeys[blockNum + 1] = split.keys[0];
+        numBlocks++;
+    }
+
+    private void mergeWithNext(int blockNum) {
+        Block block = blocks[blockNum];
+        Block next = blocks[blockNum + 1];
+        System.arraycopy(next.keys, 0, block.keys, block.size, next.size);
+        System.arraycopy(next.values, 0, block.values, block.size, next.size);
+        block.size += next.size;
+        removeBlock(blockNum + 1);
+    }
+
+    private void removeBlock(int blockNum) {
+        System.arraycopy(blocks, blockNum + 1, blocks, blockNum, numBlocks - blockNum - 1);
+        System.arraycopy(firstKeys, blockNum + 1, firstKeys, blockNum, numBlocks - blockNum - 1);
+        numBlocks--;
+        blocks[numBlocks] = null;
+    }
+
+    private static class Block
+    {
+        private final long[] keys = new long[BLOCK_SIZE];
+        private final Object[] values = new Object[BLOCK_SIZE];
+        private int size;
+    }
+
+    private class BlockIterator implements Iterator<EventBean>
+    {
+        private int blockNum;
+        private int index;
+        private Iterator<EventBean> current;
+
+        public boolean hasNext() {
+            while (current == null || !current.hasNext()) {
+                while (blockNum < numBlocks && index >= blocks[blockNum].size) {
+                    blockNum++;
+                    index = 0;
+                }
+                if (blockNum >= numBlocks) {
+                    return false;
+                }
+                current = EventTableBucketUtil.toIterator(blocks[blockNum].values[index++]);
+            }
+            return true;
+        }
+
+        public EventBean next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Factory for {@link PropertySortedEventTableNumeric} indexes, for properties of a primitive numeric type.
+ */
+public class PropertySortedEventTableNumericFactory extends PropertySortedEventTableFactory
+{
+    private final Class keyType;
+
+    /**
+     * Ctor.
+     * @param streamNum - the stream number that is indexed
+     * @param eventType - types of events indexed
+     * @param propertyName - property name
+     */
+    public PropertySortedEventTableNumericFactory(int streamNum, EventType eventType, String propertyName)
+    {
+        super(streamNum, eventType, propertyName);
+        this.keyType = eventType.getPropertyType(propertyName);
+    }
+
+    /**
+     * Returns true if the property type is supported by a numeric sorted index.
+     * @param propertyType type of the indexed property
+     * @return indicator
+     */
+    public static boolean isSupportedKeyType(Class propertyType) {
+        Class boxed = JavaClassHelper.getBoxedType(propertyType);
+        return boxed == Integer.class || boxed == Long.class || boxed == Short.class || boxed == Byte.class ||
+               boxed == Double.class || boxed == Float.class;
+    }
+
+    public EventTable[] makeEventTables(EventTableFactoryTableIdent tableIdent) {
+        return new EventTable[] {new PropertySortedEventTableNumeric(propertyGetter, getOrganization(), keyType)};
+    }
+}
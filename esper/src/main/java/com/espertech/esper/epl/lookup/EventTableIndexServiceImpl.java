@@ -28,6 +28,9 @@ public class EventTableIndexServiceImpl implements EventTableIndexService {
     }
 
     public EventTableFactory createSingle(int indexedStreamNum, EventType eventType, String propertyName, boolean unique, String optionalIndexName, Object optionalSerde, boolean isFireAndForget) {
+        if (PropertyIndexedEventTableSingleKeyedFactory.isSupportedKeyType(eventType.getPropertyType(propertyName))) {
+            return new PropertyIndexedEventTableSingleKeyedFactory(indexedStreamNum, eventType, propertyName, unique, optionalIndexName);
+        }
         return new PropertyIndexedEventTableSingleFactory(indexedStreamNum, eventType, propertyName, unique, optionalIndexName);
     }
 
@@ -36,6 +39,9 @@ public class EventTableIndexServiceImpl implements EventTableIndexService {
     }
 
     public EventTableFactory createMultiKey(int indexedStreamNum, EventType eventType, String[] indexProps, boolean unique, String optionalIndexName, Object optionalSerde, boolean isFireAndForget) {
+        if (PropertyIndexedEventTableTwoKeyedFactory.isSupportedKeyTypes(eventType, indexProps)) {
+            return new PropertyIndexedEventTableTwoKeyedFactory(indexedStreamNum, eventType, indexProps, unique, optionalIndexName);
+        }
         return new PropertyIndexedEventTableFactory(indexedStreamNum, eventType, indexProps, unique, optionalIndexName);
     }
 
@@ -52,6 +58,9 @@ public class EventTableIndexServiceImpl implements EventTableIndexService {
     }
 
     public EventTableFactory createSorted(int indexedStreamNum, EventType eventType, String indexedProp, boolean isFireAndForget) {
+        if (PropertySortedEventTableNumericFactory.isSupportedKeyType(eventType.getPropertyType(indexedProp))) {
+            return new PropertySortedEventTableNumericFactory(indexedStreamNum, eventType, indexedProp);
+        }
         return new PropertySortedEventTableFactory(indexedStreamNum, eventType, indexedProp);
     }
 
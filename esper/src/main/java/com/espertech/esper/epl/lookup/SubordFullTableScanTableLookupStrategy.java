@@ -10,6 +10,7 @@ package com.espertech.esper.epl.lookup;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.table.mgmt.TableStateInstance;
 import com.espertech.esper.epl.table.strategy.ExprTableEvalLockUtil;
 import com.espertech.esper.epl.table.strategy.ExprTableEvalStrategyUtil;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
@@ -25,11 +26,13 @@ import java.util.concurrent.locks.Lock;
 public class SubordFullTableScanTableLookupStrategy implements SubordTableLookupStrategy
 {
     private final Lock tableLevelLock;
+    private final TableStateInstance tableState;
     private final Iterable<EventBean> contents;
 
-    public SubordFullTableScanTableLookupStrategy(Lock tableLevelLock, Iterable<EventBean> contents) {
+    public SubordFullTableScanTableLookupStrategy(Lock tableLevelLock, TableStateInstance tableState) {
         this.tableLevelLock = tableLevelLock;
-        this.contents = contents;
+        this.tableState = tableState;
+        this.contents = tableState.getIterableTableScan();
     }
 
     @Override
@@ -45,6 +48,7 @@ public class SubordFullTableScanTableLookupStrategy implements SubordTableLookup
 
     private Collection<EventBean> lookupInternal(ExprEvaluatorContext context) {
         ExprTableEvalLockUtil.obtainLockUnless(tableLevelLock, context);
+        ExprTableEvalLockUtil.obtainAllRowLocksUnless(tableState, context);
 
         Iterator<EventBean> it = contents.iterator();
         if (!it.hasNext()) {
@@ -12,7 +12,6 @@ import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.epl.join.table.EventTable;
 import com.espertech.esper.epl.join.table.PropertyIndexedEventTableSingle;
-import com.espertech.esper.epl.join.table.PropertyIndexedEventTableSingleUnique;
 import com.espertech.esper.event.EventBeanUtility;
 import com.espertech.esper.epl.virtualdw.VirtualDWView;
 
@@ -47,8 +46,9 @@ public class SubordIndexedTableLookupStrategySinglePropFactory implements Subord
     }
 
     public SubordTableLookupStrategy makeStrategy(EventTable[] eventTable, VirtualDWView vdw) {
-        if (eventTable[0] instanceof PropertyIndexedEventTableSingleUnique) {
-            return new SubordIndexedTableLookupStrategySinglePropUnique(keyStreamNum, propertyGetter, (PropertyIndexedEventTableSingleUnique) eventTable[0],
+        // keyed indexes are unique or not depending on the organization, not on the class
+        if (eventTable[0].getOrganization().isUnique()) {
+            return new SubordIndexedTableLookupStrategySinglePropUnique(keyStreamNum, propertyGetter, (PropertyIndexedEventTableSingle) eventTable[0],
                     new LookupStrategyDesc(LookupStrategyType.SINGLEPROPUNIQUE, new String[] {property}));
         }
         LookupStrategyDesc desc = new LookupStrategyDesc(LookupStrategyType.SINGLEPROPNONUNIQUE, new String[] {property});
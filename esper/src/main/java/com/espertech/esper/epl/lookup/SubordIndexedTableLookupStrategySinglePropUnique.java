@@ -11,7 +11,7 @@ package com.espertech.esper.epl.lookup;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
-import com.espertech.esper.epl.join.table.PropertyIndexedEventTableSingleUnique;
+import com.espertech.esper.epl.join.table.PropertyIndexedEventTableSingle;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.Collection;
@@ -35,11 +35,11 @@ public class SubordIndexedTableLookupStrategySinglePropUnique implements SubordT
     /**
      * Index to look up in.
      */
-    protected final PropertyIndexedEventTableSingleUnique index;
+    protected final PropertyIndexedEventTableSingle index;
 
     protected final LookupStrategyDesc strategyDesc;
 
-    public SubordIndexedTableLookupStrategySinglePropUnique(int keyStreamNum, EventPropertyGetter propertyGetter, PropertyIndexedEventTableSingleUnique index, LookupStrategyDesc strategyDesc) {
+    public SubordIndexedTableLookupStrategySinglePropUnique(int keyStreamNum, EventPropertyGetter propertyGetter, PropertyIndexedEventTableSingle index, LookupStrategyDesc strategyDesc) {
         this.keyStreamNum = keyStreamNum;
         this.propertyGetter = propertyGetter;
         this.index = index;
@@ -50,7 +50,7 @@ public class SubordIndexedTableLookupStrategySinglePropUnique implements SubordT
      * Returns index to look up in.
      * @return index to use
      */
-    public PropertyIndexedEventTableSingleUnique getIndex()
+    public PropertyIndexedEventTableSingle getIndex()
     {
         return index;
     }
@@ -10,6 +10,7 @@ package com.espertech.esper.epl.lookup;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.table.mgmt.TableStateInstance;
 import com.espertech.esper.epl.table.strategy.ExprTableEvalLockUtil;
 import com.espertech.esper.epl.table.strategy.ExprTableEvalStrategyUtil;
 
@@ -25,10 +26,12 @@ public class SubordIndexedTableLookupTableStrategy implements SubordTableLookupS
 {
     private final SubordTableLookupStrategy inner;
     private final Lock lock;
+    private final TableStateInstance tableState;
 
-    public SubordIndexedTableLookupTableStrategy(SubordTableLookupStrategy inner, Lock lock) {
+    public SubordIndexedTableLookupTableStrategy(SubordTableLookupStrategy inner, Lock lock, TableStateInstance tableState) {
         this.inner = inner;
         this.lock = lock;
+        this.tableState = tableState;
     }
 
     @Override
@@ -39,6 +42,7 @@ public class SubordIndexedTableLookupTableStrategy implements SubordTableLookupS
         if (result == null) {
             return Collections.emptyList();
         }
+        ExprTableEvalLockUtil.obtainRowLocksForRowsUnless(tableState, result, context);
         return result;
     }
 
@@ -9,6 +9,9 @@
 package com.espertech.esper.epl.metric;
 
 import com.espertech.esper.client.metric.EngineMetric;
+import com.espertech.esper.client.metric.LatencyHistogram;
+
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Metrics execution producing engine metric events.
@@ -19,7 +22,8 @@ public class MetricExecEngine implements MetricExec
     private final String engineURI;
     private final MetricScheduleService metricScheduleService;
     private final long interval;
-    private EngineMetric lastMetric;
+    private final AtomicReference<LatencyHistogram> currentLatency;
+    private volatile EngineMetric lastMetric;
 
     /**
      * Ctor.
@@ -34,6 +38,18 @@ public class MetricExecEngine implements MetricExec
         this.engineURI = engineURI;
         this.metricScheduleService = metricScheduleService;
         this.interval = interval;
+        this.currentLatency = new AtomicReference<LatencyHistogram>(new LatencyHistogram());
+    }
+
+    /**
+     * Account the wall time for processing a single event.
+     * <p>
+     * A value recorded by a thread that races with the swap at execution may be counted in the next period.
+     * @param deltaWall wall time nsec
+     */
+    public void accountLatency(long deltaWall)
+    {
+        currentLatency.get().record(deltaWall);
     }
 
     public void execute(MetricExecutionContext context)
@@ -41,12 +57,22 @@ public class MetricExecEngine implements MetricExec
         long inputCount = context.getServices().getFilterService().getNumEventsEvaluated();
         long schedDepth = context.getServices().getSchedulingService().getScheduleHandleCount();
         long deltaInputCount = lastMetric == null ? inputCount : inputCount - lastMetric.getInputCount();
-        EngineMetric metric = new EngineMetric(engineURI, metricScheduleService.getCurrentTime(), inputCount, deltaInputCount, schedDepth);
+        LatencyHistogram latency = currentLatency.getAndSet(new LatencyHistogram());
+        EngineMetric metric = new EngineMetric(engineURI, metricScheduleService.getCurrentTime(), inputCount, deltaInputCount, schedDepth, latency);
         lastMetric = metric;
         metricEventRouter.route(metric);
         metricScheduleService.add(interval, this);        
     }
 
+    /**
+     * Returns the last engine metric reported.
+     * @return metric or null if none reported yet
+     */
+    public EngineMetric getLastMetric()
+    {
+        return lastMetric;
+    }
+
     /**
      * Returns reporting interval.
      * @return reporting interval
@@ -9,6 +9,7 @@
 package com.espertech.esper.epl.metric;
 
 import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.metric.EngineMetric;
 import com.espertech.esper.core.service.EPServicesContext;
 
 /**
@@ -42,6 +43,25 @@ public interface MetricReportingService
      */
     public void accountTime(StatementMetricHandle metricsHandle, long deltaCPU, long deltaWall, int numInput);
 
+    /**
+     * Account for statement listener and subscriber dispatch wall time.
+     * @param metricsHandle statement handle
+     * @param deltaWall wall time nsec
+     */
+    public void accountDispatch(StatementMetricHandle metricsHandle, long deltaWall);
+
+    /**
+     * Account for engine-level wall time to process a single event.
+     * @param deltaWall wall time nsec
+     */
+    public void accountEngineLatency(long deltaWall);
+
+    /**
+     * Returns the engine metric last reported.
+     * @return metric or null if none reported yet
+     */
+    public EngineMetric getLastEngineMetric();
+
     /**
      * Account for statement output row counting.
      * @param handle statement handle
@@ -11,6 +11,7 @@ package com.espertech.esper.epl.metric;
 import com.espertech.esper.client.ConfigurationException;
 import com.espertech.esper.client.ConfigurationMetricsReporting;
 import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.metric.EngineMetric;
 import com.espertech.esper.client.metric.MetricEvent;
 import com.espertech.esper.core.service.EPServicesContext;
 import com.espertech.esper.core.service.StatementLifecycleEvent;
@@ -178,6 +179,26 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
         stmtMetricRepository.accountTimes(metricsHandle, deltaCPU, deltaWall, numInputEvents);
     }
 
+    public void accountDispatch(StatementMetricHandle metricsHandle, long deltaWall)
+    {
+        stmtMetricRepository.accountDispatch(metricsHandle, deltaWall);
+    }
+
+    public void accountEngineLatency(long deltaWall)
+    {
+        MetricExecEngine engine = metricExecEngine;
+        if (engine != null)
+        {
+            engine.accountLatency(deltaWall);
+        }
+    }
+
+    public EngineMetric getLastEngineMetric()
+    {
+        MetricExecEngine engine = metricExecEngine;
+        return engine == null ? null : engine.getLastMetric();
+    }
+
     public void accountOutput(StatementMetricHandle handle, int numIStream, int numRStream)
     {
         stmtMetricRepository.accountOutput(handle, numIStream, numRStream);
@@ -126,6 +126,27 @@ public class StatementMetricRepository
             metric.addCPUTime(cpu);
             metric.addWallTime(wall);
             metric.addNumInput(numInput);
+            metric.getLatency().record(wall);
+        }
+        finally
+        {
+            array.getRwLock().releaseReadLock();
+        }
+    }
+
+    /**
+     * Account listener and subscriber dispatch time.
+     * @param handle statement handle
+     * @param wall time
+     */
+    public void accountDispatch(StatementMetricHandle handle, long wall)
+    {
+        StatementMetricArray array = groupMetrics[handle.getGroupNum()];
+        array.getRwLock().acquireReadLock();
+        try
+        {
+            StatementMetric metric = array.getAddMetric(handle.getIndex());
+            metric.getDispatchLatency().record(wall);
         }
         finally
         {
@@ -11,6 +11,7 @@ package com.espertech.esper.epl.named;
 import com.espertech.esper.client.ConfigurationEngineDefaults;
 import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
 import com.espertech.esper.timer.TimeSourceService;
+import com.espertech.esper.util.SequencedReorderBuffer;
 
 import java.util.List;
 import java.util.Map;
@@ -28,6 +29,8 @@ public class NamedWindowConsumerLatchFactory
 
     private NamedWindowConsumerLatchSpin currentLatchSpin;
     private NamedWindowConsumerLatchWait currentLatchWait;
+    private SequencedReorderBuffer<NamedWindowConsumerLatch> reorderBuffer;
+    private long currentSequence;
 
     /**
      * Ctor.
@@ -50,6 +53,9 @@ public class NamedWindowConsumerLatchFactory
         if (useSpin) {
             currentLatchSpin = new NamedWindowConsumerLatchSpin(this);
         }
+        else if (enabled && locking == ConfigurationEngineDefaults.Threading.Locking.REORDER) {
+            reorderBuffer = new SequencedReorderBuffer<NamedWindowConsumerLatch>(name, msecWait, timeSourceService);
+        }
         else if (enabled) {
             currentLatchWait = new NamedWindowConsumerLatchWait(this);
         }
@@ -68,6 +74,9 @@ public class NamedWindowConsumerLatchFactory
             currentLatchSpin = nextLatch;
             return nextLatch;
         }
+        else if (reorderBuffer != null) {
+            return new NamedWindowConsumerLatchReorder(delta, consumers, reorderBuffer, currentSequence++);
+        }
         else {
             if (enabled) {
                 NamedWindowConsumerLatchWait nextLatch = new NamedWindowConsumerLatchWait(delta, consumers, this, currentLatchWait);
@@ -90,4 +99,12 @@ public class NamedWindowConsumerLatchFactory
     public long getMsecWait() {
         return msecWait;
     }
+
+    /**
+     * Returns the reorder buffer when using the reorder strategy.
+     * @return buffer or null if not using the reorder strategy
+     */
+    public SequencedReorderBuffer<NamedWindowConsumerLatch> getReorderBuffer() {
+        return reorderBuffer;
+    }
 }
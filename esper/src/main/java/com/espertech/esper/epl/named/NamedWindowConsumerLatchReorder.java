@@ -0,0 +1,76 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.named;
+
+import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
+import com.espertech.esper.util.SequencedReorderBuffer;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A non-blocking implementation of a latch for use in guaranteeing delivery between
+ * a named window delta result and consumable by another statement: the delta carries a sequence number
+ * and is released through a reorder buffer by whichever thread completes the sequence.
+ */
+public class NamedWindowConsumerLatchReorder extends NamedWindowConsumerLatch
+{
+    private final SequencedReorderBuffer<NamedWindowConsumerLatch> buffer;
+    private final long sequence;
+    private Object dispatchGroup;
+
+    /**
+     * Ctor.
+     * @param deltaData the delta
+     * @param dispatchTo the consumers
+     * @param buffer the reorder buffer of the named window
+     * @param sequence the sequence number of the delta
+     */
+    public NamedWindowConsumerLatchReorder(NamedWindowDeltaData deltaData, Map<EPStatementAgentInstanceHandle, List<NamedWindowConsumerView>> dispatchTo, SequencedReorderBuffer<NamedWindowConsumerLatch> buffer, long sequence) {
+        super(deltaData, dispatchTo);
+        this.buffer = buffer;
+        this.sequence = sequence;
+    }
+
+    /**
+     * Adds the delta to the reorder buffer, never blocks.
+     * @param dispatchGroup identifies the deltas that the producing thread dispatches together
+     * @return latches that the calling thread must dispatch in order, or null if another thread dispatches the delta
+     */
+    public List<NamedWindowConsumerLatch> add(Object dispatchGroup) {
+        this.dispatchGroup = dispatchGroup;
+        return buffer.add(sequence, this);
+    }
+
+    /**
+     * Returns the identity of the deltas that the producing thread dispatched together.
+     * @return dispatch group
+     */
+    public Object getDispatchGroup() {
+        return dispatchGroup;
+    }
+
+    /**
+     * Returns the reorder buffer.
+     * @return buffer
+     */
+    public SequencedReorderBuffer<NamedWindowConsumerLatch> getBuffer() {
+        return buffer;
+    }
+
+    public void await() {
+    }
+
+    public Thread getCurrentThread() {
+        return Thread.currentThread();
+    }
+
+    public void done() {
+    }
+}
@@ -26,7 +26,7 @@ import java.util.Set;
  */
 public interface NamedWindowDispatchService
 {
-    NamedWindowProcessor createProcessor(String name, NamedWindowMgmtServiceImpl namedWindowMgmtService, NamedWindowDispatchService namedWindowDispatchService, String contextName, EventType eventType, StatementResultService statementResultService, ValueAddEventProcessor revisionProcessor, String eplExpression, String statementName, boolean isPrioritized, boolean isEnableSubqueryIndexShare, boolean enableQueryPlanLog, MetricReportingService metricReportingService, boolean isBatchingDataWindow, boolean isVirtualDataWindow, Set<String> optionalUniqueKeyProps, String eventTypeAsName, StatementContext statementContextCreateWindow);
+    NamedWindowProcessor createProcessor(String name, NamedWindowMgmtServiceImpl namedWindowMgmtService, NamedWindowDispatchService namedWindowDispatchService, String contextName, EventType eventType, StatementResultService statementResultService, ValueAddEventProcessor revisionProcessor, String eplExpression, String statementName, boolean isPrioritized, boolean isEnableSubqueryIndexShare, boolean enableQueryPlanLog, MetricReportingService metricReportingService, boolean isBatchingDataWindow, boolean isVirtualDataWindow, boolean isOffHeapStorage, Set<String> optionalUniqueKeyProps, String eventTypeAsName, StatementContext statementContextCreateWindow);
     NamedWindowTailView createTailView(EventType eventType, NamedWindowMgmtService namedWindowMgmtService, NamedWindowDispatchService namedWindowDispatchService, StatementResultService statementResultService, ValueAddEventProcessor revisionProcessor, boolean prioritized, boolean parentBatchWindow, String contextName, TimeSourceService timeSourceService, ConfigurationEngineDefaults.Threading threadingConfig);
 
     /**
@@ -36,6 +36,12 @@ public interface NamedWindowDispatchService
      */
     boolean dispatch();
 
+    /**
+     * Returns indicator whether the current thread added named window results that are not yet dispatched.
+     * @return true for pending dispatches
+     */
+    boolean isDispatchPending();
+
     /**
      * For use to add a result of a named window that must be dispatched to consuming views.
      * @param delta is the result to dispatch
@@ -43,6 +49,13 @@ public interface NamedWindowDispatchService
      */
     void addDispatch(NamedWindowConsumerLatchFactory latchFactory, NamedWindowDeltaData delta, Map<EPStatementAgentInstanceHandle, List<NamedWindowConsumerView>> consumers);
 
+    /**
+     * Dispatches the deltas that the reorder buffer of a named window holds behind a gap that remained open for longer
+     * than the timeout, for use by a scheduled check.
+     * @param latchFactory the latch factory of the named window
+     */
+    void dispatchExpired(NamedWindowConsumerLatchFactory latchFactory);
+
     /**
      * Destroy service.
      */
@@ -17,6 +17,7 @@ import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
 import com.espertech.esper.core.service.ExceptionHandlingService;
 import com.espertech.esper.core.service.StatementContext;
 import com.espertech.esper.core.service.StatementResultService;
+import com.espertech.esper.dispatch.DispatchService;
 import com.espertech.esper.epl.metric.MetricReportingPath;
 import com.espertech.esper.epl.metric.MetricReportingService;
 import com.espertech.esper.epl.table.mgmt.TableService;
@@ -27,6 +28,7 @@ import com.espertech.esper.schedule.SchedulingService;
 import com.espertech.esper.timer.TimeSourceService;
 import com.espertech.esper.util.ManagedReadWriteLock;
 import com.espertech.esper.util.MetricUtil;
+import com.espertech.esper.util.SequencedReorderBuffer;
 
 import java.util.*;
 
@@ -43,6 +45,7 @@ public class NamedWindowDispatchServiceImpl implements NamedWindowDispatchServic
     private final boolean isPrioritized;
     private final ManagedReadWriteLock eventProcessingRWLock;
     private final MetricReportingService metricReportingService;
+    private final DispatchService dispatchService;
 
     private ThreadLocal<List<NamedWindowConsumerLatch>> threadLocal = new ThreadLocal<List<NamedWindowConsumerLatch>>()
     {
@@ -64,6 +67,7 @@ public class NamedWindowDispatchServiceImpl implements NamedWindowDispatchServic
      * Ctor.
      * @param variableService is for variable access
      * @param isPrioritized if the engine is running with prioritized execution
+     * @param dispatchService for delivering results to listeners when deltas are dispatched in reorder mode
      */
     public NamedWindowDispatchServiceImpl(SchedulingService schedulingService,
                                           VariableService variableService,
@@ -71,7 +75,8 @@ public class NamedWindowDispatchServiceImpl implements NamedWindowDispatchServic
                                           boolean isPrioritized,
                                           ManagedReadWriteLock eventProcessingRWLock,
                                           ExceptionHandlingService exceptionHandlingService,
-                                          MetricReportingService metricReportingService)
+                                          MetricReportingService metricReportingService,
+                                          DispatchService dispatchService)
     {
         this.schedulingService = schedulingService;
         this.variableService = variableService;
@@ -80,10 +85,11 @@ public class NamedWindowDispatchServiceImpl implements NamedWindowDispatchServic
         this.eventProcessingRWLock = eventProcessingRWLock;
         this.exceptionHandlingService = exceptionHandlingService;
         this.metricReportingService = metricReportingService;
+        this.dispatchService = dispatchService;
     }
 
-    public NamedWindowProcessor createProcessor(String name, NamedWindowMgmtServiceImpl namedWindowMgmtService, NamedWindowDispatchService namedWindowDispatchService, String contextName, EventType eventType, StatementResultService statementResultService, ValueAddEventProcessor revisionProcessor, String eplExpression, String statementName, boolean isPrioritized, boolean isEnableSubqueryIndexShare, boolean enableQueryPlanLog, MetricReportingService metricReportingService, boolean isBatchingDataWindow, boolean isVirtualDataWindow, Set<String> optionalUniqueKeyProps, String eventTypeAsName, StatementContext statementContextCreateWindow) {
-        return new NamedWindowProcessor(name, namedWindowMgmtService, namedWindowDispatchService, contextName, eventType, statementResultService, revisionProcessor, eplExpression, statementName, isPrioritized, isEnableSubqueryIndexShare, enableQueryPlanLog, metricReportingService, isBatchingDataWindow, isVirtualDataWindow, optionalUniqueKeyProps, eventTypeAsName, statementContextCreateWindow);
+    public NamedWindowProcessor createProcessor(String name, NamedWindowMgmtServiceImpl namedWindowMgmtService, NamedWindowDispatchService namedWindowDispatchService, String contextName, EventType eventType, StatementResultService statementResultService, ValueAddEventProcessor revisionProcessor, String eplExpression, String statementName, boolean isPrioritized, boolean isEnableSubqueryIndexShare, boolean enableQueryPlanLog, MetricReportingService metricReportingService, boolean isBatchingDataWindow, boolean isVirtualDataWindow, boolean isOffHeapStorage, Set<String> optionalUniqueKeyProps, String eventTypeAsName, StatementContext statementContextCreateWindow) {
+        return new NamedWindowProcessor(name, namedWindowMgmtService, namedWindowDispatchService, contextName, eventType, statementResultService, revisionProcessor, eplExpression, statementName, isPrioritized, isEnableSubqueryIndexShare, enableQueryPlanLog, metricReportingService, isBatchingDataWindow, isVirtualDataWindow, isOffHeapStorage, optionalUniqueKeyProps, eventTypeAsName, statementContextCreateWindow);
     }
 
     public NamedWindowTailView createTailView(EventType eventType, NamedWindowMgmtService namedWindowMgmtService, NamedWindowDispatchService namedWindowDispatchService, StatementResultService statementResultService, ValueAddEventProcessor revisionProcessor, boolean prioritized, boolean parentBatchWindow, String contextName, TimeSourceService timeSourceService, ConfigurationEngineDefaults.Threading threadingConfig) {
@@ -102,6 +108,11 @@ public class NamedWindowDispatchServiceImpl implements NamedWindowDispatchServic
         threadLocal.get().add(latch);
     }
 
+    public boolean isDispatchPending()
+    {
+        return !threadLocal.get().isEmpty();
+    }
+
     public boolean dispatch()
     {
         List<NamedWindowConsumerLatch> dispatches = threadLocal.get();
@@ -112,13 +123,18 @@ public class NamedWindowDispatchServiceImpl implements NamedWindowDispatchServic
 
         while (!dispatches.isEmpty()) {
 
+            NamedWindowConsumerLatch[] units = dispatches.toArray(new NamedWindowConsumerLatch[dispatches.size()]);
+            dispatches.clear();
+            if (units[0] instanceof NamedWindowConsumerLatchReorder) {
+                processDispatchesReorder(units);
+                continue;
+            }
+
             // Acquire main processing lock which locks out statement management
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qNamedWindowDispatch(exceptionHandlingService.getEngineURI());}
             eventProcessingRWLock.acquireReadLock();
             try
             {
-                NamedWindowConsumerLatch[] units = dispatches.toArray(new NamedWindowConsumerLatch[dispatches.size()]);
-                dispatches.clear();
                 processDispatches(units);
             }
             catch (RuntimeException ex)
@@ -135,6 +151,145 @@ public class NamedWindowDispatchServiceImpl implements NamedWindowDispatchServic
         return true;
     }
 
+    private void processDispatchesReorder(NamedWindowConsumerLatch[] units) {
+        // never waits: the deltas are dispatched by the thread that completes the sequence
+        List<NamedWindowConsumerLatch> ready = new ArrayList<NamedWindowConsumerLatch>();
+        List<SequencedReorderBuffer<NamedWindowConsumerLatch>> draining = new ArrayList<SequencedReorderBuffer<NamedWindowConsumerLatch>>(2);
+        for (NamedWindowConsumerLatch unit : units) {
+            NamedWindowConsumerLatchReorder latch = (NamedWindowConsumerLatchReorder) unit;
+            List<NamedWindowConsumerLatch> items = latch.add(units);
+            if (items != null) {
+                ready.addAll(items);
+                draining.add(latch.getBuffer());
+            }
+        }
+        // further deltas of this dispatch to the same named window were added while draining
+        if (units.length > 1) {
+            for (SequencedReorderBuffer<NamedWindowConsumerLatch> buffer : draining) {
+                List<NamedWindowConsumerLatch> items = buffer.poll();
+                if (items != null) {
+                    ready.addAll(items);
+                }
+            }
+        }
+
+        processDispatchesReorderDrain(ready, draining);
+    }
+
+    public void dispatchExpired(NamedWindowConsumerLatchFactory latchFactory) {
+        SequencedReorderBuffer<NamedWindowConsumerLatch> buffer = latchFactory.getReorderBuffer();
+        if (buffer == null) {
+            return;
+        }
+        List<NamedWindowConsumerLatch> items = buffer.releaseExpired();
+        if (items == null) {
+            return;
+        }
+        List<SequencedReorderBuffer<NamedWindowConsumerLatch>> draining = new ArrayList<SequencedReorderBuffer<NamedWindowConsumerLatch>>(1);
+        draining.add(buffer);
+        processDispatchesReorderDrain(new ArrayList<NamedWindowConsumerLatch>(items), draining);
+
+        // consumers may have produced further deltas
+        dispatch();
+    }
+
+    private void processDispatchesReorderDrain(List<NamedWindowConsumerLatch> ready, List<SequencedReorderBuffer<NamedWindowConsumerLatch>> draining) {
+        while (!draining.isEmpty()) {
+            processDispatchesReorderReady(ready, draining);
+
+            ready.clear();
+            for (Iterator<SequencedReorderBuffer<NamedWindowConsumerLatch>> it = draining.iterator(); it.hasNext();) {
+                List<NamedWindowConsumerLatch> items = it.next().next();
+                if (items == null) {
+                    it.remove();
+                }
+                else {
+                    ready.addAll(items);
+                }
+            }
+        }
+    }
+
+    private void processDispatchesReorderReady(List<NamedWindowConsumerLatch> ready, List<SequencedReorderBuffer<NamedWindowConsumerLatch>> draining) {
+        // deltas that a thread dispatched together are processed together, followed by delivery of results, same as with the blocking latches
+        List<NamedWindowConsumerLatch[]> groups = groupReorderByDispatch(ready);
+        for (int i = 0; i < groups.size(); i++) {
+            try {
+                if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qNamedWindowDispatch(exceptionHandlingService.getEngineURI());}
+                eventProcessingRWLock.acquireReadLock();
+                try {
+                    processDispatches(groups.get(i));
+                }
+                finally {
+                    eventProcessingRWLock.releaseReadLock();
+                    if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aNamedWindowDispatch();}
+                }
+                dispatchService.dispatch();
+            }
+            catch (RuntimeException ex) {
+                // release the drain role, the remaining deltas go out with the next drain of each buffer
+                for (SequencedReorderBuffer<NamedWindowConsumerLatch> buffer : draining) {
+                    List<NamedWindowConsumerLatch> unprocessed = new ArrayList<NamedWindowConsumerLatch>();
+                    for (NamedWindowConsumerLatch[] group : groups.subList(i + 1, groups.size())) {
+                        for (NamedWindowConsumerLatch latch : group) {
+                            if (((NamedWindowConsumerLatchReorder) latch).getBuffer() == buffer) {
+                                unprocessed.add(latch);
+                            }
+                        }
+                    }
+                    buffer.abandon(unprocessed);
+                }
+                draining.clear();
+                throw new EPException(ex);
+            }
+        }
+    }
+
+    /**
+     * Regroups released deltas by the dispatch that produced them.
+     * <p>
+     * The deltas of a dispatch to multiple named windows come from multiple reorder buffers and are therefore not adjacent.
+     * The order of deltas of each buffer is kept: each group takes, from every buffer, the deltas at the head of that buffer
+     * that belong to the same dispatch as the first remaining delta.
+     * @param ready deltas in the order of each buffer
+     * @return groups in processing order
+     */
+    protected static List<NamedWindowConsumerLatch[]> groupReorderByDispatch(List<NamedWindowConsumerLatch> ready) {
+        Map<SequencedReorderBuffer<NamedWindowConsumerLatch>, ArrayDeque<NamedWindowConsumerLatch>> perBuffer = new LinkedHashMap<SequencedReorderBuffer<NamedWindowConsumerLatch>, ArrayDeque<NamedWindowConsumerLatch>>();
+        for (NamedWindowConsumerLatch latch : ready) {
+            SequencedReorderBuffer<NamedWindowConsumerLatch> buffer = ((NamedWindowConsumerLatchReorder) latch).getBuffer();
+            ArrayDeque<NamedWindowConsumerLatch> queue = perBuffer.get(buffer);
+            if (queue == null) {
+                queue = new ArrayDeque<NamedWindowConsumerLatch>();
+                perBuffer.put(buffer, queue);
+            }
+            queue.add(latch);
+        }
+
+        List<NamedWindowConsumerLatch[]> groups = new ArrayList<NamedWindowConsumerLatch[]>(2);
+        List<NamedWindowConsumerLatch> group = new ArrayList<NamedWindowConsumerLatch>();
+        int remaining = ready.size();
+        while (remaining > 0) {
+            Object dispatchGroup = null;
+            for (ArrayDeque<NamedWindowConsumerLatch> queue : perBuffer.values()) {
+                if (!queue.isEmpty()) {
+                    dispatchGroup = ((NamedWindowConsumerLatchReorder) queue.peekFirst()).getDispatchGroup();
+                    break;
+                }
+            }
+
+            group.clear();
+            for (ArrayDeque<NamedWindowConsumerLatch> queue : perBuffer.values()) {
+                while (!queue.isEmpty() && ((NamedWindowConsumerLatchReorder) queue.peekFirst()).getDispatchGroup() == dispatchGroup) {
+                    group.add(queue.removeFirst());
+                }
+            }
+            remaining -= group.size();
+            groups.add(group.toArray(new NamedWindowConsumerLatch[group.size()]));
+        }
+        return groups;
+    }
+
     private void processDispatches(NamedWindowConsumerLatch[] dispatches) {
 
         if (dispatches.length == 1)
@@ -57,6 +57,7 @@ public interface NamedWindowMgmtService
      * @param eplExpression is the expression
      * @param statementName the name of the statement
      * @param isPrioritized if the engine is running with prioritized execution
+     * @param isOffHeapStorage if the named window keeps event property values off-heap
      * @return processor for the named window
      * @throws ViewProcessingException if the named window already exists
      */
@@ -71,6 +72,7 @@ public interface NamedWindowMgmtService
                                              boolean isEnableSubqueryIndexShare,
                                              boolean isBatchingDataWindow,
                                              boolean isVirtualDataWindow,
+                                             boolean isOffHeapStorage,
                                              Set<String> optionalUniqueKeyProps,
                                              String eventTypeAsName,
                                              StatementContext statementContextCreateWindow,
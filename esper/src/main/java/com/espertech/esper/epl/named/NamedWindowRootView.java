@@ -32,14 +32,16 @@ public class NamedWindowRootView
     private final boolean isChildBatching;
     private final boolean isEnableIndexShare;
     private final Set<String> optionalUniqueKeyProps;
+    private final boolean isOffHeapStorage;
 
-    public NamedWindowRootView(ValueAddEventProcessor revisionProcessor, boolean queryPlanLogging, MetricReportingService metricReportingService, EventType eventType, boolean childBatching, boolean isEnableIndexShare, Set<String> optionalUniqueKeyProps) {
+    public NamedWindowRootView(ValueAddEventProcessor revisionProcessor, boolean queryPlanLogging, MetricReportingService metricReportingService, EventType eventType, boolean childBatching, boolean isEnableIndexShare, Set<String> optionalUniqueKeyProps, boolean isOffHeapStorage) {
         this.revisionProcessor = revisionProcessor;
         this.queryPlanLogging = queryPlanLogging;
         this.eventType = eventType;
         this.isChildBatching = childBatching;
         this.isEnableIndexShare = isEnableIndexShare;
         this.optionalUniqueKeyProps = optionalUniqueKeyProps;
+        this.isOffHeapStorage = isOffHeapStorage;
     }
 
     public Set<String> getOptionalUniqueKeyProps() {
@@ -69,4 +71,8 @@ public class NamedWindowRootView
     public boolean isEnableIndexShare() {
         return isEnableIndexShare;
     }
+
+    public boolean isOffHeapStorage() {
+        return isOffHeapStorage;
+    }
 }
@@ -19,6 +19,7 @@ import com.espertech.esper.epl.join.table.EventTableUtil;
 import com.espertech.esper.epl.lookup.*;
 import com.espertech.esper.epl.spec.CreateIndexItem;
 import com.espertech.esper.epl.virtualdw.VirtualDWView;
+import com.espertech.esper.event.offheap.OffHeapEventStore;
 import com.espertech.esper.filter.FilterSpecCompiled;
 import com.espertech.esper.util.CollectionUtil;
 import com.espertech.esper.view.ViewSupport;
@@ -39,6 +40,7 @@ public class NamedWindowRootViewInstance extends ViewSupport
 
     private final EventTableIndexRepository indexRepository;
     private final Map<SubordWMatchExprLookupStrategy, EventTable[]> tablePerMultiLookup;
+    private final OffHeapEventStore offHeapEventStore;
 
     private Iterable<EventBean> dataWindowContents;
 
@@ -55,6 +57,7 @@ public class NamedWindowRootViewInstance extends ViewSupport
         }
 
         this.tablePerMultiLookup = new HashMap<SubordWMatchExprLookupStrategy, EventTable[]>();
+        this.offHeapEventStore = rootView.isOffHeapStorage() ? new OffHeapEventStore(rootView.getEventType()) : null;
     }
 
     public AgentInstanceContext getAgentInstanceContext() {
@@ -65,6 +68,14 @@ public class NamedWindowRootViewInstance extends ViewSupport
         return indexRepository;
     }
 
+    /**
+     * Returns the store for event property values kept off-heap, or null if the named window keeps events on-heap.
+     * @return off-heap store
+     */
+    public OffHeapEventStore getOffHeapEventStore() {
+        return offHeapEventStore;
+    }
+
     public IndexMultiKey[] getIndexes() {
         return indexRepository.getIndexDescriptors();
     }
@@ -99,6 +110,12 @@ public class NamedWindowRootViewInstance extends ViewSupport
                 table.remove(oldData);
             }
         }
+
+        // Events that left the data window move their values on-heap, for consumers that still hold them
+        if (offHeapEventStore != null)
+        {
+            offHeapEventStore.release(oldData);
+        }
     }
 
     /**
@@ -125,6 +142,12 @@ public class NamedWindowRootViewInstance extends ViewSupport
         }
         else
         {
+            // New events are replaced by handles to their values kept off-heap
+            if (offHeapEventStore != null)
+            {
+                newData = offHeapEventStore.store(newData);
+            }
+
             // Update indexes for fast deletion, if there are any
             for (EventTable table : indexRepository.getTables())
             {
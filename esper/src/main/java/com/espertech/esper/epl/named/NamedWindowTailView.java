@@ -91,6 +91,10 @@ public class NamedWindowTailView
         return consumersNonContext;
     }
 
+    public NamedWindowConsumerLatchFactory getLatchFactory() {
+        return latchFactory;
+    }
+
     public NamedWindowConsumerView addConsumer(NamedWindowConsumerDesc consumerDesc)
     {
         NamedWindowConsumerCallback consumerCallback = new NamedWindowConsumerCallback() {
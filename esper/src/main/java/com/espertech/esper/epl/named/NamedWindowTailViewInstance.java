@@ -42,6 +42,7 @@ public class NamedWindowTailViewInstance extends ViewSupport implements Iterable
 
     private volatile Map<EPStatementAgentInstanceHandle, List<NamedWindowConsumerView>> consumersInContext;  // handles as copy-on-write
     private volatile long numberOfEvents;
+    private volatile NamedWindowTailViewSnapshot snapshot;  // allocated by the first snapshot of a data window that supports it
 
     public NamedWindowTailViewInstance(NamedWindowRootViewInstance rootViewInstance, NamedWindowTailView tailView, NamedWindowProcessor namedWindowProcessor, AgentInstanceContext agentInstanceContext) {
         this.rootViewInstance = rootViewInstance;
@@ -69,6 +70,11 @@ public class NamedWindowTailViewInstance extends ViewSupport implements Iterable
             numberOfEvents += newData.length;
         }
 
+        NamedWindowTailViewSnapshot snapshot = this.snapshot;
+        if (snapshot != null) {
+            snapshot.update(newData, oldData);
+        }
+
         // Post to child views, only if there are listeners or subscribers
         if (tailView.getStatementResultService().isMakeNatural() || tailView.getStatementResultService().isMakeSynthetic())
         {
@@ -215,10 +221,29 @@ public class NamedWindowTailViewInstance extends ViewSupport implements Iterable
             return tailView.getRevisionProcessor().getSnapshot(agentInstanceContext.getEpStatementAgentInstanceHandle(), parent);
         }
 
+        // without filter there is no index to use, and a snapshot is taken without the agent instance lock
+        boolean fullScan = filter == null || filter.getParameters().length == 0;
+        NamedWindowTailViewSnapshot snapshot = this.snapshot;
+        if (snapshot != null && fullScan) {
+            EventBean[] events = snapshot.snapshot();
+            if (events != null) {
+                return Arrays.asList(events);
+            }
+        }
+
         agentInstanceContext.getEpStatementAgentInstanceHandle().getStatementAgentInstanceLock().acquireReadLock();
         try
         {
-            return snapshotNoLock(filter, annotations);
+            if (!isSnapshotSupported()) {
+                return snapshotNoLock(filter, annotations);
+            }
+            if (!fullScan) {
+                Collection<EventBean> indexedResult = rootViewInstance.snapshot(filter, annotations);
+                if (indexedResult != null) {
+                    return indexedResult;
+                }
+            }
+            return Arrays.asList(getAllocateSnapshot().snapshot(parent.iterator()));
         }
         finally
         {
@@ -336,6 +361,10 @@ public class NamedWindowTailViewInstance extends ViewSupport implements Iterable
     public void destroy()
     {
         consumersInContext = NamedWindowUtil.createConsumerMap(tailView.isPrioritized());
+        NamedWindowTailViewSnapshot snapshot = this.snapshot;
+        if (snapshot != null) {
+            snapshot.clear();
+        }
     }
 
     /**
@@ -351,6 +380,17 @@ public class NamedWindowTailViewInstance extends ViewSupport implements Iterable
         return tailView;
     }
 
+    private synchronized NamedWindowTailViewSnapshot getAllocateSnapshot() {
+        if (snapshot == null) {
+            snapshot = new NamedWindowTailViewSnapshot();
+        }
+        return snapshot;
+    }
+
+    private boolean isSnapshotSupported() {
+        return !tailView.isParentBatchWindow() && rootViewInstance.getVirtualDataWindow() == null && NamedWindowTailViewSnapshot.isSupported(parent, rootViewInstance);
+    }
+
     private void releaseTableLocks(AgentInstanceContext agentInstanceContext) {
         agentInstanceContext.getStatementContext().getTableExprEvaluatorContext().releaseAcquiredLocks();
     }
@@ -0,0 +1,189 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.named;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.view.View;
+import com.espertech.esper.view.window.KeepAllView;
+import com.espertech.esper.view.window.TimeWindowView;
+
+import java.util.*;
+
+/**
+ * Snapshot of the contents of a named window kept current by the changes that the named window posts,
+ * for taking consistent snapshots without the agent instance lock.
+ * <p>
+ * The snapshot keeps the contents at the time of the last snapshot and the events added and removed since.
+ * Taking a snapshot copies the changes while synchronized with the thread changing the named window
+ * and applies the changes to the prior contents afterwards, so that the cost under lock is proportional
+ * to the number of changes rather than the number of events in the named window.
+ * <p>
+ * The order of events in the snapshot is the order in which the events were added, therefore only
+ * data windows that keep events in that order can be snapshot: keep-all and time windows.
+ * Changes are no longer kept when there were more changes than events in the last snapshot,
+ * and the next snapshot then starts over from the named window contents.
+ */
+public class NamedWindowTailViewSnapshot
+{
+    private static final int MIN_CHANGES_RETAINED = 1024;
+
+    private EventBean[] contents;
+    private final ArrayList<EventBean> added = new ArrayList<EventBean>();
+    private final ArrayList<EventBean> removed = new ArrayList<EventBean>();
+
+    /**
+     * Returns an indicator whether snapshots can be taken of the data window.
+     * @param dataWindow data window view posting to the tail view
+     * @param rootView root view of the named window
+     * @return indicator
+     */
+    public static boolean isSupported(Object dataWindow, NamedWindowRootViewInstance rootView)
+    {
+        if (!(dataWindow instanceof KeepAllView) && !(dataWindow instanceof TimeWindowView)) {
+            return false;
+        }
+        return ((View) dataWindow).getParent() == rootView;
+    }
+
+    /**
+     * Record the changes posted by the named window.
+     * @param newData added events
+     * @param oldData removed events
+     */
+    public synchronized void update(EventBean[] newData, EventBean[] oldData)
+    {
+        if (contents == null) {
+            return;
+        }
+        if (newData != null) {
+            Collections.addAll(added, newData);
+        }
+        if (oldData != null) {
+            Collections.addAll(removed, oldData);
+        }
+        if (added.size() + removed.size() > Math.max(contents.length, MIN_CHANGES_RETAINED)) {
+            clear();
+        }
+    }
+
+    /**
+     * Returns a snapshot without the agent instance lock.
+     * @return snapshot or null when the snapshot must be started over by {@link #snapshot(Iterator)}
+     */
+    public EventBean[] snapshot()
+    {
+        EventBean[] prior;
+        EventBean[] addedArr;
+        EventBean[] removedArr;
+        synchronized (this) {
+            if (contents == null) {
+                return null;
+            }
+            prior = contents;
+            if (added.isEmpty() && removed.isEmpty()) {
+                return prior;
+            }
+            addedArr = added.toArray(new EventBean[added.size()]);
+            removedArr = removed.toArray(new EventBean[removed.size()]);
+        }
+
+        EventBean[] result = apply(prior, addedArr, removedArr);
+
+        synchronized (this) {
+            // another snapshot may have replaced the contents in the meantime, in which case its changes were consumed
+            if (contents == prior) {
+                contents = result;
+                added.subList(0, addedArr.length).clear();
+                removed.subList(0, removedArr.length).clear();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a snapshot, starting over from the named window contents when required.
+     * Requires the agent instance lock.
+     * @param windowContents iterator over the named window contents
+     * @return snapshot
+     */
+    public EventBean[] snapshot(Iterator<EventBean> windowContents)
+    {
+        synchronized (this) {
+            if (contents == null) {
+                ArrayList<EventBean> list = new ArrayList<EventBean>();
+                while (windowContents.hasNext()) {
+                    list.add(windowContents.next());
+                }
+                contents = list.toArray(new EventBean[list.size()]);
+                added.clear();
+                removed.clear();
+                return contents;
+            }
+        }
+        return snapshot();
+    }
+
+    /**
+     * Discard the snapshot.
+     */
+    public synchronized void clear()
+    {
+        contents = null;
+        added.clear();
+        added.trimToSize();
+        removed.clear();
+        removed.trimToSize();
+    }
+
+    /**
+     * Returns the contents after applying the changes.
+     * @param contents prior contents
+     * @param added events added in the order of adding
+     * @param removed events removed
+     * @return contents after changes
+     */
+    protected static EventBean[] apply(EventBean[] contents, EventBean[] added, EventBean[] removed)
+    {
+        if (removed.length == 0) {
+            EventBean[] result = new EventBean[contents.length + added.length];
+            System.arraycopy(contents, 0, result, 0, contents.length);
+            System.arraycopy(added, 0, result, contents.length, added.length);
+            return result;
+        }
+
+        // count removals per event, since the same event may be added and removed again
+        Map<EventBean, int[]> removals = new HashMap<EventBean, int[]>();
+        for (EventBean event : removed) {
+            int[] count = removals.get(event);
+            if (count == null) {
+                removals.put(event, new int[] {1});
+            }
+            else {
+                count[0]++;
+            }
+        }
+
+        ArrayList<EventBean> result = new ArrayList<EventBean>(Math.max(contents.length + added.length - removed.length, 16));
+        addUnlessRemoved(contents, removals, result);
+        addUnlessRemoved(added, removals, result);
+        return result.toArray(new EventBean[result.size()]);
+    }
+
+    private static void addUnlessRemoved(EventBean[] events, Map<EventBean, int[]> removals, ArrayList<EventBean> result)
+    {
+        for (EventBean event : events) {
+            int[] count = removals.get(event);
+            if (count != null && count[0] > 0) {
+                count[0]--;
+                continue;
+            }
+            result.add(event);
+        }
+    }
+}
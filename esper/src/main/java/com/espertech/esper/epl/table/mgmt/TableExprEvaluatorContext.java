@@ -11,7 +11,9 @@
 
 package com.espertech.esper.epl.table.mgmt;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
 
@@ -24,11 +26,87 @@ public class TableExprEvaluatorContext {
         }
     };
 
+    // a thread holds at most one row lock per table, so that threads never wait for a row lock while holding another of the same table
+    private final ThreadLocal<Map<TableStateInstanceGrouped, Lock>> rowLocksThreadLocal = new ThreadLocal<Map<TableStateInstanceGrouped, Lock>>()
+    {
+        protected synchronized Map<TableStateInstanceGrouped, Lock> initialValue()
+        {
+            return new HashMap<TableStateInstanceGrouped, Lock>();
+        }
+    };
+
+    // tables for which the thread holds all row locks, for reading rows other than by a single key
+    private final ThreadLocal<Set<TableStateInstanceGrouped>> allRowLocksThreadLocal = new ThreadLocal<Set<TableStateInstanceGrouped>>()
+    {
+        protected synchronized Set<TableStateInstanceGrouped> initialValue()
+        {
+            return new HashSet<TableStateInstanceGrouped>();
+        }
+    };
+
     public boolean addAcquiredLock(Lock lock) {
         return threadLocal.get().add(lock);
     }
 
+    /**
+     * Acquire the row lock, releasing the row lock of the same table that the thread holds, if any.
+     * @param table table state
+     * @param rowLock row lock to acquire
+     */
+    public void switchRowLock(TableStateInstanceGrouped table, Lock rowLock) {
+        Set<TableStateInstanceGrouped> allRowLocks = allRowLocksThreadLocal.get();
+        if (!allRowLocks.isEmpty() && allRowLocks.contains(table)) {
+            return;
+        }
+        Map<TableStateInstanceGrouped, Lock> rowLocks = rowLocksThreadLocal.get();
+        Lock held = rowLocks.get(table);
+        if (held == rowLock) {
+            return;
+        }
+        if (held != null) {
+            held.unlock();
+        }
+        rowLocks.put(table, rowLock);
+        rowLock.lock();
+    }
+
+    /**
+     * Acquire all row locks of the table in stripe order, first releasing the row lock of the same table that the thread holds, if any.
+     * The thread then never waits for a row lock while holding a higher stripe of the same table.
+     * @param table table state
+     */
+    public void acquireAllRowLocks(TableStateInstanceGrouped table) {
+        if (!allRowLocksThreadLocal.get().add(table)) {
+            return;
+        }
+        Lock held = rowLocksThreadLocal.get().remove(table);
+        if (held != null) {
+            held.unlock();
+        }
+        for (Lock rowLock : table.getRowLocks()) {
+            rowLock.lock();
+        }
+    }
+
     public void releaseAcquiredLocks() {
+        Set<TableStateInstanceGrouped> allRowLocks = allRowLocksThreadLocal.get();
+        if (!allRowLocks.isEmpty()) {
+            for (TableStateInstanceGrouped table : allRowLocks) {
+                for (Lock lock : table.getRowLocks()) {
+                    lock.unlock();
+                }
+            }
+            allRowLocks.clear();
+        }
+
+        Map<TableStateInstanceGrouped, Lock> rowLocks = rowLocksThreadLocal.get();
+        if (!rowLocks.isEmpty()) {
+            for (Lock lock : rowLocks.values()) {
+                lock.unlock();
+            }
+            rowLocks.clear();
+        }
+
         Set<Lock> locks = threadLocal.get();
         if (locks.isEmpty()) {
             return;
@@ -44,6 +44,7 @@ public class TableMetadata {
     private final ObjectArrayEventType publicEventType;
     private final TableMetadataInternalEventToPublic eventToPublic;
     private final boolean queryPlanLogging;
+    private final int lockStripes;
 
     private final Map<String, List<TableUpdateStrategyReceiverDesc>> stmtNameToUpdateStrategyReceivers = new HashMap<String, List<TableUpdateStrategyReceiverDesc>>();
     private final EventTableIndexMetadata eventTableIndexMetadataRepo = new EventTableIndexMetadata();
@@ -52,7 +53,7 @@ public class TableMetadata {
     private TableMetadataContext tableMetadataContext;
     private TableRowKeyFactory tableRowKeyFactory;
 
-    public TableMetadata(String tableName, String eplExpression, String statementName, Class[] keyTypes, Map<String, TableMetadataColumn> tableColumns, TableStateRowFactory rowFactory, int numberMethodAggregations, StatementContext createTableStatementContext, ObjectArrayEventType internalEventType, ObjectArrayEventType publicEventType, TableMetadataInternalEventToPublic eventToPublic, boolean queryPlanLogging)
+    public TableMetadata(String tableName, String eplExpression, String statementName, Class[] keyTypes, Map<String, TableMetadataColumn> tableColumns, TableStateRowFactory rowFactory, int numberMethodAggregations, StatementContext createTableStatementContext, ObjectArrayEventType internalEventType, ObjectArrayEventType publicEventType, TableMetadataInternalEventToPublic eventToPublic, boolean queryPlanLogging, int lockStripes)
             throws ExprValidationException
     {
         this.tableName = tableName;
@@ -67,6 +68,7 @@ public class TableMetadata {
         this.publicEventType = publicEventType;
         this.eventToPublic = eventToPublic;
         this.queryPlanLogging = queryPlanLogging;
+        this.lockStripes = lockStripes;
 
         if (keyTypes.length > 0) {
             Pair<int[], IndexMultiKey> pair = TableServiceUtil.getIndexMultikeyForKeys(tableColumns, internalEventType);
@@ -107,6 +109,14 @@ public class TableMetadata {
         return queryPlanLogging;
     }
 
+    /**
+     * Returns the number of lock stripes for row-level locking, or zero for table-level locking only.
+     * @return lock stripes
+     */
+    public int getLockStripes() {
+        return lockStripes;
+    }
+
     public Set<String> getUniqueKeyProps() {
         Set<String> keys = new LinkedHashSet<String>();
         for (Map.Entry<String, TableMetadataColumn> entry : tableColumns.entrySet()) {
@@ -142,6 +152,11 @@ public class TableMetadata {
     }
 
     public void validateAddIndexAssignUpdateStrategies(String createIndexStatementName, IndexMultiKey imk, String indexName) throws ExprValidationException {
+        // secondary indexes are not safe for rows added under a row-level lock
+        if (lockStripes > 0) {
+            throw new ExprValidationException("Table '" + tableName + "' uses row-level locking and does not allow secondary indexes");
+        }
+
         // add index - for now
         eventTableIndexMetadataRepo.addIndex(false, imk, indexName, createIndexStatementName, true, null);
 
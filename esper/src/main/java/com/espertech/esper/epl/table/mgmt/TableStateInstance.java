@@ -24,6 +24,7 @@ import com.espertech.esper.event.ObjectArrayBackedEventBean;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.Collection;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public abstract class TableStateInstance {
@@ -80,6 +81,14 @@ public abstract class TableStateInstance {
         return indexRepository;
     }
 
+    /**
+     * Returns the row lock stripes, or null when the table only has a table-level lock.
+     * @return row locks or null
+     */
+    public Lock[] getRowLocks() {
+        return null;
+    }
+
     public void handleRowUpdateKeyBeforeUpdate(ObjectArrayBackedEventBean updatedEvent) {
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().qaTableUpdatedEventWKeyBefore(updatedEvent);
@@ -16,6 +16,7 @@ import com.espertech.esper.epl.lookup.EventTableIndexRepository;
 import com.espertech.esper.event.ObjectArrayBackedEventBean;
 
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public interface TableStateInstanceGrouped {
@@ -23,6 +24,19 @@ public interface TableStateInstanceGrouped {
     ObjectArrayBackedEventBean getCreateRowIntoTable(Object groupByKey, ExprEvaluatorContext exprEvaluatorContext);
     void handleRowUpdated(ObjectArrayBackedEventBean row);
     ObjectArrayBackedEventBean getRowForGroupKey(Object groupKey);
+
+    /**
+     * Returns the lock stripe guarding the row for the group key, or null when the table only has a table-level lock.
+     * @param groupKey row key
+     * @return lock or null
+     */
+    Lock getRowLock(Object groupKey);
+
+    /**
+     * Returns all lock stripes in the order in which a thread must acquire them, or null when the table only has a table-level lock.
+     * @return row locks or null
+     */
+    Lock[] getRowLocks();
     Set<Object> getGroupKeys();
     void clear();
     EventTableIndexRepository getIndexRepository();
@@ -30,15 +30,32 @@ import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.util.CollectionUtil;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class TableStateInstanceGroupedImpl extends TableStateInstance implements TableStateInstanceGrouped {
 
-    private final Map<Object, ObjectArrayBackedEventBean> rows = new HashMap<Object, ObjectArrayBackedEventBean>();
+    private final Map<Object, ObjectArrayBackedEventBean> rows;
     private final IndexMultiKey primaryIndexKey;
+    private final Lock[] rowLocks;
 
     public TableStateInstanceGroupedImpl(TableMetadata tableMetadata, AgentInstanceContext agentInstanceContext) {
         super(tableMetadata, agentInstanceContext);
 
+        // with row-level locking rows get added and aggregated concurrently under the shared table-level lock
+        if (tableMetadata.getLockStripes() > 0) {
+            rows = new ConcurrentHashMap<Object, ObjectArrayBackedEventBean>();
+            rowLocks = new Lock[tableMetadata.getLockStripes()];
+            for (int i = 0; i < rowLocks.length; i++) {
+                rowLocks[i] = new ReentrantLock();
+            }
+        }
+        else {
+            rows = new HashMap<Object, ObjectArrayBackedEventBean>();
+            rowLocks = null;
+        }
+
         List<EventPropertyGetter> indexGetters = new ArrayList<EventPropertyGetter>();
         List<String> keyNames = new ArrayList<String>();
         for (Map.Entry<String, TableMetadataColumn> entry : tableMetadata.getTableColumns().entrySet()) {
@@ -79,6 +96,9 @@ public class TableStateInstanceGroupedImpl extends TableStateInstance implements
     }
 
     public void addEvent(EventBean theEvent) {
+        if (rowLocks != null && tableMetadata.getTableRowKeyFactory().getTableRowKey(((ObjectArrayBackedEventBean) theEvent).getProperties()) == null) {
+            throw new EPException("Table '" + tableMetadata.getTableName() + "' uses row-level locking and does not allow a null primary key value");
+        }
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qTableAddEvent(theEvent); }
         try {
             for (EventTable table : indexRepository.getTables()) {
@@ -125,9 +145,25 @@ public class TableStateInstanceGroupedImpl extends TableStateInstance implements
     }
 
     public ObjectArrayBackedEventBean getRowForGroupKey(Object groupKey) {
+        if (groupKey == null && rowLocks != null) {
+            return null;
+        }
         return rows.get(groupKey);
     }
 
+    public Lock getRowLock(Object groupKey) {
+        if (rowLocks == null) {
+            return null;
+        }
+        int hash = groupKey == null ? 0 : groupKey.hashCode();
+        hash ^= hash >>> 16;
+        return rowLocks[(hash & 0x7fffffff) % rowLocks.length];
+    }
+
+    public Lock[] getRowLocks() {
+        return rowLocks;
+    }
+
     public Set<Object> getGroupKeys() {
         return rows.keySet();
     }
@@ -148,7 +184,7 @@ public class TableStateInstanceGroupedImpl extends TableStateInstance implements
     }
 
     public ObjectArrayBackedEventBean getCreateRowIntoTable(Object groupByKey, ExprEvaluatorContext exprEvaluatorContext) {
-        ObjectArrayBackedEventBean bean = getRows().get(groupByKey);
+        ObjectArrayBackedEventBean bean = getRowForGroupKey(groupByKey);
         if (bean != null) {
             return bean;
         }
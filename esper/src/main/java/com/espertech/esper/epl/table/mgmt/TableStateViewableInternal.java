@@ -15,6 +15,8 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.FilteredEventIterator;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.table.strategy.ExprTableEvalLockUtil;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
 import com.espertech.esper.view.ViewSupport;
 
 import java.util.Iterator;
@@ -42,8 +44,42 @@ public class TableStateViewableInternal extends ViewSupport {
     public Iterator<EventBean> iterator() {
         Iterator<EventBean> it = tableStateInstance.getEventCollection().iterator();
         if (optionalTableFilters != null) {
-            return new FilteredEventIterator(optionalTableFilters, it, tableStateInstance.getAgentInstanceContext());
+            it = new FilteredEventIterator(optionalTableFilters, it, tableStateInstance.getAgentInstanceContext());
+        }
+        if (tableStateInstance.getRowLocks() != null) {
+            return new RowLockingIterator(tableStateInstance, it);
+        }
+        return it;
+    }
+
+    /**
+     * For tables with row-level locking, obtains the shared table lock and the row lock of each row returned.
+     * The statement iterator releases the locks once it has read the row.
+     */
+    private static class RowLockingIterator implements Iterator<EventBean> {
+        private final TableStateInstance tableStateInstance;
+        private final Iterator<EventBean> iterator;
+
+        private RowLockingIterator(TableStateInstance tableStateInstance, Iterator<EventBean> iterator) {
+            this.tableStateInstance = tableStateInstance;
+            this.iterator = iterator;
+        }
+
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        public EventBean next() {
+            EventBean event = iterator.next();
+            TableExprEvaluatorContext tableExprEvaluatorContext = tableStateInstance.getAgentInstanceContext().getTableExprEvaluatorContext();
+            ExprTableEvalLockUtil.obtainLockUnless(tableStateInstance.getTableLevelRWLock().readLock(), tableExprEvaluatorContext);
+            Object groupKey = tableStateInstance.getTableMetadata().getTableRowKeyFactory().getTableRowKey(((ObjectArrayBackedEventBean) event).getProperties());
+            ExprTableEvalLockUtil.obtainRowLockUnless((TableStateInstanceGrouped) tableStateInstance, groupKey, tableExprEvaluatorContext);
+            return event;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
         }
-        return tableStateInstance.getEventCollection().iterator();
     }
 }
@@ -13,9 +13,11 @@ package com.espertech.esper.epl.table.mgmt;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
 import com.espertech.esper.view.ViewSupport;
 
 import java.util.Iterator;
+import java.util.concurrent.locks.Lock;
 
 public class TableStateViewablePublic extends ViewSupport {
 
@@ -56,7 +58,22 @@ public class TableStateViewablePublic extends ViewSupport {
 
         public EventBean next() {
             EventBean event = iterator.next();
-            return eventToPublic.convert(event, null, true, tableStateInstance.getAgentInstanceContext());
+            if (tableStateInstance.getRowLocks() == null) {
+                return eventToPublic.convert(event, null, true, tableStateInstance.getAgentInstanceContext());
+            }
+
+            // with row-level locking, convert the row under its row lock so that concurrent aggregation does not change it half-way
+            Object groupKey = tableStateInstance.getTableMetadata().getTableRowKeyFactory().getTableRowKey(((ObjectArrayBackedEventBean) event).getProperties());
+            Lock rowLock = ((TableStateInstanceGrouped) tableStateInstance).getRowLock(groupKey);
+            tableStateInstance.getTableLevelRWLock().readLock().lock();
+            rowLock.lock();
+            try {
+                return eventToPublic.convert(event, null, true, tableStateInstance.getAgentInstanceContext());
+            }
+            finally {
+                rowLock.unlock();
+                tableStateInstance.getTableLevelRWLock().readLock().unlock();
+            }
         }
 
         public void remove() {
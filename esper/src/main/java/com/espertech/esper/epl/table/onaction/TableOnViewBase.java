@@ -21,6 +21,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.util.Iterator;
+import java.util.concurrent.locks.Lock;
 
 public abstract class TableOnViewBase extends ViewSupport implements StopCallback
 {
@@ -64,11 +65,23 @@ public abstract class TableOnViewBase extends ViewSupport implements StopCallbac
         }
         else {
             tableStateInstance.getTableLevelRWLock().readLock().lock();
+            // with row-level locking, writers aggregating into the table only hold the shared lock, so take all row locks in stripe order
+            Lock[] rowLocks = tableStateInstance.getRowLocks();
+            int rowLocksHeld = 0;
             try {
+                if (rowLocks != null) {
+                    for (Lock rowLock : rowLocks) {
+                        rowLock.lock();
+                        rowLocksHeld++;
+                    }
+                }
                 EventBean[] eventsFound = lookupStrategy.lookup(newData, exprEvaluatorContext);
                 handleMatching(newData, eventsFound);
             }
             finally {
+                for (int i = rowLocksHeld - 1; i >= 0; i--) {
+                    rowLocks[i].unlock();
+                }
                 tableStateInstance.getTableLevelRWLock().readLock().unlock();
             }
         }
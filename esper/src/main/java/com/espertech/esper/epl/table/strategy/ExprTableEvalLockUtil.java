@@ -11,9 +11,14 @@
 
 package com.espertech.esper.epl.table.strategy;
 
+import com.espertech.esper.client.EventBean;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.epl.table.mgmt.TableExprEvaluatorContext;
+import com.espertech.esper.epl.table.mgmt.TableStateInstance;
+import com.espertech.esper.epl.table.mgmt.TableStateInstanceGrouped;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
 
+import java.util.Collection;
 import java.util.concurrent.locks.Lock;
 
 public class ExprTableEvalLockUtil {
@@ -28,4 +33,62 @@ public class ExprTableEvalLockUtil {
             lock.lock();
         }
     }
+
+    public static void obtainRowLockUnless(TableStateInstanceGrouped grouped, Object groupKey, ExprEvaluatorContext exprEvaluatorContext) {
+        obtainRowLockUnless(grouped, groupKey, exprEvaluatorContext.getTableExprEvaluatorContext());
+    }
+
+    /**
+     * Obtain the row lock for the group key, unless the table has no row-level locking or the thread holds the table-level write lock.
+     * Requires that the thread holds the table-level read or write lock.
+     * @param grouped table
+     * @param groupKey row key
+     * @param tableExprEvaluatorContext lock holder
+     */
+    public static void obtainRowLockUnless(TableStateInstanceGrouped grouped, Object groupKey, TableExprEvaluatorContext tableExprEvaluatorContext) {
+        Lock rowLock = grouped.getRowLock(groupKey);
+        if (rowLock == null || grouped.getTableLevelRWLock().isWriteLockedByCurrentThread()) {
+            return;
+        }
+        tableExprEvaluatorContext.switchRowLock(grouped, rowLock);
+    }
+
+    public static void obtainAllRowLocksUnless(TableStateInstance instance, ExprEvaluatorContext exprEvaluatorContext) {
+        obtainAllRowLocksUnless(instance, exprEvaluatorContext.getTableExprEvaluatorContext());
+    }
+
+    /**
+     * Obtain all row locks of the table for reading rows other than by a single key, unless the table has no row-level locking
+     * or the thread holds the table-level write lock.
+     * Requires that the thread holds the table-level read or write lock.
+     * @param instance table
+     * @param tableExprEvaluatorContext lock holder
+     */
+    public static void obtainAllRowLocksUnless(TableStateInstance instance, TableExprEvaluatorContext tableExprEvaluatorContext) {
+        if (instance.getRowLocks() == null || instance.getTableLevelRWLock().isWriteLockedByCurrentThread()) {
+            return;
+        }
+        tableExprEvaluatorContext.acquireAllRowLocks((TableStateInstanceGrouped) instance);
+    }
+
+    /**
+     * Obtain the row locks for reading rows found by index lookup: the row lock of the row when there is a single row,
+     * otherwise all row locks, unless the table has no row-level locking or the thread holds the table-level write lock.
+     * Requires that the thread holds the table-level read or write lock.
+     * @param instance table
+     * @param rows rows found
+     * @param exprEvaluatorContext lock holder
+     */
+    public static void obtainRowLocksForRowsUnless(TableStateInstance instance, Collection<EventBean> rows, ExprEvaluatorContext exprEvaluatorContext) {
+        if (rows == null || rows.isEmpty() || instance.getRowLocks() == null) {
+            return;
+        }
+        if (rows.size() > 1) {
+            obtainAllRowLocksUnless(instance, exprEvaluatorContext);
+            return;
+        }
+        ObjectArrayBackedEventBean row = (ObjectArrayBackedEventBean) rows.iterator().next();
+        Object groupKey = instance.getTableMetadata().getTableRowKeyFactory().getTableRowKey(row.getProperties());
+        obtainRowLockUnless((TableStateInstanceGrouped) instance, groupKey, exprEvaluatorContext);
+    }
 }
@@ -26,6 +26,7 @@ public abstract class ExprTableEvalStrategyGroupByBase {
     protected ObjectArrayBackedEventBean lockTableReadAndGet(Object group, ExprEvaluatorContext context) {
         TableAndLockGrouped tableAndLockGrouped = provider.get();
         ExprTableEvalLockUtil.obtainLockUnless(tableAndLockGrouped.getLock(), context);
+        ExprTableEvalLockUtil.obtainRowLockUnless(tableAndLockGrouped.getGrouped(), group, context);
         return tableAndLockGrouped.getGrouped().getRowForGroupKey(group);
     }
 
@@ -17,10 +17,10 @@ public class VariableReader
 {
     private final VariableMetaData variableMetaData;
     private final VariableVersionThreadLocal versionThreadLocal;
-    private volatile VersionedValueList<Object> versionsHigh;
-    private volatile VersionedValueList<Object> versionsLow;
+    private volatile VersionedValues<Object> versionsHigh;
+    private volatile VersionedValues<Object> versionsLow;
 
-    public VariableReader(VariableMetaData variableMetaData, VariableVersionThreadLocal versionThreadLocal, VersionedValueList<Object> versionsLow) {
+    public VariableReader(VariableMetaData variableMetaData, VariableVersionThreadLocal versionThreadLocal, VersionedValues<Object> versionsLow) {
         this.variableMetaData = variableMetaData;
         this.versionThreadLocal = versionThreadLocal;
         this.versionsLow = versionsLow;
@@ -32,7 +32,7 @@ public class VariableReader
      * to use when requests over the version rollover boundary are made.
      * @param versionsHigh the list of versions for roll-over
      */
-    public void setVersionsHigh(VersionedValueList<Object> versionsHigh)
+    public void setVersionsHigh(VersionedValues<Object> versionsHigh)
     {
         this.versionsHigh = versionsHigh;
     }
@@ -41,7 +41,7 @@ public class VariableReader
      * Sets a new list of versioned-values to inquire against, for use when version numbers roll-over.
      * @param versionsLow the list of versions for read
      */
-    public void setVersionsLow(VersionedValueList<Object> versionsLow)
+    public void setVersionsLow(VersionedValues<Object> versionsLow)
     {
         this.versionsLow = versionsLow;
     }
@@ -65,7 +65,7 @@ public class VariableReader
         }
 
         int myVersion = entry.getVersion();
-        VersionedValueList<Object> versions = versionsLow;
+        VersionedValues<Object> versions = versionsLow;
         if (myVersion >= VariableServiceImpl.ROLLOVER_READER_BOUNDARY)
         {
             if (versionsHigh != null)
@@ -80,7 +80,7 @@ public class VariableReader
         return variableMetaData;
     }
 
-    public VersionedValueList<Object> getVersionsLow() {
+    public VersionedValues<Object> getVersionsLow() {
         return versionsLow;
     }
 }
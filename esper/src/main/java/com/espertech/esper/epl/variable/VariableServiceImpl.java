@@ -8,6 +8,7 @@
  **************************************************************************************/
 package com.espertech.esper.epl.variable;
 
+import com.espertech.esper.client.ConfigurationEngineDefaults;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.VariableValueException;
@@ -79,6 +80,11 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * newly created and any existing threads that read versions go against a (old) high-collection,
  * while new threads reading the reset version go against a new low-collection.
  * <p>
+ * With snapshot version storage, each variable holds a chain of immutable snapshots instead of the version list,
+ * and older versions are read without a lock as well. Old snapshots are released on write once no thread
+ * considers a version that old, as tracked by the threadlocal, or at the latest when the lifetime-old-version
+ * time period passed.
+ * <p>
  * The class also allows an optional state handler to be plugged in to handle persistence for variable state.
  * The state handler gets invoked when a variable changes value, and when a variable gets created
  * to obtain the current value from persistence, if any.
@@ -112,13 +118,14 @@ public class VariableServiceImpl implements VariableService
     private final ReadWriteLock readWriteLock;
 
     // Thread-local for the visible version per thread
-    private VariableVersionThreadLocal versionThreadLocal = new VariableVersionThreadLocal();
+    private VariableVersionThreadLocal versionThreadLocal;
 
     // Number of milliseconds that old versions of a variable are allowed to live
     private final long millisecondLifetimeOldVersions;
     private final TimeProvider timeProvider;
     private final EventAdapterService eventAdapterService;
     private final VariableStateHandler optionalStateHandler;
+    private final boolean isSnapshotStorage;
 
     private volatile int currentVersionNumber;
     private int currentVariableNumber;
@@ -132,20 +139,36 @@ public class VariableServiceImpl implements VariableService
      */
     public VariableServiceImpl(long millisecondLifetimeOldVersions, TimeProvider timeProvider, EventAdapterService eventAdapterService, VariableStateHandler optionalStateHandler)
     {
-        this(0, millisecondLifetimeOldVersions, timeProvider, eventAdapterService, optionalStateHandler);
+        this(0, millisecondLifetimeOldVersions, ConfigurationEngineDefaults.Variables.VersionStorage.LIST, timeProvider, eventAdapterService, optionalStateHandler);
+    }
+
+    /**
+     * Ctor.
+     * @param millisecondLifetimeOldVersions number of milliseconds a version may hang around before expiry
+     * @param versionStorage how versions of variable values are held
+     * @param timeProvider provides the current time
+     * @param optionalStateHandler a optional plug-in that may store variable state and retrieve state upon creation
+     * @param eventAdapterService event adapters
+     */
+    public VariableServiceImpl(long millisecondLifetimeOldVersions, ConfigurationEngineDefaults.Variables.VersionStorage versionStorage, TimeProvider timeProvider, EventAdapterService eventAdapterService, VariableStateHandler optionalStateHandler)
+    {
+        this(0, millisecondLifetimeOldVersions, versionStorage, timeProvider, eventAdapterService, optionalStateHandler);
     }
 
     /**
      * Ctor.
      * @param startVersion the first version number to start from
      * @param millisecondLifetimeOldVersions number of milliseconds a version may hang around before expiry
+     * @param versionStorage how versions of variable values are held
      * @param timeProvider provides the current time
      * @param optionalStateHandler a optional plug-in that may store variable state and retrieve state upon creation
      * @param eventAdapterService for finding event types
      */
-    protected VariableServiceImpl(int startVersion, long millisecondLifetimeOldVersions, TimeProvider timeProvider, EventAdapterService eventAdapterService, VariableStateHandler optionalStateHandler)
+    protected VariableServiceImpl(int startVersion, long millisecondLifetimeOldVersions, ConfigurationEngineDefaults.Variables.VersionStorage versionStorage, TimeProvider timeProvider, EventAdapterService eventAdapterService, VariableStateHandler optionalStateHandler)
     {
         this.millisecondLifetimeOldVersions = millisecondLifetimeOldVersions;
+        this.isSnapshotStorage = versionStorage == ConfigurationEngineDefaults.Variables.VersionStorage.SNAPSHOT;
+        this.versionThreadLocal = new VariableVersionThreadLocal(isSnapshotStorage);
         this.timeProvider = timeProvider;
         this.eventAdapterService = eventAdapterService;
         this.optionalStateHandler = optionalStateHandler;
@@ -157,7 +180,7 @@ public class VariableServiceImpl implements VariableService
     }
 
     public void destroy() {
-        versionThreadLocal = new VariableVersionThreadLocal();
+        versionThreadLocal = new VariableVersionThreadLocal(isSnapshotStorage);
     }
 
     public synchronized void removeVariableIfFound(String name) {
@@ -408,7 +431,7 @@ public class VariableServiceImpl implements VariableService
 
         // create new holder for versions
         long timestamp = timeProvider.getTime();
-        VersionedValueList<Object> valuePerVersion = new VersionedValueList<Object>(variableName, currentVersionNumber, initialState, timestamp, millisecondLifetimeOldVersions, readWriteLock.readLock(), HIGH_WATERMARK_VERSIONS, false);
+        VersionedValues<Object> valuePerVersion = makeVersions(variableName, currentVersionNumber, initialState, timestamp);
         Map<Integer, VariableReader> cps = variableVersionsPerCP.get(metaData.getVariableNumber());
         VariableReader reader = new VariableReader(metaData, versionThreadLocal, valuePerVersion);
         cps.put(agentInstanceId, reader);
@@ -491,7 +514,7 @@ public class VariableServiceImpl implements VariableService
         for (Map.Entry<Integer, Pair<Integer, Object>> uncommittedEntry : entry.getUncommitted().entrySet()) {
             Map<Integer, VariableReader> cps = variableVersionsPerCP.get(uncommittedEntry.getKey());
             VariableReader reader = cps.get(uncommittedEntry.getValue().getFirst());
-            VersionedValueList<Object> versions = reader.getVersionsLow();
+            VersionedValues<Object> versions = reader.getVersionsLow();
 
             // add new value as a new version
             Object newValue = uncommittedEntry.getValue().getSecond();
@@ -539,9 +562,9 @@ public class VariableServiceImpl implements VariableService
                 long timestamp = timeProvider.getTime();
 
                 // Construct a new collection, forgetting the history
-                VersionedValueList<Object> versionsOld = entry.getValue().getVersionsLow();
-                Object currentValue = versionsOld.getCurrentAndPriorValue().getCurrentVersion().getValue();
-                VersionedValueList<Object> versionsNew = new VersionedValueList<Object>(name, 1, currentValue, timestamp, millisecondLifetimeOldVersions, readWriteLock.readLock(), HIGH_WATERMARK_VERSIONS, false);
+                VersionedValues<Object> versionsOld = entry.getValue().getVersionsLow();
+                Object currentValue = versionsOld.getCurrentValue();
+                VersionedValues<Object> versionsNew = makeVersions(name, 1, currentValue, timestamp);
 
                 // Tell the reader to use the high collection for old requests
                 entry.getValue().setVersionsHigh(versionsOld);
@@ -550,6 +573,14 @@ public class VariableServiceImpl implements VariableService
         }
     }
 
+    private VersionedValues<Object> makeVersions(String name, int version, Object value, long timestamp)
+    {
+        if (isSnapshotStorage) {
+            return new VersionedValueSnapshotList<Object>(name, version, value, timestamp, millisecondLifetimeOldVersions, versionThreadLocal, false);
+        }
+        return new VersionedValueList<Object>(name, version, value, timestamp, millisecondLifetimeOldVersions, readWriteLock.readLock(), HIGH_WATERMARK_VERSIONS, false);
+    }
+
     public void checkAndWrite(String variableName, int agentInstanceId, Object newValue) throws VariableValueException
     {
         VariableMetaData metaData = variables.get(variableName);
@@ -603,7 +634,7 @@ public class VariableServiceImpl implements VariableService
         for (Map.Entry<String, VariableMetaData> entryMeta : variables.entrySet()) {
             int variableNum = entryMeta.getValue().getVariableNumber();
             for (Map.Entry<Integer, VariableReader> entry : variableVersionsPerCP.get(variableNum).entrySet()) {
-                VersionedValueList<Object> list = entry.getValue().getVersionsLow();
+                VersionedValues<Object> list = entry.getValue().getVersionsLow();
                 writer.write("Variable '" + entry.getKey() + "' : " + list.toString() + "\n");
             }
         }
@@ -17,7 +17,7 @@ import java.util.Map;
  */
 public class VariableVersionThreadEntry
 {
-    private Integer version;
+    private int version;    // read by writing threads for releasing versions, a stale value is an older version
     private Map<Integer, Pair<Integer, Object>> uncommitted;
 
     /**
@@ -35,7 +35,7 @@ public class VariableVersionThreadEntry
      * Returns the version visible for a thread.
      * @return version number
      */
-    public Integer getVersion()
+    public int getVersion()
     {
         return version;
     }
@@ -44,7 +44,7 @@ public class VariableVersionThreadEntry
      * Sets the version visible for a thread.
      * @param version version number
      */
-    public void setVersion(Integer version)
+    public void setVersion(int version)
     {
         this.version = version;
     }
@@ -8,24 +8,43 @@
  **************************************************************************************/
 package com.espertech.esper.epl.variable;
 
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 /**
  * A wrapper for a thread-local to hold the current version for variables visible for a thread, as well
  * as uncommitted values of variables for a thread. 
+ * <p>
+ * When tracking versions, the thread-local also keeps a weak reference to each thread's entry so that
+ * writers can determine the oldest version that any thread may still read.
  */
 public class VariableVersionThreadLocal
 {
     private ThreadLocal<VariableVersionThreadEntry> perThreadVersion;
+    private final Queue<WeakReference<VariableVersionThreadEntry>> entries;
 
     /**
      * Ctor.
      */
     public VariableVersionThreadLocal()
     {
+        this(false);
+    }
+
+    /**
+     * Ctor.
+     * @param trackVersions true to keep track of the version visible to each thread, see {@link #getOldestVersion()}
+     */
+    public VariableVersionThreadLocal(boolean trackVersions)
+    {
+        entries = trackVersions ? new ConcurrentLinkedQueue<WeakReference<VariableVersionThreadEntry>>() : null;
         perThreadVersion = new ThreadLocal<VariableVersionThreadEntry>()
         {
             protected synchronized VariableVersionThreadEntry initialValue()
             {
-                return new VariableVersionThreadEntry(0, null);
+                return newEntry();
             }
         };
     }
@@ -39,9 +58,49 @@ public class VariableVersionThreadLocal
         VariableVersionThreadEntry entry = perThreadVersion.get();
         if (entry == null)
         {
-            entry = new VariableVersionThreadEntry(0, null);
+            entry = newEntry();
             perThreadVersion.set(entry);
         }
         return entry;        
     }
+
+    /**
+     * Returns the oldest version visible to any live thread, for use when tracking versions.
+     * <p>
+     * The version of another thread is read without synchronization and may be stale, in which case
+     * it is older than the thread's actual version.
+     * @return oldest version, or Integer.MAX_VALUE if no thread has an entry or versions are not tracked
+     */
+    public int getOldestVersion()
+    {
+        if (entries == null)
+        {
+            return Integer.MAX_VALUE;
+        }
+        int oldest = Integer.MAX_VALUE;
+        for (Iterator<WeakReference<VariableVersionThreadEntry>> it = entries.iterator(); it.hasNext();)
+        {
+            VariableVersionThreadEntry entry = it.next().get();
+            if (entry == null)
+            {
+                it.remove();    // thread is gone
+                continue;
+            }
+            if (entry.getVersion() < oldest)
+            {
+                oldest = entry.getVersion();
+            }
+        }
+        return oldest;
+    }
+
+    private VariableVersionThreadEntry newEntry()
+    {
+        VariableVersionThreadEntry entry = new VariableVersionThreadEntry(0, null);
+        if (entries != null)
+        {
+            entries.add(new WeakReference<VariableVersionThreadEntry>(entry));
+        }
+        return entry;
+    }
 }
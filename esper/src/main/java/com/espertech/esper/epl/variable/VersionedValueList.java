@@ -30,7 +30,7 @@ import com.espertech.esper.util.ExecutionPathDebugLog;
  * If an older version is requested then held by the list, the list can either throw an exception
  * or return the current value. 
  */
-public class VersionedValueList<T>
+public class VersionedValueList<T> implements VersionedValues<T>
 {
     private static final Log log = LogFactory.getLog(VersionedValueList.class);
 
@@ -220,6 +220,11 @@ public class VersionedValueList<T>
         return currentAndPriorValue.getPriorVersion().getValue();
     }
 
+    public T getCurrentValue()
+    {
+        return currentAndPriorValue.getCurrentVersion().getValue();
+    }
+
     /**
      * Returns the current and prior version.
      * @return value
@@ -0,0 +1,170 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.variable;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * A chain of immutable versioned-value snapshots for lock-free reads.
+ * <p>
+ * Each write publishes a new snapshot that links to the prior snapshot through a volatile reference. Readers
+ * load the newest snapshot and follow the links to the first snapshot that is as old or older than the version
+ * they look for, without ever taking a lock.
+ * <p>
+ * Old snapshots are released by the writer by unlinking them: a snapshot is kept while a thread may read it, considering
+ * the oldest version visible to any thread as provided by the {@link VariableVersionThreadLocal}. A thread that has not
+ * moved to a newer version within the lifetime of old versions does not keep snapshots beyond that lifetime.
+ * <p>
+ * If an older version is requested then held by the list, the list can either throw an exception
+ * or return the current value.
+ */
+public class VersionedValueSnapshotList<T> implements VersionedValues<T>
+{
+    private static final Log log = LogFactory.getLog(VersionedValueSnapshotList.class);
+
+    private final String name;
+    private final long millisecondLifetimeOldVersions;
+    private final VariableVersionThreadLocal versionThreadLocal;
+    private final boolean errorWhenNotFound;
+
+    private volatile Snapshot<T> newest;
+
+    /**
+     * Ctor.
+     * @param name variable name
+     * @param initialVersion first version number
+     * @param initialValue first value
+     * @param timestamp timestamp of first version
+     * @param millisecondLifetimeOldVersions number of milliseconds after which older versions get released regardless of readers
+     * @param versionThreadLocal provides the oldest version visible to any thread
+     * @param errorWhenNotFound true if an exception should be throw if the requested version cannot be found,
+     * or false if the engine should log a warning
+     */
+    public VersionedValueSnapshotList(String name, int initialVersion, T initialValue, long timestamp, long millisecondLifetimeOldVersions, VariableVersionThreadLocal versionThreadLocal, boolean errorWhenNotFound)
+    {
+        this.name = name;
+        this.millisecondLifetimeOldVersions = millisecondLifetimeOldVersions;
+        this.versionThreadLocal = versionThreadLocal;
+        this.errorWhenNotFound = errorWhenNotFound;
+        this.newest = new Snapshot<T>(initialVersion, initialValue, timestamp, null);
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public T getVersion(int versionAndOlder)
+    {
+        Snapshot<T> snapshot = newest;
+        if (snapshot.version <= versionAndOlder)
+        {
+            return snapshot.value;
+        }
+
+        Snapshot<T> prior = snapshot.prior;
+        while (prior != null)
+        {
+            if (prior.version <= versionAndOlder)
+            {
+                return prior.value;
+            }
+            prior = prior.prior;
+        }
+
+        String text = "Variables value for version '" + versionAndOlder + "' and older could not be found" +
+            " (currentVersion=" + snapshot.version + " numVersions=" + getNumVersions() + ")";
+        if (errorWhenNotFound)
+        {
+            throw new IllegalStateException(text);
+        }
+        log.warn(text);
+        return snapshot.value;
+    }
+
+    public Object addValue(int version, T value, long timestamp)
+    {
+        Snapshot<T> prior = newest;
+        newest = new Snapshot<T>(version, value, timestamp, prior);
+        release(prior, timestamp);
+        return prior.value;
+    }
+
+    public T getCurrentValue()
+    {
+        return newest.value;
+    }
+
+    /**
+     * Returns the number of versions held, for testing purposes.
+     * @return number of versions
+     */
+    protected int getNumVersions()
+    {
+        int count = 0;
+        for (Snapshot<T> snapshot = newest; snapshot != null; snapshot = snapshot.prior)
+        {
+            count++;
+        }
+        return count;
+    }
+
+    public String toString()
+    {
+        StringBuilder buffer = new StringBuilder();
+        buffer.append("Variable '").append(name).append("' ");
+        int count = 0;
+        for (Snapshot<T> snapshot = newest; snapshot != null; snapshot = snapshot.prior)
+        {
+            buffer.append(" version(").append(count).append(")=").append(snapshot.version).append(" ").append(snapshot.value);
+            count++;
+        }
+        return buffer.toString();
+    }
+
+    // The snapshot just replaced is always kept. A snapshot older than that is kept while it may be read:
+    // its successor must not yet be expired, and the oldest version visible to a thread must be older than the successor.
+    private void release(Snapshot<T> prior, long timestamp)
+    {
+        if (prior.prior == null)
+        {
+            return;
+        }
+
+        long expireBefore = timestamp - millisecondLifetimeOldVersions;
+        int oldestVersion = versionThreadLocal.getOldestVersion();
+        Snapshot<T> snapshot = prior;
+        while (snapshot.prior != null)
+        {
+            if (snapshot.timestamp <= expireBefore || snapshot.version <= oldestVersion)
+            {
+                snapshot.prior = null;
+                break;
+            }
+            snapshot = snapshot.prior;
+        }
+    }
+
+    private static class Snapshot<T>
+    {
+        private final int version;
+        private final T value;
+        private final long timestamp;
+        private volatile Snapshot<T> prior;
+
+        private Snapshot(int version, T value, long timestamp, Snapshot<T> prior)
+        {
+            this.version = version;
+            this.value = value;
+            this.timestamp = timestamp;
+            this.prior = prior;
+        }
+    }
+}
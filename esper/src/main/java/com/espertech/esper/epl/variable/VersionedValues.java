@@ -0,0 +1,43 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.variable;
+
+/**
+ * Holds the versions of a variable value for reading a version, or the next-older version, visible to a thread.
+ */
+public interface VersionedValues<T>
+{
+    /**
+     * Returns the name of the value stored.
+     * @return value name
+     */
+    public String getName();
+
+    /**
+     * Retrieve a value for the given version or older then then given version.
+     * @param versionAndOlder the version we are looking for
+     * @return value for the version or the next older version, ignoring newer versions
+     */
+    public T getVersion(int versionAndOlder);
+
+    /**
+     * Add a value and version, returning the prior value of the variable.
+     * @param version for the value to add
+     * @param value to add
+     * @param timestamp the time associated with the version
+     * @return prior value
+     */
+    public Object addValue(int version, T value, long timestamp);
+
+    /**
+     * Returns the value of the newest version.
+     * @return current value
+     */
+    public T getCurrentValue();
+}
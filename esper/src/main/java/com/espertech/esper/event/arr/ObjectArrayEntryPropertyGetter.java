@@ -13,6 +13,7 @@ import com.espertech.esper.client.PropertyAccessException;
 import com.espertech.esper.event.BaseNestableEventUtil;
 import com.espertech.esper.event.EventAdapterService;
 import com.espertech.esper.event.bean.BeanEventType;
+import com.espertech.esper.event.offheap.OffHeapObjectArrayEventBean;
 
 /**
  * A getter for use with Map-based events simply returns the value for the key.
@@ -45,6 +46,9 @@ public class ObjectArrayEntryPropertyGetter implements ObjectArrayEventPropertyG
 
     public Object get(EventBean obj)
     {
+        if (obj instanceof OffHeapObjectArrayEventBean) {
+            return ((OffHeapObjectArrayEventBean) obj).getProperty(propertyIndex);
+        }
         Object[] arr = BaseNestableEventUtil.checkedCastUnderlyingObjectArray(obj);
         return getObjectArray(arr);
     }
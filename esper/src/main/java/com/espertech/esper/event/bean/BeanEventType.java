@@ -399,7 +399,15 @@ public class BeanEventType implements EventTypeSPI, NativeEventType
                         // Ignore property
                         continue;
                     }
-                    getter = new ReflectionPropFieldGetter(desc.getAccessorField(), eventAdapterService);
+                    getter = null;
+                    if (fastClass != null)
+                    {
+                        getter = GeneratedPropertyGetterFactory.make(desc.getAccessorField(), eventAdapterService);
+                    }
+                    if (getter == null)
+                    {
+                        getter = new ReflectionPropFieldGetter(desc.getAccessorField(), eventAdapterService);
+                    }
                     type = desc.getAccessorField().getType();
                 }
 
@@ -0,0 +1,218 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.vaevent.PropertyUtility;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * Base class for property getters generated by {@link GeneratedPropertyGetterFactory}.
+ * <p>
+ * The generated subclass reads the property by direct invocation of the read method or direct field access
+ * for each element of the property path, without reflection and without argument arrays.
+ * Properties of a primitive numeric type that are not nested can in addition be read as a primitive double value,
+ * and those of a primitive integral type as a primitive long value.
+ */
+public abstract class GeneratedPropertyGetterBase extends BaseNativePropertyGetter implements BeanEventPropertyGetter
+{
+    private final Member[] chain;
+    private final BeanEventPropertyGetter[] elementGetters;
+    private final boolean doubleReadable;
+    private final boolean longReadable;
+
+    /**
+     * Ctor.
+     * @param chain read method or field for each element of the property path
+     * @param elementGetters getters for each element of a nested property path, or null if the property is not nested
+     * @param eventAdapterService factory for event beans and event types
+     * @param returnType type of the property value
+     * @param genericType generic type parameter of the property value, if any
+     * @param doubleReadable indicator whether the generated class reads the property as a primitive double value
+     */
+    protected GeneratedPropertyGetterBase(Member[] chain, BeanEventPropertyGetter[] elementGetters, EventAdapterService eventAdapterService, Class returnType, Class genericType, boolean doubleReadable) {
+        super(eventAdapterService, returnType, genericType);
+        this.chain = chain;
+        this.elementGetters = elementGetters;
+        this.doubleReadable = doubleReadable;
+        this.longReadable = doubleReadable && GeneratedPropertyGetterFactory.isLongReadable(returnType);
+    }
+
+    /**
+     * Reads the property value, implemented by the generated class.
+     * @param object to read
+     * @return property value
+     */
+    protected abstract Object read(Object object);
+
+    /**
+     * Reads the property value as a double, implemented by the generated class when the getter is double-readable.
+     * @param object to read
+     * @return property value
+     */
+    protected double readDouble(Object object) {
+        throw new UnsupportedOperationException("Property is not readable as double: " + this);
+    }
+
+    /**
+     * Reads the property value as a long, implemented by the generated class when the getter is long-readable.
+     * @param object to read
+     * @return property value
+     */
+    protected long readLong(Object object) {
+        throw new UnsupportedOperationException("Property is not readable as long: " + this);
+    }
+
+    public final Object getBeanProp(Object object) throws PropertyAccessException
+    {
+        try
+        {
+            return read(object);
+        }
+        catch (ClassCastException e)
+        {
+            throw getMismatchException(object, e);
+        }
+        catch (RuntimeException e)
+        {
+            throw getInvocationException(e);
+        }
+    }
+
+    /**
+     * Returns the property value of the underlying object as a double, for use with getters that are double-readable.
+     * @param object to read
+     * @return property value
+     * @throws PropertyAccessException if the property cannot be read
+     */
+    public final double getBeanPropDouble(Object object) throws PropertyAccessException
+    {
+        try
+        {
+            return readDouble(object);
+        }
+        catch (ClassCastException e)
+        {
+            throw getMismatchException(object, e);
+        }
+        catch (RuntimeException e)
+        {
+            throw getInvocationException(e);
+        }
+    }
+
+    /**
+     * Returns the property value of the underlying object as a long, for use with getters that are long-readable.
+     * @param object to read
+     * @return property value
+     * @throws PropertyAccessException if the property cannot be read
+     */
+    public final long getBeanPropLong(Object object) throws PropertyAccessException
+    {
+        try
+        {
+            return readLong(object);
+        }
+        catch (ClassCastException e)
+        {
+            throw getMismatchException(object, e);
+        }
+        catch (RuntimeException e)
+        {
+            throw getInvocationException(e);
+        }
+    }
+
+    /**
+     * Returns true if the property is a non-nested property of a primitive numeric type that can be read as a double
+     * by {@link #getBeanPropDouble(Object)}.
+     * @return indicator
+     */
+    public boolean isDoubleReadable() {
+        return doubleReadable;
+    }
+
+    /**
+     * Returns true if the property is a non-nested property of a primitive integral type that can be read as a long
+     * by {@link #getBeanPropLong(Object)}.
+     * @return indicator
+     */
+    public boolean isLongReadable() {
+        return longReadable;
+    }
+
+    /**
+     * Returns the read method or field for each element of the property path.
+     * @return chain
+     */
+    public Member[] getChain() {
+        return chain;
+    }
+
+    public boolean isBeanExistsProperty(Object object)
+    {
+        if (elementGetters == null) {
+            return true; // Property exists as the property is not dynamic (unchecked)
+        }
+        if (object == null) {
+            return false;
+        }
+
+        // any null values in between mean the property does not exists
+        Object value = object;
+        for (int i = 0; i < elementGetters.length - 1; i++) {
+            value = elementGetters[i].getBeanProp(value);
+            if (value == null) {
+                return false;
+            }
+        }
+        return elementGetters[elementGetters.length - 1].isBeanExistsProperty(value);
+    }
+
+    public final Object get(EventBean obj) throws PropertyAccessException
+    {
+        return getBeanProp(obj.getUnderlying());
+    }
+
+    public boolean isExistsProperty(EventBean eventBean)
+    {
+        return isBeanExistsProperty(eventBean.getUnderlying());
+    }
+
+    public String toString()
+    {
+        return "GeneratedPropertyGetter chain=" + Arrays.toString(chain);
+    }
+
+    private PropertyAccessException getMismatchException(Object object, ClassCastException e) {
+        if (chain[0] instanceof Method) {
+            return PropertyUtility.getMismatchException((Method) chain[0], object, e);
+        }
+        return PropertyUtility.getMismatchException((Field) chain[0], object, e);
+    }
+
+    private PropertyAccessException getInvocationException(RuntimeException e) {
+        if (e instanceof PropertyAccessException) {
+            return (PropertyAccessException) e;
+        }
+        for (Member member : chain) {
+            if (member instanceof Method) {
+                return PropertyUtility.getInvocationTargetException((Method) member, new InvocationTargetException(e));
+            }
+        }
+        return new PropertyAccessException("Failed to read field " + chain[0].getName() + ": " + e.getMessage(), e);
+    }
+}
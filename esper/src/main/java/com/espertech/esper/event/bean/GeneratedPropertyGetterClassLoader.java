@@ -0,0 +1,39 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.event.bean;
+
+import java.util.Map;
+
+/**
+ * Class loader for a single generated property getter class.
+ * <p>
+ * The classes of the property path are resolved to the exact classes that the getter was generated for,
+ * since they may not be visible to the engine class loader. All other classes resolve through the parent.
+ */
+class GeneratedPropertyGetterClassLoader extends ClassLoader
+{
+    private final Map<String, Class> referencedClasses;
+
+    GeneratedPropertyGetterClassLoader(ClassLoader parent, Map<String, Class> referencedClasses) {
+        super(parent);
+        this.referencedClasses = referencedClasses;
+    }
+
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        Class clazz = referencedClasses.get(name);
+        if (clazz != null) {
+            return clazz;
+        }
+        return super.loadClass(name, resolve);
+    }
+
+    Class defineClass(String name, byte[] bytes) {
+        return defineClass(name, bytes, 0, bytes.length);
+    }
+}
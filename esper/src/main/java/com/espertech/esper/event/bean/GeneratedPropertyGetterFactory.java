@@ -0,0 +1,257 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.util.JavaClassHelper;
+import net.sf.cglib.asm.ClassWriter;
+import net.sf.cglib.asm.Label;
+import net.sf.cglib.asm.MethodVisitor;
+import net.sf.cglib.asm.Opcodes;
+import net.sf.cglib.asm.Type;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates a property getter class per property path of a JavaBean event type.
+ * <p>
+ * The generated class casts the underlying object and invokes the read method, or reads the field, of each element
+ * of the property path directly. This avoids the argument array, the boxing of the result and the switch of the
+ * CGLib fast method, as well as the chain of getters for nested properties.
+ * Only public read methods and public fields declared by public classes can be invoked by generated code.
+ * For any other property the factory returns null and the caller uses the CGLib or reflection getter instead.
+ */
+public class GeneratedPropertyGetterFactory
+{
+    private static final Log log = LogFactory.getLog(GeneratedPropertyGetterFactory.class);
+
+    private static final AtomicLong classNumber = new AtomicLong();
+
+    private static final String CLASS_NAME_PREFIX = GeneratedPropertyGetterFactory.class.getName().replace("Factory", "");
+    private static final String BASE_CLASS = Type.getInternalName(GeneratedPropertyGetterBase.class);
+    private static final String OBJECT_DESC = Type.getDescriptor(Object.class);
+    private static final String CTOR_DESC = "(" + Type.getDescriptor(Member[].class) + Type.getDescriptor(BeanEventPropertyGetter[].class) +
+            Type.getDescriptor(EventAdapterService.class) + Type.getDescriptor(Class.class) + Type.getDescriptor(Class.class) + "Z)V";
+
+    private static final int LOCAL_OBJECT = 1;
+    private static final int LOCAL_VALUE = 2;
+
+    /**
+     * Returns a generated getter for a read method or field, or null if the member cannot be invoked by generated code
+     * or is a read method that declares exceptions.
+     * @param member read method or field
+     * @param eventAdapterService factory for event beans and event types
+     * @return getter or null
+     */
+    public static GeneratedPropertyGetterBase make(Member member, EventAdapterService eventAdapterService) {
+        if (!isAccessible(member)) {
+            return null;
+        }
+        Class returnType;
+        Class genericType;
+        if (member instanceof Method) {
+            returnType = ((Method) member).getReturnType();
+            genericType = JavaClassHelper.getGenericReturnType((Method) member, true);
+        }
+        else {
+            returnType = ((Field) member).getType();
+            genericType = JavaClassHelper.getGenericFieldType((Field) member, true);
+        }
+        boolean doubleReadable = returnType.isPrimitive() && JavaClassHelper.isNumeric(returnType);
+        return generate(new Member[] {member}, null, eventAdapterService, returnType, genericType, doubleReadable);
+    }
+
+    /**
+     * Returns a generated getter for a nested property path, or null if any of the element getters is not itself generated.
+     * @param getters getter for each element of the property path
+     * @param eventAdapterService factory for event beans and event types
+     * @param finalPropertyType type of the property value
+     * @param finalGenericType generic type parameter of the property value, if any
+     * @return getter or null
+     */
+    public static GeneratedPropertyGetterBase makeNested(List<EventPropertyGetter> getters, EventAdapterService eventAdapterService, Class finalPropertyType, Class finalGenericType) {
+        List<Member> chain = new ArrayList<Member>();
+        BeanEventPropertyGetter[] elementGetters = new BeanEventPropertyGetter[getters.size()];
+        for (int i = 0; i < getters.size(); i++) {
+            if (!(getters.get(i) instanceof GeneratedPropertyGetterBase)) {
+                return null;
+            }
+            GeneratedPropertyGetterBase getter = (GeneratedPropertyGetterBase) getters.get(i);
+            for (Member member : getter.getChain()) {
+                chain.add(member);
+            }
+            elementGetters[i] = getter;
+        }
+        return generate(chain.toArray(new Member[chain.size()]), elementGetters, eventAdapterService, finalPropertyType, finalGenericType, false);
+    }
+
+    /**
+     * Returns true for the primitive integral types that a getter reads as a long value.
+     * @param type property type
+     * @return indicator
+     */
+    protected static boolean isLongReadable(Class type) {
+        return type == long.class || type == int.class || type == short.class || type == byte.class;
+    }
+
+    private static boolean isAccessible(Member member) {
+        if (!(member instanceof Method) && !(member instanceof Field)) {
+            return false;
+        }
+        if (member instanceof Method && ((Method) member).getParameterTypes().length != 0) {
+            return false;
+        }
+        // generated code would let a checked exception of the read method escape undeclared, the reflection getter wraps it
+        if (member instanceof Method && ((Method) member).getExceptionTypes().length != 0) {
+            return false;
+        }
+        int modifiers = member.getModifiers();
+        return Modifier.isPublic(modifiers) && !Modifier.isStatic(modifiers) && Modifier.isPublic(member.getDeclaringClass().getModifiers());
+    }
+
+    private static GeneratedPropertyGetterBase generate(Member[] chain, BeanEventPropertyGetter[] elementGetters, EventAdapterService eventAdapterService,
+                                                        Class returnType, Class genericType, boolean doubleReadable) {
+        String className = CLASS_NAME_PREFIX + classNumber.incrementAndGet();
+        try {
+            ClassWriter cw = new GeneratedPropertyGetterClassWriter();
+            cw.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className.replace('.', '/'), null, BASE_CLASS, null);
+
+            MethodVisitor ctor = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", CTOR_DESC, null, null);
+            ctor.visitCode();
+            ctor.visitVarInsn(Opcodes.ALOAD, 0);
+            ctor.visitVarInsn(Opcodes.ALOAD, 1);
+            ctor.visitVarInsn(Opcodes.ALOAD, 2);
+            ctor.visitVarInsn(Opcodes.ALOAD, 3);
+            ctor.visitVarInsn(Opcodes.ALOAD, 4);
+            ctor.visitVarInsn(Opcodes.ALOAD, 5);
+            ctor.visitVarInsn(Opcodes.ILOAD, 6);
+            ctor.visitMethodInsn(Opcodes.INVOKESPECIAL, BASE_CLASS, "<init>", CTOR_DESC);
+            ctor.visitInsn(Opcodes.RETURN);
+            ctor.visitMaxs(0, 0);
+            ctor.visitEnd();
+
+            // read: cast and invoke each element, returning null for a null intermediate value of a nested property
+            MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PROTECTED, "read", "(" + OBJECT_DESC + ")" + OBJECT_DESC, null, null);
+            mv.visitCode();
+            Label onNull = new Label();
+            if (chain.length > 1) {
+                mv.visitVarInsn(Opcodes.ALOAD, LOCAL_OBJECT);
+                mv.visitJumpInsn(Opcodes.IFNULL, onNull);
+            }
+            mv.visitVarInsn(Opcodes.ALOAD, LOCAL_OBJECT);
+            Class valueType = null;
+            for (int i = 0; i < chain.length; i++) {
+                if (i > 0) {
+                    mv.visitVarInsn(Opcodes.ASTORE, LOCAL_VALUE);
+                    mv.visitVarInsn(Opcodes.ALOAD, LOCAL_VALUE);
+                    mv.visitJumpInsn(Opcodes.IFNULL, onNull);
+                    mv.visitVarInsn(Opcodes.ALOAD, LOCAL_VALUE);
+                }
+                valueType = generateRead(mv, chain[i]);
+            }
+            if (valueType.isPrimitive()) {
+                Class boxed = JavaClassHelper.getBoxedType(valueType);
+                mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(boxed), "valueOf", "(" + Type.getDescriptor(valueType) + ")" + Type.getDescriptor(boxed));
+            }
+            mv.visitInsn(Opcodes.ARETURN);
+            if (chain.length > 1) {
+                mv.visitLabel(onNull);
+                mv.visitInsn(Opcodes.ACONST_NULL);
+                mv.visitInsn(Opcodes.ARETURN);
+            }
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+
+            if (doubleReadable) {
+                mv = cw.visitMethod(Opcodes.ACC_PROTECTED, "readDouble", "(" + OBJECT_DESC + ")D", null, null);
+                mv.visitCode();
+                mv.visitVarInsn(Opcodes.ALOAD, LOCAL_OBJECT);
+                valueType = generateRead(mv, chain[0]);
+                if (valueType == long.class) {
+                    mv.visitInsn(Opcodes.L2D);
+                }
+                else if (valueType == float.class) {
+                    mv.visitInsn(Opcodes.F2D);
+                }
+                else if (valueType != double.class) {
+                    mv.visitInsn(Opcodes.I2D);
+                }
+                mv.visitInsn(Opcodes.DRETURN);
+                mv.visitMaxs(0, 0);
+                mv.visitEnd();
+            }
+            if (doubleReadable && isLongReadable(returnType)) {
+                mv = cw.visitMethod(Opcodes.ACC_PROTECTED, "readLong", "(" + OBJECT_DESC + ")J", null, null);
+                mv.visitCode();
+                mv.visitVarInsn(Opcodes.ALOAD, LOCAL_OBJECT);
+                valueType = generateRead(mv, chain[0]);
+                if (valueType != long.class) {
+                    mv.visitInsn(Opcodes.I2L);
+                }
+                mv.visitInsn(Opcodes.LRETURN);
+                mv.visitMaxs(0, 0);
+                mv.visitEnd();
+            }
+            cw.visitEnd();
+
+            Map<String, Class> referencedClasses = new HashMap<String, Class>();
+            for (Member member : chain) {
+                referencedClasses.put(member.getDeclaringClass().getName(), member.getDeclaringClass());
+            }
+            GeneratedPropertyGetterClassLoader classLoader = new GeneratedPropertyGetterClassLoader(GeneratedPropertyGetterFactory.class.getClassLoader(), referencedClasses);
+            Class clazz = classLoader.defineClass(className, cw.toByteArray());
+            return (GeneratedPropertyGetterBase) clazz.getConstructor(Member[].class, BeanEventPropertyGetter[].class, EventAdapterService.class, Class.class, Class.class, boolean.class)
+                    .newInstance(chain, elementGetters, eventAdapterService, returnType, genericType, doubleReadable);
+        }
+        catch (Throwable t) {
+            log.warn("Failed to generate property getter for " + chain[0].getDeclaringClass().getName() + ", using CGLib or reflection: " + t.getMessage(), t);
+            return null;
+        }
+    }
+
+    private static Class generateRead(MethodVisitor mv, Member member) {
+        String owner = Type.getInternalName(member.getDeclaringClass());
+        mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+        if (member instanceof Field) {
+            Field field = (Field) member;
+            mv.visitFieldInsn(Opcodes.GETFIELD, owner, field.getName(), Type.getDescriptor(field.getType()));
+            return field.getType();
+        }
+        Method method = (Method) member;
+        int opcode = method.getDeclaringClass().isInterface() ? Opcodes.INVOKEINTERFACE : Opcodes.INVOKEVIRTUAL;
+        mv.visitMethodInsn(opcode, owner, method.getName(), Type.getMethodDescriptor(method));
+        return method.getReturnType();
+    }
+
+    /**
+     * The generated code only merges reference types in the local holding the intermediate value of a nested property,
+     * which is not read after the merge, therefore the common super class does not require loading classes.
+     */
+    private static class GeneratedPropertyGetterClassWriter extends ClassWriter
+    {
+        private GeneratedPropertyGetterClassWriter() {
+            super(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        }
+
+        protected String getCommonSuperClass(String typeOne, String typeTwo) {
+            return Type.getInternalName(Object.class);
+        }
+    }
+}
@@ -29,6 +29,9 @@ public class PropertyHelper
 {
     /**
      * Return getter for the given method and CGLIB FastClass.
+     * <p>
+     * Unless code generation is disabled, which is indicated by a null fast class, returns a generated getter
+     * when the method is accessible to generated code, or else a getter that uses the CGLib fast method.
      * @param method to return getter for
      * @param fastClass is the CGLIB fast classs to make FastMethod for
      * @param eventAdapterService factory for event beans and event types
@@ -36,6 +39,15 @@ public class PropertyHelper
      */
     public static EventPropertyGetter getGetter(Method method, FastClass fastClass, EventAdapterService eventAdapterService)
     {
+        if (fastClass != null)
+        {
+            EventPropertyGetter generated = GeneratedPropertyGetterFactory.make(method, eventAdapterService);
+            if (generated != null)
+            {
+                return generated;
+            }
+        }
+
         // Get CGLib fast method handle
         FastMethod fastMethod = null;
         try
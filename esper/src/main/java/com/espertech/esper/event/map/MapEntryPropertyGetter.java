@@ -13,6 +13,7 @@ import com.espertech.esper.client.PropertyAccessException;
 import com.espertech.esper.event.BaseNestableEventUtil;
 import com.espertech.esper.event.EventAdapterService;
 import com.espertech.esper.event.bean.BeanEventType;
+import com.espertech.esper.event.offheap.OffHeapMapEventBean;
 
 import java.util.Map;
 
@@ -50,6 +51,9 @@ public class MapEntryPropertyGetter implements MapEventPropertyGetter
 
     public Object get(EventBean obj)
     {
+        if (obj instanceof OffHeapMapEventBean) {
+            return ((OffHeapMapEventBean) obj).getProperty(propertyName);
+        }
         return getMap(BaseNestableEventUtil.checkedCastUnderlyingMap(obj));
     }
 
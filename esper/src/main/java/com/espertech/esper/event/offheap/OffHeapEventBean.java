@@ -0,0 +1,194 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.event.offheap;
+
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.event.EventBeanSPI;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Handle to event property values kept by an {@link OffHeapEventStore}.
+ * <p>
+ * Property values are decoded from direct memory on each access, either all values or a single property value.
+ * When released, the handle decodes its values a last time and keeps them on-heap, for use by consumers that still hold the event.
+ * <p>
+ * A reader pins the handle while decoding. The store does not free the block of a pinned handle: a handle released while
+ * pinned has its block freed by the store once the last reader unpins it.
+ */
+public abstract class OffHeapEventBean implements EventBeanSPI
+{
+    private final static int RELEASED = Integer.MIN_VALUE;
+    private final static AtomicIntegerFieldUpdater<OffHeapEventBean> PINS = AtomicIntegerFieldUpdater.newUpdater(OffHeapEventBean.class, "pins");
+
+    private final EventType eventType;
+    private final OffHeapEventStore store;
+    private final long address;
+    private volatile Object released;
+    private volatile int pins;
+
+    /**
+     * Ctor.
+     * @param eventType event type
+     * @param store store holding the values
+     * @param address address of the values
+     */
+    protected OffHeapEventBean(EventType eventType, OffHeapEventStore store, long address) {
+        this.eventType = eventType;
+        this.store = store;
+        this.address = address;
+    }
+
+    /**
+     * Returns the value of a property from the on-heap values of a released handle.
+     * @param number array index of an object-array property, or property number of a map property
+     * @return value
+     */
+    protected abstract Object getReleasedValue(int number);
+
+    public EventType getEventType() {
+        return eventType;
+    }
+
+    public Object getUnderlying() {
+        if (!pin()) {
+            return released;
+        }
+        try {
+            return store.decode(address);
+        }
+        finally {
+            unpin();
+        }
+    }
+
+    public void setUnderlying(Object underlying) {
+        if (isReleased()) {
+            released = underlying;
+            return;
+        }
+        released = underlying;
+        store.free(this);
+    }
+
+    public Object get(String property) throws PropertyAccessException {
+        EventPropertyGetter getter = eventType.getGetter(property);
+        if (getter == null) {
+            throw new PropertyAccessException("Property named '" + property + "' is not a valid property name for this type");
+        }
+        return getter.get(this);
+    }
+
+    public Object getFragment(String propertyExpression) throws PropertyAccessException {
+        EventPropertyGetter getter = eventType.getGetter(propertyExpression);
+        if (getter == null) {
+            throw new PropertyAccessException("Property named '" + propertyExpression + "' is not a valid property name for this type");
+        }
+        return getter.getFragment(this);
+    }
+
+    /**
+     * Returns indicator whether the values are on-heap.
+     * @return indicator
+     */
+    public boolean isReleased() {
+        return pins < 0;
+    }
+
+    /**
+     * Returns the store.
+     * @return store
+     */
+    protected OffHeapEventStore getStore() {
+        return store;
+    }
+
+    /**
+     * Returns the address of the values.
+     * @return address
+     */
+    protected long getAddress() {
+        return address;
+    }
+
+    /**
+     * Decodes a single property value, or returns it from the on-heap values when released.
+     * @param number array index of an object-array property, or property number of a map property
+     * @return value
+     */
+    protected Object getValue(int number) {
+        if (!pin()) {
+            return getReleasedValue(number);
+        }
+        try {
+            return store.decodeValue(address, number);
+        }
+        finally {
+            unpin();
+        }
+    }
+
+    /**
+     * Moves the values on-heap and frees the direct memory.
+     */
+    protected void release() {
+        if (isReleased()) {
+            return;
+        }
+        released = store.decode(address);
+        store.free(this);
+    }
+
+    /**
+     * Marks the handle released, for use by the store after the on-heap values are set.
+     * @return true if no reader pins the handle and the block can be freed, false if the last reader to unpin must be awaited
+     */
+    protected boolean markReleased() {
+        while (true) {
+            int current = pins;
+            if (PINS.compareAndSet(this, current, current | RELEASED)) {
+                return current == 0;
+            }
+        }
+    }
+
+    /**
+     * Returns indicator whether the handle is released and no reader pins it.
+     * @return indicator
+     */
+    protected boolean isReleasedUnpinned() {
+        return pins == RELEASED;
+    }
+
+    /**
+     * Returns the on-heap values of a released handle.
+     * @return values
+     */
+    protected Object getReleased() {
+        return released;
+    }
+
+    private boolean pin() {
+        while (true) {
+            int current = pins;
+            if (current < 0) {
+                return false;
+            }
+            if (PINS.compareAndSet(this, current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void unpin() {
+        PINS.decrementAndGet(this);
+    }
+}
@@ -0,0 +1,680 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.event.offheap;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.event.MappedEventBean;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.map.MapEventType;
+import com.espertech.esper.util.SerializerUtil;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the property values of object-array and map events in direct memory outside of the Java heap.
+ * <p>
+ * Each stored event is represented on-heap by a small {@link OffHeapEventBean} handle that decodes the
+ * property values on access. Direct memory is allocated in segments. Each segment is divided into blocks
+ * of power-of-two size, and released blocks are kept in one free list per block size for reuse.
+ * <p>
+ * A block starts with a table of the offset of each property value, so that a single property value can be
+ * decoded without decoding the other values. For map events the table has an entry per property declared by the
+ * event type, and properties not declared by the event type are only decoded with all values.
+ * <p>
+ * Storing and releasing events must be serialized by the caller, as is the case under the named window lock.
+ * Decoding does not take a lock: the reader pins the handle, and the block of a handle released while pinned
+ * is only freed once no reader pins it, by the next store or release.
+ */
+public class OffHeapEventStore
+{
+    /**
+     * Default segment size in bytes.
+     */
+    public final static int DEFAULT_SEGMENT_SIZE = 4 * 1024 * 1024;
+
+    private final static int MIN_BLOCK_SHIFT = 4;
+    private final static int HEADER_SIZE = 4;
+    private final static long NONE = -1;
+    private final static int NOT_PRESENT = -1;
+
+    private final static byte TAG_NULL = 0;
+    private final static byte TAG_TRUE = 1;
+    private final static byte TAG_FALSE = 2;
+    private final static byte TAG_BYTE = 3;
+    private final static byte TAG_SHORT = 4;
+    private final static byte TAG_CHAR = 5;
+    private final static byte TAG_INT = 6;
+    private final static byte TAG_LONG = 7;
+    private final static byte TAG_FLOAT = 8;
+    private final static byte TAG_DOUBLE = 9;
+    private final static byte TAG_STRING_LATIN = 10;
+    private final static byte TAG_STRING = 11;
+    private final static byte TAG_SERIALIZED = 12;
+
+    private final EventType eventType;
+    private final boolean isMap;
+    private final String[] propertyNames;
+    private final Map<String, Integer> propertyNumbers;
+    private final int segmentSize;
+    private final long[] freeLists;
+
+    private volatile ByteBuffer[] segments = new ByteBuffer[0];
+    private ByteBuffer[] segmentWriters = new ByteBuffer[0];
+    private int currentOffset;
+    private ByteBuffer scratch = newBuffer(256, false);
+
+    private final List<OffHeapEventBean> pinnedReleased = new ArrayList<OffHeapEventBean>();
+
+    private int numEvents;
+    private long usedBytes;
+
+    /**
+     * Ctor.
+     * @param eventType object-array or map event type of events to store
+     */
+    public OffHeapEventStore(EventType eventType)
+    {
+        this(eventType, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Ctor.
+     * @param eventType object-array or map event type of events to store
+     * @param segmentSize size of direct memory segments in bytes, rounded up to a power of two
+     */
+    public OffHeapEventStore(EventType eventType, int segmentSize)
+    {
+        if (!isSupported(eventType)) {
+            throw new IllegalArgumentException("Event type '" + eventType.getName() + "' is not an object-array or map event type");
+        }
+        this.eventType = eventType;
+        this.isMap = eventType instanceof MapEventType;
+        this.propertyNames = eventType.getPropertyNames();
+        this.propertyNumbers = new HashMap<String, Integer>();
+        for (int i = 0; i < propertyNames.length; i++) {
+            propertyNumbers.put(propertyNames[i], i);
+        }
+        int size = Math.max(segmentSize, 1 << MIN_BLOCK_SHIFT);
+        this.segmentSize = Integer.highestOneBit(size) == size ? size : Integer.highestOneBit(size) << 1;
+        this.freeLists = new long[blockShift(this.segmentSize) - MIN_BLOCK_SHIFT + 1];
+        for (int i = 0; i < freeLists.length; i++) {
+            freeLists[i] = NONE;
+        }
+        this.currentOffset = this.segmentSize;
+    }
+
+    /**
+     * Returns indicator whether events of the type can be stored.
+     * @param eventType to check
+     * @return indicator
+     */
+    public static boolean isSupported(EventType eventType)
+    {
+        return eventType instanceof ObjectArrayEventType || eventType instanceof MapEventType;
+    }
+
+    /**
+     * Stores events returning the handles to use in their place.
+     * <p>
+     * Events of another type and events holding values that cannot be encoded are returned unchanged and remain on-heap.
+     * @param events to store
+     * @return handles and events that remain on-heap
+     */
+    public EventBean[] store(EventBean[] events)
+    {
+        if (events == null) {
+            return null;
+        }
+        freePinnedReleased();
+        EventBean[] stored = new EventBean[events.length];
+        for (int i = 0; i < events.length; i++) {
+            stored[i] = store(events[i]);
+        }
+        return stored;
+    }
+
+    /**
+     * Stores an event returning the handle to use in its place.
+     * @param theEvent to store
+     * @return handle, or the event itself if it remains on-heap
+     */
+    public EventBean store(EventBean theEvent)
+    {
+        if (theEvent.getEventType() != eventType) {
+            return theEvent;
+        }
+        if (theEvent instanceof OffHeapEventBean && ((OffHeapEventBean) theEvent).getStore() == this) {
+            return theEvent;
+        }
+
+        scratch.clear();
+        scratch.putInt(0);
+        boolean encoded;
+        if (isMap) {
+            if (!(theEvent instanceof MappedEventBean)) {
+                return theEvent;
+            }
+            encoded = encodeMap(((MappedEventBean) theEvent).getProperties());
+        }
+        else {
+            if (!(theEvent instanceof ObjectArrayBackedEventBean)) {
+                return theEvent;
+            }
+            encoded = encodeArray(((ObjectArrayBackedEventBean) theEvent).getProperties());
+        }
+        int length = scratch.position();
+        if (!encoded || length > segmentSize) {
+            return theEvent;
+        }
+        scratch.putInt(0, length - HEADER_SIZE);
+
+        long address = allocate(length);
+        ByteBuffer writer = segmentWriters[segment(address)];
+        writer.position(offset(address));
+        writer.put(scratch.array(), 0, length);
+        numEvents++;
+
+        if (isMap) {
+            return new OffHeapMapEventBean(eventType, this, address);
+        }
+        return new OffHeapObjectArrayEventBean(eventType, this, address);
+    }
+
+    /**
+     * Releases the direct memory of handles of this store, the handles keep their values on-heap.
+     * @param events events that may include handles of this store
+     */
+    public void release(EventBean[] events)
+    {
+        if (events == null) {
+            return;
+        }
+        freePinnedReleased();
+        for (EventBean theEvent : events) {
+            if (theEvent instanceof OffHeapEventBean) {
+                OffHeapEventBean handle = (OffHeapEventBean) theEvent;
+                if (handle.getStore() == this) {
+                    handle.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of events in direct memory.
+     * @return count
+     */
+    public int getNumEvents()
+    {
+        return numEvents;
+    }
+
+    /**
+     * Returns the number of bytes of blocks in use.
+     * @return bytes
+     */
+    public long getUsedBytes()
+    {
+        return usedBytes;
+    }
+
+    /**
+     * Returns the number of bytes of direct memory allocated.
+     * @return bytes
+     */
+    public long getAllocatedBytes()
+    {
+        return (long) segments.length * segmentSize;
+    }
+
+    /**
+     * Returns the property number of a property declared by the event type.
+     * @param propertyName property name
+     * @return number or null if not declared
+     */
+    protected Integer getPropertyNumber(String propertyName)
+    {
+        return propertyNumbers.get(propertyName);
+    }
+
+    /**
+     * Returns the name of a property declared by the event type.
+     * @param number property number
+     * @return name
+     */
+    protected String getPropertyName(int number)
+    {
+        return propertyNames[number];
+    }
+
+    /**
+     * Decodes the values at the address, returning an object-array or map.
+     * @param address of the values
+     * @return values
+     */
+    protected Object decode(long address)
+    {
+        ByteBuffer segment = segments[segment(address)];
+        int offset = offset(address);
+        int end = getEnd(segment, offset);
+        int count = segment.getInt(offset + HEADER_SIZE);
+        if (isMap) {
+            Reader reader = new Reader(segment, offset + HEADER_SIZE + 4 + propertyNames.length * 4, end);
+            Map<String, Object> values = new LinkedHashMap<String, Object>(count * 2);
+            for (int i = 0; i < count; i++) {
+                int number = reader.readInt();
+                String name;
+                if (number >= 0) {
+                    name = propertyNames[number];
+                }
+                else {
+                    name = (String) reader.readValue();
+                }
+                values.put(name, reader.readValue());
+            }
+            return values;
+        }
+        Reader reader = new Reader(segment, offset + HEADER_SIZE + 4 + count * 4, end);
+        Object[] values = new Object[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = reader.readValue();
+        }
+        return values;
+    }
+
+    /**
+     * Decodes a single property value at the address.
+     * @param address of the values
+     * @param number array index of an object-array property, or property number of a map property
+     * @return value
+     */
+    protected Object decodeValue(long address, int number)
+    {
+        ByteBuffer segment = segments[segment(address)];
+        int offset = offset(address);
+        int end = getEnd(segment, offset);
+        int tableSize = isMap ? propertyNames.length : segment.getInt(offset + HEADER_SIZE);
+        if (number < 0 || number >= tableSize) {
+            throw new IllegalArgumentException("Invalid property number " + number);
+        }
+        int valueOffset = segment.getInt(offset + HEADER_SIZE + 4 + number * 4);
+        if (valueOffset == NOT_PRESENT) {
+            return null;
+        }
+        return new Reader(segment, offset + valueOffset, end).readValue();
+    }
+
+    /**
+     * Frees the block of a handle that has its values on-heap, or frees it later if a reader pins the handle.
+     * @param handle handle of this store
+     */
+    protected void free(OffHeapEventBean handle)
+    {
+        if (handle.markReleased()) {
+            free(handle.getAddress());
+        }
+        else {
+            pinnedReleased.add(handle);
+        }
+    }
+
+    private void freePinnedReleased()
+    {
+        if (pinnedReleased.isEmpty()) {
+            return;
+        }
+        Iterator<OffHeapEventBean> it = pinnedReleased.iterator();
+        while (it.hasNext()) {
+            OffHeapEventBean handle = it.next();
+            if (handle.isReleasedUnpinned()) {
+                free(handle.getAddress());
+                it.remove();
+            }
+        }
+    }
+
+    private void free(long address)
+    {
+        ByteBuffer segment = segmentWriters[segment(address)];
+        int offset = offset(address);
+        int blockShift = blockShift(segment.getInt(offset) + HEADER_SIZE);
+        segment.putInt(offset, -1);
+        segment.putLong(offset + HEADER_SIZE, freeLists[blockShift - MIN_BLOCK_SHIFT]);
+        freeLists[blockShift - MIN_BLOCK_SHIFT] = address;
+        numEvents--;
+        usedBytes -= 1 << blockShift;
+    }
+
+    private static int getEnd(ByteBuffer segment, int offset)
+    {
+        int length = segment.getInt(offset);
+        int end = offset + HEADER_SIZE + length;
+        if (length < 4 || end > segment.capacity()) {
+            throw new IllegalStateException("Invalid block at offset " + offset);
+        }
+        return end;
+    }
+
+    private long allocate(int length)
+    {
+        int blockShift = blockShift(length);
+        int blockSize = 1 << blockShift;
+        usedBytes += blockSize;
+
+        long address = freeLists[blockShift - MIN_BLOCK_SHIFT];
+        if (address != NONE) {
+            freeLists[blockShift - MIN_BLOCK_SHIFT] = segmentWriters[segment(address)].getLong(offset(address) + HEADER_SIZE);
+            return address;
+        }
+
+        if (currentOffset + blockSize > segmentSize) {
+            addSegment();
+        }
+        address = ((long) (segments.length - 1) << 32) | currentOffset;
+        currentOffset += blockSize;
+        return address;
+    }
+
+    private void addSegment()
+    {
+        ByteBuffer segment = newBuffer(segmentSize, true);
+        ByteBuffer[] newSegments = new ByteBuffer[segments.length + 1];
+        System.arraycopy(segments, 0, newSegments, 0, segments.length);
+        newSegments[segments.length] = segment;
+        ByteBuffer[] newWriters = new ByteBuffer[segmentWriters.length + 1];
+        System.arraycopy(segmentWriters, 0, newWriters, 0, segmentWriters.length);
+        newWriters[segmentWriters.length] = segment.duplicate().order(ByteOrder.nativeOrder());
+        segmentWriters = newWriters;
+        segments = newSegments;
+        currentOffset = 0;
+    }
+
+    private boolean encodeArray(Object[] values)
+    {
+        int table = reserveTable(values.length, values.length);
+        for (int i = 0; i < values.length; i++) {
+            scratch.putInt(table + i * 4, scratch.position());
+            if (!encodeValue(values[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean encodeMap(Map<String, Object> values)
+    {
+        int table = reserveTable(values.size(), propertyNames.length);
+        for (int i = 0; i < propertyNames.length; i++) {
+            scratch.putInt(table + i * 4, NOT_PRESENT);
+        }
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            Integer number = propertyNumbers.get(entry.getKey());
+            ensure(4);
+            if (number != null) {
+                scratch.putInt(number);
+                scratch.putInt(table + number * 4, scratch.position());
+            }
+            else {
+                scratch.putInt(-1);
+                if (!encodeValue(entry.getKey())) {
+                    return false;
+                }
+            }
+            if (!encodeValue(entry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int reserveTable(int count, int tableSize)
+    {
+        ensure(4 + tableSize * 4);
+        scratch.putInt(count);
+        int table = scratch.position();
+        scratch.position(table + tableSize * 4);
+        return table;
+    }
+
+    private boolean encodeValue(Object value)
+    {
+        if (value == null) {
+            ensure(1);
+            scratch.put(TAG_NULL);
+        }
+        else if (value instanceof String) {
+            encodeString((String) value);
+        }
+        else if (value instanceof Integer) {
+            ensure(5);
+            scratch.put(TAG_INT).putInt((Integer) value);
+        }
+        else if (value instanceof Long) {
+            ensure(9);
+            scratch.put(TAG_LONG).putLong((Long) value);
+        }
+        else if (value instanceof Double) {
+            ensure(9);
+            scratch.put(TAG_DOUBLE).putDouble((Double) value);
+        }
+        else if (value instanceof Boolean) {
+            ensure(1);
+            scratch.put((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        }
+        else if (value instanceof Float) {
+            ensure(5);
+            scratch.put(TAG_FLOAT).putFloat((Float) value);
+        }
+        else if (value instanceof Short) {
+            ensure(3);
+            scratch.put(TAG_SHORT).putShort((Short) value);
+        }
+        else if (value instanceof Byte) {
+            ensure(2);
+            scratch.put(TAG_BYTE).put((Byte) value);
+        }
+        else if (value instanceof Character) {
+            ensure(3);
+            scratch.put(TAG_CHAR).putChar((Character) value);
+        }
+        else if (value instanceof Serializable) {
+            byte[] bytes;
+            try {
+                bytes = SerializerUtil.objectToByteArr(value);
+            }
+            catch (RuntimeException ex) {
+                return false;
+            }
+            ensure(5 + bytes.length);
+            scratch.put(TAG_SERIALIZED).putInt(bytes.length).put(bytes);
+        }
+        else {
+            return false;
+        }
+        return true;
+    }
+
+    private void encodeString(String value)
+    {
+        int length = value.length();
+        boolean latin = true;
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) > 0xFF) {
+                latin = false;
+                break;
+            }
+        }
+        if (latin) {
+            ensure(5 + length);
+            scratch.put(TAG_STRING_LATIN).putInt(length);
+            for (int i = 0; i < length; i++) {
+                scratch.put((byte) value.charAt(i));
+            }
+        }
+        else {
+            ensure(5 + length * 2);
+            scratch.put(TAG_STRING).putInt(length);
+            for (int i = 0; i < length; i++) {
+                scratch.putChar(value.charAt(i));
+            }
+        }
+    }
+
+    private void ensure(int numBytes)
+    {
+        if (scratch.remaining() >= numBytes) {
+            return;
+        }
+        int capacity = scratch.capacity();
+        while (capacity - scratch.position() < numBytes) {
+            capacity *= 2;
+        }
+        ByteBuffer larger = newBuffer(capacity, false);
+        larger.put(scratch.array(), 0, scratch.position());
+        scratch = larger;
+    }
+
+    private static ByteBuffer newBuffer(int capacity, boolean direct)
+    {
+        ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+        return buffer.order(ByteOrder.nativeOrder());
+    }
+
+    private static int blockShift(int length)
+    {
+        return Math.max(32 - Integer.numberOfLeadingZeros(length - 1), MIN_BLOCK_SHIFT);
+    }
+
+    private static int segment(long address)
+    {
+        return (int) (address >>> 32);
+    }
+
+    private static int offset(long address)
+    {
+        return (int) address;
+    }
+
+    private static class Reader
+    {
+        private final ByteBuffer segment;
+        private final int end;
+        private int position;
+
+        private Reader(ByteBuffer segment, int position, int end) {
+            this.segment = segment;
+            this.position = position;
+            this.end = end;
+        }
+
+        private int readInt() {
+            check(4);
+            int value = segment.getInt(position);
+            position += 4;
+            return value;
+        }
+
+        private Object readValue() {
+            check(1);
+            byte tag = segment.get(position++);
+            Object value;
+            switch (tag) {
+                case TAG_NULL:
+                    return null;
+                case TAG_TRUE:
+                    return Boolean.TRUE;
+                case TAG_FALSE:
+                    return Boolean.FALSE;
+                case TAG_BYTE:
+                    check(1);
+                    value = segment.get(position);
+                    position += 1;
+                    return value;
+                case TAG_SHORT:
+                    check(2);
+                    value = segment.getShort(position);
+                    position += 2;
+                    return value;
+                case TAG_CHAR:
+                    check(2);
+                    value = segment.getChar(position);
+                    position += 2;
+                    return value;
+                case TAG_INT:
+                    check(4);
+                    value = segment.getInt(position);
+                    position += 4;
+                    return value;
+                case TAG_LONG:
+                    check(8);
+                    value = segment.getLong(position);
+                    position += 8;
+                    return value;
+                case TAG_FLOAT:
+                    check(4);
+                    value = segment.getFloat(position);
+                    position += 4;
+                    return value;
+                case TAG_DOUBLE:
+                    check(8);
+                    value = segment.getDouble(position);
+                    position += 8;
+                    return value;
+                case TAG_STRING_LATIN: {
+                    int length = readInt();
+                    check(length);
+                    char[] chars = new char[length];
+                    for (int i = 0; i < length; i++) {
+                        chars[i] = (char) (segment.get(position + i) & 0xFF);
+                    }
+                    position += length;
+                    return new String(chars);
+                }
+                case TAG_STRING: {
+                    int length = readInt();
+                    check(length * 2);
+                    char[] chars = new char[length];
+                    for (int i = 0; i < length; i++) {
+                        chars[i] = segment.getChar(position + i * 2);
+                    }
+                    position += length * 2;
+                    return new String(chars);
+                }
+                case TAG_SERIALIZED: {
+                    int length = readInt();
+                    check(length);
+                    byte[] bytes = new byte[length];
+                    for (int i = 0; i < length; i++) {
+                        bytes[i] = segment.get(position + i);
+                    }
+                    position += length;
+                    return SerializerUtil.byteArrToObject(bytes);
+                }
+                default:
+                    throw new IllegalStateException("Invalid value tag " + tag);
+            }
+        }
+
+        private void check(int numBytes) {
+            if (numBytes < 0 || position + numBytes > end) {
+                throw new IllegalStateException("Invalid value length " + numBytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.event.offheap;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.event.MappedEventBean;
+
+import java.util.Map;
+
+/**
+ * Handle to map event property values kept by an {@link OffHeapEventStore}.
+ * <p>
+ * Each access to the underlying decodes a new map: changes to the map returned are not reflected in the event.
+ * Access to a single property by {@link #getProperty(String)} decodes only the value of the property.
+ */
+public class OffHeapMapEventBean extends OffHeapEventBean implements MappedEventBean
+{
+    /**
+     * Ctor.
+     * @param eventType event type
+     * @param store store holding the values
+     * @param address address of the values
+     */
+    public OffHeapMapEventBean(EventType eventType, OffHeapEventStore store, long address) {
+        super(eventType, store, address);
+    }
+
+    /**
+     * Returns the value of a property, decoding only that value if the property is declared by the event type.
+     * @param name property name
+     * @return value or null if the map does not contain the property
+     */
+    public Object getProperty(String name) {
+        Integer number = getStore().getPropertyNumber(name);
+        if (number == null) {
+            return getProperties().get(name);
+        }
+        return getValue(number);
+    }
+
+    public Map<String, Object> getProperties() {
+        return (Map<String, Object>) getUnderlying();
+    }
+
+    protected Object getReleasedValue(int number) {
+        return ((Map<String, Object>) getReleased()).get(getStore().getPropertyName(number));
+    }
+
+    public String toString() {
+        return "OffHeapMapEventBean " +
+               "eventType=" + getEventType();
+    }
+}
@@ -0,0 +1,52 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.event.offheap;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
+
+/**
+ * Handle to object-array event property values kept by an {@link OffHeapEventStore}.
+ * <p>
+ * Each access to the underlying decodes a new array: changes to the array returned are not reflected in the event.
+ * Access to a single property by {@link #getProperty(int)} decodes only the value of the property.
+ */
+public class OffHeapObjectArrayEventBean extends OffHeapEventBean implements ObjectArrayBackedEventBean
+{
+    /**
+     * Ctor.
+     * @param eventType event type
+     * @param store store holding the values
+     * @param address address of the values
+     */
+    public OffHeapObjectArrayEventBean(EventType eventType, OffHeapEventStore store, long address) {
+        super(eventType, store, address);
+    }
+
+    /**
+     * Returns the value of a property, decoding only that value.
+     * @param index array index of the property
+     * @return value
+     */
+    public Object getProperty(int index) {
+        return getValue(index);
+    }
+
+    public Object[] getProperties() {
+        return (Object[]) getUnderlying();
+    }
+
+    public void setPropertyValues(Object[] objects) {
+        setUnderlying(objects);
+    }
+
+    protected Object getReleasedValue(int number) {
+        return ((Object[]) getReleased())[number];
+    }
+}
@@ -15,6 +15,7 @@ import com.espertech.esper.event.EventAdapterService;
 import com.espertech.esper.event.EventTypeUtility;
 import com.espertech.esper.event.arr.ObjectArrayEventPropertyGetter;
 import com.espertech.esper.event.bean.BeanEventType;
+import com.espertech.esper.event.bean.GeneratedPropertyGetterFactory;
 import com.espertech.esper.event.bean.NestedPropertyGetter;
 import com.espertech.esper.event.map.MapEventPropertyGetter;
 import com.espertech.esper.event.map.MapNestedPropertyGetterMapOnly;
@@ -108,6 +109,11 @@ public class NestedProperty implements Property
         }
 
         GenericPropertyDesc finalPropertyType = lastProperty.getPropertyTypeGeneric(eventType, eventAdapterService);
+        EventPropertyGetter generated = GeneratedPropertyGetterFactory.makeNested(getters, eventAdapterService, finalPropertyType.getType(), finalPropertyType.getGeneric());
+        if (generated != null)
+        {
+            return generated;
+        }
         return new NestedPropertyGetter(getters, eventAdapterService, finalPropertyType.getType(), finalPropertyType.getGeneric());
     }
 
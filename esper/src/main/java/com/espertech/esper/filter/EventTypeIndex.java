@@ -17,6 +17,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReadWriteLock;
 
 /**
@@ -27,6 +28,7 @@ import java.util.concurrent.locks.ReadWriteLock;
  * and (2) asking the subtree for this event type to evaluate the event.
  * <p>
  * The class performs all the locking required for multithreaded access.
+ * For copy-on-write lock factories the event types are kept in a concurrent map and lookups do not lock.
  */
 public class EventTypeIndex implements EventEvaluator
 {
@@ -38,7 +40,12 @@ public class EventTypeIndex implements EventEvaluator
      */
     public EventTypeIndex(FilterServiceGranularLockFactory lockFactory)
     {
-        eventTypes = new HashMap<EventType, FilterHandleSetNode>();
+        if (lockFactory.isCopyOnWrite()) {
+            eventTypes = new ConcurrentHashMap<EventType, FilterHandleSetNode>();
+        }
+        else {
+            eventTypes = new HashMap<EventType, FilterHandleSetNode>();
+        }
         eventTypesRWLock = lockFactory.obtainNew();
     }
 
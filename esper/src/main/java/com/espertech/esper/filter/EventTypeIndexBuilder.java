@@ -78,7 +78,7 @@ public class EventTypeIndexBuilder
                 rootNode = eventTypeIndex.get(eventType);
                 if (rootNode == null)
                 {
-                    rootNode = new FilterHandleSetNode(lockFactory.obtainNew());
+                    rootNode = new FilterHandleSetNode(lockFactory.obtainNew(), lockFactory.isCopyOnWrite());
                     eventTypeIndex.add(eventType, rootNode);
                 }
             }
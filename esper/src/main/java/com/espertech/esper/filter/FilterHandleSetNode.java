@@ -12,6 +12,8 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.locks.ReadWriteLock;
 
 /**
@@ -21,6 +23,9 @@ import java.util.concurrent.locks.ReadWriteLock;
  * but can also be non-leaf (some indizes exist) in a filter evaluation tree.
  * Events are evaluated by asking each of the indizes to evaluate the event and by
  * adding any filter callbacks in this node to the "matches" list of callbacks.
+ * <p>
+ * In copy-on-write mode the indizes and callbacks are kept in copy-on-write collections and evaluation
+ * does not require a lock, writers must be serialized by the caller.
  */
 public final class FilterHandleSetNode implements EventEvaluator
 {
@@ -32,9 +37,24 @@ public final class FilterHandleSetNode implements EventEvaluator
      * Constructor.
      */
     public FilterHandleSetNode(ReadWriteLock nodeRWLock) {
+        this(nodeRWLock, false);
+    }
+
+    /**
+     * Constructor.
+     * @param nodeRWLock lock
+     * @param copyOnWrite true to keep indizes and callbacks in copy-on-write collections
+     */
+    public FilterHandleSetNode(ReadWriteLock nodeRWLock, boolean copyOnWrite) {
         this.nodeRWLock = nodeRWLock;
-        callbackSet = new LinkedHashSet<FilterHandle>();
-        indizes = new LinkedList<FilterParamIndexBase>();
+        if (copyOnWrite) {
+            callbackSet = new CopyOnWriteArraySet<FilterHandle>();
+            indizes = new CopyOnWriteArrayList<FilterParamIndexBase>();
+        }
+        else {
+            callbackSet = new LinkedHashSet<FilterHandle>();
+            indizes = new LinkedList<FilterParamIndexBase>();
+        }
     }
 
     /**
@@ -23,20 +23,30 @@ import java.util.concurrent.locks.ReadWriteLock;
  * The implementation is based on the SortedMap implementation of TreeMap.
  * The index only accepts numeric constants. It keeps a lower and upper bounds of all constants in the index
  * for fast range checking, since the assumption is that frequently values fall within a range.
+ * <p>
+ * In copy-on-write mode the map is never changed after publication: writers, which must be serialized by the caller,
+ * replace the map by a modified copy and readers do not need to lock. Bounds are widened before and narrowed after
+ * publishing the map so that a reader never discards a value that the published map would match.
  */
 public final class FilterParamIndexCompare extends FilterParamIndexLookupableBase
 {
-    private final TreeMap<Object, EventEvaluator> constantsMap;
+    private volatile TreeMap<Object, EventEvaluator> constantsMap;
     private final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
 
-    private Double lowerBounds;
-    private Double upperBounds;
+    private volatile Double lowerBounds;
+    private volatile Double upperBounds;
 
     public FilterParamIndexCompare(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+        this(lookupable, readWriteLock, filterOperator, false);
+    }
+
+    public FilterParamIndexCompare(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite) {
         super(filterOperator, lookupable);
 
         constantsMap = new TreeMap<Object, EventEvaluator>();
         constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
 
         if ((filterOperator != FilterOperator.GREATER) &&
             (filterOperator != FilterOperator.GREATER_OR_EQUAL) &&
@@ -54,7 +64,9 @@ public final class FilterParamIndexCompare extends FilterParamIndexLookupableBas
 
     public final void put(Object filterConstant, EventEvaluator matcher)
     {
-        constantsMap.put(filterConstant, matcher);
+        if (!copyOnWrite) {
+            constantsMap.put(filterConstant, matcher);
+        }
 
         // Update bounds
         Double constant = ((Number) filterConstant).doubleValue();
@@ -66,13 +78,29 @@ public final class FilterParamIndexCompare extends FilterParamIndexLookupableBas
         {
             upperBounds = constant;
         }
+
+        if (copyOnWrite) {
+            TreeMap<Object, EventEvaluator> copy = new TreeMap<Object, EventEvaluator>(constantsMap);
+            copy.put(filterConstant, matcher);
+            constantsMap = copy;
+        }
     }
 
     public final boolean remove(Object filterConstant)
     {
-        if (constantsMap.remove(filterConstant) == null)
-        {
-            return false;
+        if (!copyOnWrite) {
+            if (constantsMap.remove(filterConstant) == null)
+            {
+                return false;
+            }
+        }
+        else {
+            if (!constantsMap.containsKey(filterConstant)) {
+                return false;
+            }
+            TreeMap<Object, EventEvaluator> copy = new TreeMap<Object, EventEvaluator>(constantsMap);
+            copy.remove(filterConstant);
+            constantsMap = copy;
         }
 
         updateBounds();
@@ -102,7 +130,9 @@ public final class FilterParamIndexCompare extends FilterParamIndexLookupableBas
         }
 
         // A undefine lower bound indicates an empty index
-        if (lowerBounds == null)
+        Double lowerBounds = this.lowerBounds;
+        Double upperBounds = this.upperBounds;
+        if ((lowerBounds == null) || (upperBounds == null))
         {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(false);}
             return;
@@ -136,6 +166,7 @@ public final class FilterParamIndexCompare extends FilterParamIndexLookupableBas
         // Look up in table
         constantsMapRWLock.readLock().lock();
         try {
+            TreeMap<Object, EventEvaluator> constantsMap = this.constantsMap;
 
             // Get the head or tail end of the map depending on comparison type
             Map<Object, EventEvaluator> subMap;
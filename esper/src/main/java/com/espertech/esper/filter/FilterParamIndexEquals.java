@@ -24,6 +24,10 @@ public final class FilterParamIndexEquals extends FilterParamIndexEqualsBase
         super(lookupable, readWriteLock, FilterOperator.EQUAL);
     }
 
+    public FilterParamIndexEquals(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
+        super(lookupable, readWriteLock, FilterOperator.EQUAL, copyOnWrite);
+    }
+
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
     {
         Object attributeValue = lookupable.getGetter().get(theEvent);
@@ -15,17 +15,26 @@ import java.util.concurrent.locks.ReadWriteLock;
 /**
  * Index for filter parameter constants to match using the equals (=) operator.
  * The implementation is based on a regular HashMap.
+ * <p>
+ * In copy-on-write mode the map is never changed after publication: writers, which must be serialized by the caller,
+ * replace the map by a modified copy and readers do not need to lock.
  */
 public abstract class FilterParamIndexEqualsBase extends FilterParamIndexLookupableBase
 {
-    protected final Map<Object, EventEvaluator> constantsMap;
+    protected volatile Map<Object, EventEvaluator> constantsMap;
     protected final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
 
     protected FilterParamIndexEqualsBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+        this(lookupable, readWriteLock, filterOperator, false);
+    }
+
+    protected FilterParamIndexEqualsBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite) {
         super(filterOperator, lookupable);
 
         constantsMap = new HashMap<Object, EventEvaluator>();
         constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
     }
 
     public final EventEvaluator get(Object filterConstant)
@@ -35,15 +44,26 @@ public abstract class FilterParamIndexEqualsBase extends FilterParamIndexLookupa
 
     public final void put(Object filterConstant, EventEvaluator evaluator)
     {
-        constantsMap.put(filterConstant, evaluator);
+        if (!copyOnWrite) {
+            constantsMap.put(filterConstant, evaluator);
+            return;
+        }
+        Map<Object, EventEvaluator> copy = new HashMap<Object, EventEvaluator>(constantsMap);
+        copy.put(filterConstant, evaluator);
+        constantsMap = copy;
     }
 
     public final boolean remove(Object filterConstant)
     {
-        if (constantsMap.remove(filterConstant) == null)
-        {
+        if (!copyOnWrite) {
+            return constantsMap.remove(filterConstant) != null;
+        }
+        if (!constantsMap.containsKey(filterConstant)) {
             return false;
         }
+        Map<Object, EventEvaluator> copy = new HashMap<Object, EventEvaluator>(constantsMap);
+        copy.remove(filterConstant);
+        constantsMap = copy;
         return true;
     }
 
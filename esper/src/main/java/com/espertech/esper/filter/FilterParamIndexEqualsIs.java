@@ -24,6 +24,10 @@ public final class FilterParamIndexEqualsIs extends FilterParamIndexEqualsBase
         super(lookupable, readWriteLock, FilterOperator.IS);
     }
 
+    public FilterParamIndexEqualsIs(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
+        super(lookupable, readWriteLock, FilterOperator.IS, copyOnWrite);
+    }
+
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
     {
         Object attributeValue = lookupable.getGetter().get(theEvent);
@@ -21,19 +21,28 @@ import java.util.concurrent.locks.ReadWriteLock;
  * Index for filter parameter constants to match using the 'in' operator to match against a supplied set of values
  * (i.e. multiple possible exact matches).
  * The implementation is based on a regular HashMap.
+ * <p>
+ * In copy-on-write mode the constants map and its evaluator lists are never changed after publication:
+ * writers, which must be serialized by the caller, publish a modified copy and readers do not need to lock.
  */
 public final class FilterParamIndexIn extends FilterParamIndexLookupableBase
 {
-    private final Map<Object, List<EventEvaluator>> constantsMap;
+    private volatile Map<Object, List<EventEvaluator>> constantsMap;
     private final Map<MultiKeyUntyped, EventEvaluator> evaluatorsMap;
     private final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
 
     public FilterParamIndexIn(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
+        this(lookupable, readWriteLock, false);
+    }
+
+    public FilterParamIndexIn(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
         super(FilterOperator.IN_LIST_OF_VALUES, lookupable);
 
         constantsMap = new HashMap<Object, List<EventEvaluator>>();
         evaluatorsMap = new HashMap<MultiKeyUntyped, EventEvaluator>();
         constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
     }
 
     public final EventEvaluator get(Object filterConstant)
@@ -51,17 +60,23 @@ public final class FilterParamIndexIn extends FilterParamIndexLookupableBase
         EventEvaluator oldEvaluator = evaluatorsMap.put(keys, evaluator);
 
         // Store each value to match against in Map with it's evaluator as a list
+        Map<Object, List<EventEvaluator>> map = copyOnWrite ? new HashMap<Object, List<EventEvaluator>>(constantsMap) : constantsMap;
         Object[] keyValues = keys.getKeys();
         for (int i = 0; i < keyValues.length; i++)
         {
-            List<EventEvaluator> evaluators = constantsMap.get(keyValues[i]);
+            List<EventEvaluator> evaluators = map.get(keyValues[i]);
             if (evaluators == null)
             {
                 evaluators = new LinkedList<EventEvaluator>();
-                constantsMap.put(keyValues[i], evaluators);
+                map.put(keyValues[i], evaluators);
             }
             else
             {
+                if (copyOnWrite)
+                {
+                    evaluators = new LinkedList<EventEvaluator>(evaluators);
+                    map.put(keyValues[i], evaluators);
+                }
                 if (oldEvaluator != null)
                 {
                     evaluators.remove(oldEvaluator);
@@ -69,6 +84,7 @@ public final class FilterParamIndexIn extends FilterParamIndexLookupableBase
             }
             evaluators.add(evaluator);
         }
+        constantsMap = map;
     }
 
     public final boolean remove(Object filterConstant)
@@ -83,19 +99,26 @@ public final class FilterParamIndexIn extends FilterParamIndexLookupableBase
             isRemoved = true;
         }
 
+        Map<Object, List<EventEvaluator>> map = copyOnWrite ? new HashMap<Object, List<EventEvaluator>>(constantsMap) : constantsMap;
         Object[] keyValues = keys.getKeys();
         for (int i = 0; i < keyValues.length; i++)
         {
-            List<EventEvaluator> evaluators = constantsMap.get(keyValues[i]);
+            List<EventEvaluator> evaluators = map.get(keyValues[i]);
             if (evaluators != null) // could be removed already as same-value constants existed
             {
+                if (copyOnWrite)
+                {
+                    evaluators = new LinkedList<EventEvaluator>(evaluators);
+                    map.put(keyValues[i], evaluators);
+                }
                 evaluators.remove(eval);
                 if (evaluators.isEmpty())
                 {
-                    constantsMap.remove(keyValues[i]);
+                    map.remove(keyValues[i]);
                 }
             }
         }
+        constantsMap = map;
         return isRemoved;
     }
 
@@ -27,6 +27,10 @@ public final class FilterParamIndexNotEquals extends FilterParamIndexNotEqualsBa
         super(lookupable, readWriteLock, FilterOperator.NOT_EQUAL);
     }
 
+    public FilterParamIndexNotEquals(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
+        super(lookupable, readWriteLock, FilterOperator.NOT_EQUAL, copyOnWrite);
+    }
+
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
     {
         Object attributeValue = lookupable.getGetter().get(theEvent);
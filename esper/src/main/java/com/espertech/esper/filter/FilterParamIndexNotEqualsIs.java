@@ -27,6 +27,10 @@ public final class FilterParamIndexNotEqualsIs extends FilterParamIndexNotEquals
         super(lookupable, readWriteLock, FilterOperator.IS_NOT);
     }
 
+    public FilterParamIndexNotEqualsIs(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
+        super(lookupable, readWriteLock, FilterOperator.IS_NOT, copyOnWrite);
+    }
+
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
     {
         Object attributeValue = lookupable.getGetter().get(theEvent);
@@ -60,6 +60,19 @@ public interface FilterService
      */
     public void remove(FilterHandle callback, FilterServiceEntry filterServiceEntry);
 
+    /**
+     * Remove and add any number of filter callbacks in a single operation.
+     * <p>
+     * Compared to individual calls to remove and add, the service acquires its lock, if any, only once
+     * and increments the filter version only once. Removals take place before additions.
+     * @param removeCallbacks callbacks to be removed, or null if none
+     * @param removeEntries entries returned when the callbacks to be removed were added, or null if none
+     * @param addValueSets filter parameters for each callback to be added, or null if none
+     * @param addCallbacks callbacks to be added, or null if none
+     * @return entries for the added callbacks in the order of the callbacks, or null if none were added
+     */
+    public FilterServiceEntry[] removeAddBulk(FilterHandle[] removeCallbacks, FilterServiceEntry[] removeEntries, FilterValueSet[] addValueSets, FilterHandle[] addCallbacks);
+
     /**
      * Return a count of the number of events evaluated by this service.
      * @return count of invocations of evaluate method
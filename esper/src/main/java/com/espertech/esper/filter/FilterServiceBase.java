@@ -77,6 +77,24 @@ public abstract class FilterServiceBase implements FilterServiceSPI
         filtersVersion++;
     }
 
+    protected FilterServiceEntry[] removeAddBulkInternal(FilterHandle[] removeCallbacks, FilterServiceEntry[] removeEntries, FilterValueSet[] addValueSets, FilterHandle[] addCallbacks)
+    {
+        if (removeCallbacks != null) {
+            for (int i = 0; i < removeCallbacks.length; i++) {
+                indexBuilder.remove(removeCallbacks[i], removeEntries[i]);
+            }
+        }
+        FilterServiceEntry[] entries = null;
+        if (addCallbacks != null) {
+            entries = new FilterServiceEntry[addCallbacks.length];
+            for (int i = 0; i < addCallbacks.length; i++) {
+                entries[i] = indexBuilder.add(addValueSets[i], addCallbacks[i], lockFactory);
+            }
+        }
+        filtersVersion++;
+        return entries;
+    }
+
     protected long evaluateInternal(EventBean theEvent, Collection<FilterHandle> matches)
     {
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qFilter(theEvent);}
@@ -0,0 +1,195 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import java.util.ArrayList;
+
+/**
+ * Collects filter additions and removals between begin and end and applies them to the filter service
+ * in a single bulk operation when the outermost batch ends.
+ * <p>
+ * Outside of a batch the additions and removals go directly to the filter service.
+ * Within a batch the entry returned for an addition is a placeholder that the batch resolves
+ * when it applies the additions, therefore the removal of the filter must also go through the batch.
+ * Removing a filter that was added in the same batch cancels the addition.
+ * <p>
+ * Not thread-safe, the caller is expected to hold a lock such as the statement lock.
+ * The filter service is passed to each operation as a statement can move between filter services
+ * when it is isolated.
+ */
+public class FilterServiceBatch
+{
+    private int depth;
+
+    private final ArrayList<FilterHandle> removeCallbacks = new ArrayList<FilterHandle>();
+    private final ArrayList<FilterServiceEntry> removeEntries = new ArrayList<FilterServiceEntry>();
+    private final ArrayList<FilterValueSet> addValueSets = new ArrayList<FilterValueSet>();
+    private final ArrayList<FilterHandle> addCallbacks = new ArrayList<FilterHandle>();
+    private final ArrayList<PendingEntry> addEntries = new ArrayList<PendingEntry>();
+    private int numAddsCancelled;
+
+    /**
+     * Begin a batch, batches can be nested.
+     */
+    public void begin() {
+        depth++;
+    }
+
+    /**
+     * End a batch, applying the collected filter changes when ending the outermost batch.
+     * @param filterService service to apply the filter changes to
+     * @return true if filter changes were applied to the filter service
+     */
+    public boolean end(FilterService filterService) {
+        depth--;
+        if (depth > 0 || (removeCallbacks.isEmpty() && addCallbacks.isEmpty())) {
+            return false;
+        }
+
+        try {
+            FilterHandle[] removes = null;
+            FilterServiceEntry[] removesEntries = null;
+            if (!removeCallbacks.isEmpty()) {
+                removes = removeCallbacks.toArray(new FilterHandle[removeCallbacks.size()]);
+                removesEntries = removeEntries.toArray(new FilterServiceEntry[removeEntries.size()]);
+            }
+
+            FilterValueSet[] adds = null;
+            FilterHandle[] addsCallbacks = null;
+            PendingEntry[] addsEntries = null;
+            int numAdds = addCallbacks.size() - numAddsCancelled;
+            if (numAdds > 0) {
+                adds = new FilterValueSet[numAdds];
+                addsCallbacks = new FilterHandle[numAdds];
+                addsEntries = new PendingEntry[numAdds];
+                int count = 0;
+                for (int i = 0; i < addCallbacks.size(); i++) {
+                    if (addCallbacks.get(i) != null) {
+                        adds[count] = addValueSets.get(i);
+                        addsCallbacks[count] = addCallbacks.get(i);
+                        addsEntries[count] = addEntries.get(i);
+                        count++;
+                    }
+                }
+            }
+
+            if (removes == null && adds == null) {
+                return false;
+            }
+            FilterServiceEntry[] entries = filterService.removeAddBulk(removes, removesEntries, adds, addsCallbacks);
+            if (addsEntries != null) {
+                for (int i = 0; i < addsEntries.length; i++) {
+                    addsEntries[i].applied(entries[i]);
+                }
+            }
+            return true;
+        }
+        finally {
+            // additions that could not be applied are no longer removable
+            for (PendingEntry entry : addEntries) {
+                if (entry != null && !entry.isApplied()) {
+                    entry.applied(null);
+                    entry.discarded = true;
+                }
+            }
+            removeCallbacks.clear();
+            removeEntries.clear();
+            addValueSets.clear();
+            addCallbacks.clear();
+            addEntries.clear();
+            numAddsCancelled = 0;
+        }
+    }
+
+    /**
+     * Returns true if a batch is in progress.
+     * @return indicator
+     */
+    public boolean isActive() {
+        return depth > 0;
+    }
+
+    /**
+     * Add a filter.
+     * @param filterService service to add the filter to, when not in a batch
+     * @param filterValueSet filter parameters
+     * @param callback callback
+     * @return entry to pass to remove
+     */
+    public FilterServiceEntry add(FilterService filterService, FilterValueSet filterValueSet, FilterHandle callback) {
+        if (depth == 0) {
+            return filterService.add(filterValueSet, callback);
+        }
+        PendingEntry entry = new PendingEntry(addCallbacks.size());
+        addValueSets.add(filterValueSet);
+        addCallbacks.add(callback);
+        addEntries.add(entry);
+        return entry;
+    }
+
+    /**
+     * Remove a filter.
+     * @param filterService service to remove the filter from, when not in a batch
+     * @param callback callback
+     * @param filterServiceEntry entry returned by add
+     */
+    public void remove(FilterService filterService, FilterHandle callback, FilterServiceEntry filterServiceEntry) {
+        if (filterServiceEntry instanceof PendingEntry) {
+            PendingEntry pending = (PendingEntry) filterServiceEntry;
+            if (!pending.isApplied()) {
+                // added in this batch, cancel the addition
+                int index = pending.getIndex();
+                addValueSets.set(index, null);
+                addCallbacks.set(index, null);
+                addEntries.set(index, null);
+                numAddsCancelled++;
+                return;
+            }
+            if (pending.discarded) {
+                return;
+            }
+            filterServiceEntry = pending.getEntry();
+        }
+        if (depth == 0) {
+            filterService.remove(callback, filterServiceEntry);
+            return;
+        }
+        removeCallbacks.add(callback);
+        removeEntries.add(filterServiceEntry);
+    }
+
+    private static class PendingEntry implements FilterServiceEntry
+    {
+        private final int index;
+        private boolean applied;
+        private boolean discarded;
+        private FilterServiceEntry entry;
+
+        private PendingEntry(int index) {
+            this.index = index;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public boolean isApplied() {
+            return applied;
+        }
+
+        public FilterServiceEntry getEntry() {
+            return entry;
+        }
+
+        public void applied(FilterServiceEntry entry) {
+            this.entry = entry;
+            this.applied = true;
+        }
+    }
+}
@@ -13,4 +13,11 @@ import java.util.concurrent.locks.ReadWriteLock;
 public interface FilterServiceGranularLockFactory
 {
     public ReadWriteLock obtainNew();
+
+    /**
+     * Returns indicator whether filter index structures should publish copy-on-write snapshots
+     * so that event evaluation does not need to obtain any lock.
+     * @return copy-on-write indicator
+     */
+    public boolean isCopyOnWrite();
 }
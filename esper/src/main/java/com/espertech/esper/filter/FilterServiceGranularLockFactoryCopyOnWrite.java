@@ -0,0 +1,33 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Lock factory for use with copy-on-write filter structures.
+ * <p>
+ * Writers are serialized by the filter service therefore structures that publish snapshots do not require a lock.
+ * Indexes that do not support copy-on-write obtain a reentrant read-write lock from {@link IndexFactory}.
+ */
+public class FilterServiceGranularLockFactoryCopyOnWrite implements FilterServiceGranularLockFactory
+{
+    public static final FilterServiceGranularLockFactoryCopyOnWrite INSTANCE = new FilterServiceGranularLockFactoryCopyOnWrite();
+
+    private FilterServiceGranularLockFactoryCopyOnWrite() {
+    }
+
+    public ReadWriteLock obtainNew() {
+        return FilterServiceGranularLockFactoryNone.INSTANCE.obtainNew();
+    }
+
+    public boolean isCopyOnWrite() {
+        return true;
+    }
+}
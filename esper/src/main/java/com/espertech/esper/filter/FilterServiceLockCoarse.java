@@ -91,6 +91,16 @@ public final class FilterServiceLockCoarse extends FilterServiceBase
         }
     }
 
+    public FilterServiceEntry[] removeAddBulk(FilterHandle[] removeCallbacks, FilterServiceEntry[] removeEntries, FilterValueSet[] addValueSets, FilterHandle[] addCallbacks) {
+        lock.writeLock().lock();
+        try {
+            return super.removeAddBulkInternal(removeCallbacks, removeEntries, addValueSets, addCallbacks);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
     public void removeType(EventType type) {
         lock.writeLock().lock();
         try {
@@ -79,6 +79,10 @@ public final class FilterServiceLockFine extends FilterServiceBase
         super.removeInternal(callback, filterServiceEntry);
     }
 
+    public FilterServiceEntry[] removeAddBulk(FilterHandle[] removeCallbacks, FilterServiceEntry[] removeEntries, FilterValueSet[] addValueSets, FilterHandle[] addCallbacks) {
+        return super.removeAddBulkInternal(removeCallbacks, removeEntries, addValueSets, addCallbacks);
+    }
+
     public void removeType(EventType type) {
         super.removeTypeInternal(type);
     }
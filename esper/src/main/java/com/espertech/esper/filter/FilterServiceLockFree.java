@@ -0,0 +1,143 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Filter service for filters that change rarely: event evaluation does not obtain any lock.
+ * <p>
+ * Changes to filters are serialized by the write lock and publish copy-on-write snapshots of the filter indexes.
+ * Holding the write lock through {@link #acquireWriteLock()} marks an exclusive section: evaluations that overlap
+ * with an exclusive section are repeated under the read lock.
+ */
+public final class FilterServiceLockFree extends FilterServiceBase
+{
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile long exclusiveSequence;
+
+    public FilterServiceLockFree(boolean allowIsolation) {
+        super(FilterServiceGranularLockFactoryCopyOnWrite.INSTANCE, allowIsolation);
+    }
+
+    public void acquireWriteLock() {
+        lock.writeLock().lock();
+        exclusiveSequence++;
+    }
+
+    public void releaseWriteLock() {
+        exclusiveSequence++;
+        lock.writeLock().unlock();
+    }
+
+    public FilterSet take(Set<Integer> statementId) {
+        lock.writeLock().lock();
+        try {
+            return super.takeInternal(statementId);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void apply(FilterSet filterSet) {
+        lock.writeLock().lock();
+        try {
+            super.applyInternal(filterSet);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long evaluate(EventBean theEvent, Collection<FilterHandle> matches) {
+        long sequence = exclusiveSequence;
+        if ((sequence & 1) == 0) {
+            long version = super.evaluateInternal(theEvent, matches);
+            if (sequence == exclusiveSequence) {
+                return version;
+            }
+            matches.clear();
+        }
+
+        // an exclusive section is or was in progress
+        lock.readLock().lock();
+        try {
+            return super.evaluateInternal(theEvent, matches);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long evaluate(EventBean theEvent, Collection<FilterHandle> matches, int statementId) {
+        long sequence = exclusiveSequence;
+        if ((sequence & 1) == 0) {
+            long version = super.evaluateInternal(theEvent, matches, statementId);
+            if (sequence == exclusiveSequence) {
+                return version;
+            }
+            matches.clear();
+        }
+
+        // an exclusive section is or was in progress
+        lock.readLock().lock();
+        try {
+            return super.evaluateInternal(theEvent, matches, statementId);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public FilterServiceEntry add(FilterValueSet filterValueSet, FilterHandle callback) {
+        lock.writeLock().lock();
+        try {
+            return super.addInternal(filterValueSet, callback);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(FilterHandle callback, FilterServiceEntry filterServiceEntry) {
+        lock.writeLock().lock();
+        try {
+            super.removeInternal(callback, filterServiceEntry);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public FilterServiceEntry[] removeAddBulk(FilterHandle[] removeCallbacks, FilterServiceEntry[] removeEntries, FilterValueSet[] addValueSets, FilterHandle[] addCallbacks) {
+        lock.writeLock().lock();
+        try {
+            return super.removeAddBulkInternal(removeCallbacks, removeEntries, addValueSets, addCallbacks);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeType(EventType type) {
+        lock.writeLock().lock();
+        try {
+            super.removeTypeInternal(type);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
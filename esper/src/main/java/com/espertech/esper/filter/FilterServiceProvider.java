@@ -24,6 +24,9 @@ public final class FilterServiceProvider
         if (filterServiceProfile == ConfigurationEngineDefaults.FilterServiceProfile.READMOSTLY) {
             return new FilterServiceLockCoarse(allowIsolation);
         }
+        else if (filterServiceProfile == ConfigurationEngineDefaults.FilterServiceProfile.LOCKFREE) {
+            return new FilterServiceLockFree(allowIsolation);
+        }
         else {
             return new FilterServiceLockFine(allowIsolation);
         }
@@ -8,6 +8,9 @@
  **************************************************************************************/
 package com.espertech.esper.filter;
 
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
 /**
  * Factory for {@link FilterParamIndexBase} instances based on event property name and filter operator type.
  */
@@ -17,6 +20,8 @@ public class IndexFactory
      * Factory for indexes that store filter parameter constants for a given event property and filter
      * operator.
      * <p>Does not perform any check of validity of property name.
+     * <p>For copy-on-write lock factories the equals, not-equals, in and numeric compare indexes publish snapshots
+     * and do not lock for evaluation, while all other indexes obtain a reentrant read-write lock.
      *
      * @param filterOperator is the type of index to use
      * @return the proper index based on the filter operator type
@@ -25,30 +30,31 @@ public class IndexFactory
     {
         FilterParamIndexBase index;
         Class returnValueType = lookupable.getReturnType();
+        boolean copyOnWrite = lockFactory.isCopyOnWrite();
 
         // Handle all EQUAL comparisons
         if (filterOperator == FilterOperator.EQUAL)
         {
-            index = new FilterParamIndexEquals(lookupable, lockFactory.obtainNew());
+            index = new FilterParamIndexEquals(lookupable, lockFactory.obtainNew(), copyOnWrite);
             return index;
         }
 
         // Handle all NOT-EQUAL comparisons
         if (filterOperator == FilterOperator.NOT_EQUAL)
         {
-            index = new FilterParamIndexNotEquals(lookupable, lockFactory.obtainNew());
+            index = new FilterParamIndexNotEquals(lookupable, lockFactory.obtainNew(), copyOnWrite);
             return index;
         }
 
         if (filterOperator == FilterOperator.IS)
         {
-            index = new FilterParamIndexEqualsIs(lookupable, lockFactory.obtainNew());
+            index = new FilterParamIndexEqualsIs(lookupable, lockFactory.obtainNew(), copyOnWrite);
             return index;
         }
 
         if (filterOperator == FilterOperator.IS_NOT)
         {
-            index = new FilterParamIndexNotEqualsIs(lookupable, lockFactory.obtainNew());
+            index = new FilterParamIndexNotEqualsIs(lookupable, lockFactory.obtainNew(), copyOnWrite);
             return index;
         }
 
@@ -59,10 +65,10 @@ public class IndexFactory
             (filterOperator == FilterOperator.LESS_OR_EQUAL))
         {
             if (returnValueType != String.class) {
-                index = new FilterParamIndexCompare(lookupable, lockFactory.obtainNew(), filterOperator);
+                index = new FilterParamIndexCompare(lookupable, lockFactory.obtainNew(), filterOperator, copyOnWrite);
             }
             else {
-                index = new FilterParamIndexCompareString(lookupable, lockFactory.obtainNew(), filterOperator);
+                index = new FilterParamIndexCompareString(lookupable, obtainNonCopyOnWrite(lockFactory), filterOperator);
             }
             return index;
         }
@@ -71,39 +77,47 @@ public class IndexFactory
         if (filterOperator.isRangeOperator())
         {
             if (returnValueType != String.class) {
-                index = new FilterParamIndexDoubleRange(lookupable, lockFactory.obtainNew(), filterOperator);
+                index = new FilterParamIndexDoubleRange(lookupable, obtainNonCopyOnWrite(lockFactory), filterOperator);
             }
             else {
-                index = new FilterParamIndexStringRange(lookupable, lockFactory.obtainNew(), filterOperator);
+                index = new FilterParamIndexStringRange(lookupable, obtainNonCopyOnWrite(lockFactory), filterOperator);
             }
             return index;
         }
         if (filterOperator.isInvertedRangeOperator())
         {
             if (returnValueType != String.class) {
-                return new FilterParamIndexDoubleRangeInverted(lookupable, lockFactory.obtainNew(), filterOperator);
+                return new FilterParamIndexDoubleRangeInverted(lookupable, obtainNonCopyOnWrite(lockFactory), filterOperator);
             }
             else {
-                return new FilterParamIndexStringRangeInverted(lookupable, lockFactory.obtainNew(), filterOperator);
+                return new FilterParamIndexStringRangeInverted(lookupable, obtainNonCopyOnWrite(lockFactory), filterOperator);
             }
         }
 
         // Handle all IN and NOT IN comparisons
         if (filterOperator == FilterOperator.IN_LIST_OF_VALUES)
         {
-            return new FilterParamIndexIn(lookupable, lockFactory.obtainNew());
+            return new FilterParamIndexIn(lookupable, lockFactory.obtainNew(), copyOnWrite);
         }
         if (filterOperator == FilterOperator.NOT_IN_LIST_OF_VALUES)
         {
-            return new FilterParamIndexNotIn(lookupable, lockFactory.obtainNew());
+            return new FilterParamIndexNotIn(lookupable, obtainNonCopyOnWrite(lockFactory));
         }
 
         // Handle all boolean expression
         if (filterOperator == FilterOperator.BOOLEAN_EXPRESSION)
         {
-            return new FilterParamIndexBooleanExpr(lockFactory.obtainNew());
+            return new FilterParamIndexBooleanExpr(obtainNonCopyOnWrite(lockFactory));
         }
         throw new IllegalArgumentException("Cannot create filter index instance for filter operator " + filterOperator);
     }
+
+    private static ReadWriteLock obtainNonCopyOnWrite(FilterServiceGranularLockFactory lockFactory)
+    {
+        if (lockFactory.isCopyOnWrite()) {
+            return new ReentrantReadWriteLock();
+        }
+        return lockFactory.obtainNew();
+    }
 }
 
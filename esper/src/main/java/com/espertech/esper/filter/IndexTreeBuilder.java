@@ -378,9 +378,12 @@ public final class IndexTreeBuilder
 
                 // The found eventEvaluator must be converted to a new FilterHandleSetNode
                 FilterParamIndexBase nextIndex = (FilterParamIndexBase) eventEvaluator;
-                FilterHandleSetNode newNode = new FilterHandleSetNode(lockFactory.obtainNew());
+                FilterHandleSetNode newNode = new FilterHandleSetNode(lockFactory.obtainNew(), lockFactory.isCopyOnWrite());
                 newNode.add(nextIndex);
-                index.remove(filterForValue);
+                // copy-on-write indexes replace in a single step so that readers never observe a missing value
+                if (!lockFactory.isCopyOnWrite() || index instanceof FilterParamIndexNotIn) {
+                    index.remove(filterForValue);
+                }
                 index.put(filterForValue, newNode);
                 addToNode(remainingParameters, filterCallback, newNode, treePathInfo, lockFactory);
 
@@ -391,7 +394,7 @@ public final class IndexTreeBuilder
             // if there are no remaining parameters, create a node
             if (remainingParameters.isEmpty())
             {
-                FilterHandleSetNode node = new FilterHandleSetNode(lockFactory.obtainNew());
+                FilterHandleSetNode node = new FilterHandleSetNode(lockFactory.obtainNew(), lockFactory.isCopyOnWrite());
                 addToNode(remainingParameters, filterCallback, node, treePathInfo, lockFactory);
                 index.put(filterForValue, node);
                 return;
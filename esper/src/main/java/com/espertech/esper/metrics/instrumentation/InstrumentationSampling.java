@@ -0,0 +1,530 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.metrics.instrumentation;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+import com.espertech.esper.epl.expression.dot.ExprDotNode;
+import com.espertech.esper.epl.expression.funcs.ExprCaseNode;
+import com.espertech.esper.epl.expression.ops.*;
+import com.espertech.esper.epl.expression.subquery.ExprSubselectNode;
+import com.espertech.esper.epl.named.NamedWindowConsumerView;
+import com.espertech.esper.epl.named.NamedWindowDeltaData;
+import com.espertech.esper.epl.spec.ExpressionDeclItem;
+import com.espertech.esper.filter.EventEvaluator;
+import com.espertech.esper.filter.ExprNodeAdapterBase;
+import com.espertech.esper.filter.FilterHandle;
+import com.espertech.esper.filter.FilterParamIndexBooleanExpr;
+import com.espertech.esper.filter.FilterParamIndexLookupableBase;
+import com.espertech.esper.view.View;
+
+import java.io.*;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sampling profiler that attributes wall time to statements, views, expressions and filter indexes.
+ * <p>
+ * Samples one in every N events and time events per thread. For a sampled event, each instrumented
+ * step pushes a frame and the self time of each frame, i.e. the wall time not spent in a nested frame,
+ * is accumulated per stack. Events that are not sampled only pay for a thread-local lookup per hook.
+ * <p>
+ * The output is in the collapsed-stack format that flame graph tools read: one line per stack,
+ * frames separated by semicolon followed by a space and the self time in nanoseconds.
+ * <p>
+ * An engine runtime that the metrics reporting configuration assigns a profiler sample rate invokes the profiler for events,
+ * time events and the statements that events match, which attributes wall time to event types and statements
+ * without the instrumentation hooks. Builds that have {@link InstrumentationHelper#ENABLED} set can install the profiler
+ * as the instrumentation for views, filter indexes, where-clause, select-clause, aggregation and expression detail.
+ */
+public class InstrumentationSampling extends InstrumentationDefault {
+
+    private final int sampleRate;
+    private final ConcurrentHashMap<String, AtomicLong> selfTimes = new ConcurrentHashMap<String, AtomicLong>();
+    private final Map<Object, String> labels = Collections.synchronizedMap(new WeakHashMap<Object, String>());
+    private final Map<ExprNode, String> expressionTexts = Collections.synchronizedMap(new WeakHashMap<ExprNode, String>());
+    private final ThreadLocal<SampleState> states = new ThreadLocal<SampleState>() {
+        protected SampleState initialValue() {
+            return new SampleState();
+        }
+    };
+
+    /**
+     * Ctor.
+     * @param sampleRate sample one in this number of events, 1 samples every event
+     */
+    public InstrumentationSampling(int sampleRate) {
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("Sample rate must be a positive number, received " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Returns the self time in nanoseconds per collapsed stack.
+     * @return stacks and self times sorted by stack
+     */
+    public Map<String, Long> getSelfTimes() {
+        Map<String, Long> result = new TreeMap<String, Long>();
+        for (Map.Entry<String, AtomicLong> entry : selfTimes.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().get());
+        }
+        return result;
+    }
+
+    /**
+     * Writes the collapsed stacks with self times in nanoseconds.
+     * @param writer to write to
+     * @throws IOException if the writer fails
+     */
+    public void writeCollapsedStacks(Writer writer) throws IOException {
+        for (Map.Entry<String, Long> entry : getSelfTimes().entrySet()) {
+            writer.write(entry.getKey());
+            writer.write(' ');
+            writer.write(Long.toString(entry.getValue()));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes the collapsed stacks with self times in nanoseconds to a file.
+     * @param file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void writeCollapsedStacks(File file) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+        try {
+            writeCollapsedStacks(writer);
+        }
+        finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Discards the stacks collected so far.
+     */
+    public void reset() {
+        selfTimes.clear();
+    }
+
+    public void qStimulantEvent(EventBean eventBean, String engineURI) {
+        SampleState state = states.get();
+        if (isSampleStimulant(state)) {
+            String typeName = eventBean.getEventType().getName();
+            state.push(typeName == null ? "event" : sanitize("event " + typeName), true);
+        }
+    }
+
+    public void aStimulantEvent() {
+        aStimulant();
+    }
+
+    public void qStimulantTime(long currentTime, String engineURI) {
+        SampleState state = states.get();
+        if (isSampleStimulant(state)) {
+            state.push("time", true);
+        }
+    }
+
+    public void aStimulantTime() {
+        aStimulant();
+    }
+
+    public void qEventCP(EventBean theEvent, EPStatementAgentInstanceHandle handle, long engineTime) {
+        push(handle, "statement ", handle.getStatementHandle().getStatementName());
+    }
+
+    public void aEventCP() {
+        pop();
+    }
+
+    public void qTimeCP(EPStatementAgentInstanceHandle handle, long engineTime) {
+        push(handle, "statement ", handle.getStatementHandle().getStatementName());
+    }
+
+    public void aTimeCP() {
+        pop();
+    }
+
+    public void qNamedWindowCPSingle(String engineURI, List<NamedWindowConsumerView> value, EventBean[] newData, EventBean[] oldData, EPStatementAgentInstanceHandle handle, long time) {
+        push(handle, "statement ", handle.getStatementHandle().getStatementName());
+    }
+
+    public void aNamedWindowCPSingle() {
+        pop();
+    }
+
+    public void qNamedWindowCPMulti(String engineURI, Map<NamedWindowConsumerView, NamedWindowDeltaData> deltaPerConsumer, EPStatementAgentInstanceHandle handle, long time) {
+        push(handle, "statement ", handle.getStatementHandle().getStatementName());
+    }
+
+    public void aNamedWindowCPMulti() {
+        pop();
+    }
+
+    public void qViewProcessIRStream(View view, String viewName, EventBean[] newData, EventBean[] oldData) {
+        push(viewName, "view ", viewName);
+    }
+
+    public void aViewProcessIRStream() {
+        pop();
+    }
+
+    public void qViewScheduledEval(View view, String viewName) {
+        push(viewName, "view ", viewName);
+    }
+
+    public void aViewScheduledEval() {
+        pop();
+    }
+
+    public void qFilter(EventBean theEvent) {
+        push(null, "filter", "");
+    }
+
+    public void aFilter(Collection<FilterHandle> matches) {
+        pop();
+    }
+
+    public void qFilterReverseIndex(FilterParamIndexLookupableBase filterParamIndex, Object propertyValue) {
+        if (isSampling()) {
+            push(filterParamIndex, "filter index ", filterParamIndex.getLookupable().getExpression() + " " + filterParamIndex.getFilterOperator().getTextualOp());
+        }
+    }
+
+    public void aFilterReverseIndex(Boolean match) {
+        pop();
+    }
+
+    public void qFilterBoolean(FilterParamIndexBooleanExpr filterParamIndexBooleanExpr) {
+        push(null, "filter index boolean", "");
+    }
+
+    public void aFilterBoolean() {
+        pop();
+    }
+
+    public void qFilterBooleanExpr(int num, Map.Entry<ExprNodeAdapterBase, EventEvaluator> evals) {
+        pushExpr("filter expression ", evals.getKey().getExprNode());
+    }
+
+    public void aFilterBooleanExpr(boolean result) {
+        pop();
+    }
+
+    public void qWhereClauseFilter(ExprNode exprNode, EventBean[] newData, EventBean[] oldData) {
+        pushExpr("where ", exprNode);
+    }
+
+    public void aWhereClauseFilter(EventBean[] filteredNewData, EventBean[] filteredOldData) {
+        pop();
+    }
+
+    public void qHavingClauseNonJoin(EventBean theEvent) {
+        push(null, "having", "");
+    }
+
+    public void aHavingClauseNonJoin(Boolean pass) {
+        pop();
+    }
+
+    public void qHavingClauseJoin(EventBean[] eventsPerStream) {
+        push(null, "having", "");
+    }
+
+    public void aHavingClauseJoin(Boolean pass) {
+        pop();
+    }
+
+    public void qSelectClause(EventBean[] eventsPerStream, boolean newData, boolean synthesize, ExprEvaluatorContext exprEvaluatorContext) {
+        push(null, "select", "");
+    }
+
+    public void aSelectClause(boolean newData, EventBean event, Object[] subscriberParameters) {
+        pop();
+    }
+
+    public void qAggregationUngroupedApplyEnterLeave(boolean enter, int numAggregators, int numAccessStates) {
+        push(null, "aggregation", "");
+    }
+
+    public void aAggregationUngroupedApplyEnterLeave(boolean enter) {
+        pop();
+    }
+
+    public void qAggregationGroupedApplyEnterLeave(boolean enter, int numAggregators, int numAccessStates, Object groupKey) {
+        push(null, "aggregation", "");
+    }
+
+    public void aAggregationGroupedApplyEnterLeave(boolean enter) {
+        pop();
+    }
+
+    public void qExprBool(ExprNode exprNode, EventBean[] eventsPerStream) {
+        pushExpr("expression ", exprNode);
+    }
+
+    public void aExprBool(Boolean result) {
+        pop();
+    }
+
+    public void qExprValue(ExprNode exprNode, EventBean[] eventsPerStream) {
+        pushExpr("expression ", exprNode);
+    }
+
+    public void aExprValue(Object result) {
+        pop();
+    }
+
+    public void qExprEquals(ExprNode exprNode) {
+        pushExpr("expression ", exprNode);
+    }
+
+    public void aExprEquals(Boolean result) {
+        pop();
+    }
+
+    public void qExprAnd(ExprNode exprNode) {
+        pushExpr("expression ", exprNode);
+    }
+
+    public void aExprAnd(Boolean result) {
+        pop();
+    }
+
+    public void qExprOr(ExprOrNode exprOrNode) {
+        pushExpr("expression ", exprOrNode);
+    }
+
+    public void aExprOr(Boolean result) {
+        pop();
+    }
+
+    public void qExprNot(ExprNotNode exprNotNode) {
+        pushExpr("expression ", exprNotNode);
+    }
+
+    public void aExprNot(Boolean result) {
+        pop();
+    }
+
+    public void qExprLike(ExprNode exprNode) {
+        pushExpr("expression ", exprNode);
+    }
+
+    public void aExprLike(Boolean result) {
+        pop();
+    }
+
+    public void qExprRegexp(ExprRegexpNode exprRegexpNode) {
+        pushExpr("expression ", exprRegexpNode);
+    }
+
+    public void aExprRegexp(Boolean result) {
+        pop();
+    }
+
+    public void qExprMath(ExprMathNode exprMathNode, String op) {
+        pushExpr("expression ", exprMathNode);
+    }
+
+    public void aExprMath(Object result) {
+        pop();
+    }
+
+    public void qExprRelOp(ExprRelationalOpNodeImpl exprRelationalOpNode, String op) {
+        pushExpr("expression ", exprRelationalOpNode);
+    }
+
+    public void aExprRelOp(Boolean result) {
+        pop();
+    }
+
+    public void qExprIn(ExprInNodeImpl exprInNode) {
+        pushExpr("expression ", exprInNode);
+    }
+
+    public void aExprIn(Boolean result) {
+        pop();
+    }
+
+    public void qExprBetween(ExprBetweenNodeImpl exprBetweenNode) {
+        pushExpr("expression ", exprBetweenNode);
+    }
+
+    public void aExprBetween(Boolean result) {
+        pop();
+    }
+
+    public void qExprCase(ExprCaseNode exprCaseNode) {
+        pushExpr("expression ", exprCaseNode);
+    }
+
+    public void aExprCase(Object result) {
+        pop();
+    }
+
+    public void qExprDot(ExprDotNode exprDotNode) {
+        pushExpr("expression ", exprDotNode);
+    }
+
+    public void aExprDot(Object result) {
+        pop();
+    }
+
+    public void qExprPlugInSingleRow(Method method) {
+        if (isSampling()) {
+            push(method, "function ", method.getDeclaringClass().getSimpleName() + "." + method.getName());
+        }
+    }
+
+    public void aExprPlugInSingleRow(Object result) {
+        pop();
+    }
+
+    public void qExprSubselect(ExprSubselectNode exprSubselectNode) {
+        pushExpr("subquery ", exprSubselectNode);
+    }
+
+    public void aExprSubselect(Object result) {
+        pop();
+    }
+
+    public void qExprDeclared(ExpressionDeclItem parent) {
+        push(parent, "expression ", parent.getName());
+    }
+
+    public void aExprDeclared(Object value) {
+        pop();
+    }
+
+    private boolean isSampleStimulant(SampleState state) {
+        if (state.depth > 0) {
+            return true;
+        }
+        state.count++;
+        if (state.count < sampleRate) {
+            return false;
+        }
+        state.count = 0;
+        return true;
+    }
+
+    private void aStimulant() {
+        SampleState state = states.get();
+        if (state.depth == 0) {
+            return;
+        }
+        // unwind frames left open by a step that did not complete
+        while (!state.stimulant[state.depth - 1]) {
+            state.pop(selfTimes);
+        }
+        state.pop(selfTimes);
+    }
+
+    private boolean isSampling() {
+        return states.get().depth > 0;
+    }
+
+    private void push(Object key, String prefix, String text) {
+        SampleState state = states.get();
+        if (state.depth == 0) {
+            return;
+        }
+        String label;
+        if (key == null) {
+            label = prefix + text;
+        }
+        else {
+            label = labels.get(key);
+            if (label == null) {
+                label = sanitize(prefix + text);
+                labels.put(key, label);
+            }
+        }
+        state.push(label, false);
+    }
+
+    private void pushExpr(String prefix, ExprNode exprNode) {
+        SampleState state = states.get();
+        if (state.depth == 0) {
+            return;
+        }
+        String text = expressionTexts.get(exprNode);
+        if (text == null) {
+            text = sanitize(ExprNodeUtility.toExpressionStringMinPrecedenceSafe(exprNode));
+            expressionTexts.put(exprNode, text);
+        }
+        state.push(prefix + text, false);
+    }
+
+    private void pop() {
+        SampleState state = states.get();
+        if (state.depth == 0 || state.stimulant[state.depth - 1]) {
+            return;
+        }
+        state.pop(selfTimes);
+    }
+
+    private static String sanitize(String label) {
+        return label.replace(';', ',').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    private static class SampleState {
+        private int count;
+        private int depth;
+        private String[] paths = new String[16];
+        private long[] starts = new long[16];
+        private long[] childTimes = new long[16];
+        private boolean[] stimulant = new boolean[16];
+
+        private void push(String label, boolean isStimulant) {
+            if (depth == paths.length) {
+                paths = Arrays.copyOf(paths, depth * 2);
+                starts = Arrays.copyOf(starts, depth * 2);
+                childTimes = Arrays.copyOf(childTimes, depth * 2);
+                stimulant = Arrays.copyOf(stimulant, depth * 2);
+            }
+            paths[depth] = depth == 0 ? label : paths[depth - 1] + ";" + label;
+            childTimes[depth] = 0;
+            stimulant[depth] = isStimulant;
+            starts[depth] = System.nanoTime();
+            depth++;
+        }
+
+        private void pop(ConcurrentHashMap<String, AtomicLong> selfTimes) {
+            depth--;
+            long elapsed = System.nanoTime() - starts[depth];
+            long self = elapsed - childTimes[depth];
+            AtomicLong total = selfTimes.get(paths[depth]);
+            if (total == null) {
+                total = new AtomicLong();
+                AtomicLong existing = selfTimes.putIfAbsent(paths[depth], total);
+                if (existing != null) {
+                    total = existing;
+                }
+            }
+            total.addAndGet(self);
+            paths[depth] = null;
+            if (depth > 0) {
+                childTimes[depth - 1] += elapsed;
+            }
+        }
+    }
+}
@@ -13,6 +13,7 @@ import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -63,7 +64,7 @@ public class EvalEveryDistinctStateNode extends EvalStateNode implements Evaluat
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qPatternEveryDistinctStart(everyDistinctNode, beginState);}
         this.beginState = beginState.shallowCopy();
         EvalStateNode childState = everyDistinctNode.getChildNode().newState(this, null, 0L);
-        spawnedNodes.put(childState, new HashSet<Object>());
+        spawnedNodes.put(childState, Collections.<Object>emptySet());
 
         if (spawnedNodes.size() != 1)
         {
@@ -109,7 +110,7 @@ public class EvalEveryDistinctStateNode extends EvalStateNode implements Evaluat
         }
         else
         {
-            spawnedNodes.put(spawned, new HashSet<Object>());
+            spawnedNodes.put(spawned, Collections.<Object>emptySet());
             spawned.setParentEvaluator(this);
         }
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aPatternEveryDistinctEvalFalse();}
@@ -131,6 +132,11 @@ public class EvalEveryDistinctStateNode extends EvalStateNode implements Evaluat
             }
             else
             {
+                // the key set is allocated when the first key arrives, as many spawned nodes never see a key
+                if (keysFromNode.isEmpty()) {
+                    keysFromNode = new HashSet<Object>();
+                    spawnedNodes.put(fromNode, keysFromNode);
+                }
                 keysFromNode.add(matchEventKey);
             }
         }
@@ -161,10 +167,19 @@ public class EvalEveryDistinctStateNode extends EvalStateNode implements Evaluat
             }
             else
             {
-                Set<Object> keyset = new HashSet<Object>();
-                if (keysFromNode != null)
+                Set<Object> keyset;
+                if (keysFromNode == null || keysFromNode.isEmpty())
+                {
+                    keyset = Collections.emptySet();
+                }
+                else if (isQuitted)
+                {
+                    // the quitted node no longer uses its keys, hand them over rather than copy
+                    keyset = keysFromNode;
+                }
+                else
                 {
-                    keyset.addAll(keysFromNode);
+                    keyset = new HashSet<Object>(keysFromNode);
                 }
                 spawnedNodes.put(spawned, keyset);
                 spawned.setParentEvaluator(this);
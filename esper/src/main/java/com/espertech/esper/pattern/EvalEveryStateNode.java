@@ -38,7 +38,7 @@ public class EvalEveryStateNode extends EvalStateNode implements Evaluator
         super(parentNode);
 
         this.evalEveryNode = evalEveryNode;
-        this.spawnedNodes = new ArrayList<EvalStateNode>();
+        this.spawnedNodes = new ArrayList<EvalStateNode>(1);
     }
 
     public void removeMatch(Set<EventBean> matchEvent) {
@@ -87,6 +87,19 @@ public class EvalFilterStateNode extends EvalStateNode implements FilterHandleCa
     }
 
     public void matchFound(EventBean theEvent, Collection<FilterHandleCallback> allStmtMatches)
+    {
+        // filters that the pattern adds and removes as a result of the match are applied in one operation
+        PatternAgentInstanceContext context = evalFilterNode.getContext();
+        context.beginFilterBatch();
+        try {
+            matchFoundInternal(theEvent);
+        }
+        finally {
+            context.endFilterBatch();
+        }
+    }
+
+    private void matchFoundInternal(EventBean theEvent)
     {
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qPatternFilterMatch(evalFilterNode, theEvent);}
 
@@ -185,7 +198,7 @@ public class EvalFilterStateNode extends EvalStateNode implements FilterHandleCa
         FilterService filterService = evalFilterNode.getContext().getPatternContext().getFilterService();
         handle = new EPStatementHandleCallback(evalFilterNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle(), this);
         FilterValueSet filterValues = evalFilterNode.getFactoryNode().getFilterSpec().getValueSet(beginState, evalFilterNode.getContext().getAgentInstanceContext(), evalFilterNode.getAddendumFilters());
-        filterServiceEntry = filterService.add(filterValues, handle);
+        filterServiceEntry = evalFilterNode.getContext().getFilterBatch().add(filterService, filterValues, handle);
         long filtersVersion = filterService.getFiltersVersion();
         evalFilterNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle().getStatementFilterVersion().setStmtFilterVersion(filtersVersion);
     }
@@ -194,7 +207,7 @@ public class EvalFilterStateNode extends EvalStateNode implements FilterHandleCa
     {
         PatternContext context = evalFilterNode.getContext().getPatternContext();
         if (handle != null) {
-            context.getFilterService().remove(handle, filterServiceEntry);
+            evalFilterNode.getContext().getFilterBatch().remove(context.getFilterService(), handle, filterServiceEntry);
         }
         handle = null;
         filterServiceEntry = null;
@@ -12,7 +12,6 @@ package com.espertech.esper.pattern;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
-import java.util.HashMap;
 import java.util.Set;
 
 /**
@@ -21,7 +20,7 @@ import java.util.Set;
 public class EvalFollowedByStateNode extends EvalStateNode implements Evaluator
 {
     protected final EvalFollowedByNode evalFollowedByNode;
-    protected final HashMap<EvalStateNode, Integer> nodes;
+    protected final EvalStateNodeIndexMap nodes;
 
     /**
      * Constructor.
@@ -34,11 +33,11 @@ public class EvalFollowedByStateNode extends EvalStateNode implements Evaluator
         super(parentNode);
 
         this.evalFollowedByNode = evalFollowedByNode;
-        this.nodes = new HashMap<EvalStateNode, Integer>();
+        this.nodes = new EvalStateNodeIndexMap();
     }
 
     public void removeMatch(Set<EventBean> matchEvent) {
-        PatternConsumptionUtil.childNodeRemoveMatches(matchEvent, nodes.keySet());
+        PatternConsumptionUtil.childNodeRemoveMatches(matchEvent, nodes.getNodes());
     }
 
     @Override
@@ -58,8 +57,8 @@ public class EvalFollowedByStateNode extends EvalStateNode implements Evaluator
 
     public final void evaluateTrue(MatchedEventMap matchEvent, EvalStateNode fromNode, boolean isQuitted)
     {
-        Integer index = nodes.get(fromNode);
-        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qPatternFollowedByEvaluateTrue(evalFollowedByNode, matchEvent, index);}
+        int index = nodes.get(fromNode);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qPatternFollowedByEvaluateTrue(evalFollowedByNode, matchEvent, index == -1 ? null : index);}
 
         if (isQuitted)
         {
@@ -68,7 +67,7 @@ public class EvalFollowedByStateNode extends EvalStateNode implements Evaluator
 
         // the node may already have quit as a result of an outer state quitting this state,
         // however the callback may still be received; It is fine to ignore this callback. 
-        if (index == null)
+        if (index == -1)
         {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aPatternFollowedByEvaluateTrue(false);}
             return;
@@ -123,7 +122,7 @@ public class EvalFollowedByStateNode extends EvalStateNode implements Evaluator
 
     public final void accept(EvalStateNodeVisitor visitor) {
         visitor.visitFollowedBy(evalFollowedByNode.getFactoryNode(), this, nodes);
-        for (EvalStateNode node : nodes.keySet()) {
+        for (EvalStateNode node : nodes.getNodes()) {
             node.accept(visitor);
         }
     }
@@ -151,7 +150,7 @@ public class EvalFollowedByStateNode extends EvalStateNode implements Evaluator
 
     private final void quitInternal()
     {
-        for (EvalStateNode child : nodes.keySet()) {
+        for (EvalStateNode child : nodes.getNodes()) {
             child.quit();
         }
         nodes.clear();
@@ -13,8 +13,6 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.hook.ConditionPatternSubexpressionMax;
 import com.espertech.esper.pattern.pool.PatternSubexpressionPoolStmtSvc;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -24,7 +22,7 @@ import java.util.Set;
 public class EvalFollowedByWithMaxStateNodeManaged extends EvalStateNode implements Evaluator
 {
     protected final EvalFollowedByNode evalFollowedByNode;
-    protected final HashMap<EvalStateNode, Integer> nodes;
+    protected final EvalStateNodeIndexMap nodes;
     protected final int[] countActivePerChild;
 
     /**
@@ -38,7 +36,7 @@ public class EvalFollowedByWithMaxStateNodeManaged extends EvalStateNode impleme
         super(parentNode);
 
         this.evalFollowedByNode = evalFollowedByNode;
-        this.nodes = new HashMap<EvalStateNode, Integer>();
+        this.nodes = new EvalStateNodeIndexMap();
         if (evalFollowedByNode.isTrackWithMax()) {
             this.countActivePerChild = new int[evalFollowedByNode.getChildNodes().length - 1];
         }
@@ -48,7 +46,7 @@ public class EvalFollowedByWithMaxStateNodeManaged extends EvalStateNode impleme
     }
 
     public void removeMatch(Set<EventBean> matchEvent) {
-        PatternConsumptionUtil.childNodeRemoveMatches(matchEvent, nodes.keySet());
+        PatternConsumptionUtil.childNodeRemoveMatches(matchEvent, nodes.getNodes());
     }
 
     @Override
@@ -66,12 +64,12 @@ public class EvalFollowedByWithMaxStateNodeManaged extends EvalStateNode impleme
 
     public final void evaluateTrue(MatchedEventMap matchEvent, EvalStateNode fromNode, boolean isQuitted)
     {
-        Integer index = nodes.get(fromNode);
+        int index = nodes.get(fromNode);
 
         if (isQuitted)
         {
             nodes.remove(fromNode);
-            if (index != null && index > 0) {
+            if (index > 0) {
                 if (evalFollowedByNode.isTrackWithMax()) {
                     countActivePerChild[index - 1]--;
                 }
@@ -85,7 +83,7 @@ public class EvalFollowedByWithMaxStateNodeManaged extends EvalStateNode impleme
 
         // the node may already have quit as a result of an outer state quitting this state,
         // however the callback may still be received; It is fine to ignore this callback. 
-        if (index == null)
+        if (index == -1)
         {
             return;
         }
@@ -138,8 +136,8 @@ public class EvalFollowedByWithMaxStateNodeManaged extends EvalStateNode impleme
     public final void evaluateFalse(EvalStateNode fromNode, boolean restartable)
     {
         fromNode.quit();
-        Integer index = nodes.remove(fromNode);
-        if (index != null && index > 0) {
+        int index = nodes.remove(fromNode);
+        if (index > 0) {
             if (evalFollowedByNode.isTrackWithMax()) {
                 countActivePerChild[index - 1]--;
             }
@@ -175,11 +173,12 @@ public class EvalFollowedByWithMaxStateNodeManaged extends EvalStateNode impleme
 
     public final void quit()
     {
-        for (Map.Entry<EvalStateNode, Integer> entry : nodes.entrySet())
+        for (EvalStateNode node : nodes.getNodes())
         {
-            entry.getKey().quit();
+            int index = nodes.get(node);
+            node.quit();
             if (evalFollowedByNode.isTrackWithPool()) {
-                if (entry.getValue() > 0) {
+                if (index > 0) {
                     PatternSubexpressionPoolStmtSvc poolSvc = evalFollowedByNode.getContext().getStatementContext().getPatternSubexpressionPoolSvc();
                     poolSvc.getEngineSvc().decreaseCount(evalFollowedByNode, evalFollowedByNode.getContext().getAgentInstanceContext());
                     poolSvc.getStmtHandler().decreaseCount();
@@ -191,7 +190,7 @@ public class EvalFollowedByWithMaxStateNodeManaged extends EvalStateNode impleme
     public final void accept(EvalStateNodeVisitor visitor)
     {
         visitor.visitFollowedBy(evalFollowedByNode.getFactoryNode(), this, nodes, countActivePerChild);
-        for (EvalStateNode node : nodes.keySet()) {
+        for (EvalStateNode node : nodes.getNodes()) {
             node.accept(visitor);
         }
     }
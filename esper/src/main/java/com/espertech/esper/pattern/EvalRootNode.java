@@ -8,6 +8,7 @@
  **************************************************************************************/
 package com.espertech.esper.pattern;
 
+import com.espertech.esper.pattern.pool.PatternSubexpressionPoolStmtSvc;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -61,14 +62,24 @@ public class EvalRootNode extends EvalNodeBase implements PatternStarter
         EvalStateNode rootStateNode = newState(null, null, 0L);
         EvalRootState rootState = (EvalRootState) rootStateNode;
         rootState.setCallback(callback);
-        rootState.startRecoverable(isRecoveringResilient, beginState);
+        PatternSubexpressionPoolStmtSvc poolSvc = context.getStatementContext().getPatternSubexpressionPoolSvc();
+        if (poolSvc != null) {
+            poolSvc.addRoot(rootState);
+        }
+        getContext().beginFilterBatch();
+        try {
+            rootState.startRecoverable(isRecoveringResilient, beginState);
+        }
+        finally {
+            getContext().endFilterBatch();
+        }
         return rootState;
     }
 
     public EvalStateNode newState(Evaluator parentNode,
                                   EvalStateNodeNumber stateNodeNumber, long stateNodeId)
     {
-        return new EvalRootStateNode(childNode);
+        return new EvalRootStateNode(getContext(), childNode);
     }
 
     private static final Log log = LogFactory.getLog(EvalRootNode.class);
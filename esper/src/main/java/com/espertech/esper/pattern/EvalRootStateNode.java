@@ -10,6 +10,7 @@ package com.espertech.esper.pattern;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.pattern.pool.PatternSubexpressionPoolStmtSvc;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -21,17 +22,20 @@ import java.util.Set;
  */
 public class EvalRootStateNode extends EvalStateNode implements Evaluator, PatternStopCallback, EvalRootState
 {
+    protected final PatternAgentInstanceContext context;
     protected EvalNode rootSingleChildNode;
     protected EvalStateNode topStateNode;
     private PatternMatchCallback callback;
 
     /**
      * Constructor.
+     * @param context pattern agent instance context
      * @param rootSingleChildNode is the root nodes single child node
      */
-    public EvalRootStateNode(EvalNode rootSingleChildNode)
+    public EvalRootStateNode(PatternAgentInstanceContext context, EvalNode rootSingleChildNode)
     {
         super(null);
+        this.context = context;
         this.rootSingleChildNode = rootSingleChildNode;
     }
 
@@ -63,7 +67,18 @@ public class EvalRootStateNode extends EvalStateNode implements Evaluator, Patte
 
     public final void stop()
     {
-        quit();
+        // filters of all active sub-expressions are removed in one operation
+        context.beginFilterBatch();
+        try {
+            quit();
+        }
+        finally {
+            context.endFilterBatch();
+        }
+        PatternSubexpressionPoolStmtSvc poolSvc = context.getStatementContext().getPatternSubexpressionPoolSvc();
+        if (poolSvc != null) {
+            poolSvc.removeRoot(this);
+        }
     }
 
     public void quit()
@@ -0,0 +1,96 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.pattern;
+
+import com.espertech.esper.core.service.EPStatementHandleCallback;
+import com.espertech.esper.pattern.guard.Guard;
+import com.espertech.esper.pattern.observer.EventObserver;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Visitor that counts the active state nodes, not including the root state node, and the distinct-value keys
+ * retained by every-distinct state nodes.
+ */
+public class EvalStateNodeCountVisitor implements EvalStateNodeVisitor
+{
+    private int stateNodeCount;
+    private int distinctKeyCount;
+
+    public void visitGuard(EvalGuardFactoryNode factoryNode, EvalStateNode stateNode, Guard guard) {
+        stateNodeCount++;
+    }
+
+    public void visitFollowedBy(EvalFollowedByFactoryNode factoryNode, EvalStateNode stateNode, Object... stateFlat) {
+        stateNodeCount++;
+    }
+
+    public void visitFilter(EvalFilterFactoryNode factoryNode, EvalStateNode stateNode, EPStatementHandleCallback handle, MatchedEventMap beginState) {
+        stateNodeCount++;
+    }
+
+    public void visitMatchUntil(EvalMatchUntilFactoryNode factoryNode, EvalStateNode stateNode, Object... stateDeep) {
+        stateNodeCount++;
+    }
+
+    public void visitObserver(EvalObserverFactoryNode factoryNode, EvalStateNode stateNode, EventObserver eventObserver) {
+        stateNodeCount++;
+    }
+
+    public void visitNot(EvalNotFactoryNode factoryNode, EvalStateNode stateNode) {
+        stateNodeCount++;
+    }
+
+    public void visitOr(EvalOrFactoryNode factoryNode, EvalStateNode stateNode) {
+        stateNodeCount++;
+    }
+
+    public void visitRoot(EvalStateNode stateNode) {
+    }
+
+    public void visitAnd(EvalAndFactoryNode factoryNode, EvalStateNode stateNode, Object... stateDeep) {
+        stateNodeCount++;
+    }
+
+    public void visitEvery(EvalEveryFactoryNode factoryNode, EvalStateNode stateNode, MatchedEventMap beginState, Object... stateFlat) {
+        stateNodeCount++;
+    }
+
+    public void visitEveryDistinct(EvalEveryDistinctFactoryNode factoryNode, EvalStateNode stateNode, MatchedEventMap beginState, Collection keySetCollection) {
+        stateNodeCount++;
+        for (Object keys : keySetCollection) {
+            if (keys instanceof Collection) {
+                distinctKeyCount += ((Collection) keys).size();
+            }
+            else if (keys instanceof Map) {
+                distinctKeyCount += ((Map) keys).size();
+            }
+        }
+    }
+
+    public void visitAudit() {
+    }
+
+    /**
+     * Returns the number of active state nodes visited, not including root state nodes.
+     * @return count
+     */
+    public int getStateNodeCount() {
+        return stateNodeCount;
+    }
+
+    /**
+     * Returns the number of distinct-value keys retained by every-distinct state nodes.
+     * @return count
+     */
+    public int getDistinctKeyCount() {
+        return distinctKeyCount;
+    }
+}
@@ -0,0 +1,179 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.pattern;
+
+/**
+ * Map of active child state nodes to the index of the child node, for use by the followed-by state.
+ * <p>
+ * Child state nodes are compared by identity and kept in an open-addressing table with linear probing,
+ * with the index held in a parallel primitive array. A followed-by state usually has one or two
+ * active child state nodes, for which the table takes a fraction of the memory of a hash map.
+ */
+public class EvalStateNodeIndexMap
+{
+    private static final EvalStateNode[] EMPTY = new EvalStateNode[0];
+    private static final int INITIAL_CAPACITY = 2;
+
+    private EvalStateNode[] nodes;
+    private int[] indexes;
+    private int size;
+
+    /**
+     * Ctor.
+     */
+    public EvalStateNodeIndexMap() {
+        nodes = new EvalStateNode[INITIAL_CAPACITY];
+        indexes = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Returns the child index for the state node.
+     * @param node state node
+     * @return index or -1 if the state node is not in the map
+     */
+    public int get(EvalStateNode node) {
+        int slot = findSlot(node);
+        return slot == -1 ? -1 : indexes[slot];
+    }
+
+    /**
+     * Add a state node, or replace the child index of a state node.
+     * @param node state node
+     * @param index child index
+     */
+    public void put(EvalStateNode node, int index) {
+        int mask = nodes.length - 1;
+        int slot = slotOf(node, mask);
+        while (nodes[slot] != null) {
+            if (nodes[slot] == node) {
+                indexes[slot] = index;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        nodes[slot] = node;
+        indexes[slot] = index;
+        size++;
+        if (size * 2 > nodes.length) {
+            resize(nodes.length * 2);
+        }
+    }
+
+    /**
+     * Remove a state node.
+     * @param node state node
+     * @return child index of the removed state node or -1 if the state node is not in the map
+     */
+    public int remove(EvalStateNode node) {
+        int slot = findSlot(node);
+        if (slot == -1) {
+            return -1;
+        }
+        int index = indexes[slot];
+
+        // backward-shift deletion, keeps probe sequences intact without tombstones
+        int mask = nodes.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (nodes[next] != null) {
+            int home = slotOf(nodes[next], mask);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                nodes[hole] = nodes[next];
+                indexes[hole] = indexes[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        nodes[hole] = null;
+        size--;
+        return index;
+    }
+
+    /**
+     * Returns true if there are no state nodes.
+     * @return indicator
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of state nodes.
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove all state nodes.
+     */
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        nodes = new EvalStateNode[INITIAL_CAPACITY];
+        indexes = new int[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Returns a copy of the state nodes, allowing the caller to change the map while processing the state nodes.
+     * @return state nodes
+     */
+    public EvalStateNode[] getNodes() {
+        if (size == 0) {
+            return EMPTY;
+        }
+        EvalStateNode[] result = new EvalStateNode[size];
+        int count = 0;
+        for (EvalStateNode node : nodes) {
+            if (node != null) {
+                result[count++] = node;
+            }
+        }
+        return result;
+    }
+
+    private int findSlot(EvalStateNode node) {
+        int mask = nodes.length - 1;
+        int slot = slotOf(node, mask);
+        while (nodes[slot] != null) {
+            if (nodes[slot] == node) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void resize(int capacity) {
+        EvalStateNode[] oldNodes = nodes;
+        int[] oldIndexes = indexes;
+        nodes = new EvalStateNode[capacity];
+        indexes = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldNodes.length; i++) {
+            if (oldNodes[i] == null) {
+                continue;
+            }
+            int slot = slotOf(oldNodes[i], mask);
+            while (nodes[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            nodes[slot] = oldNodes[i];
+            indexes[slot] = oldIndexes[i];
+        }
+    }
+
+    private static int slotOf(EvalStateNode node, int mask) {
+        int hash = System.identityHashCode(node) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -10,6 +10,7 @@ package com.espertech.esper.pattern;
 
 import com.espertech.esper.core.context.util.AgentInstanceContext;
 import com.espertech.esper.core.service.StatementContext;
+import com.espertech.esper.filter.FilterServiceBatch;
 
 /**
  * Contains handles to implementations of services needed by evaluation nodes.
@@ -19,6 +20,7 @@ public class PatternAgentInstanceContext
     private final PatternContext patternContext;
     private final AgentInstanceContext agentInstanceContext;
     private final EvalFilterConsumptionHandler consumptionHandler;
+    private final FilterServiceBatch filterBatch;
 
     public PatternAgentInstanceContext(PatternContext patternContext, AgentInstanceContext agentInstanceContext, boolean hasConsumingFilter) {
         this.patternContext = patternContext;
@@ -30,6 +32,7 @@ public class PatternAgentInstanceContext
         else {
             consumptionHandler = null;
         }
+        filterBatch = new FilterServiceBatch();
     }
 
     public PatternContext getPatternContext() {
@@ -47,4 +50,30 @@ public class PatternAgentInstanceContext
     public StatementContext getStatementContext() {
         return agentInstanceContext.getStatementContext();
     }
+
+    /**
+     * Returns the batch that filter state nodes add and remove their filters through.
+     * @return filter batch
+     */
+    public FilterServiceBatch getFilterBatch() {
+        return filterBatch;
+    }
+
+    /**
+     * Begin collecting filter additions and removals, for applying them to the filter service in one operation
+     * when the outermost batch ends.
+     */
+    public void beginFilterBatch() {
+        filterBatch.begin();
+    }
+
+    /**
+     * End collecting filter additions and removals, applying them if this is the outermost batch.
+     */
+    public void endFilterBatch() {
+        if (filterBatch.end(patternContext.getFilterService())) {
+            long filtersVersion = patternContext.getFilterService().getFiltersVersion();
+            agentInstanceContext.getEpStatementAgentInstanceHandle().getStatementFilterVersion().setStmtFilterVersion(filtersVersion);
+        }
+    }
 }
@@ -112,6 +112,14 @@ public class PatternSubexpressionPoolEngineSvc {
         }
     }
 
+    /**
+     * Returns the number of sub-expressions of all statements counted against the maximum.
+     * @return count
+     */
+    public long getPoolCount() {
+        return poolCount.get();
+    }
+
     private Map<String,Long> getCounts() {
         Map<String,Long> counts = new HashMap<String,Long>();
         for (StatementEntry context : patternContexts) {
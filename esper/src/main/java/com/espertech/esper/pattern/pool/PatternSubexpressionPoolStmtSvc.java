@@ -11,10 +11,18 @@
 
 package com.espertech.esper.pattern.pool;
 
+import com.espertech.esper.pattern.EvalRootState;
+import com.espertech.esper.pattern.EvalStateNodeCountVisitor;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 public class PatternSubexpressionPoolStmtSvc {
 
     private final PatternSubexpressionPoolEngineSvc engineSvc;
     private final PatternSubexpressionPoolStmtHandler stmtHandler;
+    private final Set<EvalRootState> roots = Collections.synchronizedSet(new LinkedHashSet<EvalRootState>());
 
     public PatternSubexpressionPoolStmtSvc(PatternSubexpressionPoolEngineSvc engineSvc, PatternSubexpressionPoolStmtHandler stmtHandler) {
         this.engineSvc = engineSvc;
@@ -28,4 +36,50 @@ public class PatternSubexpressionPoolStmtSvc {
     public PatternSubexpressionPoolStmtHandler getStmtHandler() {
         return stmtHandler;
     }
+
+    /**
+     * Add a started pattern of the statement, for reporting the counts of its state.
+     * @param root started pattern
+     */
+    public void addRoot(EvalRootState root) {
+        roots.add(root);
+    }
+
+    /**
+     * Remove a stopped pattern of the statement.
+     * @param root stopped pattern
+     */
+    public void removeRoot(EvalRootState root) {
+        roots.remove(root);
+    }
+
+    /**
+     * Returns the number of sub-expressions of the statement counted against the engine-wide maximum.
+     * @return count
+     */
+    public int getSubexpressionCount() {
+        return stmtHandler.getCount();
+    }
+
+    /**
+     * Returns the number of sub-expressions of all statements counted against the engine-wide maximum.
+     * @return count
+     */
+    public long getEngineSubexpressionCount() {
+        return engineSvc.getPoolCount();
+    }
+
+    /**
+     * Returns the counts of active state nodes and of retained every-distinct keys of the started patterns of the statement.
+     * @return visitor holding the counts
+     */
+    public EvalStateNodeCountVisitor getStateNodeCounts() {
+        EvalStateNodeCountVisitor visitor = new EvalStateNodeCountVisitor();
+        synchronized (roots) {
+            for (EvalRootState root : roots) {
+                root.accept(visitor);
+            }
+        }
+        return visitor;
+    }
 }
@@ -942,14 +942,18 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                 List<RegexNFAState> nextStatesFromHere = currentState.getState().getNextStates();
 
                 // save state for each next state
-                boolean copy = nextStatesFromHere.size() > 1;
-                for (RegexNFAState next : nextStatesFromHere)
+                // the last next state takes over the current entry and its arrays, as the current entry is no longer used,
+                // while the other next states receive a copy
+                int numNextStates = nextStatesFromHere.size();
+                for (int i = 0; i < numNextStates; i++)
                 {
+                    RegexNFAState next = nextStatesFromHere.get(i);
+                    boolean reuse = i == numNextStates - 1;
                     EventBean[] eventsForState = eventsPerStream;
                     MultimatchState[] multimatches = currentState.getOptionalMultiMatches();
                     int[] greedyCounts = currentState.getGreedycountPerState();
 
-                    if (copy)
+                    if (!reuse)
                     {
                         eventsForState = new EventBean[eventsForState.length];
                         System.arraycopy(eventsPerStream, 0, eventsForState, 0, eventsForState.length);
@@ -974,7 +978,14 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                         greedyCounts[currentState.getState().getNodeNumFlat()]++;
                     }
 
-                    RegexNFAStateEntry entry = new RegexNFAStateEntry(currentState.getMatchBeginEventSeqNo(), currentState.getMatchBeginEventTime(), currentState.getState(), eventsForState, greedyCounts, multimatches, partitionKey);
+                    RegexNFAStateEntry entry;
+                    if (reuse) {
+                        entry = currentState;
+                        entry.setOptionalMultiMatches(multimatches);
+                    }
+                    else {
+                        entry = new RegexNFAStateEntry(currentState.getMatchBeginEventSeqNo(), currentState.getMatchBeginEventTime(), currentState.getState(), eventsForState, greedyCounts, multimatches, partitionKey);
+                    }
                     if (next instanceof RegexNFAStateEnd)
                     {
                         entry.setMatchEndEventSeqNo(currentEventSequenceNumber);
@@ -1042,9 +1053,15 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                 }
                 List<RegexNFAState> nextStatesFromHere = startState.getNextStates();
 
-                // save state for each next state
-                boolean copy = nextStatesFromHere.size() > 1;
-                for (RegexNFAState next : nextStatesFromHere) {
+                long time = 0;
+                if (matchRecognizeSpec.getInterval() != null) {
+                    time = agentInstanceContext.getStatementContext().getSchedulingService().getTime();
+                }
+
+                // save state for each next state, the last next state takes over the events array
+                int numNextStates = nextStatesFromHere.size();
+                for (int i = 0; i < numNextStates; i++) {
+                    RegexNFAState next = nextStatesFromHere.get(i);
 
                     if (isTrackMaxStates && !skipTrackMaxState) {
                         MatchRecognizeStatePoolStmtSvc poolSvc = agentInstanceContext.getStatementContext().getMatchRecognizeStatePoolStmtSvc();
@@ -1059,13 +1076,9 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                     MultimatchState[] multimatches = isCollectMultimatches ? new MultimatchState[multimatchVariablesArray.length] : null;
                     int[] greedyCounts = new int[allStates.length];
 
-                    if (copy) {
+                    if (i < numNextStates - 1) {
                         eventsForState = new EventBean[eventsForState.length];
                         System.arraycopy(eventsPerStream, 0, eventsForState, 0, eventsForState.length);
-
-                        int[] greedyCountsCopy = new int[greedyCounts.length];
-                        System.arraycopy(greedyCounts, 0, greedyCountsCopy, 0, greedyCounts.length);
-                        greedyCounts = greedyCountsCopy;
                     }
 
                     if ((isCollectMultimatches) && (startState.isMultiple())) {
@@ -1077,11 +1090,6 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                         greedyCounts[startState.getNodeNumFlat()]++;
                     }
 
-                    long time = 0;
-                    if (matchRecognizeSpec.getInterval() != null) {
-                        time = agentInstanceContext.getStatementContext().getSchedulingService().getTime();
-                    }
-
                     RegexNFAStateEntry entry = new RegexNFAStateEntry(currentEventSequenceNumber, time, startState, eventsForState, greedyCounts, multimatches, partitionKey);
                     if (next instanceof RegexNFAStateEnd) {
                         entry.setMatchEndEventSeqNo(currentEventSequenceNumber);
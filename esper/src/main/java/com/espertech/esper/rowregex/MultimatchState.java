@@ -36,16 +36,17 @@ public class MultimatchState {
     }
 
     /**
-     * Ctor.
+     * Ctor, sharing the buffer with the state to copy.
+     * <p>
+     * Events are only appended to a buffer and positions at or after the count are not read.
+     * A state appends in place when the position after its count is free and otherwise copies the buffer,
+     * so that states with a common prefix of events share the buffer until one of them appends.
      * @param state to copy
      */
     public MultimatchState(MultimatchState state)
     {
-        EventBean[] copyArray = new EventBean[state.getBuffer().length];
-        System.arraycopy(state.getBuffer(), 0, copyArray, 0, state.getCount());
-
         count = state.getCount();
-        events = copyArray;
+        events = state.getBuffer();
     }
 
     /**
@@ -57,7 +58,14 @@ public class MultimatchState {
         if (count == events.length)
         {
             EventBean[] buf = new EventBean[events.length * 2];
-            System.arraycopy(events, 0, buf, 0, events.length);
+            System.arraycopy(events, 0, buf, 0, count);
+            events = buf;
+        }
+        else if (events[count] != null)
+        {
+            // a state sharing the buffer appended already
+            EventBean[] buf = new EventBean[events.length];
+            System.arraycopy(events, 0, buf, 0, count);
             events = buf;
         }
         events[count++] = theEvent;
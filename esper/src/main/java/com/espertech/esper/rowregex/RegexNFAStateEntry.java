@@ -24,7 +24,7 @@ public class RegexNFAStateEntry
     private RegexNFAState state;
     private final EventBean[] eventsPerStream;
     private final int[] greedycountPerState;
-    private final MultimatchState[] optionalMultiMatches;
+    private MultimatchState[] optionalMultiMatches;
     private final Object partitionKey;
     private int matchEndEventSeqNo;
 
@@ -95,6 +95,14 @@ public class RegexNFAStateEntry
         return optionalMultiMatches;
     }
 
+    /**
+     * Sets the multirow-variable matches, for use when the entry advances to the next state.
+     * @param optionalMultiMatches matches
+     */
+    public void setOptionalMultiMatches(MultimatchState[] optionalMultiMatches) {
+        this.optionalMultiMatches = optionalMultiMatches;
+    }
+
     /**
      * Returns the count of greedy matches per state.
      * @return greedy counts
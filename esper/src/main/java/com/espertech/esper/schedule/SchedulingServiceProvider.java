@@ -8,6 +8,7 @@
  **************************************************************************************/
 package com.espertech.esper.schedule;
 
+import com.espertech.esper.client.ConfigurationEngineDefaults;
 import com.espertech.esper.timer.TimeSourceService;
 
 /**
@@ -17,11 +18,15 @@ public final class SchedulingServiceProvider
 {
     /**
      * Creates an implementation of the SchedulingService interface.
+     * @param schedulingServiceProfile profile of scheduling service
      * @param timeSourceService time source provider
      * @return implementation
      */
-    public static SchedulingServiceSPI newService(TimeSourceService timeSourceService)
+    public static SchedulingServiceSPI newService(ConfigurationEngineDefaults.SchedulingServiceProfile schedulingServiceProfile, TimeSourceService timeSourceService)
     {
+        if (schedulingServiceProfile == ConfigurationEngineDefaults.SchedulingServiceProfile.TIMINGWHEEL) {
+            return new SchedulingServiceTimingWheel(timeSourceService);
+        }
         return new SchedulingServiceImpl(timeSourceService);
     }
 }
@@ -0,0 +1,478 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.client.util.DateTime;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.metrics.jmx.JmxGetter;
+import com.espertech.esper.timer.TimeSourceService;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.*;
+
+/**
+ * Implements the schedule service as a hierarchical timing wheel.
+ * <p>
+ * The wheel has 8 levels of 256 buckets, one level for each byte of the millisecond trigger time. A handle is placed
+ * at the level of the highest byte in which its trigger time differs from the wheel time, in the bucket given by that byte.
+ * Advancing the wheel triggers whole buckets and cascades the one bucket that contains the new wheel time to lower levels,
+ * so that each handle is moved at most once per level. Adding and removing a handle is constant-time.
+ * <p>
+ * Handles that trigger for the same evaluation are returned ordered by trigger time and then by schedule slot,
+ * same as {@link SchedulingServiceImpl}.
+ * <p>
+ * Synchronized since statement creation and event evaluation by multiple (event send) threads
+ * can lead to callbacks added/removed asynchronously.
+ */
+public final class SchedulingServiceTimingWheel implements SchedulingServiceSPI
+{
+    private static final int BITS_PER_LEVEL = 8;
+    private static final int BUCKETS_PER_LEVEL = 1 << BITS_PER_LEVEL;
+    private static final int BUCKET_MASK = BUCKETS_PER_LEVEL - 1;
+    private static final int NUM_LEVELS = 64 / BITS_PER_LEVEL;
+    private static final int DUE_POSITION = NUM_LEVELS * BUCKETS_PER_LEVEL;
+    private static final int MAX_POOLED_ENTRIES = 1024;
+
+    private static final Comparator<Entry> TRIGGER_ORDER = new Comparator<Entry>() {
+        public int compare(Entry first, Entry second) {
+            if (first.triggerTime != second.triggerTime) {
+                return first.triggerTime < second.triggerTime ? -1 : 1;
+            }
+            if (first.slot != second.slot) {
+                return first.slot < second.slot ? -1 : 1;
+            }
+            return 0;
+        }
+    };
+
+    // Buckets of all levels followed by the list of handles that are due at the wheel time, each a doubly-linked list
+    private final Entry[] buckets;
+    private final int[] levelCounts;
+
+    // Map of handle and entry for faster removal
+    private final Map<ScheduleHandle, Entry> handleEntryMap;
+
+    // Reused for collecting triggered entries
+    private Entry[] triggered;
+    private int numTriggered;
+
+    // Entries for reuse
+    private Entry pool;
+    private int poolSize;
+
+    // Time that the wheel has been advanced to: all handles are for a later time, except for the due list
+    private long wheelTime;
+
+    // Current time - used for evaluation as well as for adding new handles
+    private volatile long currentTime;
+
+    /**
+     * Constructor.
+     * @param timeSourceService time source provider
+     */
+    public SchedulingServiceTimingWheel(TimeSourceService timeSourceService)
+    {
+        this.buckets = new Entry[DUE_POSITION + 1];
+        this.levelCounts = new int[NUM_LEVELS];
+        this.handleEntryMap = new HashMap<ScheduleHandle, Entry>();
+        this.triggered = new Entry[16];
+        // initialize time to just before now as there is a check for duplicate external time events
+        this.currentTime = timeSourceService.getTimeMillis() - 1;
+        this.wheelTime = currentTime;
+    }
+
+    public synchronized void destroy()
+    {
+        log.debug("Destroying scheduling service");
+        handleEntryMap.clear();
+        Arrays.fill(buckets, null);
+        Arrays.fill(levelCounts, 0);
+        pool = null;
+        poolSize = 0;
+    }
+
+    public long getTime()
+    {
+        // note that this.currentTime is volatile
+        return this.currentTime;
+    }
+
+    public synchronized final void setTime(long currentTime)
+    {
+        this.currentTime = currentTime;
+        if (currentTime < wheelTime) {
+            rewind(currentTime);
+        }
+    }
+
+    public synchronized final void add(long afterMSec, ScheduleHandle handle, long slot)
+            throws ScheduleServiceException
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qScheduleAdd(currentTime, afterMSec, handle, slot);}
+        if (handleEntryMap.containsKey(handle)) {
+            remove(handle, slot);
+        }
+
+        Entry entry = obtainEntry();
+        entry.triggerTime = currentTime + afterMSec;
+        entry.slot = slot;
+        entry.handle = handle;
+        place(entry);
+        handleEntryMap.put(handle, entry);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleAdd();}
+    }
+
+    public synchronized final void remove(ScheduleHandle handle, long slot)
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qScheduleRemove(handle, slot);}
+        Entry entry = handleEntryMap.remove(handle);
+        if (entry == null)
+        {
+            // If it already has been removed then that's fine;
+            // Such could be the case when 2 timers fireStatementStopped at the same time, and one stops the other
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleRemove();}
+            return;
+        }
+        unlink(entry);
+        releaseEntry(entry);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleRemove();}
+    }
+
+    public synchronized final void evaluate(Collection<ScheduleHandle> handles)
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qScheduleEval(currentTime);}
+
+        advance(currentTime);
+
+        if (numTriggered == 0) {
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleEval(Collections.<ScheduleHandle>emptyList());}
+            return;
+        }
+
+        // Order by time and slot
+        if (numTriggered > 1) {
+            Arrays.sort(triggered, 0, numTriggered, TRIGGER_ORDER);
+        }
+
+        for (int i = 0; i < numTriggered; i++) {
+            Entry entry = triggered[i];
+            triggered[i] = null;
+            handles.add(entry.handle);
+            handleEntryMap.remove(entry.handle);
+            releaseEntry(entry);
+        }
+        numTriggered = 0;
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleEval(handles);}
+    }
+
+    public synchronized ScheduleSet take(Set<Integer> statementIds)
+    {
+        List<ScheduleSetEntry> list = new ArrayList<ScheduleSetEntry>();
+        long currentTime = getTime();
+        for (Entry entry : getEntriesSorted())
+        {
+            if (statementIds.contains(entry.handle.getStatementId()))
+            {
+                long relative = entry.triggerTime - currentTime;
+                list.add(new ScheduleSetEntry(relative, entry.slot, entry.handle));
+            }
+        }
+
+        for (ScheduleSetEntry entry : list)
+        {
+            remove(entry.getHandle(), entry.getScheduleSlot());
+        }
+
+        return new ScheduleSet(list);
+    }
+
+    public void apply(ScheduleSet scheduleSet)
+    {
+        for (ScheduleSetEntry entry : scheduleSet.getList())
+        {
+            add(entry.getTime(), entry.getHandle(), entry.getScheduleSlot());
+        }
+    }
+
+    public void init() {
+        // no action required
+    }
+
+    @JmxGetter(name = "TimeHandleCount", description = "Number of outstanding time evaluations")
+    public int getTimeHandleCount()
+    {
+        return handleEntryMap.size();
+    }
+
+    @JmxGetter(name = "FurthestTimeHandle", description = "Furthest outstanding time evaluation")
+    public String getFurthestTimeHandleDate()
+    {
+        Long handle = getFurthestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    @JmxGetter(name = "NearestTimeHandle", description = "Nearest outstanding time evaluation")
+    public String getNearestTimeHandleDate()
+    {
+        Long handle = getNearestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    public synchronized Long getFurthestTimeHandle()
+    {
+        // handles at a higher level are always later than handles at a lower level
+        for (int level = NUM_LEVELS - 1; level >= 0; level--) {
+            if (levelCounts[level] == 0) {
+                continue;
+            }
+            for (int bucket = BUCKETS_PER_LEVEL - 1; bucket >= 0; bucket--) {
+                Entry head = buckets[level * BUCKETS_PER_LEVEL + bucket];
+                if (head != null) {
+                    return getTimeBoundary(head, false);
+                }
+            }
+        }
+        Entry due = buckets[DUE_POSITION];
+        return due == null ? null : getTimeBoundary(due, false);
+    }
+
+    public int getScheduleHandleCount()
+    {
+        return handleEntryMap.size();
+    }
+
+    public boolean isScheduled(ScheduleHandle handle)
+    {
+        return handleEntryMap.containsKey(handle);
+    }
+
+    public synchronized Long getNearestTimeHandle() {
+        Entry due = buckets[DUE_POSITION];
+        if (due != null) {
+            return getTimeBoundary(due, true);
+        }
+        for (int level = 0; level < NUM_LEVELS; level++) {
+            if (levelCounts[level] == 0) {
+                continue;
+            }
+            for (int bucket = 0; bucket < BUCKETS_PER_LEVEL; bucket++) {
+                Entry head = buckets[level * BUCKETS_PER_LEVEL + bucket];
+                if (head != null) {
+                    return getTimeBoundary(head, true);
+                }
+            }
+        }
+        return null;
+    }
+
+    public synchronized void visitSchedules(ScheduleVisitor visitor) {
+        ScheduleVisit visit = new ScheduleVisit();
+        for (Entry entry : getEntriesSorted()) {
+            visit.setTimestamp(entry.triggerTime);
+            visit.setStatementId(entry.handle.getStatementId());
+            visit.setAgentInstanceId(entry.handle.getAgentInstanceId());
+            visitor.visit(visit);
+        }
+    }
+
+    private void advance(long time) {
+        long wheelKey = toKey(wheelTime);
+        long timeKey = toKey(time);
+        if (wheelKey != timeKey) {
+            int level = getLevel(wheelKey ^ timeKey);
+            int wheelBucket = getBucket(wheelKey, level);
+            int timeBucket = getBucket(timeKey, level);
+
+            // all handles on lower levels are before the new time
+            for (int lower = 0; lower < level; lower++) {
+                if (levelCounts[lower] == 0) {
+                    continue;
+                }
+                int base = lower * BUCKETS_PER_LEVEL;
+                for (int bucket = 0; bucket < BUCKETS_PER_LEVEL; bucket++) {
+                    triggerAll(base + bucket);
+                }
+            }
+
+            // buckets passed over on this level are before the new time
+            int base = level * BUCKETS_PER_LEVEL;
+            for (int bucket = wheelBucket + 1; bucket < timeBucket; bucket++) {
+                triggerAll(base + bucket);
+            }
+
+            // the bucket containing the new time cascades to lower levels
+            Entry entry = detach(base + timeBucket);
+            wheelTime = time;
+            while (entry != null) {
+                Entry next = entry.next;
+                if (entry.triggerTime <= time) {
+                    addTriggered(entry);
+                }
+                else {
+                    place(entry);
+                }
+                entry = next;
+            }
+        }
+
+        triggerAll(DUE_POSITION);
+    }
+
+    private void rewind(long time) {
+        // the time moved backwards: place all handles again relative to the new time
+        List<Entry> entries = getEntriesSorted();
+        Arrays.fill(buckets, null);
+        Arrays.fill(levelCounts, 0);
+        wheelTime = time;
+        for (Entry entry : entries) {
+            place(entry);
+        }
+    }
+
+    private void place(Entry entry) {
+        int position;
+        if (entry.triggerTime <= wheelTime) {
+            position = DUE_POSITION;
+        }
+        else {
+            long key = toKey(entry.triggerTime);
+            int level = getLevel(key ^ toKey(wheelTime));
+            position = level * BUCKETS_PER_LEVEL + getBucket(key, level);
+            levelCounts[level]++;
+        }
+        entry.position = position;
+        entry.prev = null;
+        entry.next = buckets[position];
+        if (entry.next != null) {
+            entry.next.prev = entry;
+        }
+        buckets[position] = entry;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        }
+        else {
+            buckets[entry.position] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        if (entry.position != DUE_POSITION) {
+            levelCounts[entry.position / BUCKETS_PER_LEVEL]--;
+        }
+    }
+
+    private Entry detach(int position) {
+        Entry head = buckets[position];
+        if (head == null) {
+            return null;
+        }
+        buckets[position] = null;
+        if (position != DUE_POSITION) {
+            int level = position / BUCKETS_PER_LEVEL;
+            for (Entry entry = head; entry != null; entry = entry.next) {
+                levelCounts[level]--;
+            }
+        }
+        return head;
+    }
+
+    private void triggerAll(int position) {
+        Entry entry = detach(position);
+        while (entry != null) {
+            Entry next = entry.next;
+            addTriggered(entry);
+            entry = next;
+        }
+    }
+
+    private void addTriggered(Entry entry) {
+        if (numTriggered == triggered.length) {
+            triggered = Arrays.copyOf(triggered, numTriggered * 2);
+        }
+        triggered[numTriggered++] = entry;
+    }
+
+    private List<Entry> getEntriesSorted() {
+        List<Entry> entries = new ArrayList<Entry>(handleEntryMap.size());
+        for (Entry head : buckets) {
+            for (Entry entry = head; entry != null; entry = entry.next) {
+                entries.add(entry);
+            }
+        }
+        Collections.sort(entries, TRIGGER_ORDER);
+        return entries;
+    }
+
+    private Entry obtainEntry() {
+        if (pool == null) {
+            return new Entry();
+        }
+        Entry entry = pool;
+        pool = entry.next;
+        poolSize--;
+        return entry;
+    }
+
+    private void releaseEntry(Entry entry) {
+        entry.handle = null;
+        entry.prev = null;
+        if (poolSize < MAX_POOLED_ENTRIES) {
+            entry.next = pool;
+            pool = entry;
+            poolSize++;
+        }
+        else {
+            entry.next = null;
+        }
+    }
+
+    private static long getTimeBoundary(Entry head, boolean earliest) {
+        long result = head.triggerTime;
+        for (Entry entry = head.next; entry != null; entry = entry.next) {
+            if (earliest ? entry.triggerTime < result : entry.triggerTime > result) {
+                result = entry.triggerTime;
+            }
+        }
+        return result;
+    }
+
+    // flips the sign bit so that unsigned comparison of keys is the same as signed comparison of times
+    private static long toKey(long time) {
+        return time ^ Long.MIN_VALUE;
+    }
+
+    private static int getLevel(long differentBits) {
+        return (63 - Long.numberOfLeadingZeros(differentBits)) / BITS_PER_LEVEL;
+    }
+
+    private static int getBucket(long key, int level) {
+        return (int) (key >>> (level * BITS_PER_LEVEL)) & BUCKET_MASK;
+    }
+
+    private static final class Entry {
+        private long triggerTime;
+        private long slot;
+        private ScheduleHandle handle;
+        private int position;
+        private Entry prev;
+        private Entry next;
+    }
+
+    private static final Log log = LogFactory.getLog(SchedulingServiceTimingWheel.class);
+}
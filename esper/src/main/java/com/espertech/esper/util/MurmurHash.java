@@ -94,4 +94,52 @@ public class MurmurHash {
 
         return h;
     }
+
+    /**
+     * Returns a hash code for the hash codes of the given objects, with null objects hashing as zero.
+     * <p>
+     * Each hash code is mixed as a 4-byte block of the MurmurHash 2.0 inner loop, so that the result depends on
+     * all bits and on the position of each object, unlike combining hash codes by multiply-and-xor.
+     * @param objects objects to hash
+     * @return hash code
+     */
+    public static int hashObjects(Object[] objects) {
+        int h = objects.length;
+        for (int i = 0; i < objects.length; i++) {
+            h = mix(h, objects[i] == null ? 0 : objects[i].hashCode());
+        }
+        return finish(h);
+    }
+
+    /**
+     * Returns a hash code for the given int values, see {@link #hashObjects(Object[])}.
+     * @param values values to hash
+     * @return hash code
+     */
+    public static int hashInts(int[] values) {
+        int h = values.length;
+        for (int i = 0; i < values.length; i++) {
+            h = mix(h, values[i]);
+        }
+        return finish(h);
+    }
+
+    private static int mix(int h, int k) {
+        int m = 0x5bd1e995;
+        int r = 24;
+        k *= m;
+        k ^= k >>> r;
+        k *= m;
+        h *= m;
+        h ^= k;
+        return h;
+    }
+
+    private static int finish(int h) {
+        int m = 0x5bd1e995;
+        h ^= h >>> 13;
+        h *= m;
+        h ^= h >>> 15;
+        return h;
+    }
 }
\ No newline at end of file
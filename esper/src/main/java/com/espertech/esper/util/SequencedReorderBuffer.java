@@ -0,0 +1,206 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.util;
+
+import com.espertech.esper.timer.TimeSourceService;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.*;
+
+/**
+ * Buffer that releases items in the order of their sequence number without making threads wait for each other.
+ * <p>
+ * Producers assign consecutive sequence numbers starting at zero. A thread that adds an item becomes the draining
+ * thread if no other thread is draining and the next item in sequence is available, and obtains all consecutive items.
+ * A thread that adds an item that is not next in sequence, or that adds while another thread is draining, returns
+ * immediately and leaves the item for the draining thread.
+ * <p>
+ * A gap in the sequence that remains open for longer than the timeout is skipped, either by the next add or by a
+ * scheduled check calling {@link #releaseExpired()}. An item that arrives after its gap was skipped is released
+ * out-of-order with the next drain.
+ */
+public class SequencedReorderBuffer<T>
+{
+    private static final Log log = LogFactory.getLog(SequencedReorderBuffer.class);
+
+    private final String name;
+    private final long msecTimeout;
+    private final TimeSourceService timeSourceService;
+
+    private final TreeMap<Long, PendingItem<T>> pending = new TreeMap<Long, PendingItem<T>>();
+    private final ArrayDeque<T> late = new ArrayDeque<T>();
+    private long nextSequence;
+    private boolean draining;
+
+    /**
+     * Ctor.
+     * @param name name for logging
+     * @param msecTimeout the number of milliseconds after which a gap in the sequence is skipped
+     * @param timeSourceService time source provider
+     */
+    public SequencedReorderBuffer(String name, long msecTimeout, TimeSourceService timeSourceService)
+    {
+        this.name = name;
+        this.msecTimeout = msecTimeout;
+        this.timeSourceService = timeSourceService;
+    }
+
+    /**
+     * Adds an item.
+     * <p>
+     * When a list is returned the calling thread becomes the draining thread: it must process the items returned in order
+     * and then call {@link #next()} until that returns null, or {@link #abandon(List)} if processing fails.
+     * @param sequence sequence number of the item
+     * @param item to add
+     * @return items to process in order, or null if another thread processes the item
+     */
+    public synchronized List<T> add(long sequence, T item)
+    {
+        if (sequence < nextSequence)
+        {
+            late.add(item);
+        }
+        else
+        {
+            pending.put(sequence, new PendingItem<T>(item, timeSourceService.getTimeMillis()));
+        }
+        return drain();
+    }
+
+    /**
+     * Releases items that are held behind a gap that remained open for longer than the timeout, for use by a
+     * scheduled check so that held items do not wait for a further item to be added.
+     * <p>
+     * When a list is returned the calling thread becomes the draining thread, same as for {@link #add(long, Object)}.
+     * @return items to process in order, or null if there is nothing to release or another thread is draining
+     */
+    public synchronized List<T> releaseExpired()
+    {
+        return drain();
+    }
+
+    private List<T> drain()
+    {
+        if (draining)
+        {
+            return null;
+        }
+
+        List<T> items = collect();
+        if (items == null)
+        {
+            Map.Entry<Long, PendingItem<T>> oldest = pending.firstEntry();
+            if (oldest == null)
+            {
+                return null;
+            }
+            long delta = timeSourceService.getTimeMillis() - oldest.getValue().getMsecAdded();
+            if (delta <= msecTimeout)
+            {
+                return null;
+            }
+            log.info("Reorder timeout exceeded at " + msecTimeout + "ms for " + name + ", releasing events after gap between sequence " + nextSequence + " and " + oldest.getKey());
+            nextSequence = oldest.getKey();
+            items = collect();
+        }
+
+        draining = true;
+        return items;
+    }
+
+    /**
+     * Returns further items for the draining thread, or null to indicate that the calling thread is no longer the draining thread.
+     * @return items to process in order, or null if none
+     */
+    public synchronized List<T> next()
+    {
+        List<T> items = collect();
+        if (items == null)
+        {
+            draining = false;
+        }
+        return items;
+    }
+
+    /**
+     * Returns further items for the draining thread without releasing the draining role, for use by a draining thread
+     * that added more items itself.
+     * @return items to process in order, or null if none
+     */
+    public synchronized List<T> poll()
+    {
+        return collect();
+    }
+
+    /**
+     * Called by the draining thread when processing failed, to release the draining role.
+     * <p>
+     * Items not yet processed are released with the next drain.
+     * @param unprocessed items that were not processed
+     */
+    public synchronized void abandon(List<T> unprocessed)
+    {
+        draining = false;
+        late.addAll(unprocessed);
+    }
+
+    /**
+     * Returns the number of items not yet released.
+     * @return count
+     */
+    public synchronized int getNumPending()
+    {
+        return pending.size() + late.size();
+    }
+
+    private List<T> collect()
+    {
+        List<T> items = null;
+        if (!late.isEmpty())
+        {
+            items = new ArrayList<T>(late);
+            late.clear();
+        }
+
+        PendingItem<T> next;
+        while ((next = pending.remove(nextSequence)) != null)
+        {
+            if (items == null)
+            {
+                items = new ArrayList<T>(2);
+            }
+            items.add(next.getItem());
+            nextSequence++;
+        }
+        return items;
+    }
+
+    private static class PendingItem<T>
+    {
+        private final T item;
+        private final long msecAdded;
+
+        private PendingItem(T item, long msecAdded)
+        {
+            this.item = item;
+            this.msecAdded = msecAdded;
+        }
+
+        public T getItem()
+        {
+            return item;
+        }
+
+        public long getMsecAdded()
+        {
+            return msecAdded;
+        }
+    }
+}
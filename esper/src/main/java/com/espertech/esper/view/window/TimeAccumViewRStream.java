@@ -10,6 +10,7 @@ package com.espertech.esper.view.window;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.TimeWindow;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.core.service.EPStatementHandleCallback;
 import com.espertech.esper.core.service.EngineLevelExtensionServicesContext;
@@ -20,8 +21,6 @@ import com.espertech.esper.util.StopCallback;
 import com.espertech.esper.view.*;
 
 import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.Set;
 
 /**
  * A data window view that holds events in a stream and only removes events from a stream (rstream) if
@@ -38,7 +37,7 @@ public class TimeAccumViewRStream extends ViewSupport implements CloneableView,
     protected final long scheduleSlot;
 
     // Current running parameters
-    protected LinkedHashMap<EventBean, Long> currentBatch = new LinkedHashMap<EventBean, Long>();
+    protected TimeWindow currentBatch = new TimeWindow(true);
     protected EventBean lastEvent;
     protected long callbackScheduledTime;
     protected EPStatementHandleCallback handle;
@@ -125,7 +124,7 @@ public class TimeAccumViewRStream extends ViewSupport implements CloneableView,
             // add data points to the window
             for (int i = 0; i < newData.length; i++)
             {
-                currentBatch.put(newData[i], timestamp);
+                currentBatch.put(timestamp, newData[i]);
                 internalHandleAdded(newData[i], timestamp);
                 lastEvent = newData[i];
             }
@@ -145,7 +144,7 @@ public class TimeAccumViewRStream extends ViewSupport implements CloneableView,
             }
 
             // we may need to reschedule as the newest event may have been deleted
-            if (currentBatch.size() == 0)
+            if (currentBatch.isEmpty())
             {
                 agentInstanceContext.getStatementContext().getSchedulingService().remove(handle, scheduleSlot);
                 callbackScheduledTime = -1;
@@ -156,10 +155,8 @@ public class TimeAccumViewRStream extends ViewSupport implements CloneableView,
                 // reschedule if the last event was removed
                 if (removedLastEvent)
                 {
-                    Set<EventBean> keyset = currentBatch.keySet();
-                    EventBean[] events = keyset.toArray(new EventBean[keyset.size()]);
-                    lastEvent = events[events.length - 1];
-                    long lastTimestamp = currentBatch.get(lastEvent);
+                    lastEvent = currentBatch.getNewestEvent();
+                    long lastTimestamp = currentBatch.getNewestTimestamp();
 
                     // reschedule, newest event deleted
                     long timestamp = agentInstanceContext.getStatementContext().getSchedulingService().getTime();
@@ -187,7 +184,7 @@ public class TimeAccumViewRStream extends ViewSupport implements CloneableView,
     }
 
     public void visitView(ViewDataVisitor viewDataVisitor) {
-        viewDataVisitor.visitPrimary(currentBatch, true, factory.getViewName(), currentBatch.size(), null);
+        currentBatch.visitView(viewDataVisitor, factory);
     }
 
     /**
@@ -201,11 +198,7 @@ public class TimeAccumViewRStream extends ViewSupport implements CloneableView,
         if (this.hasViews())
         {
             // Convert to object arrays
-            EventBean[] oldData = null;
-            if (!currentBatch.isEmpty())
-            {
-                oldData = currentBatch.keySet().toArray(new EventBean[currentBatch.size()]);
-            }
+            EventBean[] oldData = currentBatch.toArray();
 
             if (oldData != null)
             {
@@ -229,7 +222,7 @@ public class TimeAccumViewRStream extends ViewSupport implements CloneableView,
 
     public final Iterator<EventBean> iterator()
     {
-        return currentBatch.keySet().iterator();
+        return currentBatch.iterator();
     }
 
     public final String toString()
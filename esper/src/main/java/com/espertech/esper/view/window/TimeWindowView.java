@@ -22,7 +22,6 @@ import com.espertech.esper.schedule.ScheduleHandleCallback;
 import com.espertech.esper.util.StopCallback;
 import com.espertech.esper.view.*;
 
-import java.util.ArrayDeque;
 import java.util.Iterator;
 
 /**
@@ -159,14 +158,13 @@ public class TimeWindowView extends ViewSupport implements CloneableView, DataWi
 
         // Remove from the timeWindow any events that have an older or timestamp then the given timestamp
         // The window extends from X to (X - millisecondsBeforeExpiry + 1)
-        ArrayDeque<EventBean> expired = timeWindow.expireEvents(expireBeforeTimestamp);
+        EventBean[] oldEvents = timeWindow.expireEvents(expireBeforeTimestamp);
 
         // If there are child views, fireStatementStopped update method
         if (this.hasViews())
         {
-            if ((expired != null) && (!expired.isEmpty()))
+            if (oldEvents != null)
             {
-                EventBean[] oldEvents = expired.toArray(new EventBean[expired.size()]);
                 if (viewUpdatedCollection != null)
                 {
                     viewUpdatedCollection.update(null, oldEvents);
@@ -64,9 +64,15 @@ public class TestConfigurationParser extends TestCase
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolInboundCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolOutboundCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolRouteExecCapacity());
+        assertFalse(config.getEngineDefaults().getThreading().isThreadPoolContextHash());
+        assertEquals(2, config.getEngineDefaults().getThreading().getThreadPoolContextHashNumThreads());
+        assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolContextHashCapacity());
+        assertFalse(config.getEngineDefaults().getThreading().isThreadPoolRingBuffer());
+        assertEquals(ConfigurationEngineDefaults.Threading.WaitStrategy.PARK, config.getEngineDefaults().getThreading().getThreadPoolRingBufferWaitStrategy());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolTimerExecCapacity());
         assertFalse(config.getEngineDefaults().getThreading().isEngineFairlock());
         assertFalse(config.getEngineDefaults().getMetricsReporting().isJmxEngineMetrics());
+        assertEquals(0, config.getEngineDefaults().getMetricsReporting().getProfilerSampleRate());
         assertTrue(config.getEngineDefaults().getThreading().isNamedWindowConsumerDispatchPreserveOrder());
         assertEquals(Long.MAX_VALUE, config.getEngineDefaults().getThreading().getNamedWindowConsumerDispatchTimeout());
         assertEquals(ConfigurationEngineDefaults.Threading.Locking.SPIN, config.getEngineDefaults().getThreading().getNamedWindowConsumerDispatchLocking());
@@ -85,6 +91,7 @@ public class TestConfigurationParser extends TestCase
         assertFalse(config.getEngineDefaults().getLogging().isEnableJDBC());
         assertNull(config.getEngineDefaults().getLogging().getAuditPattern());
         assertEquals(15000, config.getEngineDefaults().getVariables().getMsecVersionRelease());
+        assertEquals(ConfigurationEngineDefaults.Variables.VersionStorage.LIST, config.getEngineDefaults().getVariables().getVersionStorage());
         assertEquals(null, config.getEngineDefaults().getPatterns().getMaxSubexpressions());
         assertEquals(true, config.getEngineDefaults().getPatterns().isMaxSubexpressionPreventStart());
         assertEquals(null, config.getEngineDefaults().getMatchRecognize().getMaxStates());
@@ -95,6 +102,7 @@ public class TestConfigurationParser extends TestCase
         assertFalse(config.getEngineDefaults().getExecution().isAllowIsolatedService());
         assertEquals(ConfigurationEngineDefaults.ThreadingProfile.NORMAL, config.getEngineDefaults().getExecution().getThreadingProfile());
         assertEquals(ConfigurationEngineDefaults.FilterServiceProfile.READMOSTLY, config.getEngineDefaults().getExecution().getFilterServiceProfile());
+        assertEquals(ConfigurationEngineDefaults.SchedulingServiceProfile.SORTED, config.getEngineDefaults().getExecution().getSchedulingServiceProfile());
         assertEquals(16, config.getEngineDefaults().getExecution().getFilterServiceMaxFilterWidth());
 
         assertEquals(StreamSelector.ISTREAM_ONLY, config.getEngineDefaults().getStreamSelection().getDefaultStreamSelector());
@@ -107,6 +115,7 @@ public class TestConfigurationParser extends TestCase
         assertFalse(config.getEngineDefaults().getExpression().isDuckTyping());
         assertNull(config.getEngineDefaults().getExpression().getMathContext());
         assertEquals(TimeZone.getDefault(), config.getEngineDefaults().getExpression().getTimeZone());
+        assertFalse(config.getEngineDefaults().getExpression().isCompileBytecode());
         assertNull(config.getEngineDefaults().getExceptionHandling().getHandlerFactories());
         assertEquals(ConfigurationEngineDefaults.ExceptionHandling.UndeployRethrowPolicy.WARN, config.getEngineDefaults().getExceptionHandling().getUndeployRethrowPolicy());
         assertNull(config.getEngineDefaults().getConditionHandling().getHandlerFactories());
@@ -396,6 +405,11 @@ public class TestConfigurationParser extends TestCase
         assertEquals(1500, (int) config.getEngineDefaults().getThreading().getThreadPoolOutboundCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolTimerExecCapacity());
         assertEquals(2000, (int) config.getEngineDefaults().getThreading().getThreadPoolRouteExecCapacity());
+        assertTrue(config.getEngineDefaults().getThreading().isThreadPoolContextHash());
+        assertEquals(5, config.getEngineDefaults().getThreading().getThreadPoolContextHashNumThreads());
+        assertEquals(3000, (int) config.getEngineDefaults().getThreading().getThreadPoolContextHashCapacity());
+        assertTrue(config.getEngineDefaults().getThreading().isThreadPoolRingBuffer());
+        assertEquals(ConfigurationEngineDefaults.Threading.WaitStrategy.YIELD, config.getEngineDefaults().getThreading().getThreadPoolRingBufferWaitStrategy());
 
         assertFalse(config.getEngineDefaults().getThreading().isInternalTimerEnabled());
         assertEquals(1234567, config.getEngineDefaults().getThreading().getInternalTimerMsecResolution());
@@ -412,6 +426,7 @@ public class TestConfigurationParser extends TestCase
         assertTrue(config.getEngineDefaults().getLogging().isEnableJDBC());
         assertEquals("[%u] %m", config.getEngineDefaults().getLogging().getAuditPattern());
         assertEquals(30000, config.getEngineDefaults().getVariables().getMsecVersionRelease());
+        assertEquals(ConfigurationEngineDefaults.Variables.VersionStorage.SNAPSHOT, config.getEngineDefaults().getVariables().getVersionStorage());
         assertEquals(3L, (long) config.getEngineDefaults().getPatterns().getMaxSubexpressions());
         assertEquals(false, config.getEngineDefaults().getPatterns().isMaxSubexpressionPreventStart());
         assertEquals(3L, (long) config.getEngineDefaults().getMatchRecognize().getMaxStates());
@@ -425,6 +440,7 @@ public class TestConfigurationParser extends TestCase
         assertTrue(config.getEngineDefaults().getExecution().isAllowIsolatedService());
         assertEquals(ConfigurationEngineDefaults.ThreadingProfile.LARGE, config.getEngineDefaults().getExecution().getThreadingProfile());
         assertEquals(ConfigurationEngineDefaults.FilterServiceProfile.READWRITE, config.getEngineDefaults().getExecution().getFilterServiceProfile());
+        assertEquals(ConfigurationEngineDefaults.SchedulingServiceProfile.TIMINGWHEEL, config.getEngineDefaults().getExecution().getSchedulingServiceProfile());
         assertEquals(100, config.getEngineDefaults().getExecution().getFilterServiceMaxFilterWidth());
 
         ConfigurationMetricsReporting metrics = config.getEngineDefaults().getMetricsReporting();
@@ -434,6 +450,7 @@ public class TestConfigurationParser extends TestCase
         assertFalse(metrics.isThreading());
         assertEquals(2, metrics.getStatementGroups().size());
         assertTrue(metrics.isJmxEngineMetrics());
+        assertEquals(100, metrics.getProfilerSampleRate());
         ConfigurationMetricsReporting.StmtGroupMetrics def = metrics.getStatementGroups().get("MyStmtGroup");
         assertEquals(5000, def.getInterval());
         assertTrue(def.isDefaultInclude());
@@ -461,6 +478,7 @@ public class TestConfigurationParser extends TestCase
         assertEquals(2, config.getEngineDefaults().getExpression().getMathContext().getPrecision());
         assertEquals(RoundingMode.CEILING, config.getEngineDefaults().getExpression().getMathContext().getRoundingMode());
         assertEquals(TimeZone.getTimeZone("GMT-4:00"), config.getEngineDefaults().getExpression().getTimeZone());
+        assertTrue(config.getEngineDefaults().getExpression().isCompileBytecode());
         assertEquals(2, config.getEngineDefaults().getExceptionHandling().getHandlerFactories().size());
         assertEquals("my.company.cep.LoggingExceptionHandlerFactory", config.getEngineDefaults().getExceptionHandling().getHandlerFactories().get(0));
         assertEquals("my.company.cep.AlertExceptionHandlerFactory", config.getEngineDefaults().getExceptionHandling().getHandlerFactories().get(1));
@@ -0,0 +1,115 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.client.metric;
+
+import junit.framework.TestCase;
+
+public class TestLatencyHistogram extends TestCase
+{
+    public void testEmpty()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getP50());
+        assertEquals(0, histogram.getP999());
+    }
+
+    public void testExactSmallValues()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 20; i++)
+        {
+            histogram.record(i);
+        }
+        histogram.record(-5);
+        assertEquals(21, histogram.getCount());
+        assertEquals(20, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(0));
+        assertEquals(10, histogram.getP50());
+        assertEquals(20, histogram.getValueAtPercentile(100));
+    }
+
+    public void testPercentiles()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 990; i++)
+        {
+            histogram.record(1000);
+        }
+        for (int i = 0; i < 9; i++)
+        {
+            histogram.record(1000000);
+        }
+        histogram.record(50000000);
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(50000000, histogram.getMax());
+        assertWithinError(1000, histogram.getP50());
+        assertWithinError(1000, histogram.getP99());
+        assertWithinError(1000000, histogram.getP999());
+        assertEquals(50000000, histogram.getValueAtPercentile(100));
+    }
+
+    public void testLargeValueClamped()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(1, histogram.getCount());
+        assertEquals(Long.MAX_VALUE, histogram.getMax());
+        assertEquals((1L << 40) - 1, histogram.getP50());
+    }
+
+    public void testAdd()
+    {
+        LatencyHistogram one = new LatencyHistogram();
+        LatencyHistogram two = new LatencyHistogram();
+        one.record(100);
+        two.record(100000);
+        two.record(200000);
+        one.add(two);
+        assertEquals(3, one.getCount());
+        assertEquals(200000, one.getMax());
+        assertWithinError(100000, one.getP50());
+    }
+
+    public void testMT() throws Exception
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++)
+        {
+            final int threadNum = i;
+            threads[i] = new Thread(new Runnable() {
+                public void run()
+                {
+                    for (int j = 0; j < 100000; j++)
+                    {
+                        histogram.record(threadNum * 1000 + j % 1000);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertEquals(400000, histogram.getCount());
+        assertEquals(3999, histogram.getMax());
+    }
+
+    private static void assertWithinError(long expected, long actual)
+    {
+        assertTrue("expected " + expected + " actual " + actual, actual >= expected && actual <= expected + expected / 16);
+    }
+}
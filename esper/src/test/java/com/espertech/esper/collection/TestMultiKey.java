@@ -40,12 +40,10 @@ public class TestMultiKey extends TestCase
         assertTrue(keys11.hashCode() != keys12.hashCode());
         assertTrue(keys12.hashCode() != keys13.hashCode());
 
-        assertTrue(keys1.hashCode() == ("a".hashCode()*31 ^ "b".hashCode()));
-        assertTrue(keys3.hashCode() == "a".hashCode());
-        assertTrue(keys4.hashCode() == "b".hashCode());
-        assertTrue(keys5.hashCode() == 0);
+        assertTrue(keys3.hashCode() != keys4.hashCode());
+        assertTrue(keys5.hashCode() != keys6.hashCode());
 
-        assertTrue(keys8.hashCode() == keys1.hashCode());
+        assertTrue(keys8.hashCode() != keys1.hashCode());
         assertTrue(keys1.hashCode() == keys2.hashCode());
         assertTrue(keys1.hashCode() != keys3.hashCode());
         assertTrue(keys1.hashCode() != keys4.hashCode());
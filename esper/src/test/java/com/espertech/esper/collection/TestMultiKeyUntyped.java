@@ -34,12 +34,10 @@ public class TestMultiKeyUntyped extends TestCase
 
     public void testHashCode()
     {
-        assertTrue(keys1.hashCode() == ("a".hashCode()*31 ^ "b".hashCode()));
-        assertTrue(keys3.hashCode() == "a".hashCode());
-        assertTrue(keys4.hashCode() == "b".hashCode());
-        assertTrue(keys5.hashCode() == 0);
+        assertTrue(keys3.hashCode() != keys4.hashCode());
+        assertTrue(keys5.hashCode() != keys6.hashCode());
 
-        assertTrue(keys8.hashCode() == keys1.hashCode());
+        assertTrue(keys8.hashCode() != keys1.hashCode());
         assertTrue(keys1.hashCode() == keys2.hashCode());
         assertTrue(keys1.hashCode() != keys3.hashCode());
         assertTrue(keys1.hashCode() != keys4.hashCode());
@@ -49,6 +47,21 @@ public class TestMultiKeyUntyped extends TestCase
         assertTrue(keys9.hashCode() == keys10.hashCode());
     }
 
+    public void testHashCodeDistribution()
+    {
+        assertTrue(new MultiKeyUntyped(1, 2).hashCode() != new MultiKeyUntyped(2, 1).hashCode());
+        assertTrue(new MultiKeyUntyped(1, 1).hashCode() != new MultiKeyUntyped(2, 2).hashCode());
+
+        // small integer pairs, as typical for group-by keys, should rarely share a hash bucket
+        Set<Integer> buckets = new HashSet<Integer>();
+        for (int i = 0; i < 100; i++) {
+            for (int j = 0; j < 100; j++) {
+                buckets.add(new MultiKeyUntyped(i, j).hashCode() & 16383);
+            }
+        }
+        assertTrue(buckets.size() > 6000);
+    }
+
     public void testEquals()
     {
         assertEquals(keys2, keys1);
@@ -18,7 +18,10 @@ import junit.framework.TestCase;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import java.util.ArrayDeque;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class TestTimeWindow extends TestCase
 {
@@ -51,30 +54,30 @@ public class TestTimeWindow extends TestCase
         window.add(22, beans[5]);
         assertTrue(window.getOldestTimestamp() == 19L);
 
-        ArrayDeque<EventBean> beanList = window.expireEvents(19);
+        EventBean[] beanList = window.expireEvents(19);
         assertTrue(beanList == null);
 
         beanList = window.expireEvents(20);
-        assertTrue(beanList.size() == 2);
-        assertTrue(beanList.poll() == beans[0]);
-        assertTrue(beanList.poll() == beans[1]);
+        assertTrue(beanList.length == 2);
+        assertTrue(beanList[0] == beans[0]);
+        assertTrue(beanList[1] == beans[1]);
 
         beanList = window.expireEvents(21);
-        assertTrue(beanList.size() == 2);
-        assertTrue(beanList.poll() == beans[2]);
-        assertTrue(beanList.poll() == beans[3]);
+        assertTrue(beanList.length == 2);
+        assertTrue(beanList[0] == beans[2]);
+        assertTrue(beanList[1] == beans[3]);
         assertFalse(window.isEmpty());
         assertTrue(window.getOldestTimestamp() == 21);
 
         beanList = window.expireEvents(22);
-        assertTrue(beanList.size() == 1);
-        assertTrue(beanList.poll() == beans[4]);
+        assertTrue(beanList.length == 1);
+        assertTrue(beanList[0] == beans[4]);
         assertFalse(window.isEmpty());
         assertTrue(window.getOldestTimestamp() == 22);
 
         beanList = window.expireEvents(23);
-        assertTrue(beanList.size() == 1);
-        assertTrue(beanList.poll() == beans[5]);
+        assertTrue(beanList.length == 1);
+        assertTrue(beanList[0] == beans[5]);
         assertTrue(window.isEmpty());
         assertTrue(window.getOldestTimestamp() == null);
 
@@ -105,25 +108,26 @@ public class TestTimeWindow extends TestCase
         windowRemovable.remove(beans[0]);
         windowRemovable.remove(beans[3]);
 
-        ArrayDeque<EventBean> beanList = windowRemovable.expireEvents(19);
+        EventBean[] beanList = windowRemovable.expireEvents(19);
         assertTrue(beanList == null);
 
         beanList = windowRemovable.expireEvents(20);
-        assertTrue(beanList.size() == 1);
-        assertTrue(beanList.getFirst() == beans[1]);
+        assertTrue(beanList.length == 1);
+        assertTrue(beanList[0] == beans[1]);
 
         beanList = windowRemovable.expireEvents(21);
-        assertTrue(beanList.size() == 1);
-        assertTrue(beanList.getFirst() == beans[2]);
+        assertTrue(beanList.length == 1);
+        assertTrue(beanList[0] == beans[2]);
         assertFalse(windowRemovable.isEmpty());
         assertTrue(windowRemovable.getOldestTimestamp() == 22);
 
+        // the removed event for 21 does not occupy the window
         beanList = windowRemovable.expireEvents(22);
-        assertTrue(beanList.size() == 0);
+        assertTrue(beanList == null);
 
         beanList = windowRemovable.expireEvents(23);
-        assertTrue(beanList.size() == 1);
-        assertTrue(beanList.getFirst() == beans[5]);
+        assertTrue(beanList.length == 1);
+        assertTrue(beanList[0] == beans[5]);
         assertTrue(windowRemovable.isEmpty());
         assertTrue(windowRemovable.getOldestTimestamp() == null);
 
@@ -132,7 +136,79 @@ public class TestTimeWindow extends TestCase
         assertTrue(windowRemovable.isEmpty());
         assertTrue(windowRemovable.getOldestTimestamp() == null);
 
-        assertEquals(0, windowRemovable.getReverseIndex().size());
+        assertEquals(0, windowRemovable.getReverseIndexSize());
+    }
+
+    public void testGrowAndWrap()
+    {
+        List<EventBean> expected = new ArrayList<EventBean>();
+        List<Long> expectedTimes = new ArrayList<Long>();
+        long time = 0;
+        for (int round = 0; round < 5; round++) {
+            // grow beyond the initial capacity, remove from the middle, then expire all but the most recent
+            for (int i = 0; i < 100; i++) {
+                EventBean bean = createBean();
+                windowRemovable.add(time, bean);
+                expected.add(bean);
+                expectedTimes.add(time);
+                time++;
+            }
+            for (int i = 0; i < 30; i++) {
+                int index = expected.size() / 2;
+                windowRemovable.remove(expected.remove(index));
+                expectedTimes.remove(index);
+            }
+
+            List<EventBean> expectedExpired = new ArrayList<EventBean>();
+            while (!expectedTimes.isEmpty() && expectedTimes.get(0) < time - 10) {
+                expectedExpired.add(expected.remove(0));
+                expectedTimes.remove(0);
+            }
+            EventBean[] expired = windowRemovable.expireEvents(time - 10);
+            EPAssertionUtil.assertEqualsExactOrder(expectedExpired.isEmpty() ? null : expectedExpired.toArray(), expired);
+
+            EPAssertionUtil.assertEqualsExactOrder(expected.toArray(), windowRemovable.toArray());
+            EPAssertionUtil.assertEqualsExactOrder(expected.toArray(), windowRemovable.iterator());
+            assertEquals(expected.size(), windowRemovable.size());
+            assertEquals(expected.size(), windowRemovable.getReverseIndexSize());
+            assertEquals(expectedTimes.get(0), windowRemovable.getOldestTimestamp());
+        }
+
+        for (EventBean bean : expected) {
+            windowRemovable.remove(bean);
+        }
+        assertTrue(windowRemovable.isEmpty());
+        assertEquals(0, windowRemovable.getReverseIndexSize());
+        assertFalse(windowRemovable.iterator().hasNext());
+        assertNull(windowRemovable.getNewestEvent());
+    }
+
+    public void testPut()
+    {
+        windowRemovable.put(10, beans[0]);
+        windowRemovable.put(11, beans[1]);
+        windowRemovable.put(12, beans[0]);
+        assertEquals(2, windowRemovable.size());
+        assertSame(beans[1], windowRemovable.getNewestEvent());
+        assertEquals(11L, (long) windowRemovable.getNewestTimestamp());
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {beans[0], beans[1]}, windowRemovable.toArray());
+
+        windowRemovable.remove(beans[1]);
+        assertSame(beans[0], windowRemovable.getNewestEvent());
+        assertEquals(12L, (long) windowRemovable.getNewestTimestamp());
+
+        windowRemovable.clear();
+        assertTrue(windowRemovable.isEmpty());
+        assertNull(windowRemovable.toArray());
+        assertEquals(0, windowRemovable.getReverseIndexSize());
+
+        try {
+            window.put(10, beans[0]);
+            fail();
+        }
+        catch (UnsupportedOperationException ex) {
+            // expected
+        }
     }
 
     public void testTimeWindowPerformance()
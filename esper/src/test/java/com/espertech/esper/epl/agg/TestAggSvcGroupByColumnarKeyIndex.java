@@ -0,0 +1,113 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+
+package com.espertech.esper.epl.agg;
+
+import com.espertech.esper.epl.agg.service.AggSvcGroupByColumnarKeyIndex;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestAggSvcGroupByColumnarKeyIndex extends TestCase
+{
+    public void testAddGetRemove()
+    {
+        AggSvcGroupByColumnarKeyIndex index = new AggSvcGroupByColumnarKeyIndex(4);
+        assertEquals(-1, index.get("A"));
+
+        int slotA = index.add("A");
+        int slotNull = index.add(null);
+        assertEquals(slotA, index.get("A"));
+        assertEquals(slotNull, index.get(null));
+        assertEquals(2, index.size());
+        assertEquals("A", index.getKey(slotA));
+
+        index.remove(slotA);
+        assertEquals(-1, index.get("A"));
+        assertEquals(slotNull, index.get(null));
+        assertEquals(1, index.size());
+
+        // slot is reused
+        assertEquals(slotA, index.add("B"));
+        assertEquals(slotA, index.get("B"));
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertEquals(-1, index.get("B"));
+        assertEquals(-1, index.get(null));
+    }
+
+    public void testRandomAgainstMap()
+    {
+        Random random = new Random(1);
+        AggSvcGroupByColumnarKeyIndex index = new AggSvcGroupByColumnarKeyIndex(0);
+        Map<Object, Integer> expected = new HashMap<Object, Integer>();
+
+        for (int i = 0; i < 200000; i++)
+        {
+            // colliding hash codes for some keys
+            Object key = random.nextInt(4) == 0 ? new CollidingKey(random.nextInt(50)) : (Object) random.nextInt(5000);
+            Integer slot = expected.get(key);
+            if (slot == null)
+            {
+                int added = index.add(key);
+                assertTrue(added < index.getSlotCapacity());
+                assertFalse(expected.containsValue(added));
+                expected.put(key, added);
+            }
+            else
+            {
+                assertEquals((int) slot, index.get(key));
+                if (random.nextBoolean())
+                {
+                    index.remove(slot);
+                    expected.remove(key);
+                }
+            }
+            assertEquals(expected.size(), index.size());
+        }
+
+        for (Map.Entry<Object, Integer> entry : expected.entrySet())
+        {
+            assertEquals((int) entry.getValue(), index.get(entry.getKey()));
+            assertEquals(entry.getKey(), index.getKey(entry.getValue()));
+        }
+        assertEquals(expected.keySet(), new HashSet<Object>(index.getKeys()));
+        int[] slots = index.getSlots();
+        Set<Integer> slotSet = new HashSet<Integer>();
+        for (int slot : slots)
+        {
+            slotSet.add(slot);
+        }
+        assertEquals(new HashSet<Integer>(expected.values()), slotSet);
+    }
+
+    private static class CollidingKey
+    {
+        private final int id;
+
+        private CollidingKey(int id)
+        {
+            this.id = id;
+        }
+
+        public boolean equals(Object o)
+        {
+            return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+        }
+
+        public int hashCode()
+        {
+            return 7;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.agg;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.agg.service.AggSvcGroupAllNoAccessImpl;
+import com.espertech.esper.epl.agg.service.AggSvcGroupByColumnarImpl;
+import com.espertech.esper.epl.agg.service.AggSvcGroupByUtil;
+import com.espertech.esper.epl.agg.service.AggSvcPrimitiveEvaluator;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.agg.service.AggregationService;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprIdentNodeImpl;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.methodagg.ExprAvgNode;
+import com.espertech.esper.epl.expression.methodagg.ExprMinMaxAggrNode;
+import com.espertech.esper.epl.expression.methodagg.ExprSumNode;
+import com.espertech.esper.epl.expression.ops.ExprMathNode;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.epl.SupportExprNodeFactory;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import com.espertech.esper.type.MathArithTypeEnum;
+import com.espertech.esper.type.MinMaxTypeEnum;
+import junit.framework.TestCase;
+
+public class TestAggSvcPrimitiveEvaluator extends TestCase
+{
+    public void testSelection() throws Exception
+    {
+        AggregationMethodFactory[] factories = new AggregationMethodFactory[] {
+                validate(new ExprSumNode(false), ident("longPrimitive")),
+                validate(new ExprSumNode(false), ident("doublePrimitive")),
+                validate(new ExprSumNode(false), ident("intPrimitive")),
+                validate(new ExprSumNode(false), ident("longBoxed")),
+                validate(new ExprSumNode(false), ident("longPrimitive"), ident("boolPrimitive")),
+                validate(new ExprMinMaxAggrNode(false, MinMaxTypeEnum.MIN, false, false), ident("longPrimitive")),
+                validate(new ExprMinMaxAggrNode(false, MinMaxTypeEnum.MAX, false, true), ident("doublePrimitive")),
+                validate(new ExprAvgNode(false), ident("intPrimitive")),
+                validate(new ExprSumNode(false), math(MathArithTypeEnum.MULTIPLY, "longPrimitive", "intPrimitive")),
+                validate(new ExprSumNode(false), math(MathArithTypeEnum.DIVIDE, "longPrimitive", "intPrimitive")),
+                validate(new ExprSumNode(true), ident("longPrimitive")),
+        };
+        ExprEvaluator[] evaluators = getEvaluators(factories);
+
+        AggSvcPrimitiveEvaluator[] primitives = AggSvcGroupByUtil.getPrimitiveEvaluators(evaluators, factories, false);
+        assertTrue(primitives[0].isLong());
+        assertFalse(primitives[1].isLong());
+        assertNull(primitives[2]);  // sum of int values returns Integer
+        assertNull(primitives[3]);  // boxed values may be null
+        assertTrue(primitives[4].isLong());
+        assertNotNull(primitives[4].getOptionalFilter());
+        assertTrue(primitives[5].isLong());
+        assertFalse(primitives[6].isLong());
+        assertFalse(primitives[7].isLong());
+        assertTrue(primitives[8].isLong());
+        assertFalse(primitives[9].isLong()); // division returns Double
+        assertNull(primitives[10]); // distinct values are not primitive
+        for (int i = 0; i < primitives.length; i++) {
+            if (i != 4) {
+                assertTrue(primitives[i] == null || primitives[i].getOptionalFilter() == null);
+            }
+        }
+
+        AggSvcPrimitiveEvaluator[] join = AggSvcGroupByUtil.getPrimitiveEvaluators(evaluators, factories, true);
+        for (AggSvcPrimitiveEvaluator primitive : join) {
+            assertNull(primitive);
+        }
+    }
+
+    public void testPrimitivePathUsed() throws Exception
+    {
+        AggregationMethodFactory[] factories = new AggregationMethodFactory[] {
+                validate(new ExprSumNode(false), ident("longPrimitive")),
+                validate(new ExprSumNode(false), ident("doublePrimitive")),
+                validate(new ExprSumNode(false), ident("longPrimitive"), ident("boolPrimitive")),
+                validate(new ExprAvgNode(false), ident("doublePrimitive"), ident("boolPrimitive")),
+                validate(new ExprMinMaxAggrNode(false, MinMaxTypeEnum.MIN, false, false), ident("longPrimitive")),
+                validate(new ExprMinMaxAggrNode(false, MinMaxTypeEnum.MAX, false, true), ident("doublePrimitive")),
+                validate(new ExprSumNode(false), math(MathArithTypeEnum.ADD, "longPrimitive", "intPrimitive")),
+        };
+        AggSvcPrimitiveEvaluator[] primitives = AggSvcGroupByUtil.getPrimitiveEvaluators(getEvaluators(factories), factories, false);
+
+        // the object evaluators fail, so that the service must use the primitive evaluators only
+        AggSvcGroupAllNoAccessImpl service = new AggSvcGroupAllNoAccessImpl(failingEvaluators(factories.length), AggSvcGroupByUtil.newAggregators(factories), factories, primitives);
+
+        service.applyEnter(makeEvent(10, 2.5, true, 1), null, null);
+        service.applyEnter(makeEvent(20, 1.5, false, 2), null, null);
+        service.applyEnter(makeEvent(5, 4d, true, 3), null, null);
+        assertValues(service, 35L, 8d, 15L, 3.25d, 5L, 4d, 41L);
+
+        service.applyLeave(makeEvent(10, 2.5, true, 1), null, null);
+        service.applyLeave(makeEvent(20, 1.5, false, 2), null, null);
+        assertValues(service, 5L, 4d, 5L, 4d, 5L, 4d, 8L);
+    }
+
+    public void testColumnarPrimitivePathUsed() throws Exception
+    {
+        AggregationMethodFactory[] factories = new AggregationMethodFactory[] {
+                validate(new ExprSumNode(false), ident("longPrimitive")),
+                validate(new ExprSumNode(false), ident("doublePrimitive")),
+                validate(new ExprAvgNode(false), ident("longPrimitive")),
+        };
+        AggSvcPrimitiveEvaluator[] primitives = AggSvcGroupByUtil.getPrimitiveEvaluators(getEvaluators(factories), factories, false);
+        AggSvcGroupByColumnarImpl service = new AggSvcGroupByColumnarImpl(failingEvaluators(factories.length), factories, primitives, false);
+
+        service.applyEnter(makeEvent(10, 2.5, true, 1), "G1", null);
+        service.applyEnter(makeEvent(20, 1.5, true, 2), "G2", null);
+        service.applyEnter(makeEvent(30, 4d, true, 3), "G1", null);
+        service.setCurrentAccess("G1", -1, null);
+        assertValues(service, 40L, 6.5d, 20d);
+
+        service.applyLeave(makeEvent(10, 2.5, true, 1), "G1", null);
+        service.setCurrentAccess("G1", -1, null);
+        assertValues(service, 30L, 4d, 30d);
+        service.setCurrentAccess("G2", -1, null);
+        assertValues(service, 20L, 1.5d, 20d);
+    }
+
+    private void assertValues(AggregationService service, Object... expected)
+    {
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals("column " + i, expected[i], service.getValue(i, -1, null, true, null));
+        }
+    }
+
+    private static ExprEvaluator[] failingEvaluators(int length)
+    {
+        ExprEvaluator[] failing = new ExprEvaluator[length];
+        for (int i = 0; i < failing.length; i++) {
+            failing[i] = new FailingEvaluator();
+        }
+        return failing;
+    }
+
+    private EventBean[] makeEvent(long longPrimitive, double doublePrimitive, boolean boolPrimitive, int intPrimitive)
+    {
+        SupportBean bean = new SupportBean("E", intPrimitive);
+        bean.setLongPrimitive(longPrimitive);
+        bean.setDoublePrimitive(doublePrimitive);
+        bean.setBoolPrimitive(boolPrimitive);
+        return new EventBean[] {SupportEventBeanFactory.createObject(bean)};
+    }
+
+    private static AggregationMethodFactory validate(ExprAggregateNodeBase node, ExprNode... children) throws Exception
+    {
+        for (ExprNode child : children) {
+            node.addChildNode(child);
+        }
+        SupportExprNodeFactory.validate3Stream(node);
+        return node.getFactory();
+    }
+
+    private static ExprEvaluator[] getEvaluators(AggregationMethodFactory[] factories)
+    {
+        ExprEvaluator[] evaluators = new ExprEvaluator[factories.length];
+        for (int i = 0; i < factories.length; i++) {
+            evaluators[i] = factories[i].getAggregationExpression().getChildNodes()[0].getExprEvaluator();
+        }
+        return evaluators;
+    }
+
+    private static ExprNode ident(String property)
+    {
+        return new ExprIdentNodeImpl(property, "s0");
+    }
+
+    private static ExprNode math(MathArithTypeEnum type, String left, String right)
+    {
+        ExprMathNode math = new ExprMathNode(type, false, false);
+        math.addChildNode(ident(left));
+        math.addChildNode(ident(right));
+        return math;
+    }
+
+    private static class FailingEvaluator implements ExprEvaluator
+    {
+        public Object evaluate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context)
+        {
+            throw new IllegalStateException("Object evaluation not expected");
+        }
+
+        public Class getType()
+        {
+            return Object.class;
+        }
+    }
+}
@@ -36,7 +36,7 @@ public class TestAggregationServiceGroupAllImpl extends TestCase
 
         service = new AggSvcGroupAllNoAccessImpl(evaluators, aggregators, new AggregationMethodFactory[] {
                 new SupportAggregatorFactory(), new SupportAggregatorFactory()
-        });
+        }, null);
     }
 
     public void testApplyEnter()
@@ -36,7 +36,7 @@ public class TestAggregationServiceGroupByImpl extends TestCase
         }
         ExprEvaluator evaluators[] = new ExprEvaluator[] { new SupportExprNode(5).getExprEvaluator(), new SupportExprNode(2).getExprEvaluator() };
 
-        service = new AggSvcGroupByNoAccessImpl(evaluators, aggregators);
+        service = new AggSvcGroupByNoAccessImpl(evaluators, aggregators, null);
 
         groupOneKey = new MultiKeyUntyped(new Object[] {"x", "y1"});
         groupTwoKey = new MultiKeyUntyped(new Object[] {"x", "y2"});
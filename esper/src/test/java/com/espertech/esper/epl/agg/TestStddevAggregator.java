@@ -43,6 +43,18 @@ public class TestStddevAggregator extends TestCase
         assertEquals("2.0816", Double.toString(result).substring(0, 6));
     }
 
+    public void testAggregateFunctionDouble()
+    {
+        AggregatorStddev agg = new AggregatorStddev();
+        agg.enterDouble(10);
+        agg.enter(8);
+        agg.enterDouble(5);
+        agg.enterDouble(9);
+        agg.leaveDouble(10);
+        double result = (Double)agg.getValue();
+        assertEquals("2.0816", Double.toString(result).substring(0, 6));
+    }
+
     public void testAllOne() {
         AggregationMethod agg = new AggregatorStddev();
         agg.enter(1);
@@ -11,11 +11,16 @@
 
 package com.espertech.esper.epl.expression;
 
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprIdentNodeImpl;
 import com.espertech.esper.epl.expression.core.ExprNodeOrigin;
 import com.espertech.esper.epl.expression.core.ExprNodeUtility;
 import com.espertech.esper.epl.expression.core.ExprValidationException;
 import com.espertech.esper.epl.expression.ops.ExprMathNode;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.epl.SupportExprNodeFactory;
 import com.espertech.esper.support.epl.SupportExprNodeUtil;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
 import junit.framework.TestCase;
 import com.espertech.esper.support.epl.SupportExprNode;
 import com.espertech.esper.type.MathArithTypeEnum;
@@ -95,12 +100,51 @@ public class TestExprMathNode extends TestCase
         assertNull(arithNode.evaluate(null, false, null));
     }
 
+    public void testPrimitiveEvaluation() throws Exception
+    {
+        SupportBean bean = new SupportBean("E1", 7);
+        bean.setLongPrimitive(20);
+        bean.setDoublePrimitive(1.5);
+        bean.setLongBoxed(3L);
+        EventBean[] events = new EventBean[] {SupportEventBeanFactory.createObject(bean)};
+
+        for (MathArithTypeEnum type : new MathArithTypeEnum[] {MathArithTypeEnum.ADD, MathArithTypeEnum.SUBTRACT, MathArithTypeEnum.MULTIPLY, MathArithTypeEnum.MODULO}) {
+            ExprMathNode node = makeIdentNode(type, "longPrimitive", "intPrimitive");
+            assertTrue(node.isLongEvaluable());
+            assertFalse(node.isDoubleEvaluable());
+            assertEquals(node.evaluate(events, true, null), node.evaluateLong(events, true, null));
+        }
+
+        ExprMathNode divide = makeIdentNode(MathArithTypeEnum.DIVIDE, "longPrimitive", "intPrimitive");
+        assertFalse(divide.isLongEvaluable());
+        assertTrue(divide.isDoubleEvaluable());
+        assertEquals(divide.evaluate(events, true, null), divide.evaluateDouble(events, true, null));
+
+        ExprMathNode doubleAdd = makeIdentNode(MathArithTypeEnum.ADD, "doublePrimitive", "longPrimitive");
+        assertFalse(doubleAdd.isLongEvaluable());
+        assertTrue(doubleAdd.isDoubleEvaluable());
+        assertEquals(doubleAdd.evaluate(events, true, null), doubleAdd.evaluateDouble(events, true, null));
+
+        // boxed values may be null and are not primitive-evaluable
+        assertFalse(makeIdentNode(MathArithTypeEnum.ADD, "longPrimitive", "longBoxed").isLongEvaluable());
+        assertFalse(makeIdentNode(MathArithTypeEnum.ADD, "intPrimitive", "intPrimitive").isLongEvaluable());
+    }
+
     public void testEqualsNode() throws Exception
     {
         assertTrue(arithNode.equalsNode(arithNode));
         assertFalse(arithNode.equalsNode(new ExprMathNode(MathArithTypeEnum.DIVIDE, false, false)));
     }
 
+    private ExprMathNode makeIdentNode(MathArithTypeEnum type, String left, String right) throws Exception
+    {
+        ExprMathNode mathNode = new ExprMathNode(type, false, false);
+        mathNode.addChildNode(new ExprIdentNodeImpl(left, "s0"));
+        mathNode.addChildNode(new ExprIdentNodeImpl(right, "s0"));
+        SupportExprNodeFactory.validate3Stream(mathNode);
+        return mathNode;
+    }
+
     private ExprMathNode makeNode(Object valueLeft, Class typeLeft, Object valueRight, Class typeRight) throws Exception
     {
         ExprMathNode mathNode = new ExprMathNode(MathArithTypeEnum.MULTIPLY, false, false);
@@ -0,0 +1,93 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.expression;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.codegen.ExprEvaluatorCompiledBase;
+import com.espertech.esper.epl.expression.codegen.ExprNodeCompiler;
+import com.espertech.esper.epl.expression.core.ExprConstantNodeImpl;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.ops.ExprAndNodeImpl;
+import com.espertech.esper.epl.expression.ops.ExprMathNode;
+import com.espertech.esper.epl.expression.ops.ExprNotNode;
+import com.espertech.esper.epl.expression.ops.ExprOrNode;
+import com.espertech.esper.epl.expression.ops.ExprRelationalOpNodeImpl;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.epl.SupportExprNode;
+import com.espertech.esper.support.epl.SupportExprNodeFactory;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import com.espertech.esper.type.MathArithTypeEnum;
+import com.espertech.esper.type.RelationalOpEnum;
+import junit.framework.TestCase;
+
+public class TestExprNodeCompiler extends TestCase
+{
+    private final static Boolean[] BOOLEANS = new Boolean[] {null, true, false};
+
+    public void testCompile() throws Exception
+    {
+        // identifier or constant root is not compiled
+        assertNull(ExprNodeCompiler.compile(SupportExprNodeFactory.makeIdentNodeBean("intPrimitive")));
+        assertNull(ExprNodeCompiler.compile(new ExprConstantNodeImpl(1)));
+        ExprNode ident = SupportExprNodeFactory.makeIdentNodeBean("intPrimitive");
+        assertSame(ident.getExprEvaluator(), ExprNodeCompiler.getEvaluator(ident, true));
+
+        ExprMathNode math = new ExprMathNode(MathArithTypeEnum.MULTIPLY, false, false);
+        math.addChildNode(SupportExprNodeFactory.makeIdentNodeBean("intPrimitive"));
+        math.addChildNode(new ExprConstantNodeImpl(3L));
+        math.validate(ExprValidationContextFactory.makeEmpty());
+        assertSame(math, ExprNodeCompiler.getEvaluator(math, false));
+
+        ExprEvaluator compiled = ExprNodeCompiler.getEvaluator(math, true);
+        assertTrue(compiled instanceof ExprEvaluatorCompiledBase);
+        assertEquals(Long.class, compiled.getType());
+        assertEquals(15L, compiled.evaluate(makeEvent(5), false, null));
+        assertNull(compiled.evaluate(new EventBean[1], false, null));
+
+        // relational op of a math result with an interpreted sub-expression
+        ExprRelationalOpNodeImpl relOp = new ExprRelationalOpNodeImpl(RelationalOpEnum.GE);
+        relOp.addChildNode(math);
+        relOp.addChildNode(new SupportExprNode(9.5d));
+        relOp.validate(ExprValidationContextFactory.makeEmpty());
+        compiled = ExprNodeCompiler.compile(relOp);
+        assertEquals(Boolean.class, compiled.getType());
+        assertEquals(false, compiled.evaluate(makeEvent(3), false, null));
+        assertEquals(true, compiled.evaluate(makeEvent(4), false, null));
+    }
+
+    public void testThreeValuedLogic() throws Exception
+    {
+        for (Boolean left : BOOLEANS) {
+            for (Boolean right : BOOLEANS) {
+                ExprAndNodeImpl and = new ExprAndNodeImpl();
+                ExprOrNode or = new ExprOrNode();
+                ExprNotNode not = new ExprNotNode();
+                for (ExprNode node : new ExprNode[] {and, or}) {
+                    node.addChildNode(new SupportExprNode(left, Boolean.class));
+                    node.addChildNode(new SupportExprNode(right, Boolean.class));
+                }
+                not.addChildNode(new SupportExprNode(left, Boolean.class));
+
+                for (ExprNode node : new ExprNode[] {and, or, not}) {
+                    node.validate(ExprValidationContextFactory.makeEmpty());
+                    ExprEvaluator compiled = ExprNodeCompiler.compile(node);
+                    assertEquals(node.getExprEvaluator().evaluate(null, true, null), compiled.evaluate(null, true, null));
+                }
+            }
+        }
+    }
+
+    private static EventBean[] makeEvent(int intPrimitive) {
+        return new EventBean[] {SupportEventBeanFactory.createObject(new SupportBean("E1", intPrimitive))};
+    }
+}
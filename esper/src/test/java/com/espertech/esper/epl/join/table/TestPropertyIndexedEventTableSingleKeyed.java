@@ -0,0 +1,173 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.epl.lookup.LookupStrategyType;
+import com.espertech.esper.epl.lookup.SubordIndexedTableLookupStrategySinglePropFactory;
+import com.espertech.esper.epl.lookup.SubordTableLookupStrategy;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import com.espertech.esper.support.event.SupportEventTypeFactory;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestPropertyIndexedEventTableSingleKeyed extends TestCase
+{
+    private EventType eventType;
+
+    public void setUp()
+    {
+        eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+    }
+
+    public void testFactory()
+    {
+        assertTrue(PropertyIndexedEventTableSingleKeyedFactory.isSupportedKeyType(int.class));
+        assertTrue(PropertyIndexedEventTableSingleKeyedFactory.isSupportedKeyType(Long.class));
+        assertTrue(PropertyIndexedEventTableSingleKeyedFactory.isSupportedKeyType(String.class));
+        assertFalse(PropertyIndexedEventTableSingleKeyedFactory.isSupportedKeyType(double.class));
+
+        assertTrue(makeIndex("intPrimitive", false) instanceof PropertyIndexedEventTableSingleLongKeyed);
+        assertTrue(makeIndex("theString", true) instanceof PropertyIndexedEventTableSingleStringKeyed);
+        assertEquals(PropertyIndexedEventTableSingle.class, makeIndex("intPrimitive", false).getProviderClass());
+        assertEquals(PropertyIndexedEventTableSingleUnique.class, makeIndex("longBoxed", true).getProviderClass());
+    }
+
+    public void testLookupStrategy()
+    {
+        SubordIndexedTableLookupStrategySinglePropFactory factory = new SubordIndexedTableLookupStrategySinglePropFactory(false, new EventType[] {eventType}, 0, "intPrimitive");
+        for (boolean unique : new boolean[] {false, true}) {
+            PropertyIndexedEventTableSingle index = makeIndex("intPrimitive", unique);
+            SubordTableLookupStrategy strategy = factory.makeStrategy(new EventTable[] {index}, null);
+            assertEquals(unique ? LookupStrategyType.SINGLEPROPUNIQUE : LookupStrategyType.SINGLEPROPNONUNIQUE, strategy.getStrategyDesc().getLookupStrategy());
+
+            EventBean theEvent = SupportEventBeanFactory.createObject(new SupportBean("E1", 1));
+            index.add(theEvent);
+            assertSame(index, index.getIndex());
+            EPAssertionUtil.assertEqualsExactOrder(new Object[] {theEvent}, strategy.lookup(new EventBean[] {theEvent}, null).toArray());
+        }
+    }
+
+    public void testCompareToHashMapIndex()
+    {
+        for (String property : new String[] {"intPrimitive", "longBoxed", "theString"}) {
+            PropertyIndexedEventTableSingle keyed = makeIndex(property, false);
+            PropertyIndexedEventTableSingle reference = new PropertyIndexedEventTableSingleUnadorned(
+                    eventType.getGetter(property), new EventTableOrganization(null, false, false, 0, new String[] {property}, EventTableOrganizationType.HASH));
+
+            // few keys with many duplicates and many keys with few duplicates, including null keys
+            Random random = new Random(1);
+            List<EventBean> events = new ArrayList<EventBean>();
+            for (int round = 0; round < 20000; round++) {
+                if (events.isEmpty() || random.nextInt(3) != 0) {
+                    int value = round % 2 == 0 ? random.nextInt(5) : random.nextInt(5000);
+                    SupportBean bean = new SupportBean(value == 0 ? null : "s" + value, value);
+                    bean.setLongBoxed(value == 0 ? null : (long) value - 2500);
+                    EventBean theEvent = SupportEventBeanFactory.createObject(bean);
+                    events.add(theEvent);
+                    keyed.add(theEvent);
+                    reference.add(theEvent);
+                }
+                else {
+                    EventBean theEvent = events.remove(random.nextInt(events.size()));
+                    keyed.remove(theEvent);
+                    reference.remove(theEvent);
+                }
+            }
+
+            assertEquals(reference.getNumKeys(), keyed.getNumKeys());
+            assertEquals(events.size(), (int) keyed.getNumberOfEvents());
+            EPAssertionUtil.assertEqualsAnyOrder(events.toArray(), toArray(keyed.iterator()));
+            for (EventBean theEvent : events) {
+                Object key = eventType.getGetter(property).get(theEvent);
+                EPAssertionUtil.assertEqualsAnyOrder(reference.lookup(key).toArray(), keyed.lookup(key).toArray());
+            }
+            for (int i = 1; i < 5000; i++) {
+                Object key = property.equals("theString") ? "s" + i : property.equals("intPrimitive") ? (Object) i : (Object) (i - 2500L);
+                assertEquals(reference.lookup(key) == null, keyed.lookup(key) == null);
+            }
+
+            // key of different type does not match, same as the hash map-based index
+            assertNull(keyed.lookup(property.equals("intPrimitive") ? (Object) 1L : (Object) 1));
+
+            for (EventBean theEvent : events) {
+                keyed.remove(theEvent);
+            }
+            assertTrue(keyed.isEmpty());
+            assertEquals(0, keyed.getNumKeys());
+            assertFalse(keyed.iterator().hasNext());
+        }
+    }
+
+    public void testLookupUnchangedByRemove()
+    {
+        PropertyIndexedEventTableSingle index = makeIndex("intPrimitive", false);
+        EventBean[] events = new EventBean[3];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = SupportEventBeanFactory.createObject(new SupportBean("E" + i, 1));
+        }
+        index.add(events);
+
+        Set<EventBean> result = index.lookup(1);
+        assertEquals(3, result.size());
+        Iterator<EventBean> it = result.iterator();
+        it.next();
+        index.remove(events);
+        assertNull(index.lookup(1));
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {events[1], events[2]}, toArray(it));
+    }
+
+    public void testUnique()
+    {
+        PropertyIndexedEventTableSingle index = makeIndex("intPrimitive", true);
+        EventBean first = SupportEventBeanFactory.createObject(new SupportBean("E1", 1));
+        EventBean second = SupportEventBeanFactory.createObject(new SupportBean("E2", 1));
+        index.add(first);
+        index.add(first);
+        assertEquals(1, (int) index.getNumberOfEvents());
+
+        try {
+            index.add(second);
+            fail();
+        }
+        catch (EPException ex) {
+            assertEquals("Unique index violation, index is a unique index and key '1' already exists", ex.getMessage());
+        }
+
+        // removal and addition of the same key in a single update
+        index.addRemove(new EventBean[] {first}, new EventBean[] {second});
+        assertSame(first, index.lookup(1).iterator().next());
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {first}, ((EventTableAsSet) index).allValues().toArray());
+
+        index.clear();
+        assertTrue(index.isEmpty());
+        assertNull(index.lookup(1));
+    }
+
+    private PropertyIndexedEventTableSingle makeIndex(String property, boolean unique) {
+        return (PropertyIndexedEventTableSingle) new PropertyIndexedEventTableSingleKeyedFactory(0, eventType, property, unique, null).makeEventTables(null)[0];
+    }
+
+    private static Object[] toArray(Iterator<EventBean> it) {
+        List<EventBean> list = new ArrayList<EventBean>();
+        while (it.hasNext()) {
+            list.add(it.next());
+        }
+        return list.toArray();
+    }
+}
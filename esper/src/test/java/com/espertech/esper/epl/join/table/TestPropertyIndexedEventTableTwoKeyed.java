@@ -0,0 +1,157 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import com.espertech.esper.support.event.SupportEventTypeFactory;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestPropertyIndexedEventTableTwoKeyed extends TestCase
+{
+    private EventType eventType;
+
+    public void setUp()
+    {
+        eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+    }
+
+    public void testFactory()
+    {
+        assertTrue(PropertyIndexedEventTableTwoKeyedFactory.isSupportedKeyTypes(eventType, "intPrimitive,theString".split(",")));
+        assertTrue(PropertyIndexedEventTableTwoKeyedFactory.isSupportedKeyTypes(eventType, "longBoxed,intBoxed".split(",")));
+        assertFalse(PropertyIndexedEventTableTwoKeyedFactory.isSupportedKeyTypes(eventType, "intPrimitive,doublePrimitive".split(",")));
+        assertFalse(PropertyIndexedEventTableTwoKeyedFactory.isSupportedKeyTypes(eventType, "intPrimitive,theString,longBoxed".split(",")));
+
+        assertEquals(PropertyIndexedEventTable.class, makeIndex("intPrimitive,theString", false).getProviderClass());
+        assertEquals(PropertyIndexedEventTableUnique.class, makeIndex("intPrimitive,theString", true).getProviderClass());
+        assertEquals(PropertyIndexedEventTableUnadorned.class, new PropertyIndexedEventTableTwoKeyedFactory(0, eventType, "intPrimitive,theString".split(","), false, null).getEventTableClass());
+    }
+
+    public void testCompareToHashMapIndex()
+    {
+        for (String properties : new String[] {"intPrimitive,theString", "theString,longBoxed", "longBoxed,intPrimitive", "theString,theString"}) {
+            String[] propertyNames = properties.split(",");
+            PropertyIndexedEventTable keyed = makeIndex(properties, false);
+            PropertyIndexedEventTable reference = new PropertyIndexedEventTableUnadorned(getGetters(propertyNames),
+                    new EventTableOrganization(null, false, false, 0, propertyNames, EventTableOrganizationType.HASH));
+
+            // few keys with many duplicates and many keys with few duplicates, including null keys
+            Random random = new Random(1);
+            List<EventBean> events = new ArrayList<EventBean>();
+            for (int round = 0; round < 20000; round++) {
+                if (events.isEmpty() || random.nextInt(3) != 0) {
+                    int value = round % 2 == 0 ? random.nextInt(5) : random.nextInt(5000);
+                    SupportBean bean = new SupportBean(value == 0 ? null : "s" + (value % 50), value);
+                    bean.setLongBoxed(value == 1 ? null : (long) value - 2500);
+                    EventBean theEvent = SupportEventBeanFactory.createObject(bean);
+                    events.add(theEvent);
+                    keyed.add(theEvent);
+                    reference.add(theEvent);
+                }
+                else {
+                    EventBean theEvent = events.remove(random.nextInt(events.size()));
+                    keyed.remove(theEvent);
+                    reference.remove(theEvent);
+                }
+            }
+
+            assertEquals(reference.getNumKeys(), keyed.getNumKeys());
+            EPAssertionUtil.assertEqualsAnyOrder(events.toArray(), toArray(keyed.iterator()));
+            for (EventBean theEvent : events) {
+                Object[] keys = getKeys(propertyNames, theEvent);
+                EPAssertionUtil.assertEqualsAnyOrder(reference.lookup(keys).toArray(), keyed.lookup(keys).toArray());
+            }
+
+            // key of different type does not match, same as the hash map-based index
+            SupportBean bean = new SupportBean("s1", 1);
+            bean.setLongBoxed(1L);
+            Object[] keys = getKeys(propertyNames, SupportEventBeanFactory.createObject(bean));
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = keys[i] instanceof Integer ? (Object) 1L : keys[i] instanceof Long ? (Object) 1 : keys[i];
+            }
+            assertEquals(reference.lookup(keys) == null, keyed.lookup(keys) == null);
+
+            for (EventBean theEvent : events) {
+                keyed.remove(theEvent);
+            }
+            assertTrue(keyed.isEmpty());
+            assertEquals(0, keyed.getNumKeys());
+            assertFalse(keyed.iterator().hasNext());
+        }
+    }
+
+    public void testUnique()
+    {
+        PropertyIndexedEventTable index = makeIndex("intPrimitive,theString", true);
+        EventBean first = SupportEventBeanFactory.createObject(new SupportBean("E1", 1));
+        EventBean second = SupportEventBeanFactory.createObject(new SupportBean("E1", 1));
+        EventBean third = SupportEventBeanFactory.createObject(new SupportBean("E2", 1));
+        index.add(first);
+        index.add(first);
+        index.add(third);
+        assertEquals(2, (int) index.getNumberOfEvents());
+
+        try {
+            index.add(second);
+            fail();
+        }
+        catch (EPException ex) {
+            assertEquals("Unique index violation, index is a unique index and key 'MultiKeyUntyped[1, E1]' already exists", ex.getMessage());
+        }
+
+        // removal and addition of the same key in a single update
+        index.addRemove(new EventBean[] {first}, new EventBean[] {second});
+        assertSame(first, index.lookup(new Object[] {1, "E1"}).iterator().next());
+        EPAssertionUtil.assertEqualsAnyOrder(new Object[] {first, third}, ((EventTableAsSet) index).allValues().toArray());
+
+        index.clear();
+        assertTrue(index.isEmpty());
+        assertNull(index.lookup(new Object[] {1, "E1"}));
+    }
+
+    private PropertyIndexedEventTable makeIndex(String properties, boolean unique) {
+        return (PropertyIndexedEventTable) new PropertyIndexedEventTableTwoKeyedFactory(0, eventType, properties.split(","), unique, null).makeEventTables(null)[0];
+    }
+
+    private EventPropertyGetter[] getGetters(String[] propertyNames) {
+        EventPropertyGetter[] getters = new EventPropertyGetter[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; i++) {
+            getters[i] = eventType.getGetter(propertyNames[i]);
+        }
+        return getters;
+    }
+
+    private Object[] getKeys(String[] propertyNames, EventBean theEvent) {
+        Object[] keys = new Object[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; i++) {
+            keys[i] = eventType.getGetter(propertyNames[i]).get(theEvent);
+        }
+        return keys;
+    }
+
+    private static Object[] toArray(Iterator<EventBean> it) {
+        List<EventBean> list = new ArrayList<EventBean>();
+        while (it.hasNext()) {
+            list.add(it.next());
+        }
+        return list.toArray();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import com.espertech.esper.support.event.SupportEventTypeFactory;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestPropertySortedEventTableNumeric extends TestCase
+{
+    private EventType eventType;
+
+    public void setUp()
+    {
+        eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+    }
+
+    public void testFactory()
+    {
+        assertTrue(PropertySortedEventTableNumericFactory.isSupportedKeyType(int.class));
+        assertTrue(PropertySortedEventTableNumericFactory.isSupportedKeyType(Double.class));
+        assertFalse(PropertySortedEventTableNumericFactory.isSupportedKeyType(String.class));
+        assertFalse(PropertySortedEventTableNumericFactory.isSupportedKeyType(java.math.BigDecimal.class));
+        assertEquals(PropertySortedEventTable.class, makeIndex("intPrimitive").getProviderClass());
+    }
+
+    public void testCompareToTreeMapIndex()
+    {
+        for (String property : new String[] {"intPrimitive", "longBoxed", "doublePrimitive"}) {
+            PropertySortedEventTable sorted = makeIndex(property);
+            PropertySortedEventTable reference = new PropertySortedEventTableImpl(eventType.getGetter(property),
+                    new EventTableOrganization(null, false, false, 0, new String[] {property}, EventTableOrganizationType.BTREE));
+
+            // enough keys to split and merge blocks, with duplicates, null keys and negative values
+            Random random = new Random(1);
+            List<EventBean> events = new ArrayList<EventBean>();
+            for (int round = 0; round < 20000; round++) {
+                if (events.isEmpty() || random.nextInt(3) != 0 || round > 15000 && random.nextInt(4) == 0) {
+                    int value = round % 2 == 0 ? random.nextInt(5) : random.nextInt(2000) - 1000;
+                    SupportBean bean = new SupportBean("E" + round, value);
+                    bean.setLongBoxed(value == 0 ? null : (long) value * 1000000000L);
+                    bean.setDoublePrimitive(value == 0 ? -0.0d : value / 4d);
+                    EventBean theEvent = SupportEventBeanFactory.createObject(bean);
+                    events.add(theEvent);
+                    sorted.add(theEvent);
+                    reference.add(theEvent);
+                }
+                else {
+                    EventBean theEvent = events.remove(random.nextInt(events.size()));
+                    sorted.remove(theEvent);
+                    reference.remove(theEvent);
+                }
+
+                if (round % 1000 == 0) {
+                    assertSameLookups(property, reference, sorted, random);
+                }
+            }
+            assertSameLookups(property, reference, sorted, random);
+            EPAssertionUtil.assertEqualsExactOrder(toArray(reference.iterator()), toArray(sorted.iterator()));
+
+            for (EventBean theEvent : events) {
+                sorted.remove(theEvent);
+            }
+            assertTrue(sorted.isEmpty());
+            assertEquals(0, sorted.getNumKeys());
+            assertFalse(sorted.iterator().hasNext());
+            assertNull(sorted.lookupGreater(key(property, 0)));
+        }
+    }
+
+    public void testLookupNull()
+    {
+        PropertySortedEventTable index = makeIndex("intPrimitive");
+        index.add(SupportEventBeanFactory.createObject(new SupportBean("E1", 1)));
+        assertTrue(index.lookupRange(null, true, 2, true, false).isEmpty());
+        assertTrue(index.lookupGreaterColl(null).isEmpty());
+        assertEquals(1, index.lookupRange(5, true, 0, true, true).size());
+        assertTrue(index.lookupRange(5, true, 0, true, false).isEmpty());
+
+        index.clear();
+        assertTrue(index.isEmpty());
+        assertNull(index.lookupLessEqual(5));
+    }
+
+    private void assertSameLookups(String property, PropertySortedEventTable reference, PropertySortedEventTable sorted, Random random) {
+        for (int i = 0; i < 20; i++) {
+            int valueOne = random.nextInt(2200) - 1100;
+            int valueTwo = random.nextInt(2200) - 1100;
+            Object keyOne = key(property, valueOne);
+            Object keyTwo = key(property, valueTwo);
+            boolean includeOne = random.nextBoolean();
+            boolean includeTwo = random.nextBoolean();
+            boolean reverse = random.nextBoolean();
+
+            assertSame(reference.lookupRange(keyOne, includeOne, keyTwo, includeTwo, reverse), sorted.lookupRange(keyOne, includeOne, keyTwo, includeTwo, reverse));
+            assertSame(reference.lookupRangeColl(keyOne, includeOne, keyTwo, includeTwo, reverse), sorted.lookupRangeColl(keyOne, includeOne, keyTwo, includeTwo, reverse));
+            assertSame(reference.lookupRangeInverted(keyOne, includeOne, keyTwo, includeTwo), sorted.lookupRangeInverted(keyOne, includeOne, keyTwo, includeTwo));
+            assertSame(reference.lookupRangeInvertedColl(keyOne, includeOne, keyTwo, includeTwo), sorted.lookupRangeInvertedColl(keyOne, includeOne, keyTwo, includeTwo));
+            assertSame(reference.lookupLess(keyOne), sorted.lookupLess(keyOne));
+            assertSame(reference.lookupLessThenColl(keyOne), sorted.lookupLessThenColl(keyOne));
+            assertSame(reference.lookupLessEqual(keyOne), sorted.lookupLessEqual(keyOne));
+            assertSame(reference.lookupLessEqualColl(keyOne), sorted.lookupLessEqualColl(keyOne));
+            assertSame(reference.lookupGreater(keyOne), sorted.lookupGreater(keyOne));
+            assertSame(reference.lookupGreaterColl(keyOne), sorted.lookupGreaterColl(keyOne));
+            assertSame(reference.lookupGreaterEqual(keyOne), sorted.lookupGreaterEqual(keyOne));
+            assertSame(reference.lookupGreaterEqualColl(keyOne), sorted.lookupGreaterEqualColl(keyOne));
+            assertSame(reference.lookupEquals(keyOne), sorted.lookupEquals(keyOne));
+        }
+    }
+
+    private static void assertSame(Collection<EventBean> expected, Collection<EventBean> received) {
+        assertEquals(expected == null, received == null);
+        if (expected != null) {
+            EPAssertionUtil.assertEqualsExactOrder(expected.toArray(), received.toArray());
+        }
+    }
+
+    private static Object key(String property, int value) {
+        if (property.equals("intPrimitive")) {
+            return value;
+        }
+        if (property.equals("longBoxed")) {
+            return value * 1000000000L;
+        }
+        return value / 4d;
+    }
+
+    private PropertySortedEventTable makeIndex(String property) {
+        return (PropertySortedEventTable) new PropertySortedEventTableNumericFactory(0, eventType, property).makeEventTables(null)[0];
+    }
+
+    private static Object[] toArray(Iterator<EventBean> it) {
+        List<EventBean> list = new ArrayList<EventBean>();
+        while (it.hasNext()) {
+            list.add(it.next());
+        }
+        return list.toArray();
+    }
+}
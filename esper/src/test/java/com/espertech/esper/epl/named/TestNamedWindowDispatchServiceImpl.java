@@ -0,0 +1,69 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.named;
+
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.timer.TimeSourceServiceImpl;
+import com.espertech.esper.util.SequencedReorderBuffer;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class TestNamedWindowDispatchServiceImpl extends TestCase
+{
+    private SequencedReorderBuffer<NamedWindowConsumerLatch> bufferA;
+    private SequencedReorderBuffer<NamedWindowConsumerLatch> bufferB;
+    private Object groupOne;
+    private Object groupTwo;
+
+    public void setUp()
+    {
+        bufferA = new SequencedReorderBuffer<NamedWindowConsumerLatch>("A", 100, new TimeSourceServiceImpl());
+        bufferB = new SequencedReorderBuffer<NamedWindowConsumerLatch>("B", 100, new TimeSourceServiceImpl());
+        groupOne = new Object();
+        groupTwo = new Object();
+    }
+
+    public void testGroupReorderSameOrder()
+    {
+        // each buffer drained separately, the deltas of a dispatch to both named windows are not adjacent
+        NamedWindowConsumerLatch a1 = makeLatch(bufferA, 0, groupOne);
+        NamedWindowConsumerLatch a2 = makeLatch(bufferA, 1, groupTwo);
+        NamedWindowConsumerLatch b1 = makeLatch(bufferB, 0, groupOne);
+        NamedWindowConsumerLatch b2 = makeLatch(bufferB, 1, groupTwo);
+
+        List<NamedWindowConsumerLatch[]> groups = NamedWindowDispatchServiceImpl.groupReorderByDispatch(Arrays.asList(a1, a2, b1, b2));
+        assertEquals(2, groups.size());
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {a1, b1}, groups.get(0));
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {a2, b2}, groups.get(1));
+    }
+
+    public void testGroupReorderCrossingOrder()
+    {
+        // the named windows received the deltas of the two dispatches in opposite order, the order of each buffer is kept
+        NamedWindowConsumerLatch a1 = makeLatch(bufferA, 0, groupTwo);
+        NamedWindowConsumerLatch a2 = makeLatch(bufferA, 1, groupOne);
+        NamedWindowConsumerLatch b1 = makeLatch(bufferB, 0, groupOne);
+        NamedWindowConsumerLatch b2 = makeLatch(bufferB, 1, groupTwo);
+
+        List<NamedWindowConsumerLatch[]> groups = NamedWindowDispatchServiceImpl.groupReorderByDispatch(Arrays.asList(a1, a2, b1, b2));
+        assertEquals(3, groups.size());
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {a1}, groups.get(0));
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {a2, b1}, groups.get(1));
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {b2}, groups.get(2));
+    }
+
+    private NamedWindowConsumerLatch makeLatch(SequencedReorderBuffer<NamedWindowConsumerLatch> buffer, long sequence, Object dispatchGroup)
+    {
+        NamedWindowConsumerLatchReorder latch = new NamedWindowConsumerLatchReorder(null, null, buffer, sequence);
+        latch.add(dispatchGroup);
+        return latch;
+    }
+}
@@ -0,0 +1,83 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.named;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TestNamedWindowTailViewSnapshot extends TestCase
+{
+    private NamedWindowTailViewSnapshot snapshot;
+    private EventBean[] events;
+
+    public void setUp()
+    {
+        snapshot = new NamedWindowTailViewSnapshot();
+        events = SupportEventBeanFactory.makeEvents(new String[] {"a", "b", "c", "d", "e", "f"});
+    }
+
+    public void testStartOver()
+    {
+        assertNull(snapshot.snapshot());
+
+        // changes before the first snapshot are not kept
+        snapshot.update(new EventBean[] {events[0]}, null);
+        EventBean[] result = snapshot.snapshot(Arrays.asList(events[0], events[1]).iterator());
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {events[0], events[1]}, result);
+        assertSame(result, snapshot.snapshot());
+
+        snapshot.clear();
+        assertNull(snapshot.snapshot());
+    }
+
+    public void testChanges()
+    {
+        snapshot.snapshot(Arrays.asList(events[0], events[1], events[2]).iterator());
+
+        snapshot.update(new EventBean[] {events[3]}, new EventBean[] {events[1]});
+        snapshot.update(new EventBean[] {events[4]}, null);
+        snapshot.update(null, new EventBean[] {events[4], events[0]});
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {events[2], events[3]}, snapshot.snapshot());
+
+        snapshot.update(new EventBean[] {events[5]}, null);
+        EventBean[] result = snapshot.snapshot();
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {events[2], events[3], events[5]}, result);
+        assertSame(result, snapshot.snapshot());
+    }
+
+    public void testTooManyChanges()
+    {
+        List<EventBean> contents = new ArrayList<EventBean>();
+        for (int i = 0; i < 10; i++) {
+            contents.add(SupportEventBeanFactory.createObject(i));
+        }
+        snapshot.snapshot(contents.iterator());
+
+        for (int i = 0; i < 1025; i++) {
+            snapshot.update(new EventBean[] {SupportEventBeanFactory.createObject(i)}, null);
+        }
+        assertNull(snapshot.snapshot());
+    }
+
+    public void testApply()
+    {
+        EventBean[] result = NamedWindowTailViewSnapshot.apply(new EventBean[] {events[0]}, new EventBean[] {events[1]}, new EventBean[0]);
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {events[0], events[1]}, result);
+
+        // same event added twice and removed once
+        result = NamedWindowTailViewSnapshot.apply(new EventBean[] {events[0], events[1]}, new EventBean[] {events[0]}, new EventBean[] {events[0]});
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {events[1], events[0]}, result);
+    }
+}
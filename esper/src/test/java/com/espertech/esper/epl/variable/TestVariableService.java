@@ -11,6 +11,7 @@
 
 package com.espertech.esper.epl.variable;
 
+import com.espertech.esper.client.ConfigurationEngineDefaults;
 import com.espertech.esper.core.start.EPStatementStartMethod;
 import com.espertech.esper.schedule.SchedulingServiceImpl;
 import com.espertech.esper.core.support.SupportEventAdapterService;
@@ -53,6 +54,12 @@ public class TestVariableService extends TestCase
         tryMT(2, 10000, 4);
     }
 
+    public void testMultithreadedSnapshot() throws Exception
+    {
+        service = new VariableServiceImpl(10000, ConfigurationEngineDefaults.Variables.VersionStorage.SNAPSHOT, new SchedulingServiceImpl(new TimeSourceServiceImpl()), SupportEventAdapterService.getService(), null);
+        tryMT(4, 5000, 8);
+    }
+
     // Start N threads
     // each thread performs X loops
     // each loop gets a unique number Y from a shared object and performs setVersion in the synchronized block
@@ -101,6 +108,14 @@ public class TestVariableService extends TestCase
     }
 
     public void testReadWrite() throws Exception
+    {
+        runAssertionReadWrite();
+
+        service = new VariableServiceImpl(10000, ConfigurationEngineDefaults.Variables.VersionStorage.SNAPSHOT, new SchedulingServiceImpl(new TimeSourceServiceImpl()), SupportEventAdapterService.getService(), null);
+        runAssertionReadWrite();
+    }
+
+    private void runAssertionReadWrite() throws Exception
     {
         assertNull(service.getReader("a", EPStatementStartMethod.DEFAULT_AGENT_INSTANCE_ID));
 
@@ -125,7 +140,13 @@ public class TestVariableService extends TestCase
 
     public void testRollover() throws Exception
     {
-        service = new VariableServiceImpl(VariableServiceImpl.ROLLOVER_READER_BOUNDARY - 100, 10000, new SchedulingServiceImpl(new TimeSourceServiceImpl()), SupportEventAdapterService.getService(), null);
+        runAssertionRollover(ConfigurationEngineDefaults.Variables.VersionStorage.LIST);
+        runAssertionRollover(ConfigurationEngineDefaults.Variables.VersionStorage.SNAPSHOT);
+    }
+
+    private void runAssertionRollover(ConfigurationEngineDefaults.Variables.VersionStorage versionStorage) throws Exception
+    {
+        service = new VariableServiceImpl(VariableServiceImpl.ROLLOVER_READER_BOUNDARY - 100, 10000, versionStorage, new SchedulingServiceImpl(new TimeSourceServiceImpl()), SupportEventAdapterService.getService(), null);
         String[] variables = "a,b,c,d".split(",");
 
         VariableReader readers[] = new VariableReader[variables.length];
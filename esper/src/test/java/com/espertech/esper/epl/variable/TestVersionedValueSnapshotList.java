@@ -0,0 +1,127 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.variable;
+
+import junit.framework.TestCase;
+
+public class TestVersionedValueSnapshotList extends TestCase
+{
+    private VariableVersionThreadLocal versionThreadLocal;
+    private VersionedValueSnapshotList<String> list;
+
+    public void setUp()
+    {
+        versionThreadLocal = new VariableVersionThreadLocal(true);
+        versionThreadLocal.getCurrentThread().setVersion(2);
+        list = new VersionedValueSnapshotList<String>("abc", 2, "a", 1000, 10000, versionThreadLocal, true);
+    }
+
+    public void testFlowNoTime()
+    {
+        tryInvalid(0);
+        tryInvalid(1);
+        assertEquals("a", list.getVersion(2));
+        assertEquals("a", list.getVersion(3));
+
+        assertEquals("a", list.addValue(4, "b", 1000));
+        tryInvalid(1);
+        assertEquals("a", list.getVersion(2));
+        assertEquals("a", list.getVersion(3));
+        assertEquals("b", list.getVersion(4));
+        assertEquals("b", list.getVersion(5));
+
+        assertEquals("b", list.addValue(6, "c", 1000));
+        assertEquals("c", list.addValue(7, "d", 1000));
+        assertEquals(4, list.getNumVersions());
+        tryInvalid(1);
+        assertEquals("a", list.getVersion(2));
+        assertEquals("a", list.getVersion(3));
+        assertEquals("b", list.getVersion(4));
+        assertEquals("b", list.getVersion(5));
+        assertEquals("c", list.getVersion(6));
+        assertEquals("d", list.getVersion(7));
+        assertEquals("d", list.getVersion(8));
+        assertEquals("d", list.getCurrentValue());
+    }
+
+    public void testReleaseOldestVersion()
+    {
+        list.addValue(4, "b", 1000);
+        list.addValue(6, "c", 1000);
+        list.addValue(7, "d", 1000);
+        assertEquals(4, list.getNumVersions());
+
+        // thread moved on to version 6, versions before 6 can no longer be read
+        versionThreadLocal.getCurrentThread().setVersion(6);
+        list.addValue(9, "e", 1000);
+        assertEquals(3, list.getNumVersions());
+        tryInvalid(5);
+        assertEquals("c", list.getVersion(6));
+        assertEquals("d", list.getVersion(8));
+        assertEquals("e", list.getVersion(9));
+
+        // current and prior version are always kept
+        versionThreadLocal.getCurrentThread().setVersion(9);
+        list.addValue(10, "f", 1000);
+        assertEquals(2, list.getNumVersions());
+        assertEquals("e", list.getVersion(9));
+        assertEquals("f", list.getVersion(10));
+    }
+
+    public void testReleaseExpired()
+    {
+        // thread remains at version 2
+        list.addValue(3, "b", 3000);
+        list.addValue(4, "c", 4000);
+        list.addValue(5, "d", 5000);
+        assertEquals(4, list.getNumVersions());
+
+        // expire all whose successor is before 3.5 sec
+        list.addValue(6, "e", 13500);
+        assertEquals(4, list.getNumVersions());
+        tryInvalid(2);
+        assertEquals("b", list.getVersion(3));
+        assertEquals("e", list.getVersion(6));
+
+        // expire all whose successor is before 10 sec
+        list.addValue(7, "f", 20000);
+        assertEquals(3, list.getNumVersions());
+        tryInvalid(4);
+        assertEquals("d", list.getVersion(5));
+        assertEquals("f", list.getVersion(7));
+    }
+
+    public void testNoThreads()
+    {
+        list = new VersionedValueSnapshotList<String>("abc", 2, "a", 1000, 10000, new VariableVersionThreadLocal(true), false);
+        list.addValue(3, "b", 1000);
+        list.addValue(4, "c", 1000);
+        list.addValue(5, "d", 1000);
+        assertEquals(2, list.getNumVersions());
+        assertEquals("c", list.getVersion(4));
+
+        // not found returns the current value
+        assertEquals("d", list.getVersion(2));
+    }
+
+    private void tryInvalid(int version)
+    {
+        try
+        {
+            list.getVersion(version);
+            fail();
+        }
+        catch (IllegalStateException ex)
+        {
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.core.support.SupportEventAdapterService;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.bean.SupportBeanComplexProps;
+import com.espertech.esper.support.bean.SupportLegacyBean;
+import com.espertech.esper.support.bean.SupportLegacyBeanInt;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+import java.lang.reflect.Member;
+
+public class TestGeneratedPropertyGetterFactory extends TestCase
+{
+    public void testMethodAndField() throws Exception
+    {
+        SupportBean bean = new SupportBean("a", 10);
+        bean.setLongPrimitive(20);
+        EventBean theEvent = SupportEventBeanFactory.createObject(bean);
+
+        GeneratedPropertyGetterBase getter = makeGetter(SupportBean.class.getMethod("getIntPrimitive"));
+        assertEquals(10, getter.get(theEvent));
+        assertTrue(getter.isDoubleReadable());
+        assertEquals(10d, getter.getBeanPropDouble(bean));
+        assertTrue(getter.isExistsProperty(theEvent));
+
+        getter = makeGetter(SupportBean.class.getMethod("getLongPrimitive"));
+        assertEquals(20L, getter.get(theEvent));
+        assertEquals(20d, getter.getBeanPropDouble(bean));
+
+        getter = makeGetter(SupportBean.class.getMethod("getTheString"));
+        assertEquals("a", getter.get(theEvent));
+        assertFalse(getter.isDoubleReadable());
+
+        getter = makeGetter(SupportBean.class.getMethod("getDoubleBoxed"));
+        assertNull(getter.get(theEvent));
+        assertFalse(getter.isDoubleReadable());
+
+        getter = makeGetter(SupportLegacyBeanInt.class.getField("fieldIntPrimitive"));
+        assertEquals(5, getter.getBeanProp(new SupportLegacyBeanInt(5)));
+        assertEquals(5d, getter.getBeanPropDouble(new SupportLegacyBeanInt(5)));
+
+        getter = makeGetter(SupportLegacyBean.class.getField("fieldLegacyVal"));
+        assertEquals("x", getter.getBeanProp(new SupportLegacyBean("x")));
+
+        // interface method
+        getter = makeGetter(Comparable.class.getMethod("compareTo", Object.class));
+        assertNull(getter);
+        getter = makeGetter(CharSequence.class.getMethod("length"));
+        assertEquals(3, getter.getBeanProp("abc"));
+
+        // not accessible to generated code
+        assertNull(GeneratedPropertyGetterFactory.make(NonPublicBean.class.getMethod("getValue"), SupportEventAdapterService.getService()));
+    }
+
+    public void testNested() throws Exception
+    {
+        BeanEventType eventType = (BeanEventType) SupportEventAdapterService.getService().addBeanType("ComplexProps", SupportBeanComplexProps.class, false, false, false);
+        SupportBeanComplexProps bean = SupportBeanComplexProps.makeDefaultBean();
+        EventBean theEvent = SupportEventBeanFactory.createObject(bean);
+
+        EventPropertyGetter getter = eventType.getGetter("nested.nestedNested.nestedNestedValue");
+        assertTrue(getter instanceof GeneratedPropertyGetterBase);
+        assertEquals(3, ((GeneratedPropertyGetterBase) getter).getChain().length);
+        assertFalse(((GeneratedPropertyGetterBase) getter).isDoubleReadable());
+        assertEquals("nestedNestedValue", getter.get(theEvent));
+        assertTrue(getter.isExistsProperty(theEvent));
+
+        EventPropertyGetter getterTwoLevel = eventType.getGetter("nested.nestedValue");
+        assertEquals("nestedValue", getterTwoLevel.get(theEvent));
+
+        bean.setNested(null);
+        assertNull(getter.get(theEvent));
+        assertFalse(getter.isExistsProperty(theEvent));
+        assertNull(getterTwoLevel.get(theEvent));
+        assertNull(((GeneratedPropertyGetterBase) getter).getBeanProp(null));
+    }
+
+    public void testInvalid() throws Exception
+    {
+        GeneratedPropertyGetterBase getter = makeGetter(SupportBean.class.getMethod("getIntPrimitive"));
+        try {
+            getter.get(SupportEventBeanFactory.createObject(new Object()));
+            fail();
+        }
+        catch (PropertyAccessException ex) {
+            assertTrue(ex.getMessage().contains("Mismatched getter instance to event bean type"));
+        }
+
+        getter = makeGetter(ThrowingBean.class.getMethod("getValue"));
+        try {
+            getter.getBeanProp(new ThrowingBean());
+            fail();
+        }
+        catch (PropertyAccessException ex) {
+            assertTrue(ex.getMessage().contains("Failed to invoke method getValue"));
+        }
+    }
+
+    public void testCheckedException() throws Exception
+    {
+        // generated code cannot declare the checked exception, the getter falls back to the fast method
+        assertNull(makeGetter(CheckedThrowingBean.class.getMethod("getValue")));
+
+        BeanEventType eventType = (BeanEventType) SupportEventAdapterService.getService().addBeanType("CheckedThrowingBean", CheckedThrowingBean.class, false, false, false);
+        EventPropertyGetter getter = eventType.getGetter("value");
+        assertFalse(getter instanceof GeneratedPropertyGetterBase);
+        try {
+            getter.get(SupportEventBeanFactory.createObject(new CheckedThrowingBean()));
+            fail();
+        }
+        catch (PropertyAccessException ex) {
+            // expected
+        }
+    }
+
+    private static GeneratedPropertyGetterBase makeGetter(Member member) {
+        return GeneratedPropertyGetterFactory.make(member, SupportEventAdapterService.getService());
+    }
+
+    static class NonPublicBean
+    {
+        public String getValue() {
+            return "value";
+        }
+    }
+
+    public static class ThrowingBean
+    {
+        public String getValue() {
+            throw new IllegalStateException("getter failed");
+        }
+    }
+
+    public static class CheckedThrowingBean
+    {
+        public String getValue() throws Exception {
+            throw new Exception("getter failed");
+        }
+    }
+}
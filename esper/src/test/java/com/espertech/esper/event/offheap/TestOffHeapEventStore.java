@@ -0,0 +1,279 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.event.offheap;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.support.SupportEventAdapterService;
+import com.espertech.esper.event.EventTypeMetadata;
+import com.espertech.esper.event.arr.ObjectArrayEventBean;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.map.MapEventBean;
+import com.espertech.esper.event.map.MapEventType;
+import com.espertech.esper.support.bean.SupportBean;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class TestOffHeapEventStore extends TestCase
+{
+    private EventType arrayType;
+    private EventType mapType;
+
+    public void setUp()
+    {
+        Map<String, Object> types = new LinkedHashMap<String, Object>();
+        types.put("aString", String.class);
+        types.put("anInt", Integer.class);
+        types.put("aLong", long.class);
+        types.put("aDouble", double.class);
+        types.put("aBoolean", Boolean.class);
+        types.put("aChar", char.class);
+        types.put("aDecimal", BigDecimal.class);
+        types.put("anObject", Object.class);
+        arrayType = new ObjectArrayEventType(EventTypeMetadata.createAnonymous("OATYPE"), "OATYPE", 1, SupportEventAdapterService.getService(), types, null, null, null);
+        mapType = new MapEventType(EventTypeMetadata.createAnonymous("MAPTYPE"), "MAPTYPE", 2, SupportEventAdapterService.getService(), types, null, null, null);
+    }
+
+    public void testObjectArray()
+    {
+        OffHeapEventStore store = new OffHeapEventStore(arrayType);
+        Object[] values = new Object[] {"E1", 10, 100L, 1.5d, true, 'x', new BigDecimal("1.25"), (short) 3};
+        EventBean handle = store.store(new ObjectArrayEventBean(values, arrayType));
+
+        assertTrue(handle instanceof OffHeapObjectArrayEventBean);
+        assertSame(arrayType, handle.getEventType());
+        assertTrue(Arrays.equals(values, (Object[]) handle.getUnderlying()));
+        assertEquals("E1", handle.get("aString"));
+        assertEquals(1.5d, handle.get("aDouble"));
+        assertEquals(new BigDecimal("1.25"), handle.get("aDecimal"));
+        assertEquals((short) 3, handle.get("anObject"));
+        assertEquals(1, store.getNumEvents());
+        assertSame(handle, store.store(handle));
+
+        // nulls and non-latin strings
+        Object[] other = new Object[] {"€é", null, 0L, 0d, null, 'y', null, null};
+        EventBean handleOther = store.store(new ObjectArrayEventBean(other, arrayType));
+        assertTrue(Arrays.equals(other, (Object[]) handleOther.getUnderlying()));
+
+        // released handles keep values on-heap
+        store.release(new EventBean[] {handle});
+        assertTrue(((OffHeapEventBean) handle).isReleased());
+        assertTrue(Arrays.equals(values, (Object[]) handle.getUnderlying()));
+        assertEquals(1, store.getNumEvents());
+        store.release(new EventBean[] {handle});
+        assertEquals(1, store.getNumEvents());
+    }
+
+    public void testMap()
+    {
+        OffHeapEventStore store = new OffHeapEventStore(mapType);
+        Map<String, Object> values = new HashMap<String, Object>();
+        values.put("aString", "E1");
+        values.put("anInt", null);
+        values.put("aLong", 5L);
+        values.put("undeclared", "u1");
+        EventBean handle = store.store(new MapEventBean(values, mapType));
+
+        assertTrue(handle instanceof OffHeapMapEventBean);
+        assertEquals(values, handle.getUnderlying());
+        assertEquals("E1", handle.get("aString"));
+        assertEquals(5L, handle.get("aLong"));
+        assertNull(handle.get("anInt"));
+        assertNull(handle.get("aDouble"));
+    }
+
+    public void testSinglePropertyRead()
+    {
+        // the value of anObject fails to decode, reading any other property does not decode it
+        OffHeapEventStore store = new OffHeapEventStore(arrayType);
+        OffHeapObjectArrayEventBean handle = (OffHeapObjectArrayEventBean) store.store(new ObjectArrayEventBean(new Object[] {"E1", 10, 100L, 1.5d, true, 'x', null, new SupportFailingDecode()}, arrayType));
+        assertEquals("E1", handle.get("aString"));
+        assertEquals(10, handle.getProperty(1));
+        assertEquals(100L, handle.get("aLong"));
+        assertEquals('x', handle.get("aChar"));
+        assertNull(handle.get("aDecimal"));
+        try {
+            handle.getUnderlying();
+            fail();
+        }
+        catch (RuntimeException ex) {
+            // expected
+        }
+
+        Map<String, Object> values = new HashMap<String, Object>();
+        values.put("aString", "E2");
+        values.put("anObject", new SupportFailingDecode());
+        values.put("undeclared", "u1");
+        OffHeapMapEventBean handleMap = (OffHeapMapEventBean) new OffHeapEventStore(mapType).store(new MapEventBean(values, mapType));
+        assertEquals("E2", handleMap.get("aString"));
+        assertEquals("E2", handleMap.getProperty("aString"));
+        assertNull(handleMap.get("aLong"));
+        assertNull(handleMap.getProperty("aLong"));
+
+        // released handles read single values on-heap
+        values.put("anObject", 1);
+        handleMap = (OffHeapMapEventBean) new OffHeapEventStore(mapType).store(new MapEventBean(values, mapType));
+        handleMap.getStore().release(new EventBean[] {handleMap});
+        assertEquals("E2", handleMap.getProperty("aString"));
+        assertEquals("u1", handleMap.getProperty("undeclared"));
+        assertNull(handleMap.getProperty("aLong"));
+    }
+
+    public void testReleaseWhileDecoding() throws Exception
+    {
+        OffHeapEventStore store = new OffHeapEventStore(arrayType);
+        final Object[] values = new Object[] {"E1", 1, 1L, 1d, true, 'a', null, new SupportBlockingDecode()};
+        final EventBean handle = store.store(new ObjectArrayEventBean(values, arrayType));
+
+        // a reader pins the handle and blocks while decoding
+        SupportBlockingDecode.reset();
+        final List<Object> decoded = new ArrayList<Object>();
+        Thread reader = new Thread() {
+            public void run() {
+                decoded.add(handle.getUnderlying());
+            }
+        };
+        reader.start();
+        assertTrue(SupportBlockingDecode.entered.await(10, TimeUnit.SECONDS));
+
+        // the block of the pinned handle is not freed and not reused
+        store.release(new EventBean[] {handle});
+        assertTrue(((OffHeapEventBean) handle).isReleased());
+        assertEquals(1, store.getNumEvents());
+        EventBean other = store.store(new ObjectArrayEventBean(new Object[] {"E2", 2, 2L, 2d, false, 'b', null, 2}, arrayType));
+        assertEquals(2, store.getNumEvents());
+        assertFalse(((OffHeapEventBean) handle).getAddress() == ((OffHeapEventBean) other).getAddress());
+
+        SupportBlockingDecode.proceed.countDown();
+        reader.join(10000);
+        assertEquals(1, decoded.size());
+        assertEquals("E1", ((Object[]) decoded.get(0))[0]);
+        assertTrue(((Object[]) decoded.get(0))[7] instanceof SupportBlockingDecode);
+
+        // the block is freed by the next release once unpinned
+        store.release(new EventBean[] {other});
+        assertEquals(0, store.getNumEvents());
+        assertEquals(0, store.getUsedBytes());
+        assertEquals("E1", handle.get("aString"));
+    }
+
+    public void testRemainsOnHeap()
+    {
+        OffHeapEventStore store = new OffHeapEventStore(arrayType, 64);
+
+        // value not serializable
+        EventBean theEvent = new ObjectArrayEventBean(new Object[] {"E1", 1, 1L, 1d, true, 'a', null, new Object()}, arrayType);
+        assertSame(theEvent, store.store(theEvent));
+
+        // larger than a segment
+        theEvent = new ObjectArrayEventBean(new Object[] {"0123456789012345678901234567890123456789012345678901234567890123456789", 1, 1L, 1d, true, 'a', null, null}, arrayType);
+        assertSame(theEvent, store.store(theEvent));
+
+        // other event type
+        theEvent = new MapEventBean(new HashMap<String, Object>(), mapType);
+        assertSame(theEvent, store.store(theEvent));
+        theEvent = SupportEventAdapterService.getService().adapterForBean(new SupportBean());
+        assertSame(theEvent, store.store(theEvent));
+
+        assertEquals(0, store.getNumEvents());
+        assertEquals(0, store.getAllocatedBytes());
+    }
+
+    public void testReuseRandom()
+    {
+        OffHeapEventStore store = new OffHeapEventStore(arrayType, 1024);
+        Random random = new Random(1);
+        List<EventBean> handles = new ArrayList<EventBean>();
+        List<Object[]> expected = new ArrayList<Object[]>();
+
+        for (int i = 0; i < 20000; i++) {
+            if (random.nextInt(10) < 6 || handles.isEmpty()) {
+                StringBuilder text = new StringBuilder();
+                int length = random.nextInt(100);
+                for (int j = 0; j < length; j++) {
+                    text.append((char) ('a' + random.nextInt(26)));
+                }
+                Object[] values = new Object[] {text.toString(), i, (long) i, random.nextDouble(), random.nextBoolean(), 'c', null, null};
+                handles.add(store.store(new ObjectArrayEventBean(values, arrayType)));
+                expected.add(values);
+            }
+            else {
+                int index = random.nextInt(handles.size());
+                EventBean handle = handles.remove(index);
+                Object[] values = expected.remove(index);
+                store.release(new EventBean[] {handle});
+                assertTrue(Arrays.equals(values, (Object[]) handle.getUnderlying()));
+            }
+
+            if (i % 1000 == 0) {
+                for (int j = 0; j < handles.size(); j++) {
+                    assertTrue(Arrays.equals(expected.get(j), (Object[]) handles.get(j).getUnderlying()));
+                }
+            }
+        }
+
+        assertEquals(handles.size(), store.getNumEvents());
+        assertTrue(store.getUsedBytes() <= store.getAllocatedBytes());
+        for (int j = 0; j < handles.size(); j++) {
+            assertTrue(Arrays.equals(expected.get(j), (Object[]) handles.get(j).getUnderlying()));
+        }
+
+        // released blocks are reused
+        long allocated = store.getAllocatedBytes();
+        store.release(handles.toArray(new EventBean[handles.size()]));
+        assertEquals(0, store.getNumEvents());
+        assertEquals(0, store.getUsedBytes());
+        for (Object[] values : expected) {
+            store.store(new ObjectArrayEventBean(values, arrayType));
+        }
+        assertEquals(allocated, store.getAllocatedBytes());
+    }
+
+    public static class SupportFailingDecode implements Serializable
+    {
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            throw new IOException("Failed to decode");
+        }
+    }
+
+    public static class SupportBlockingDecode implements Serializable
+    {
+        private static CountDownLatch entered;
+        private static CountDownLatch proceed;
+
+        private static void reset() {
+            entered = new CountDownLatch(1);
+            proceed = new CountDownLatch(1);
+        }
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            if (entered == null || entered.getCount() == 0) {
+                return; // only the first decode after reset blocks
+            }
+            entered.countDown();
+            try {
+                proceed.await(10, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
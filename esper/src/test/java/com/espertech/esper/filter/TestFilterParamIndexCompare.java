@@ -138,6 +138,25 @@ public class TestFilterParamIndexCompare extends TestCase
         verifyDoubleBoxed(index, 7.61, 0);
     }
 
+    public void testCopyOnWrite()
+    {
+        FilterParamIndexCompare index = new FilterParamIndexCompare(makeLookupable("longPrimitive"), FilterServiceGranularLockFactoryCopyOnWrite.INSTANCE.obtainNew(), FilterOperator.LESS, true);
+
+        index.put(Long.valueOf(1), testEvaluator);
+        index.put(Long.valueOf(10), testEvaluator);
+        verifyLongPrimitive(index, 10, 0);
+        verifyLongPrimitive(index, 9, 1);
+        verifyLongPrimitive(index, 0, 2);
+
+        assertTrue(index.remove(10L));
+        assertFalse(index.remove(10L));
+        verifyLongPrimitive(index, 9, 0);
+        verifyLongPrimitive(index, 0, 1);
+
+        assertTrue(index.remove(1L));
+        verifyLongPrimitive(index, 0, 0);
+    }
+
     private FilterParamIndexCompare makeOne(String field, FilterOperator op) {
         return new FilterParamIndexCompare(makeLookupable(field), new ReentrantReadWriteLock(), op);
     }
@@ -92,6 +92,22 @@ public class TestFilterParamIndexEquals extends TestCase
         verifyFloatPrimitive(index, 0, 0);
     }
 
+    public void testCopyOnWrite()
+    {
+        FilterParamIndexEquals index = new FilterParamIndexEquals(makeLookupable("theString"), FilterServiceGranularLockFactoryCopyOnWrite.INSTANCE.obtainNew(), true);
+
+        index.put("hello", testEvaluator);
+        index.put("test", testEvaluator);
+        verifyString(index, "hello", 1);
+        verifyString(index, "test", 1);
+
+        assertTrue(index.remove("hello"));
+        assertFalse(index.remove("hello"));
+        verifyString(index, "hello", 0);
+        verifyString(index, "test", 1);
+        assertEquals(1, index.size());
+    }
+
     private void verifyShortBoxed(FilterParamIndexBase index, Short testValue, int numExpected)
     {
         testBean.setShortBoxed(testValue);
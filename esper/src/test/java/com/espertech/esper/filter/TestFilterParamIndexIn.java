@@ -74,6 +74,32 @@ public class TestFilterParamIndexIn extends TestCase
         }
     }
 
+    public void testCopyOnWrite()
+    {
+        FilterParamIndexIn index = new FilterParamIndexIn(makeLookupable("longBoxed"), FilterServiceGranularLockFactoryCopyOnWrite.INSTANCE.obtainNew(), true);
+
+        MultiKeyUntyped inListOne = new MultiKeyUntyped(new Object[] {2L, 5L});
+        index.put(inListOne, testEvaluator);
+        MultiKeyUntyped inListTwo = new MultiKeyUntyped(new Object[] {10L, 5L});
+        index.put(inListTwo, testEvaluator);
+
+        verify(index, 2L, 1);
+        verify(index, 5L, 2);
+        verify(index, 10L, 1);
+
+        // replacing the evaluator for an existing value set
+        SupportEventEvaluator replacement = new SupportEventEvaluator();
+        index.put(inListTwo, replacement);
+        verify(index, 5L, 1);
+        assertEquals(1, replacement.getAndResetCountInvoked());
+
+        assertTrue(index.remove(inListOne));
+        verify(index, 2L, 0);
+        verify(index, 5L, 0);
+        assertEquals(1, replacement.getAndResetCountInvoked());
+        assertEquals(2, index.size());
+    }
+
     private void verify(FilterParamIndexBase index, Long testValue, int numExpected)
     {
         testBean.setLongBoxed(testValue);
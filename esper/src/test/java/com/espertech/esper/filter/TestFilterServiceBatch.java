@@ -0,0 +1,138 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import com.espertech.esper.support.event.SupportEventTypeFactory;
+import com.espertech.esper.support.filter.SupportFilterHandle;
+import com.espertech.esper.support.filter.SupportFilterSpecBuilder;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestFilterServiceBatch extends TestCase
+{
+    private EventType eventType;
+
+    public void setUp()
+    {
+        eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+    }
+
+    public void testRemoveAddBulk()
+    {
+        for (FilterServiceSPI filterService : new FilterServiceSPI[] {new FilterServiceLockCoarse(false), new FilterServiceLockFine(false), new FilterServiceLockFree(false)}) {
+            SupportFilterHandle[] handles = makeHandles(10);
+            FilterValueSet[] valueSets = new FilterValueSet[handles.length];
+            for (int i = 0; i < handles.length; i++) {
+                valueSets[i] = makeValueSet(i);
+            }
+
+            long version = filterService.getFiltersVersion();
+            FilterServiceEntry[] entries = filterService.removeAddBulk(null, null, valueSets, handles);
+            assertEquals(version + 1, filterService.getFiltersVersion());
+            assertEquals(handles.length, entries.length);
+            assertMatches(filterService, handles, 3, 3);
+
+            // remove the even handles and add a new one in one operation
+            SupportFilterHandle added = new SupportFilterHandle();
+            filterService.removeAddBulk(new FilterHandle[] {handles[0], handles[2], handles[4]}, new FilterServiceEntry[] {entries[0], entries[2], entries[4]},
+                    new FilterValueSet[] {makeValueSet(2)}, new FilterHandle[] {added});
+            assertEquals(version + 2, filterService.getFiltersVersion());
+            assertMatches(filterService, handles, 0, -1);
+            assertMatches(filterService, handles, 4, -1);
+            assertEquals(1, getMatches(filterService, 2).size());
+            assertSame(added, getMatches(filterService, 2).get(0));
+            assertMatches(filterService, handles, 5, 5);
+            filterService.destroy();
+        }
+    }
+
+    public void testBatch()
+    {
+        FilterServiceLockCoarse filterService = new FilterServiceLockCoarse(false);
+        FilterServiceBatch batch = new FilterServiceBatch();
+        SupportFilterHandle[] handles = makeHandles(4);
+
+        // outside a batch changes are applied immediately
+        assertFalse(batch.isActive());
+        FilterServiceEntry entryZero = batch.add(filterService, makeValueSet(0), handles[0]);
+        assertMatches(filterService, handles, 0, 0);
+
+        // within a batch changes are applied when the outermost batch ends
+        long version = filterService.getFiltersVersion();
+        batch.begin();
+        batch.begin();
+        FilterServiceEntry entryOne = batch.add(filterService, makeValueSet(1), handles[1]);
+        FilterServiceEntry entryTwo = batch.add(filterService, makeValueSet(2), handles[2]);
+        batch.add(filterService, makeValueSet(3), handles[3]);
+        batch.remove(filterService, handles[0], entryZero);
+        batch.remove(filterService, handles[2], entryTwo);   // cancels the pending addition
+        assertFalse(batch.end(filterService));
+        assertTrue(batch.isActive());
+        assertMatches(filterService, handles, 0, 0);
+        assertMatches(filterService, handles, 1, -1);
+        assertEquals(version, filterService.getFiltersVersion());
+
+        assertTrue(batch.end(filterService));
+        assertEquals(version + 1, filterService.getFiltersVersion());
+        assertMatches(filterService, handles, 0, -1);
+        assertMatches(filterService, handles, 1, 1);
+        assertMatches(filterService, handles, 2, -1);
+        assertMatches(filterService, handles, 3, 3);
+
+        // entries obtained within a batch remain usable after the batch
+        batch.remove(filterService, handles[1], entryOne);
+        assertMatches(filterService, handles, 1, -1);
+
+        // batch without changes does not change the version
+        batch.begin();
+        FilterServiceEntry entry = batch.add(filterService, makeValueSet(1), handles[1]);
+        batch.remove(filterService, handles[1], entry);
+        assertFalse(batch.end(filterService));
+        assertEquals(version + 2, filterService.getFiltersVersion());
+    }
+
+    private void assertMatches(FilterService filterService, SupportFilterHandle[] handles, int intPrimitive, int expectedIndex) {
+        List<FilterHandle> matches = getMatches(filterService, intPrimitive);
+        if (expectedIndex == -1) {
+            assertTrue(matches.isEmpty());
+        }
+        else {
+            assertEquals(1, matches.size());
+            assertSame(handles[expectedIndex], matches.get(0));
+        }
+    }
+
+    private List<FilterHandle> getMatches(FilterService filterService, int intPrimitive) {
+        List<FilterHandle> matches = new ArrayList<FilterHandle>();
+        EventBean theEvent = SupportEventBeanFactory.createObject(new SupportBean("E", intPrimitive));
+        filterService.evaluate(theEvent, matches);
+        return matches;
+    }
+
+    private FilterValueSet makeValueSet(int intPrimitive) {
+        return SupportFilterSpecBuilder.build(eventType, new Object[] {"intPrimitive", FilterOperator.EQUAL, intPrimitive}).getValueSet(null, null, null);
+    }
+
+    private static SupportFilterHandle[] makeHandles(int count) {
+        SupportFilterHandle[] handles = new SupportFilterHandle[count];
+        for (int i = 0; i < count; i++) {
+            handles[i] = new SupportFilterHandle();
+        }
+        return handles;
+    }
+}
@@ -11,14 +11,19 @@
 
 package com.espertech.esper.filter;
 
+import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
 import com.espertech.esper.support.event.SupportEventTypeFactory;
 import com.espertech.esper.support.filter.SupportFilterHandle;
 import com.espertech.esper.support.filter.SupportFilterSpecBuilder;
 import junit.framework.TestCase;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.*;
 
 /**
@@ -29,6 +34,71 @@ public class TestFilterServiceMT extends TestCase
     public void testFilterService() throws Exception {
         runAssertionAddRemoveFilter(new FilterServiceLockCoarse(false));
         runAssertionAddRemoveFilter(new FilterServiceLockFine(false));
+        runAssertionAddRemoveFilter(new FilterServiceLockFree(false));
+    }
+
+    public void testEvaluateWhileAddRemove() throws Exception {
+        runAssertionEvaluateWhileAddRemove(new FilterServiceLockCoarse(false));
+        runAssertionEvaluateWhileAddRemove(new FilterServiceLockFine(false));
+        runAssertionEvaluateWhileAddRemove(new FilterServiceLockFree(false));
+    }
+
+    private void runAssertionEvaluateWhileAddRemove(final FilterService service) throws Exception
+    {
+        EventType eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+        FilterValueSet staticFilter = SupportFilterSpecBuilder.build(eventType, new Object[] {"theString", FilterOperator.EQUAL, "E1", "intPrimitive", FilterOperator.LESS, 10}).getValueSet(null, null, null);
+        final SupportFilterHandle staticHandle = new SupportFilterHandle();
+        service.add(staticFilter, staticHandle);
+
+        final FilterValueSet[] changingFilters = new FilterValueSet[] {
+                SupportFilterSpecBuilder.build(eventType, new Object[] {"theString", FilterOperator.EQUAL, "E1"}).getValueSet(null, null, null),
+                SupportFilterSpecBuilder.build(eventType, new Object[] {"theString", FilterOperator.EQUAL, "E2", "intPrimitive", FilterOperator.LESS, 10}).getValueSet(null, null, null),
+                SupportFilterSpecBuilder.build(eventType, new Object[] {"theString", FilterOperator.IN_LIST_OF_VALUES, new MultiKeyUntyped(new Object[] {"E1", "E3"})}).getValueSet(null, null, null),
+                SupportFilterSpecBuilder.build(eventType, new Object[] {"theString", FilterOperator.NOT_EQUAL, "E4"}).getValueSet(null, null, null)
+        };
+        final EventBean theEvent = SupportEventBeanFactory.createObject(new SupportBean("E1", 5));
+
+        Callable callables[] = new Callable[4];
+        for (int i = 0; i < callables.length; i++)
+        {
+            if (i % 2 == 0) {
+                callables[i] = new Callable()
+                {
+                    public Object call() throws Exception
+                    {
+                        for (int i = 0; i < 10000; i++)
+                        {
+                            SupportFilterHandle handle = new SupportFilterHandle();
+                            FilterValueSet filterValues = changingFilters[i % changingFilters.length];
+                            FilterServiceEntry entry = service.add(filterValues, handle);
+                            service.remove(handle, entry);
+                        }
+                        return true;
+                    }
+                };
+            }
+            else {
+                callables[i] = new Callable()
+                {
+                    public Object call() throws Exception
+                    {
+                        List<FilterHandle> matches = new ArrayList<FilterHandle>();
+                        for (int i = 0; i < 10000; i++)
+                        {
+                            service.evaluate(theEvent, matches);
+                            if (!matches.contains(staticHandle)) {
+                                return false;
+                            }
+                            matches.clear();
+                        }
+                        return true;
+                    }
+                };
+            }
+        }
+
+        Object[] result = tryMT(callables);
+        EPAssertionUtil.assertAllBooleanTrue(result);
     }
 
     private void runAssertionAddRemoveFilter(final FilterService service) throws Exception
@@ -23,5 +23,8 @@ public class TestFilterServiceProvider extends TestCase
 
         assertTrue(serviceOne != null);
         assertTrue(serviceOne != serviceTwo);
+
+        assertTrue(FilterServiceProvider.newService(ConfigurationEngineDefaults.FilterServiceProfile.READWRITE, false) instanceof FilterServiceLockFine);
+        assertTrue(FilterServiceProvider.newService(ConfigurationEngineDefaults.FilterServiceProfile.LOCKFREE, false) instanceof FilterServiceLockFree);
     }
 }
@@ -0,0 +1,112 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.metrics.instrumentation;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.epl.SupportExprNodeFactory;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+import java.io.StringWriter;
+import java.util.Map;
+
+public class TestInstrumentationSampling extends TestCase
+{
+    private EventBean theEvent;
+
+    public void setUp()
+    {
+        theEvent = SupportEventBeanFactory.createObject(new SupportBean("E1", 1));
+    }
+
+    public void testStacks() throws Exception
+    {
+        InstrumentationSampling sampling = new InstrumentationSampling(1);
+        ExprNode equalsNode = SupportExprNodeFactory.makeEqualsNode();
+
+        sampling.qStimulantEvent(theEvent, "default");
+        sampling.qViewProcessIRStream(null, "length", null, null);
+        sampling.qWhereClauseFilter(equalsNode, null, null);
+        sampling.aWhereClauseFilter(null, null);
+        sampling.aViewProcessIRStream();
+        sampling.qFilter(theEvent);
+        sampling.aFilter(null);
+        sampling.aStimulantEvent();
+
+        Map<String, Long> selfTimes = sampling.getSelfTimes();
+        String eventFrame = "event " + SupportBean.class.getName();
+        String whereFrame = eventFrame + ";view length;where " + ExprNodeUtility.toExpressionStringMinPrecedenceSafe(equalsNode);
+        assertEquals(4, selfTimes.size());
+        assertTrue(selfTimes.containsKey(eventFrame));
+        assertTrue(selfTimes.containsKey(eventFrame + ";view length"));
+        assertTrue(selfTimes.containsKey(whereFrame));
+        assertTrue(selfTimes.containsKey(eventFrame + ";filter"));
+        for (Long value : selfTimes.values()) {
+            assertTrue(value >= 0);
+        }
+
+        StringWriter writer = new StringWriter();
+        sampling.writeCollapsedStacks(writer);
+        String[] lines = writer.toString().split("\n");
+        assertEquals(4, lines.length);
+        for (String line : lines) {
+            String count = line.substring(line.lastIndexOf(' ') + 1);
+            assertTrue(Long.parseLong(count) >= 0);
+        }
+
+        sampling.reset();
+        assertTrue(sampling.getSelfTimes().isEmpty());
+    }
+
+    public void testSampleRate()
+    {
+        InstrumentationSampling sampling = new InstrumentationSampling(3);
+        for (int i = 0; i < 2; i++) {
+            sampling.qStimulantEvent(theEvent, "default");
+            sampling.qViewProcessIRStream(null, "view" + i, null, null);
+            sampling.aViewProcessIRStream();
+            sampling.aStimulantEvent();
+        }
+        assertTrue(sampling.getSelfTimes().isEmpty());
+
+        sampling.qStimulantTime(1000, "default");
+        sampling.qViewScheduledEval(null, "time");
+        sampling.aViewScheduledEval();
+        sampling.aStimulantTime();
+        assertEquals(2, sampling.getSelfTimes().size());
+        assertTrue(sampling.getSelfTimes().containsKey("time;view time"));
+    }
+
+    public void testUnbalanced()
+    {
+        InstrumentationSampling sampling = new InstrumentationSampling(1);
+        sampling.qStimulantEvent(theEvent, "default");
+        sampling.qFilter(theEvent);
+        sampling.qHavingClauseNonJoin(theEvent);
+        sampling.aStimulantEvent();
+
+        // extra completion outside of a sample is ignored
+        sampling.aFilter(null);
+        assertEquals(3, sampling.getSelfTimes().size());
+
+        try {
+            new InstrumentationSampling(0);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            assertEquals("Sample rate must be a positive number, received 0", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.multithread;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+public class TestMTContextHashAffinity extends TestCase
+{
+    private static final int GRANULARITY = 16;
+    private static final int NUM_THREADS = 4;
+
+    public void testAffinity() throws Exception
+    {
+        runAssertion(false);
+    }
+
+    public void testAffinityRingBuffer() throws Exception
+    {
+        runAssertion(true);
+    }
+
+    public void testInvalidNumThreads()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.getEngineDefaults().getThreading().setThreadPoolContextHash(true);
+        config.getEngineDefaults().getThreading().setThreadPoolContextHashNumThreads(0);
+        try {
+            EPServiceProviderManager.getProvider(this.getClass().getSimpleName() + "_invalid", config);
+            fail();
+        }
+        catch (ConfigurationException ex) {
+            assertEquals("Invalid number of threads for the context-hash thread pool, expecting a value of at least 1 but received 0", ex.getMessage());
+        }
+    }
+
+    private void runAssertion(boolean ringBuffer) throws Exception
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        config.getEngineDefaults().getThreading().setThreadPoolContextHash(true);
+        config.getEngineDefaults().getThreading().setThreadPoolContextHashNumThreads(NUM_THREADS);
+        config.getEngineDefaults().getThreading().setThreadPoolRingBuffer(ringBuffer);
+        config.addEventType("SupportBean", SupportBean.class);
+        config.addPlugInSingleRowFunction("partitionOf", this.getClass().getName(), "partitionOf");
+        EPServiceProvider epService = EPServiceProviderManager.getProvider(this.getClass().getSimpleName(), config);
+        epService.initialize();
+        assertTrue(((EPServiceProviderSPI) epService).getThreadingService().isContextHashThreading());
+
+        // preallocated so that no event is processed by the thread that allocates its partition
+        epService.getEPAdministrator().createEPL("create context HashContext coalesce partitionOf(*) from SupportBean granularity " + GRANULARITY + " preallocate");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("context HashContext select intPrimitive as bucket, count(*) as cnt from SupportBean");
+        final int numEvents = 2000;
+        RecordingSubscriber subscriber = new RecordingSubscriber(new CountDownLatch(numEvents * 2));
+        stmt.setSubscriber(subscriber);
+
+        // two sending threads each send to their own half of the buckets
+        ExecutorService threadPool = Executors.newFixedThreadPool(2);
+        Future[] futures = new Future[2];
+        for (int i = 0; i < futures.length; i++) {
+            final EPServiceProvider engine = epService;
+            final int offset = i;
+            futures[i] = threadPool.submit(new Runnable() {
+                public void run() {
+                    for (int j = 0; j < numEvents; j++) {
+                        engine.getEPRuntime().sendEvent(new SupportBean("E", (j % (GRANULARITY / 2)) * 2 + offset));
+                    }
+                }
+            });
+        }
+        threadPool.shutdown();
+        threadPool.awaitTermination(1, TimeUnit.MINUTES);
+        for (Future future : futures) {
+            future.get();
+        }
+
+        assertTrue(subscriber.getLatch().await(1, TimeUnit.MINUTES));
+        assertEquals(numEvents * 2, subscriber.getCount());
+
+        // each bucket is processed by the one thread of its range, in the order of its events
+        Map<Integer, List<Long>> counts = subscriber.getCounts();
+        Map<Integer, Set<String>> threads = subscriber.getThreads();
+        assertEquals(GRANULARITY, counts.size());
+        for (int bucket = 0; bucket < GRANULARITY; bucket++) {
+            List<Long> bucketCounts = counts.get(bucket);
+            assertEquals(numEvents * 2 / GRANULARITY, bucketCounts.size());
+            for (int i = 0; i < bucketCounts.size(); i++) {
+                assertEquals(i + 1, (long) bucketCounts.get(i));
+            }
+            assertEquals(1, threads.get(bucket).size());
+            String threadName = threads.get(bucket).iterator().next();
+            int range = bucket * NUM_THREADS / GRANULARITY;
+            assertTrue(threadName, threadName.startsWith("com.espertech.esper.ContextHash-" + range + "-"));
+        }
+
+        epService.destroy();
+    }
+
+    public static int partitionOf(SupportBean bean) {
+        return bean.getIntPrimitive();
+    }
+
+    public static class RecordingSubscriber {
+        private final Map<Integer, List<Long>> counts = new HashMap<Integer, List<Long>>();
+        private final Map<Integer, Set<String>> threads = new HashMap<Integer, Set<String>>();
+        private final CountDownLatch latch;
+        private int count;
+
+        public RecordingSubscriber(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        public synchronized void update(int bucket, long cnt) {
+            List<Long> bucketCounts = counts.get(bucket);
+            if (bucketCounts == null) {
+                bucketCounts = new ArrayList<Long>();
+                counts.put(bucket, bucketCounts);
+                threads.put(bucket, new HashSet<String>());
+            }
+            bucketCounts.add(cnt);
+            threads.get(bucket).add(Thread.currentThread().getName());
+            count++;
+            latch.countDown();
+        }
+
+        public CountDownLatch getLatch() {
+            return latch;
+        }
+
+        public synchronized int getCount() {
+            return count;
+        }
+
+        public synchronized Map<Integer, List<Long>> getCounts() {
+            return counts;
+        }
+
+        public synchronized Map<Integer, Set<String>> getThreads() {
+            return threads;
+        }
+    }
+}
@@ -42,9 +42,19 @@ public class TestMTDeterminismInsertInto extends TestCase
         trySendCountFollowedBy(4, 100, ConfigurationEngineDefaults.Threading.Locking.SPIN);
     }
 
+    public void testSceneOneReorder() throws Exception
+    {
+        trySendCountFollowedBy(4, 100, ConfigurationEngineDefaults.Threading.Locking.REORDER);
+    }
+
     public void testSceneTwo() throws Exception
     {
-        tryChainedCountSum(3, 100);
+        tryChainedCountSum(3, 100, ConfigurationEngineDefaults.Threading.Locking.SPIN);
+    }
+
+    public void testSceneTwoReorder() throws Exception
+    {
+        tryChainedCountSum(3, 100, ConfigurationEngineDefaults.Threading.Locking.REORDER);
     }
 
     public void testSceneThree() throws Exception
@@ -122,9 +132,10 @@ public class TestMTDeterminismInsertInto extends TestCase
         stmtInsertTwo.destroy();
     }
 
-    private void tryChainedCountSum(int numThreads, int numEvents) throws Exception
+    private void tryChainedCountSum(int numThreads, int numEvents, ConfigurationEngineDefaults.Threading.Locking locking) throws Exception
     {
         Configuration config = SupportConfigFactory.getConfiguration();
+        config.getEngineDefaults().getThreading().setInsertIntoDispatchLocking(locking);
         // This should fail all test in this class
         // config.getEngineDefaults().getThreading().setInsertIntoDispatchPreserveOrder(false);
 
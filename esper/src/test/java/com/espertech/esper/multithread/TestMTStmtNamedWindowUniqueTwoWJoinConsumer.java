@@ -23,6 +23,7 @@ public class TestMTStmtNamedWindowUniqueTwoWJoinConsumer extends TestCase {
         runAssertion(true, null, null);
         runAssertion(false, true, ConfigurationEngineDefaults.Threading.Locking.SPIN);
         runAssertion(false, true, ConfigurationEngineDefaults.Threading.Locking.SUSPEND);
+        runAssertion(false, true, ConfigurationEngineDefaults.Threading.Locking.REORDER);
         runAssertion(false, false, null);
     }
 
@@ -22,12 +22,14 @@ public class TestMTStmtPatternFollowedBy extends TestCase {
     public void testPatternFollowedBy() throws Exception {
         runAssertionPatternFollowedBy(ConfigurationEngineDefaults.FilterServiceProfile.READMOSTLY);
         runAssertionPatternFollowedBy(ConfigurationEngineDefaults.FilterServiceProfile.READWRITE);
+        runAssertionPatternFollowedBy(ConfigurationEngineDefaults.FilterServiceProfile.LOCKFREE);
     }
 
     private void runAssertionPatternFollowedBy(ConfigurationEngineDefaults.FilterServiceProfile profile) throws InterruptedException {
 
         Configuration config = SupportConfigFactory.getConfiguration();
         config.addEventType("S0", SupportBean_S0.class);
+        config.getEngineDefaults().getExecution().setFilterServiceProfile(profile);
         String engineURI = this.getClass().getSimpleName() + "_" + profile;
         EPServiceProvider epService = EPServiceProviderManager.getProvider(engineURI, config);
         epService.initialize();
@@ -13,6 +13,7 @@ package com.espertech.esper.multithread;
 
 import junit.framework.TestCase;
 import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.ConfigurationEngineDefaults;
 import com.espertech.esper.client.EPServiceProvider;
 import com.espertech.esper.client.EPServiceProviderManager;
 import com.espertech.esper.client.EventBean;
@@ -47,7 +48,11 @@ public class TestMTVariables extends TestCase
 
     public void setUp()
     {
-        Configuration config = SupportConfigFactory.getConfiguration();
+        setUpEngine(SupportConfigFactory.getConfiguration());
+    }
+
+    private void setUpEngine(Configuration config)
+    {
         epService = EPServiceProviderManager.getDefaultProvider(config);
         epService.initialize();
 
@@ -79,6 +84,14 @@ public class TestMTVariables extends TestCase
         trySetAndReadAtomic(2, 10000);
     }
 
+    public void testMTSetAtomicitySnapshot() throws Exception
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.getEngineDefaults().getVariables().setVersionStorage(ConfigurationEngineDefaults.Variables.VersionStorage.SNAPSHOT);
+        setUpEngine(config);
+        trySetAndReadAtomic(4, 2000);
+    }
+
     private void trySetAndReadAtomic(int numThreads, int numRepeats) throws Exception
     {
         ExecutorService threadPool = Executors.newFixedThreadPool(numThreads);
@@ -0,0 +1,57 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.pattern;
+
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestEvalStateNodeIndexMap extends TestCase
+{
+    public void testCompareToIdentityMap()
+    {
+        EvalStateNodeIndexMap map = new EvalStateNodeIndexMap();
+        Map<EvalStateNode, Integer> reference = new IdentityHashMap<EvalStateNode, Integer>();
+        List<EvalStateNode> nodes = new ArrayList<EvalStateNode>();
+        for (int i = 0; i < 200; i++) {
+            nodes.add(new EvalEveryStateNode(null, null));
+        }
+
+        Random random = new Random(1);
+        for (int i = 0; i < 20000; i++) {
+            EvalStateNode node = nodes.get(random.nextInt(i < 10000 ? 5 : nodes.size()));
+            if (random.nextBoolean()) {
+                int index = random.nextInt(4);
+                map.put(node, index);
+                reference.put(node, index);
+            }
+            else {
+                Integer removed = reference.remove(node);
+                assertEquals(removed == null ? -1 : (int) removed, map.remove(node));
+            }
+
+            assertEquals(reference.size(), map.size());
+            assertEquals(reference.isEmpty(), map.isEmpty());
+            for (EvalStateNode test : nodes.subList(0, 5)) {
+                Integer expected = reference.get(test);
+                assertEquals(expected == null ? -1 : (int) expected, map.get(test));
+            }
+        }
+        EPAssertionUtil.assertEqualsAnyOrder(reference.keySet().toArray(), map.getNodes());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.getNodes().length);
+        assertEquals(-1, map.get(nodes.get(0)));
+    }
+}
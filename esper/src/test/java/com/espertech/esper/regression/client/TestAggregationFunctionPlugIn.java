@@ -204,6 +204,22 @@ public class TestAggregationFunctionPlugIn extends TestCase
         EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {"XX", 2});
     }
 
+    public void testColumnarHintNotProbingPlugIn()
+    {
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean_A.class);
+        epService.getEPAdministrator().getConfiguration().addPlugInAggregationFunctionFactory("myagg", MyAggFuncFactory.class.getName());
+        SupportUpdateListener listener = new SupportUpdateListener();
+
+        // the plug-in has no columnar equivalent, deciding so must not make an aggregator
+        int countBefore = MyAggFuncFactory.getInstanceCount();
+        epService.getEPAdministrator().createEPL("@Hint('enable_columnar_aggregation') select (myagg(id)).getIntPrimitive() as val from SupportBean_A group by id").addListener(listener);
+        assertEquals(countBefore, MyAggFuncFactory.getInstanceCount());
+
+        epService.getEPRuntime().sendEvent(new SupportBean_A("A1"));
+        assertEquals(1, listener.assertOneGetNewAndReset().get("val"));
+        assertEquals(countBefore + 1, MyAggFuncFactory.getInstanceCount());
+    }
+
     public void testMultipleParams()
     {
         epService.getEPAdministrator().getConfiguration().addPlugInAggregationFunctionFactory("countboundary", SupportPluginAggregationMethodThreeFactory.class.getName());
@@ -139,6 +139,7 @@ public class TestMetricsReporting extends TestCase
         sendTimer(11000);
         EventBean theEvent = listener.assertOneGetNewAndReset();
         EPAssertionUtil.assertProps(theEvent, engineFields, new Object[]{"MyURI", 11000L, 1L, 1L, 1L});
+        assertEquals(1L, theEvent.get("latency.count"));
 
         epService.getEPRuntime().sendEvent(new SupportBean());
         epService.getEPRuntime().sendEvent(new SupportBean());
@@ -147,6 +148,7 @@ public class TestMetricsReporting extends TestCase
         sendTimer(21000);
         theEvent = listener.assertOneGetNewAndReset();
         EPAssertionUtil.assertProps(theEvent, engineFields, new Object[]{"MyURI", 21000L, 4L, 3L, 0L});
+        assertEquals(3L, theEvent.get("latency.count"));
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
     }
 
@@ -415,11 +417,16 @@ public class TestMetricsReporting extends TestCase
         assertTrue("wallOne=" + wallOne, (wallOne + 50) > wallGoalOneMsec);
         assertTrue("wallTwo=" + wallTwo, (wallTwo + 50) > wallGoalTwoMsec);
 
+        long wallTwoP99 = (Long) received[3].get("latency.p99");
+        assertTrue("wallTwoP99=" + wallTwoP99, wallTwoP99 >= wallTwo && wallTwoP99 <= wallTwo + wallTwo / 16);
+
         for (int i = 0; i < 4; i++)
         {
             assertEquals(1L, received[i].get("numOutputIStream"));
             assertEquals(0L, received[i].get("numOutputRStream"));
             assertEquals(timestamp, received[i].get("timestamp"));
+            assertEquals(1L, received[i].get("latency.count"));
+            assertEquals(1L, received[i].get("dispatchLatency.count"));
         }
 
         listener.reset();
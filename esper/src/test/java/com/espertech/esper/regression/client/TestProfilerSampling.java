@@ -0,0 +1,74 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.core.service.EPRuntimeSPI;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.metrics.instrumentation.InstrumentationSampling;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.io.StringWriter;
+import java.util.Map;
+
+public class TestProfilerSampling extends TestCase {
+
+    public void testSampling() throws Exception {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType(SupportBean.class);
+        config.getEngineDefaults().getMetricsReporting().setProfilerSampleRate(1);
+        EPServiceProvider epService = EPServiceProviderManager.getProvider(TestProfilerSampling.class.getName(), config);
+        epService.initialize();
+        InstrumentationSampling sampling = ((EPRuntimeSPI) epService.getEPRuntime()).getProfilerSampling();
+        assertNotNull(sampling);
+
+        // the hooks remain compiled out, another engine in the same VM does not sample
+        assertFalse(InstrumentationHelper.ENABLED);
+        EPServiceProvider epServiceOther = EPServiceProviderManager.getDefaultProvider(SupportConfigFactory.getConfiguration());
+        epServiceOther.initialize();
+        assertNull(((EPRuntimeSPI) epServiceOther.getEPRuntime()).getProfilerSampling());
+
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("@Name('s0') select theString, sum(intPrimitive) as total from SupportBean(intPrimitive > 0).win:length(2) where theString like 'E%'").addListener(listener);
+        for (int i = 0; i < 5; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E" + i, i + 1));
+        }
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(1000));
+        EPAssertionUtil.assertProps(listener.getLastNewData()[0], "theString,total".split(","), new Object[] {"E4", 9});
+
+        Map<String, Long> selfTimes = sampling.getSelfTimes();
+        assertEquals(3, selfTimes.size());
+        assertTrue(selfTimes.containsKey("event SupportBean"));
+        assertTrue(selfTimes.containsKey("event SupportBean;statement s0"));
+        assertTrue(selfTimes.containsKey("time"));
+
+        StringWriter writer = new StringWriter();
+        sampling.writeCollapsedStacks(writer);
+        assertEquals(selfTimes.size(), writer.toString().split("\n").length);
+
+        // removing the profiler stops sampling
+        ((EPRuntimeSPI) epService.getEPRuntime()).setProfilerSampling(null);
+        sampling.reset();
+        epService.getEPRuntime().sendEvent(new SupportBean("E5", 6));
+        assertTrue(sampling.getSelfTimes().isEmpty());
+
+        epServiceOther.destroy();
+        epService.destroy();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.core.service.EPStatementHandle;
+import com.espertech.esper.core.service.EPStatementSPI;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestReorderDispatchTimeout extends TestCase
+{
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    public void setUp()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        config.getEngineDefaults().getThreading().setInsertIntoDispatchLocking(ConfigurationEngineDefaults.Threading.Locking.REORDER);
+        config.getEngineDefaults().getThreading().setInsertIntoDispatchTimeout(100);
+        config.getEngineDefaults().getThreading().setNamedWindowConsumerDispatchLocking(ConfigurationEngineDefaults.Threading.Locking.REORDER);
+        config.getEngineDefaults().getThreading().setNamedWindowConsumerDispatchTimeout(100);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        listener = new SupportUpdateListener();
+    }
+
+    protected void tearDown() throws Exception {
+        listener = null;
+    }
+
+    public void testInsertIntoGapReleasedByTimer() throws Exception
+    {
+        EPStatement stmtInsert = epService.getEPAdministrator().createEPL("insert into MyStream select theString, count(*) as cnt from SupportBean");
+        epService.getEPAdministrator().createEPL("select theString from MyStream").addListener(listener);
+
+        // a sequence number taken by a thread that has not yet added its event opens a gap
+        EPStatementHandle handle = ((EPStatementSPI) stmtInsert).getStatementContext().getEpStatementHandle();
+        handle.getInsertIntoFrontLatchFactory().newLatch(null);
+        handle.getInsertIntoBackLatchFactory().newLatch(null);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        assertFalse(listener.isInvoked());
+
+        // no further event arrives, the timer releases the held event after the timeout
+        Thread.sleep(200);
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(1000));
+        assertEquals("E1", listener.assertOneGetNewAndReset().get("theString"));
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 2));
+        assertEquals("E2", listener.assertOneGetNewAndReset().get("theString"));
+    }
+
+    public void testNamedWindowGapReleasedByTimer() throws Exception
+    {
+        epService.getEPAdministrator().createEPL("create window MyWindow.win:keepall() as SupportBean");
+        epService.getEPAdministrator().createEPL("insert into MyWindow select * from SupportBean");
+        epService.getEPAdministrator().createEPL("select theString from MyWindow").addListener(listener);
+
+        // a sequence number taken by a thread that has not yet dispatched its delta opens a gap
+        ((EPServiceProviderSPI) epService).getNamedWindowMgmtService().getProcessor("MyWindow").getTailView().getLatchFactory().newLatch(null, null);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        assertFalse(listener.isInvoked());
+
+        // no further delta arrives, the timer releases the held delta after the timeout
+        Thread.sleep(200);
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(1000));
+        assertEquals("E1", listener.assertOneGetNewAndReset().get("theString"));
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 2));
+        assertEquals("E2", listener.assertOneGetNewAndReset().get("theString"));
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestSendEventBatch extends TestCase
+{
+    private EPServiceProvider epService;
+
+    public void setUp()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        Map<String, Object> mapType = new HashMap<String, Object>();
+        mapType.put("id", String.class);
+        config.addEventType("MyMapEvent", mapType);
+        config.addEventType("MyOAEvent", new String[] {"id"}, new Object[] {String.class});
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    public void tearDown() {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
+    public void testObjectBatchOrder()
+    {
+        final List<String> received = new ArrayList<String>();
+        epService.getEPAdministrator().createEPL("insert into Stream2 select theString from SupportBean").addListener(new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                received.add("S1:" + newEvents[0].get("theString"));
+            }
+        });
+        epService.getEPAdministrator().createEPL("select theString from Stream2").addListener(new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                received.add("S2:" + newEvents[0].get("theString"));
+            }
+        });
+
+        // results of each event, including insert-into, are delivered before the next event is processed
+        epService.getEPRuntime().sendEventBatch(new Object[] {new SupportBean("E1", 1), null, new SupportBean("E2", 2), new SupportBean("E3", 3)});
+        assertEquals("[S1:E1, S2:E1, S1:E2, S2:E2, S1:E3, S2:E3]", received.toString());
+
+        epService.getEPRuntime().sendEventBatch(new Object[0]);
+        assertEquals(6, received.size());
+    }
+
+    public void testMixedOutputBatch()
+    {
+        final List<String> received = new ArrayList<String>();
+        epService.getEPAdministrator().createEPL("create window MyWindow.win:keepall() as SupportBean");
+        epService.getEPAdministrator().createEPL("insert into MyWindow select * from SupportBean(intPrimitive > 0)");
+        epService.getEPAdministrator().createEPL("select theString from MyWindow").addListener(new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                received.add("W:" + newEvents[0].get("theString"));
+            }
+        });
+        epService.getEPAdministrator().createEPL("select theString from SupportBean(intPrimitive < 0)").addListener(new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                received.add("N:" + newEvents[0].get("theString"));
+            }
+        });
+
+        // events without results are processed under a single lock, events with results are delivered in order
+        epService.getEPRuntime().sendEventBatch(new Object[] {new SupportBean("E1", 0), new SupportBean("E2", 1), new SupportBean("E3", 0),
+                new SupportBean("E4", 0), new SupportBean("E5", -1), new SupportBean("E6", 2), new SupportBean("E7", 0)});
+        assertEquals("[W:E2, N:E5, W:E6]", received.toString());
+        assertEquals(2, epService.getEPRuntime().executeQuery("select * from MyWindow").getArray().length);
+        assertEquals(0, getReadHoldCount());
+    }
+
+    public void testUnmatchedCreatesStatement()
+    {
+        final SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPRuntime().setUnmatchedListener(new UnmatchedListener() {
+            public void update(EventBean theEvent) {
+                if (listener.getNewDataList().isEmpty() && epService.getEPAdministrator().getStatementNames().length == 0) {
+                    epService.getEPAdministrator().createEPL("select theString from SupportBean").addListener(listener);
+                }
+            }
+        });
+
+        // the unmatched listener creates a statement while the batch is in progress
+        epService.getEPRuntime().sendEventBatch(new Object[] {new SupportBean("E1", 1), new SupportBean("E2", 2), new SupportBean("E3", 3)});
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "theString".split(","), new Object[][] {{"E2"}, {"E3"}});
+        assertEquals(0, getReadHoldCount());
+        epService.getEPRuntime().setUnmatchedListener(null);
+    }
+
+    public void testObjectBatchTime()
+    {
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select theString, current_timestamp() as ts from SupportBean").addListener(listener);
+
+        epService.getEPRuntime().sendEventBatch(new Object[] {new CurrentTimeEvent(1000), new SupportBean("E1", 1), new CurrentTimeEvent(2000), new SupportBean("E2", 2)});
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "theString,ts".split(","), new Object[][] {{"E1", 1000L}, {"E2", 2000L}});
+        assertEquals(2000, epService.getEPRuntime().getCurrentTime());
+    }
+
+    public void testMapAndObjectArrayBatch()
+    {
+        SupportUpdateListener listenerMap = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select id from MyMapEvent").addListener(listenerMap);
+        SupportUpdateListener listenerOA = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select id from MyOAEvent").addListener(listenerOA);
+
+        epService.getEPRuntime().sendEventBatch(new Map[] {makeMap("M1"), makeMap("M2")}, "MyMapEvent");
+        EPAssertionUtil.assertPropsPerRow(listenerMap.getNewDataListFlattened(), "id".split(","), new Object[][] {{"M1"}, {"M2"}});
+        assertEquals(2, listenerMap.getNewDataList().size());
+
+        epService.getEPRuntime().sendEventBatch(new Object[][] {{"O1"}, {"O2"}, {"O3"}}, "MyOAEvent");
+        EPAssertionUtil.assertPropsPerRow(listenerOA.getNewDataListFlattened(), "id".split(","), new Object[][] {{"O1"}, {"O2"}, {"O3"}});
+        assertEquals(3, listenerOA.getNewDataList().size());
+    }
+
+    public void testInvalid()
+    {
+        try {
+            epService.getEPRuntime().sendEventBatch(new Map[] {makeMap("M1")}, "MyOAEvent");
+            fail();
+        }
+        catch (EPException ex) {
+            assertEquals("Event type named 'MyOAEvent' has not been defined or is not a Map event type, the name 'MyOAEvent' refers to a java.lang.Object(Array) event type", ex.getMessage());
+        }
+
+        try {
+            epService.getEPRuntime().sendEventBatch(new Object[][] {{"O1"}}, "Dummy");
+            fail();
+        }
+        catch (EPException ex) {
+            assertEquals("Event type named 'Dummy' has not been defined or is not a Object-array event type, the name 'Dummy' has not been defined as an event type", ex.getMessage());
+        }
+
+        try {
+            epService.getEPRuntime().sendEventBatch(new Map[] {makeMap("M1"), null}, "MyMapEvent");
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            assertEquals("Invalid null event object", ex.getMessage());
+        }
+
+        try {
+            epService.getEPRuntime().sendEventBatch(null);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            assertEquals("Invalid null event batch", ex.getMessage());
+        }
+    }
+
+    private int getReadHoldCount() {
+        return ((EPServiceProviderSPI) epService).getServicesContext().getEventProcessingRWLock().getLock().getReadHoldCount();
+    }
+
+    private Map<String, Object> makeMap(String id) {
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("id", id);
+        return map;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestThreadedConfigRingBuffer extends TestCase
+{
+    public void testWaitStrategies() throws Exception
+    {
+        for (ConfigurationEngineDefaults.Threading.WaitStrategy waitStrategy : ConfigurationEngineDefaults.Threading.WaitStrategy.values()) {
+            runAssertion(waitStrategy);
+        }
+    }
+
+    public void testFastShutdown() {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.getEngineDefaults().getThreading().setThreadPoolInbound(true);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(2);
+        config.getEngineDefaults().getThreading().setThreadPoolRingBuffer(true);
+        config.addEventType(TestThreadedConfigInbound.MyEvent.class);
+        config.addPlugInSingleRowFunction("sleepaLittle", TestThreadedConfigInbound.class.getName(), "sleepaLittle");
+        EPServiceProvider epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select sleepaLittle(100) from MyEvent");
+        stmt.setSubscriber(new TestThreadedConfigInbound.MySubscriber());
+        for (int i = 0; i < 10000; i++) {
+            epService.getEPRuntime().sendEvent(new TestThreadedConfigInbound.MyEvent());
+        }
+        epService.destroy();
+    }
+
+    private void runAssertion(ConfigurationEngineDefaults.Threading.WaitStrategy waitStrategy) throws Exception
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        config.getEngineDefaults().getThreading().setThreadPoolInbound(true);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(2);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundCapacity(100);
+        config.getEngineDefaults().getThreading().setThreadPoolOutbound(true);
+        config.getEngineDefaults().getThreading().setThreadPoolOutboundNumThreads(1);
+        config.getEngineDefaults().getThreading().setThreadPoolRingBuffer(true);
+        config.getEngineDefaults().getThreading().setThreadPoolRingBufferWaitStrategy(waitStrategy);
+        config.addEventType("SupportBean", SupportBean.class);
+        config.addEventType("MyMap", new HashMap<String, Object>());
+
+        EPServiceProvider epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+
+        CountingSubscriber subscriberBean = new CountingSubscriber();
+        epService.getEPAdministrator().createEPL("select * from SupportBean").setSubscriber(subscriberBean);
+        CountingSubscriber subscriberMap = new CountingSubscriber();
+        epService.getEPAdministrator().createEPL("select * from MyMap").setSubscriber(subscriberMap);
+
+        // more events than the capacity, so that senders also wait for free slots
+        EventSender sender = epService.getEPRuntime().getEventSender("MyMap");
+        for (int i = 0; i < 1000; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E" + i, i));
+            sender.sendEvent(new HashMap<String, Object>());
+        }
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while ((subscriberBean.count.get() < 1000 || subscriberMap.count.get() < 1000) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(waitStrategy.toString(), 1000, subscriberBean.count.get());
+        assertEquals(waitStrategy.toString(), 1000, subscriberMap.count.get());
+
+        EPServiceProviderSPI spi = (EPServiceProviderSPI) epService;
+        assertNull(spi.getThreadingService().getInboundQueue());
+        assertNull(spi.getThreadingService().getOutboundThreadPool());
+
+        epService.destroy();
+    }
+
+    public static class CountingSubscriber {
+        private final AtomicInteger count = new AtomicInteger();
+
+        public void update(Map row) {
+            count.incrementAndGet();
+        }
+
+        public void update(SupportBean bean) {
+            count.incrementAndGet();
+        }
+    }
+}
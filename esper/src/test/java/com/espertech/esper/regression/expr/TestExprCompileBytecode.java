@@ -0,0 +1,242 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.expr;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+public class TestExprCompileBytecode extends TestCase
+{
+    private static final String[] EXPRESSIONS = new String[] {
+            "intPrimitive + intBoxed",
+            "intPrimitive - longBoxed",
+            "longPrimitive * doubleBoxed",
+            "intPrimitive / intBoxed",
+            "longBoxed / longPrimitive",
+            "doubleBoxed / doublePrimitive",
+            "intBoxed % 7",
+            "doubleBoxed % doublePrimitive",
+            "floatPrimitive * floatBoxed",
+            "floatBoxed / intBoxed",
+            "shortBoxed + bytePrimitive",
+            "(intPrimitive + 2) * (longBoxed - 1) / 3",
+            "intPrimitive > intBoxed",
+            "longBoxed <= doubleBoxed",
+            "floatBoxed < 2",
+            "doubleBoxed >= doublePrimitive",
+            "shortBoxed > bytePrimitive",
+            "intPrimitive = intBoxed",
+            "doubleBoxed != intBoxed",
+            "longBoxed = intPrimitive",
+            "doubleBoxed = doublePrimitive",
+            "floatBoxed != floatPrimitive",
+            "boolBoxed and intPrimitive > 0",
+            "boolBoxed or boolPrimitive",
+            "not boolBoxed",
+            "(intBoxed > 5 or doubleBoxed < 3) and not (longBoxed = 2)",
+            "boolBoxed and intBoxed > 2 and doubleBoxed < 1",
+            "boolBoxed or intBoxed > 2 or doubleBoxed < 1",
+            "theString = 'a' and intBoxed > 1",
+            "intBoxed > 1 and bigDecimal > 1",
+            "Math.abs(intPrimitive) + intBoxed",
+            "intBoxed in (1, 2) or intBoxed > 8",
+            "intPrimitive * 2 > doubleBoxed / 3 or not boolPrimitive",
+            "intBoxed + bigDecimal",
+            "intPrimitive + 1.5"
+    };
+
+    public void setUp()
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(null, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
+    public void testSelectCompareInterpreted()
+    {
+        runAssertionSelect(false, false);
+        runAssertionSelect(true, false);
+        runAssertionSelect(false, true);
+        runAssertionSelect(true, true);
+    }
+
+    public void testWhereCompareInterpreted()
+    {
+        EPServiceProvider[] engines = makeEngines(false, false);
+        String[] filters = new String[] {
+                "intPrimitive > intBoxed",
+                "doubleBoxed / doublePrimitive > 1",
+                "boolBoxed or intBoxed > 2 or doubleBoxed < 1",
+                "not (intBoxed in (1, 2) or longBoxed = intPrimitive)",
+                "floatBoxed != floatPrimitive and shortBoxed > 0"
+        };
+        SupportUpdateListener[][] listeners = new SupportUpdateListener[filters.length][];
+        for (int i = 0; i < filters.length; i++) {
+            listeners[i] = new SupportUpdateListener[engines.length];
+            for (int j = 0; j < engines.length; j++) {
+                listeners[i][j] = new SupportUpdateListener();
+                engines[j].getEPAdministrator().createEPL("select * from SupportBean where " + filters[i]).addListener(listeners[i][j]);
+            }
+        }
+
+        Random random = new Random(1);
+        for (int count = 0; count < 1000; count++) {
+            SupportBean bean = makeEvent(random);
+            for (EPServiceProvider engine : engines) {
+                engine.getEPRuntime().sendEvent(bean);
+            }
+            for (int i = 0; i < filters.length; i++) {
+                assertEquals(filters[i], listeners[i][0].getAndClearIsInvoked(), listeners[i][1].getAndClearIsInvoked());
+            }
+        }
+        destroyEngines(engines);
+    }
+
+    public void testHavingCompareInterpreted()
+    {
+        EPServiceProvider[] engines = makeEngines(false, false);
+        SupportUpdateListener[] listeners = new SupportUpdateListener[engines.length];
+        for (int j = 0; j < engines.length; j++) {
+            listeners[j] = new SupportUpdateListener();
+            EPStatement stmt = engines[j].getEPAdministrator().createEPL("select theString, sum(intPrimitive) as total from SupportBean.win:length(5) " +
+                    "group by theString having sum(intPrimitive) > 5 or count(*) = 2");
+            stmt.addListener(listeners[j]);
+        }
+
+        Random random = new Random(2);
+        for (int count = 0; count < 500; count++) {
+            SupportBean bean = makeEvent(random);
+            for (EPServiceProvider engine : engines) {
+                engine.getEPRuntime().sendEvent(bean);
+            }
+            assertResults("having", listeners[0], listeners[1], new String[] {"theString", "total"});
+        }
+        destroyEngines(engines);
+    }
+
+    private void runAssertionSelect(boolean integerDivision, boolean divisionByZeroReturnsNull)
+    {
+        EPServiceProvider[] engines = makeEngines(integerDivision, divisionByZeroReturnsNull);
+        SupportUpdateListener[] listeners = new SupportUpdateListener[engines.length];
+        StringBuilder select = new StringBuilder();
+        String[] fields = new String[EXPRESSIONS.length];
+        for (int i = 0; i < EXPRESSIONS.length; i++) {
+            fields[i] = "c" + i;
+            select.append(i == 0 ? "" : ", ").append(EXPRESSIONS[i]).append(" as c").append(i);
+        }
+        for (int j = 0; j < engines.length; j++) {
+            listeners[j] = new SupportUpdateListener();
+            engines[j].getEPAdministrator().createEPL("select " + select + " from SupportBean").addListener(listeners[j]);
+        }
+
+        EventBean sample = null;
+        Random random = new Random(0);
+        for (int count = 0; count < 2000; count++) {
+            SupportBean bean = makeEvent(random);
+            for (EPServiceProvider engine : engines) {
+                engine.getEPRuntime().sendEvent(bean);
+            }
+            sample = assertResults("select with integer division " + integerDivision + " and division-by-zero null " + divisionByZeroReturnsNull,
+                    listeners[0], listeners[1], fields);
+        }
+
+        // compiled results have the same type as interpreted results
+        for (String field : fields) {
+            assertEquals(sample.getEventType().getPropertyType(field), engines[1].getEPAdministrator().getStatement(engines[1].getEPAdministrator().getStatementNames()[0]).getEventType().getPropertyType(field));
+        }
+        destroyEngines(engines);
+    }
+
+    private static EventBean assertResults(String message, SupportUpdateListener interpreted, SupportUpdateListener compiled, String[] fields) {
+        assertEquals(message, interpreted.isInvoked(), compiled.isInvoked());
+        if (!interpreted.isInvoked()) {
+            return null;
+        }
+        EventBean[] expected = interpreted.getAndResetLastNewData();
+        EventBean[] actual = compiled.getAndResetLastNewData();
+        assertEquals(message, expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            for (String field : fields) {
+                Object expectedValue = expected[i].get(field);
+                Object actualValue = actual[i].get(field);
+                assertEquals(message + " field " + field, expectedValue, actualValue);
+                if (expectedValue != null) {
+                    assertEquals(message + " field " + field, expectedValue.getClass(), actualValue.getClass());
+                }
+            }
+        }
+        return expected[0];
+    }
+
+    private EPServiceProvider[] makeEngines(boolean integerDivision, boolean divisionByZeroReturnsNull) {
+        EPServiceProvider[] engines = new EPServiceProvider[2];
+        for (int i = 0; i < engines.length; i++) {
+            Configuration config = SupportConfigFactory.getConfiguration();
+            config.addEventType("SupportBean", SupportBean.class);
+            config.getEngineDefaults().getExpression().setIntegerDivision(integerDivision);
+            config.getEngineDefaults().getExpression().setDivisionByZeroReturnsNull(divisionByZeroReturnsNull);
+            config.getEngineDefaults().getExpression().setCompileBytecode(i == 1);
+            engines[i] = EPServiceProviderManager.getProvider(this.getClass().getName() + "_" + i, config);
+            engines[i].initialize();
+        }
+        return engines;
+    }
+
+    private static void destroyEngines(EPServiceProvider[] engines) {
+        for (EPServiceProvider engine : engines) {
+            engine.destroy();
+        }
+    }
+
+    private static SupportBean makeEvent(Random random) {
+        SupportBean bean = new SupportBean(random.nextBoolean() ? "a" : "b", random.nextInt(10) - 3);
+        bean.setIntBoxed(random.nextInt(5) == 0 ? null : random.nextInt(12) - 2);
+        bean.setLongPrimitive(random.nextInt(6) - 2);
+        bean.setLongBoxed(random.nextInt(5) == 0 ? null : (long) random.nextInt(6) - 1);
+        bean.setDoublePrimitive(makeDouble(random));
+        bean.setDoubleBoxed(random.nextInt(5) == 0 ? null : makeDouble(random));
+        bean.setFloatPrimitive((float) makeDouble(random));
+        bean.setFloatBoxed(random.nextInt(5) == 0 ? null : (float) random.nextInt(4));
+        bean.setShortBoxed(random.nextInt(5) == 0 ? null : (short) random.nextInt(4));
+        bean.setBytePrimitive((byte) random.nextInt(4));
+        bean.setBoolPrimitive(random.nextBoolean());
+        bean.setBoolBoxed(random.nextInt(3) == 0 ? null : random.nextBoolean());
+        bean.setBigDecimal(random.nextInt(3) == 0 ? null : new BigDecimal(random.nextInt(4)));
+        return bean;
+    }
+
+    private static double makeDouble(Random random) {
+        switch (random.nextInt(8)) {
+            case 0:
+                return 0;
+            case 1:
+                return -0d;
+            case 2:
+                return Double.NaN;
+            default:
+                return random.nextInt(8) - 2 + (random.nextBoolean() ? 0.5 : 0);
+        }
+    }
+}
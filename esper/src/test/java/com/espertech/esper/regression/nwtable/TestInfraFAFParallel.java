@@ -0,0 +1,113 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.nwtable;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestInfraFAFParallel extends TestCase
+{
+    private EPServiceProvider epService;
+
+    public void setUp()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class.getName());
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    public void tearDown() {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
+    public void testNamedWindow() {
+        epService.getEPAdministrator().createEPL("create window MyWindow.win:keepall() as SupportBean");
+        epService.getEPAdministrator().createEPL("insert into MyWindow select * from SupportBean");
+        for (int i = 0; i < 10000; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E" + i, i % 100));
+        }
+
+        assertSameResult("select theString from MyWindow where intPrimitive = 5 and theString like '%5'");
+        assertSameResult("select theString, intPrimitive from MyWindow where intPrimitive > 90");
+        assertSameResult("select count(*) as cnt, sum(intPrimitive) as thesum from MyWindow where intPrimitive between 10 and 20");
+        assertSameResult("select intPrimitive, count(*) as cnt from MyWindow where intPrimitive < 5 group by intPrimitive order by intPrimitive");
+        assertSameResult("select distinct intPrimitive from MyWindow where intPrimitive < 3 order by intPrimitive");
+
+        EPOnDemandQueryResult result = epService.getEPRuntime().executeQuery("@Hint('parallel_query=4') select count(*) as cnt from MyWindow where intPrimitive = 7");
+        EPAssertionUtil.assertProps(result.getArray()[0], "cnt".split(","), new Object[] {100L});
+    }
+
+    public void testTable() {
+        epService.getEPAdministrator().createEPL("create table MyTable as (theString string primary key, intPrimitive int)");
+        epService.getEPAdministrator().createEPL("on SupportBean as sb merge MyTable as mt where mt.theString = sb.theString when not matched then insert select sb.theString as theString, sb.intPrimitive as intPrimitive");
+        for (int i = 0; i < 5000; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E" + i, i % 10));
+        }
+
+        assertSameResult("select theString from MyTable where intPrimitive = 3 order by theString");
+        assertSameResult("select count(*) as cnt from MyTable where intPrimitive > 4");
+    }
+
+    public void testContextPartitions() {
+        epService.getEPAdministrator().createEPL("create context MyContext partition by intPrimitive from SupportBean");
+        epService.getEPAdministrator().createEPL("context MyContext create window MyWindow.win:keepall() as SupportBean");
+        epService.getEPAdministrator().createEPL("context MyContext insert into MyWindow select * from SupportBean");
+        for (int i = 0; i < 3000; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E" + i, i % 5));
+        }
+
+        assertSameResult("context MyContext select theString from MyWindow where theString like '%7'");
+        assertSameResult("context MyContext select intPrimitive, count(*) as cnt from MyWindow where theString like '%1' group by intPrimitive");
+        assertSameResult("select theString from MyWindow where theString like '%99'");
+    }
+
+    public void testInvalid() {
+        epService.getEPAdministrator().createEPL("create window MyWindow.win:keepall() as SupportBean");
+        epService.getEPAdministrator().createEPL("create table MyTable as (theString string primary key, intPrimitive int)");
+
+        tryInvalid("@Hint('parallel_query=0') select * from MyWindow",
+                "Error executing statement: Hint 'PARALLEL_QUERY' requires a positive number of parts, received '0' [@Hint('parallel_query=0') select * from MyWindow]");
+        tryInvalid("@Hint('parallel_query=2') select * from MyWindow where intPrimitive = MyTable['x'].intPrimitive",
+                "Error executing statement: Hint 'PARALLEL_QUERY' is not supported for queries with table-access expressions or subqueries [@Hint('parallel_query=2') select * from MyWindow where intPrimitive = MyTable['x'].intPrimitive]");
+    }
+
+    private void assertSameResult(String epl) {
+        EPOnDemandQueryResult expected = epService.getEPRuntime().executeQuery(epl);
+        EPOnDemandQueryResult actual = epService.getEPRuntime().executeQuery("@Hint('parallel_query=4') " + epl);
+        assertTrue(expected.getArray().length > 0);
+        assertEquals(expected.getArray().length, actual.getArray().length);
+        String[] fields = expected.getEventType().getPropertyNames();
+        for (int i = 0; i < expected.getArray().length; i++) {
+            Object[] values = new Object[fields.length];
+            for (int j = 0; j < fields.length; j++) {
+                values[j] = expected.getArray()[i].get(fields[j]);
+            }
+            EPAssertionUtil.assertProps(actual.getArray()[i], fields, values);
+        }
+    }
+
+    private void tryInvalid(String epl, String message) {
+        try {
+            epService.getEPRuntime().executeQuery(epl);
+            fail();
+        }
+        catch (EPStatementException ex) {
+            assertEquals(message, ex.getMessage());
+        }
+    }
+}
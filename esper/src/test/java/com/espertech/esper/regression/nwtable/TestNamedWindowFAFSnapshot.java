@@ -0,0 +1,90 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.nwtable;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.bean.SupportBean_A;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestNamedWindowFAFSnapshot extends TestCase
+{
+    private EPServiceProvider epService;
+
+    public void setUp()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        config.addEventType("SupportBean_A", SupportBean_A.class);
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    public void tearDown() {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
+    public void testKeepAll() {
+        runAssertion("create window MyWindow.win:keepall() as SupportBean");
+    }
+
+    public void testTime() {
+        runAssertion("create window MyWindow.win:time(10 sec) as SupportBean");
+    }
+
+    public void testUnsupportedDataWindow() {
+        runAssertion("create window MyWindow.win:length(100) as SupportBean");
+    }
+
+    private void runAssertion(String eplCreate) {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        EPStatement stmtWindow = epService.getEPAdministrator().createEPL(eplCreate);
+        epService.getEPAdministrator().createEPL("insert into MyWindow select * from SupportBean");
+        epService.getEPAdministrator().createEPL("on SupportBean_A delete from MyWindow where theString = id");
+
+        assertSnapshot(stmtWindow);
+        for (int i = 0; i < 10; i++) {
+            epService.getEPRuntime().sendEvent(new CurrentTimeEvent(i * 1000));
+            epService.getEPRuntime().sendEvent(new SupportBean("E" + i, i));
+        }
+        assertSnapshot(stmtWindow);
+
+        epService.getEPRuntime().sendEvent(new SupportBean_A("E3"));
+        epService.getEPRuntime().sendEvent(new SupportBean("E10", 10));
+        assertSnapshot(stmtWindow);
+
+        epService.getEPRuntime().executeQuery("delete from MyWindow where intPrimitive < 2");
+        epService.getEPRuntime().sendEvent(new SupportBean_A("E10"));
+        epService.getEPRuntime().sendEvent(new SupportBean("E11", 11));
+        assertSnapshot(stmtWindow);
+
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(15000));
+        assertSnapshot(stmtWindow);
+
+        // filtered queries see the same contents
+        EPOnDemandQueryResult result = epService.getEPRuntime().executeQuery("select theString from MyWindow where intPrimitive = 11");
+        EPAssertionUtil.assertPropsPerRow(result.getArray(), "theString".split(","), new Object[][] {{"E11"}});
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void assertSnapshot(EPStatement stmtWindow) {
+        EPOnDemandQueryResult result = epService.getEPRuntime().executeQuery("select * from MyWindow");
+        EPAssertionUtil.assertEqualsExactOrderUnderlying(EPAssertionUtil.iteratorToArrayUnderlying(stmtWindow.iterator()), result.getArray());
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.nwtable;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.event.offheap.OffHeapEventBean;
+import com.espertech.esper.event.offheap.OffHeapEventStore;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.bean.SupportBean_S0;
+import com.espertech.esper.support.bean.SupportBean_S1;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestNamedWindowOffHeap extends TestCase
+{
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    public void setUp()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        config.addEventType("SupportBean_S0", SupportBean_S0.class);
+        config.addEventType("SupportBean_S1", SupportBean_S1.class);
+        config.addEventType("OAEvent", "id,value,amount".split(","), new Object[] {String.class, int.class, double.class});
+        Map<String, Object> mapType = new LinkedHashMap<String, Object>();
+        mapType.put("id", String.class);
+        mapType.put("value", int.class);
+        mapType.put("amount", double.class);
+        config.addEventType("MapEvent", mapType);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        listener = new SupportUpdateListener();
+    }
+
+    public void tearDown() {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+    }
+
+    public void testKeepAll()
+    {
+        runAssertionKeepAll("OAEvent");
+        runAssertionKeepAll("MapEvent");
+    }
+
+    private void runAssertionKeepAll(String typeName)
+    {
+        String[] fields = "id,value,amount".split(",");
+        String window = "My" + typeName;
+        EPStatement stmtWindow = epService.getEPAdministrator().createEPL("@Hint('enable_window_offheap_storage') create window " + window + ".win:keepall() as " + typeName);
+        stmtWindow.addListener(listener);
+        epService.getEPAdministrator().createEPL("insert into " + window + " select * from " + typeName);
+        epService.getEPAdministrator().createEPL("on SupportBean_S0 as s0 delete from " + window + " as w where w.id = s0.p00");
+        epService.getEPAdministrator().createEPL("on SupportBean_S1 as s1 update " + window + " as w set value = s1.id where w.id = s1.p10");
+        epService.getEPAdministrator().createEPL("create index MyIndex on " + window + "(value)");
+        EPStatement stmtSubquery = epService.getEPAdministrator().createEPL("select (select value from " + window + " as w where w.id = sb.theString) as v from SupportBean as sb");
+        SupportUpdateListener listenerSubquery = new SupportUpdateListener();
+        stmtSubquery.addListener(listenerSubquery);
+
+        sendEvent(typeName, "E1", 10, 1.5);
+        sendEvent(typeName, "E2", 20, 2.5);
+        listener.reset();
+        sendEvent(typeName, "E3", 30, 3.5);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {"E3", 30, 3.5});
+        EPAssertionUtil.assertPropsPerRowAnyOrder(stmtWindow.iterator(), fields, new Object[][] {{"E1", 10, 1.5}, {"E2", 20, 2.5}, {"E3", 30, 3.5}});
+        assertOffHeap(window, stmtWindow, 3);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 0));
+        assertEquals(20, listenerSubquery.assertOneGetNewAndReset().get("v"));
+
+        // delete: remove stream values remain available after the memory is freed
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1, "E2"));
+        EventBean deleted = listener.assertOneGetOldAndReset();
+        EPAssertionUtil.assertProps(deleted, fields, new Object[] {"E2", 20, 2.5});
+        assertTrue(((OffHeapEventBean) deleted).isReleased());
+        EPAssertionUtil.assertPropsPerRowAnyOrder(stmtWindow.iterator(), fields, new Object[][] {{"E1", 10, 1.5}, {"E3", 30, 3.5}});
+        assertOffHeap(window, stmtWindow, 2);
+
+        // update
+        epService.getEPRuntime().sendEvent(new SupportBean_S1(99, "E3"));
+        EPAssertionUtil.assertProps(listener.getLastNewData()[0], fields, new Object[] {"E3", 99, 3.5});
+        EPAssertionUtil.assertProps(listener.getLastOldData()[0], fields, new Object[] {"E3", 30, 3.5});
+        listener.reset();
+        EPAssertionUtil.assertPropsPerRowAnyOrder(stmtWindow.iterator(), fields, new Object[][] {{"E1", 10, 1.5}, {"E3", 99, 3.5}});
+        assertOffHeap(window, stmtWindow, 2);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E3", 0));
+        assertEquals(99, listenerSubquery.assertOneGetNewAndReset().get("v"));
+
+        // fire-and-forget
+        EPOnDemandQueryResult result = epService.getEPRuntime().executeQuery("select * from " + window + " where id = 'E1'");
+        EPAssertionUtil.assertPropsPerRow(result.getArray(), fields, new Object[][] {{"E1", 10, 1.5}});
+        epService.getEPRuntime().executeQuery("insert into " + window + " select 'E4' as id, 40 as value, 4.5 as amount");
+        EPAssertionUtil.assertPropsPerRowAnyOrder(stmtWindow.iterator(), fields, new Object[][] {{"E1", 10, 1.5}, {"E3", 99, 3.5}, {"E4", 40, 4.5}});
+        assertOffHeap(window, stmtWindow, 3);
+
+        epService.getEPAdministrator().destroyAllStatements();
+        listener.reset();
+    }
+
+    public void testUniqueRandom()
+    {
+        runAssertionUniqueRandom("OAEvent");
+        runAssertionUniqueRandom("MapEvent");
+    }
+
+    private void runAssertionUniqueRandom(String typeName)
+    {
+        String[] fields = "id,value,amount".split(",");
+        String windowOffHeap = "My" + typeName;
+        String windowPlain = "MyPlain" + typeName;
+        EPStatement stmtWindow = epService.getEPAdministrator().createEPL("@Hint('enable_window_offheap_storage') create window " + windowOffHeap + ".std:unique(id) as " + typeName);
+        EPStatement stmtPlain = epService.getEPAdministrator().createEPL("create window " + windowPlain + ".std:unique(id) as " + typeName);
+        for (String window : new String[] {windowOffHeap, windowPlain}) {
+            epService.getEPAdministrator().createEPL("insert into " + window + " select * from " + typeName);
+            epService.getEPAdministrator().createEPL("on SupportBean_S0 as s0 delete from " + window + " as w where w.value = s0.id");
+            epService.getEPAdministrator().createEPL("on SupportBean_S1 as s1 update " + window + " as w set amount = amount + 1 where w.id = s1.p10");
+        }
+
+        Random random = new Random(0);
+        for (int i = 0; i < 2000; i++) {
+            int choice = random.nextInt(10);
+            if (choice < 6) {
+                sendEvent(typeName, "E" + random.nextInt(100), random.nextInt(20), random.nextDouble());
+            }
+            else if (choice < 8) {
+                epService.getEPRuntime().sendEvent(new SupportBean_S0(random.nextInt(20)));
+            }
+            else {
+                epService.getEPRuntime().sendEvent(new SupportBean_S1(0, "E" + random.nextInt(100)));
+            }
+        }
+
+        Object[][] expected = toRows(stmtPlain, fields);
+        EPAssertionUtil.assertPropsPerRowAnyOrder(stmtWindow.iterator(), fields, expected);
+        assertOffHeap(windowOffHeap, stmtWindow, expected.length);
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    public void testInvalid()
+    {
+        epService.getEPAdministrator().createEPL("create schema BeanEvent as " + SupportBean.class.getName());
+        tryInvalid("@Hint('enable_window_offheap_storage') create window MyWindowOne.win:keepall() as BeanEvent",
+                "Error starting statement: Off-heap storage requires a named window holding object-array or map events [@Hint('enable_window_offheap_storage') create window MyWindowOne.win:keepall() as BeanEvent]");
+        tryInvalid("@Hint('enable_window_offheap_storage') create window MyWindowTwo.std:firstunique(id) as OAEvent",
+                "Error starting statement: Off-heap storage requires a single keep-all, unique, length, time, length-batch, time-batch, externally-timed or last-event data window [@Hint('enable_window_offheap_storage') create window MyWindowTwo.std:firstunique(id) as OAEvent]");
+    }
+
+    private void tryInvalid(String epl, String message)
+    {
+        try {
+            epService.getEPAdministrator().createEPL(epl);
+            fail();
+        }
+        catch (EPStatementException ex) {
+            assertEquals(message, ex.getMessage());
+        }
+    }
+
+    private void assertOffHeap(String window, EPStatement stmtWindow, int numEvents)
+    {
+        OffHeapEventStore store = ((EPServiceProviderSPI) epService).getNamedWindowMgmtService().getProcessor(window).getProcessorInstanceNoContext().getRootViewInstance().getOffHeapEventStore();
+        assertEquals(numEvents, store.getNumEvents());
+        for (Iterator<EventBean> it = stmtWindow.iterator(); it.hasNext();) {
+            EventBean theEvent = it.next();
+            assertTrue(theEvent instanceof OffHeapEventBean);
+            assertFalse(((OffHeapEventBean) theEvent).isReleased());
+        }
+    }
+
+    private Object[][] toRows(EPStatement stmt, String[] fields)
+    {
+        List<Object[]> rows = new ArrayList<Object[]>();
+        for (Iterator<EventBean> it = stmt.iterator(); it.hasNext();) {
+            EventBean theEvent = it.next();
+            Object[] row = new Object[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                row[i] = theEvent.get(fields[i]);
+            }
+            rows.add(row);
+        }
+        return rows.toArray(new Object[rows.size()][]);
+    }
+
+    private void sendEvent(String typeName, String id, int value, double amount)
+    {
+        if (typeName.equals("OAEvent")) {
+            epService.getEPRuntime().sendEvent(new Object[] {id, value, amount}, typeName);
+        }
+        else {
+            Map<String, Object> theEvent = new HashMap<String, Object>();
+            theEvent.put("id", id);
+            theEvent.put("value", value);
+            theEvent.put("amount", amount);
+            epService.getEPRuntime().sendEvent(theEvent, typeName);
+        }
+    }
+}
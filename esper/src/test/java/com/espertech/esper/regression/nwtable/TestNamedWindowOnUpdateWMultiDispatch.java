@@ -28,6 +28,7 @@ public class TestNamedWindowOnUpdateWMultiDispatch extends TestCase
         runAssertion(true, null, null);
         runAssertion(false, true, ConfigurationEngineDefaults.Threading.Locking.SPIN);
         runAssertion(false, true, ConfigurationEngineDefaults.Threading.Locking.SUSPEND);
+        runAssertion(false, true, ConfigurationEngineDefaults.Threading.Locking.REORDER);
         runAssertion(false, false, null);
     }
 
@@ -0,0 +1,152 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.nwtable;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.epl.table.mgmt.TableStateInstance;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.bean.SupportBean_S0;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import com.espertech.esper.support.util.SupportMessageAssertUtil;
+import junit.framework.TestCase;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class TestTableMTGroupedIntoTableWriteRowLocking extends TestCase
+{
+    private static TableStateInstance lockedTable;
+
+    private EPServiceProvider epService;
+
+    public void setUp()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        config.addEventType("SupportBean_S0", SupportBean_S0.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+    }
+
+    /**
+     * Multiple writers aggregate into a shared table that locks rows individually.
+     * Writer utilize a hash partition context.
+     * After all writers are done validate the space.
+     */
+    public void testMT() throws Exception
+    {
+        String eplDeclare =
+                "@Hint('table_lock_stripes=16') create table varTotal (key string primary key, total sum(int));\n" +
+                "create context ByStringHash\n" +
+                "  coalesce by consistent_hash_crc32(theString) from SupportBean granularity 16 preallocate\n;" +
+                "context ByStringHash into table varTotal select theString, sum(intPrimitive) as total from SupportBean group by theString;\n";
+        String eplAssert = "select varTotal[p00].total as c0 from SupportBean_S0";
+
+        TestTableMTGroupedWContextIntoTableWriteAsSharedTable.runAndAssert(epService, eplDeclare, eplAssert, 8, 1000, 64);
+    }
+
+    public void testSubqueryOwnTable() {
+        epService.getEPAdministrator().createEPL("@Hint('table_lock_stripes=4') create table varTotal (key string primary key, total sum(int))");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("into table varTotal select theString, sum(intPrimitive) as total from SupportBean " +
+                "where (select count(*) from varTotal) < 2 group by theString");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), "theString,total".split(","), new Object[] {"E1", 10});
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 20));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), "theString,total".split(","), new Object[] {"E2", 20});
+        epService.getEPRuntime().sendEvent(new SupportBean("E3", 30));
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 40));
+        assertFalse(listener.isInvoked());
+
+        EPOnDemandQueryResult result = epService.getEPRuntime().executeQuery("select key, total from varTotal order by key");
+        EPAssertionUtil.assertPropsPerRow(result.getArray(), "key,total".split(","), new Object[][] {{"E1", 10}, {"E2", 20}});
+    }
+
+    public void testReadersLockRows() {
+        epService.getEPAdministrator().getConfiguration().addPlugInSingleRowFunction("rowLocksHeld", this.getClass().getName(), "rowLocksHeld");
+        epService.getEPAdministrator().createEPL("@Hint('table_lock_stripes=4') create table varTotal (key string primary key, total sum(int))");
+        epService.getEPAdministrator().createEPL("into table varTotal select sum(intPrimitive) as total from SupportBean group by theString");
+        for (int i = 0; i < 8; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E" + i, i));
+        }
+        lockedTable = ((EPServiceProviderSPI) epService).getServicesContext().getTableService().getState("varTotal", -1);
+
+        // keyed subquery locks the row of its key, full scan subquery locks all rows
+        assertReadLocks("select (select total from varTotal where key = s0.p00) as c0, rowLocksHeld() as c1 from SupportBean_S0 as s0", 3, 1);
+        assertReadLocks("select (select sum(total) from varTotal) as c0, rowLocksHeld() as c1 from SupportBean_S0", 28, 4);
+
+        // join and on-select lock all rows
+        assertReadLocks("select total as c0, rowLocksHeld() as c1 from SupportBean_S0 unidirectional, varTotal where key = p00", 3, 4);
+        assertReadLocks("on SupportBean_S0 select total as c0, rowLocksHeld() as c1 from varTotal where key = p00", 3, 4);
+
+        // fire-and-forget locks all rows
+        EPOnDemandQueryResult result = epService.getEPRuntime().executeQuery("select total as c0, rowLocksHeld() as c1 from varTotal where key = 'E3'");
+        EPAssertionUtil.assertPropsPerRow(result.getArray(), "c0,c1".split(","), new Object[][] {{3, 4}});
+        assertNoRowLocks();
+
+        // iterator locks the row being read
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select total as c0, rowLocksHeld() as c1 from varTotal where key = 'E3'");
+        EPAssertionUtil.assertPropsPerRow(stmt.iterator(), "c0,c1".split(","), new Object[][] {{3, 1}});
+        assertNoRowLocks();
+    }
+
+    private void assertReadLocks(String epl, Object expectedValue, int expectedLocksHeld) {
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1, "E3"));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), "c0,c1".split(","), new Object[] {expectedValue, expectedLocksHeld});
+        assertNoRowLocks();
+        stmt.destroy();
+    }
+
+    private void assertNoRowLocks() {
+        for (Lock rowLock : lockedTable.getRowLocks()) {
+            assertFalse(((ReentrantLock) rowLock).isLocked());
+        }
+    }
+
+    public static int rowLocksHeld() {
+        int count = 0;
+        for (Lock rowLock : lockedTable.getRowLocks()) {
+            if (((ReentrantLock) rowLock).isHeldByCurrentThread()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void testInvalid() {
+        SupportMessageAssertUtil.tryInvalid(epService, "@Hint('table_lock_stripes=0') create table varTotal (key string primary key, total sum(int))",
+                "Error starting statement: Hint 'TABLE_LOCK_STRIPES' requires a positive number of lock stripes, received '0' [");
+        SupportMessageAssertUtil.tryInvalid(epService, "@Hint('table_lock_stripes=4') create table varTotal (total sum(int))",
+                "Error starting statement: Hint 'TABLE_LOCK_STRIPES' requires a table with primary key columns [");
+
+        epService.getEPAdministrator().createEPL("@Hint('table_lock_stripes=4') create table varTotal (key string primary key, total sum(int), intPrimitive int)");
+        SupportMessageAssertUtil.tryInvalid(epService, "create index MyIndex on varTotal(intPrimitive)",
+                "Error starting statement: Table 'varTotal' uses row-level locking and does not allow secondary indexes [");
+
+        epService.getEPAdministrator().createEPL("into table varTotal select sum(intPrimitive) as total from SupportBean group by theString");
+        try {
+            epService.getEPRuntime().sendEvent(new SupportBean(null, 1));
+            fail();
+        }
+        catch (EPException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().contains("Table 'varTotal' uses row-level locking and does not allow a null primary key value"));
+        }
+    }
+}
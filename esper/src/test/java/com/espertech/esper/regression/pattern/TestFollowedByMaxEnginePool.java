@@ -21,7 +21,10 @@ import com.espertech.esper.client.hook.ConditionPatternEngineSubexpressionMax;
 import com.espertech.esper.client.hook.ConditionPatternSubexpressionMax;
 import com.espertech.esper.client.scopetest.EPAssertionUtil;
 import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.core.service.EPStatementSPI;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.pattern.EvalStateNodeCountVisitor;
+import com.espertech.esper.pattern.pool.PatternSubexpressionPoolStmtSvc;
 import com.espertech.esper.support.bean.SupportBean;
 import com.espertech.esper.support.bean.SupportBeanConstants;
 import com.espertech.esper.support.bean.SupportBean_A;
@@ -137,6 +140,37 @@ public class TestFollowedByMaxEnginePool extends TestCase implements SupportBean
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
     }
 
+    public void testStateNodeCounts()
+    {
+        initService(100, false);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+
+        EPStatement stmtOne = epService.getEPAdministrator().createEPL("@Name('S1') select * from pattern [every a=SupportBean(theString like 'A%') -> b=SupportBean_A(id=a.theString)]");
+        EPStatement stmtTwo = epService.getEPAdministrator().createEPL("@Name('S2') select * from pattern [every-distinct(a.intPrimitive) a=SupportBean(theString like 'D%')]");
+        PatternSubexpressionPoolStmtSvc poolOne = ((EPStatementSPI) stmtOne).getStatementContext().getPatternSubexpressionPoolSvc();
+        PatternSubexpressionPoolStmtSvc poolTwo = ((EPStatementSPI) stmtTwo).getStatementContext().getPatternSubexpressionPoolSvc();
+        assertCounts(poolOne, 0, 3, 0);
+        assertCounts(poolTwo, 0, 2, 0);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("A1", 0));
+        epService.getEPRuntime().sendEvent(new SupportBean("A2", 0));
+        epService.getEPRuntime().sendEvent(new SupportBean("D1", 1));
+        epService.getEPRuntime().sendEvent(new SupportBean("D2", 2));
+        epService.getEPRuntime().sendEvent(new SupportBean("D3", 1));
+        assertCounts(poolOne, 2, 5, 0);
+        assertCounts(poolTwo, 0, 2, 2);
+        assertEquals(2, poolOne.getEngineSubexpressionCount());
+
+        epService.getEPRuntime().sendEvent(new SupportBean_A("A1"));
+        assertCounts(poolOne, 1, 4, 0);
+
+        stmtOne.stop();
+        assertCounts(poolOne, 0, 0, 0);
+        assertEquals(0, poolTwo.getEngineSubexpressionCount());
+
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
     public void testSingleNoOperatorMax()
     {
         if (SupportConfigFactory.skipTest(TestFollowedByMaxEnginePool.class)) {
@@ -252,6 +286,13 @@ public class TestFollowedByMaxEnginePool extends TestCase implements SupportBean
         handler = SupportConditionHandlerFactory.getLastHandler();
     }
 
+    private static void assertCounts(PatternSubexpressionPoolStmtSvc pool, int subexpressions, int stateNodes, int distinctKeys) {
+        assertEquals(subexpressions, pool.getSubexpressionCount());
+        EvalStateNodeCountVisitor counts = pool.getStateNodeCounts();
+        assertEquals(stateNodes, counts.getStateNodeCount());
+        assertEquals(distinctKeys, counts.getDistinctKeyCount());
+    }
+
     private static Map<String, Long> getExpectedCountMap(String statementName, long count) {
         Map<String, Long> result = new HashMap<String, Long>();
         result.put(statementName, count);
@@ -23,6 +23,8 @@ import junit.framework.TestCase;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.util.Random;
+
 public class TestGroupByEventPerGroup extends TestCase
 {
     private static String SYMBOL_DELL = "DELL";
@@ -495,6 +497,105 @@ public class TestGroupByEventPerGroup extends TestCase
         runAssertion(selectTestView);
     }
 
+    public void testSumPrimitiveDouble()
+    {
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean.class);
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean_S0.class);
+        String[] fields = "c0,c1,c2,c4".split(",");
+        String epl = "select theString as c0, " +
+                "sum(doublePrimitive * intPrimitive) as c1, " +
+                "avg(longPrimitive) as c2, " +
+                "stddev(doublePrimitive + 1) as c3, " +
+                "sum(doubleBoxed * intBoxed) as c4 " +
+                "from SupportBean.win:length(3) group by theString";
+        epService.getEPAdministrator().createEPL(epl).addListener(listener);
+
+        sendEvent("E1", 10, 2.5, 100);
+        EventBean theEvent = listener.assertOneGetNewAndReset();
+        EPAssertionUtil.assertProps(theEvent, fields, new Object[] {"E1", 25d, 100d, 25d});
+        assertNull(theEvent.get("c3"));
+
+        sendEvent("E1", 20, 1.5, 200);
+        theEvent = listener.assertOneGetNewAndReset();
+        EPAssertionUtil.assertProps(theEvent, fields, new Object[] {"E1", 55d, 150d, 55d});
+        assertEquals(Math.sqrt(0.5), (Double) theEvent.get("c3"), 1e-9);
+
+        sendEvent("E2", 5, 4, 300);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {"E2", 20d, 300d, 20d});
+
+        sendEvent("E1", 1, 1, 50);
+        theEvent = listener.assertOneGetNewAndReset();
+        EPAssertionUtil.assertProps(theEvent, fields, new Object[] {"E1", 31d, 125d, 31d});
+        assertEquals(Math.sqrt(0.125), (Double) theEvent.get("c3"), 1e-9);
+
+        // outer join rows may not provide an event for the aggregated stream
+        epService.getEPAdministrator().destroyAllStatements();
+        epl = "select sum(sb.doublePrimitive * 2) as c0, avg(sb.intPrimitive) as c1 " +
+                "from SupportBean_S0.win:keepall() as s0 left outer join SupportBean.win:keepall() as sb on s0.p00 = sb.theString";
+        epService.getEPAdministrator().createEPL(epl).addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1, "E1"));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), "c0,c1".split(","), new Object[] {null, null});
+    }
+
+    public void testColumnarAggregation()
+    {
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean.class);
+        String[] fields = "c0,c1,c2,c3,c4,c5,c6,c7".split(",");
+        String select = "select irstream theString as c0, sum(doublePrimitive) as c1, sum(longPrimitive) as c2, sum(intPrimitive) as c3, " +
+                "avg(intBoxed) as c4, stddev(doublePrimitive * intPrimitive) as c5, count(*) as c6, count(intBoxed) as c7 " +
+                "from SupportBean.win:length(10) group by theString";
+
+        for (String hint : new String[] {"", "disable_reclaim_group"}) {
+            SupportUpdateListener listenerColumnar = new SupportUpdateListener();
+            epService.getEPAdministrator().createEPL(hint.length() == 0 ? select : "@Hint('" + hint + "') " + select).addListener(listener);
+            String hintColumnar = hint.length() == 0 ? "enable_columnar_aggregation" : hint + ",enable_columnar_aggregation";
+            epService.getEPAdministrator().createEPL("@Hint('" + hintColumnar + "') " + select).addListener(listenerColumnar);
+
+            Random random = new Random(1);
+            for (int i = 0; i < 500; i++) {
+                SupportBean bean = new SupportBean("E" + random.nextInt(30), random.nextInt(100) - 50);
+                bean.setDoublePrimitive(random.nextDouble() * 100);
+                bean.setLongPrimitive(random.nextInt(1000));
+                bean.setIntBoxed(random.nextBoolean() ? null : random.nextInt(10));
+                epService.getEPRuntime().sendEvent(bean);
+
+                EPAssertionUtil.assertPropsPerRow(listenerColumnar.getLastNewData(), fields, toRows(listener.getLastNewData(), fields));
+                EPAssertionUtil.assertPropsPerRow(listenerColumnar.getLastOldData(), fields, toRows(listener.getLastOldData(), fields));
+                listener.reset();
+                listenerColumnar.reset();
+            }
+            epService.getEPAdministrator().destroyAllStatements();
+        }
+    }
+
+    public void testSumPrimitiveLongMinMaxFiltered()
+    {
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean.class);
+        String[] fields = "c0,c1,c2,c3,c4,c5".split(",");
+        String epl = "select theString as c0, " +
+                "sum(longPrimitive * intPrimitive) as c1, " +
+                "min(longPrimitive) as c2, " +
+                "max(doublePrimitive) as c3, " +
+                "sum(longPrimitive, intPrimitive > 5) as c4, " +
+                "avg(doublePrimitive, intPrimitive > 5) as c5 " +
+                "from SupportBean.win:length(3) group by theString";
+        epService.getEPAdministrator().createEPL(epl).addListener(listener);
+
+        sendEvent("E1", 10, 2.5, 100);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {"E1", 1000L, 100L, 2.5d, 100L, 2.5d});
+
+        sendEvent("E1", 2, 1.5, 200);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {"E1", 1400L, 100L, 2.5d, 100L, 2.5d});
+
+        sendEvent("E2", 5, 4, 300);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {"E2", 1500L, 300L, 4d, null, null});
+
+        // the first event leaves the window
+        sendEvent("E1", 6, 3.5, 50);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {"E1", 700L, 50L, 3.5d, 50L, 3.5d});
+    }
+
     public void testUniqueInBatch()
     {
         String stmtOne = "insert into MyStream select symbol, price from " +
@@ -634,6 +735,31 @@ public class TestGroupByEventPerGroup extends TestCase
 	    epService.getEPRuntime().sendEvent(bean);
 	}
 
+    private void sendEvent(String theString, int intPrimitive, double doublePrimitive, long longPrimitive)
+    {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setIntBoxed(intPrimitive);
+        bean.setDoublePrimitive(doublePrimitive);
+        bean.setDoubleBoxed(doublePrimitive);
+        bean.setLongPrimitive(longPrimitive);
+        epService.getEPRuntime().sendEvent(bean);
+    }
+
+    private static Object[][] toRows(EventBean[] events, String[] fields)
+    {
+        if (events == null) {
+            return null;
+        }
+        Object[][] rows = new Object[events.length][];
+        for (int i = 0; i < events.length; i++) {
+            rows[i] = new Object[fields.length];
+            for (int j = 0; j < fields.length; j++) {
+                rows[i][j] = events[i].get(fields[j]);
+            }
+        }
+        return rows;
+    }
+
     private void sendTimer(long timeInMSec)
     {
         CurrentTimeEvent theEvent = new CurrentTimeEvent(timeInMSec);
@@ -0,0 +1,132 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.rowrecog;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+/**
+ * Branches of a match that split after capturing events into the same multi-match variable share the event buffer,
+ * each branch must still see only the events it captured.
+ */
+public class TestRowPatternRecognitionSharedBuffer extends TestCase {
+
+    private EPServiceProvider epService;
+
+    public void setUp()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("MyEvent", SupportRecogBean.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
+    public void testZeroToMany()
+    {
+        String[][] expected = new String[][] {
+                {"E1,E2,E3", null, "E4"}, {"E1,E2", "E3", "E4"}, {"E1", "E2,E3", "E4"},
+                {"E2,E3", null, "E4"}, {"E2", "E3", "E4"}, {null, "E2,E3", "E4"},
+                {"E3", null, "E4"}, {null, "E3", "E4"}, {null, null, "E4"}};
+        runAssertion("A* B* C", true, new int[] {1, 2, 2, 9}, expected);
+        runAssertion("A*? B* C", true, new int[] {1, 2, 2, 9}, expected);
+
+        // a shared buffer grows beyond its initial size
+        runAssertion("A* B* C", false, new int[] {1, 1, 1, 1, 1, 2, 2, 9}, new String[][] {{"E1,E2,E3,E4,E5", "E6,E7", "E8"}});
+        runAssertion("A*? B* C", false, new int[] {1, 1, 1, 1, 1, 9}, new String[][] {{"E1,E2,E3,E4,E5", null, "E6"}});
+    }
+
+    public void testOneToMany()
+    {
+        String[][] expected = new String[][] {{"E1,E2", "E3", "E4"}, {"E1", "E2,E3", "E4"}, {"E2", "E3", "E4"}};
+        runAssertion("A+ B+ C", true, new int[] {1, 2, 2, 9}, expected);
+        runAssertion("A+? B+ C", true, new int[] {1, 2, 2, 9}, expected);
+        runAssertion("A+? B+? C", false, new int[] {1, 2, 2, 9}, new String[][] {{"E1,E2", "E3", "E4"}});
+    }
+
+    public void testZeroToOne()
+    {
+        String[][] expected = new String[][] {
+                {"E1", "E2,E3", "E4"}, {"E2", "E3", "E4"}, {null, "E2,E3", "E4"},
+                {"E3", null, "E4"}, {null, "E3", "E4"}, {null, null, "E4"}};
+        runAssertion("A? B* C", true, new int[] {1, 2, 2, 9}, expected);
+        runAssertion("A?? B* C", true, new int[] {1, 2, 2, 9}, expected);
+        runAssertion("A?? B*? C", false, new int[] {1, 2, 2, 9}, new String[][] {{"E1", "E2,E3", "E4"}});
+    }
+
+    public void testBranchesAppendToSameVariable()
+    {
+        // after E2 the branches that captured E2 into A and into B both append E3 to A
+        runAssertion("(A | B)* C", true, new int[] {1, 2, 2, 9}, new String[][] {
+                {"E1,E2,E3", null, "E4"}, {"E1,E2", "E3", "E4"}, {"E1,E3", "E2", "E4"}, {"E1", "E2,E3", "E4"},
+                {"E2,E3", null, "E4"}, {"E2", "E3", "E4"}, {"E3", "E2", "E4"}, {null, "E2,E3", "E4"},
+                {"E3", null, "E4"}, {null, "E3", "E4"}, {null, null, "E4"}});
+        runAssertion("A+ B? A* C", false, new int[] {1, 2, 2, 9}, new String[][] {{"E1,E3", "E2", "E4"}});
+    }
+
+    private void runAssertion(String pattern, boolean allMatches, int[] values, String[][] expected)
+    {
+        String text = "select * from MyEvent " +
+                "match_recognize (" +
+                "  measures A as a, B as b, C as c " +
+                (allMatches ? "  all matches " : "") +
+                "  pattern (" + pattern + ") " +
+                "  define " +
+                "   A as A.value <= 2," +
+                "   B as B.value >= 2," +
+                "   C as C.value = 9" +
+                ")";
+        epService.getEPAdministrator().destroyAllStatements();
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL(text).addListener(listener);
+
+        for (int i = 0; i < values.length; i++) {
+            epService.getEPRuntime().sendEvent(new SupportRecogBean("E" + (i + 1), values[i]));
+        }
+
+        EventBean[] received = listener.getNewDataListFlattened();
+        assertEquals(pattern, expected.length, received.length);
+        for (int i = 0; i < expected.length; i++) {
+            String[] actual = new String[] {toText(received[i].get("a")), toText(received[i].get("b")), toText(received[i].get("c"))};
+            for (int j = 0; j < actual.length; j++) {
+                assertEquals(pattern + " row " + i, expected[i][j], actual[j]);
+            }
+        }
+    }
+
+    private static String toText(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof SupportRecogBean) {
+            return ((SupportRecogBean) value).getTheString();
+        }
+        Object[] events = (Object[]) value;
+        StringBuilder builder = new StringBuilder();
+        String delimiter = "";
+        for (Object theEvent : events) {
+            builder.append(delimiter).append(((SupportRecogBean) theEvent).getTheString());
+            delimiter = ",";
+        }
+        return builder.toString();
+    }
+}
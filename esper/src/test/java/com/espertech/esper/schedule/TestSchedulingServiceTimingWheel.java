@@ -0,0 +1,228 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.support.schedule.SupportScheduleCallback;
+import com.espertech.esper.timer.TimeSourceServiceImpl;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestSchedulingServiceTimingWheel extends TestCase
+{
+    private SchedulingServiceTimingWheel service;
+    private long slots[][];
+    private SupportScheduleCallback callbacks[];
+
+    public void setUp()
+    {
+        service = new SchedulingServiceTimingWheel(new TimeSourceServiceImpl());
+        SchedulingMgmtServiceImpl mgmtService = new SchedulingMgmtServiceImpl();
+
+        slots = new long[3][2];
+        for (int i = 0; i < slots.length; i++)
+        {
+            ScheduleBucket bucket = mgmtService.allocateBucket();
+            for (int j = 0; j < slots[i].length; j++)
+            {
+                slots[i][j] = bucket.allocateSlot();
+            }
+        }
+
+        callbacks = new SupportScheduleCallback[5];
+        for (int i= 0; i < callbacks.length; i++)
+        {
+            callbacks[i] = new SupportScheduleCallback();
+        }
+        SupportScheduleCallback.setCallbackOrderNum(0);
+    }
+
+    public void testTrigger()
+    {
+        service.setTime(0);
+
+        service.add(20, callbacks[3], slots[1][1]);
+        service.add(20, callbacks[2], slots[1][0]);
+        service.add(20, callbacks[1], slots[0][1]);
+        service.add(21, callbacks[0], slots[0][0]);
+        assertTrue(service.isScheduled(callbacks[3]));
+        assertEquals(4, service.getScheduleHandleCount());
+        assertEquals(20L, (long) service.getNearestTimeHandle());
+        assertEquals(21L, (long) service.getFurthestTimeHandle());
+
+        service.setTime(19);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {0, 0, 0, 0, 0});
+
+        service.setTime(20);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {0, 1, 2, 3, 0});
+        assertFalse(service.isScheduled(callbacks[3]));
+
+        service.setTime(21);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {4, 0, 0, 0, 0});
+        assertEquals(0, service.getScheduleHandleCount());
+        assertNull(service.getNearestTimeHandle());
+
+        // re-adding replaces the earlier schedule
+        service.add(20, callbacks[0], slots[0][0]);
+        service.add(28, callbacks[0], slots[0][0]);
+        service.add(25, callbacks[1], slots[0][1]);
+        service.remove(callbacks[1], slots[0][1]);
+        service.remove(callbacks[1], slots[0][1]);
+        assertEquals(1, service.getScheduleHandleCount());
+
+        service.setTime(48);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {0, 0, 0, 0, 0});
+
+        service.setTime(49);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {5, 0, 0, 0, 0});
+    }
+
+    public void testOrderAcrossLevels()
+    {
+        service.setTime(1000);
+
+        // triggers at different levels of the wheel all due at the same evaluation
+        service.add(100000000, callbacks[4], slots[0][0]);
+        service.add(70000, callbacks[3], slots[2][1]);
+        service.add(300, callbacks[2], slots[2][0]);
+        service.add(300, callbacks[1], slots[1][0]);
+        service.add(0, callbacks[0], slots[0][1]);
+
+        service.setTime(1000 + 200000000);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {1, 2, 3, 4, 5});
+    }
+
+    public void testTimeBackwards()
+    {
+        service.setTime(10000);
+        service.add(500, callbacks[0], slots[0][0]);
+
+        service.setTime(5000);
+        service.add(100, callbacks[1], slots[0][1]);
+
+        service.setTime(5100);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {0, 1, 0, 0, 0});
+
+        service.setTime(10499);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {0, 0, 0, 0, 0});
+
+        service.setTime(10500);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {2, 0, 0, 0, 0});
+    }
+
+    public void testTakeApply()
+    {
+        service.setTime(0);
+        service.add(100, callbacks[0], slots[0][0]);
+        service.add(200, callbacks[1], slots[0][1]);
+
+        ScheduleSet set = service.take(Collections.singleton(1));
+        assertEquals(2, set.getList().size());
+        assertEquals(0, service.getScheduleHandleCount());
+
+        service.setTime(50);
+        service.apply(set);
+        assertEquals(150L, (long) service.getNearestTimeHandle());
+        assertEquals(250L, (long) service.getFurthestTimeHandle());
+
+        final List<Long> visited = new ArrayList<Long>();
+        service.visitSchedules(new ScheduleVisitor() {
+            public void visit(ScheduleVisit visit) {
+                visited.add(visit.getTimestamp());
+            }
+        });
+        assertEquals(Arrays.asList(150L, 250L), visited);
+    }
+
+    public void testCompareSortedRandom()
+    {
+        Random random = new Random(1);
+        long startTime = -1000000;
+        SchedulingServiceImpl sorted = new SchedulingServiceImpl(new TimeSourceServiceImpl());
+        sorted.setTime(startTime);
+        service.setTime(startTime);
+
+        SchedulingMgmtServiceImpl mgmtService = new SchedulingMgmtServiceImpl();
+        List<ScheduleHandle> handles = new ArrayList<ScheduleHandle>();
+        List<Long> handleSlots = new ArrayList<Long>();
+        for (int i = 0; i < 500; i++) {
+            handles.add(new SupportScheduleCallback());
+            handleSlots.add(mgmtService.allocateBucket().allocateSlot());
+        }
+
+        long time = startTime;
+        for (int step = 0; step < 5000; step++) {
+            int choice = random.nextInt(10);
+            if (choice < 5) {
+                int index = random.nextInt(handles.size());
+                long after = nextDelta(random);
+                sorted.add(after, handles.get(index), handleSlots.get(index));
+                service.add(after, handles.get(index), handleSlots.get(index));
+            }
+            else if (choice < 7) {
+                int index = random.nextInt(handles.size());
+                sorted.remove(handles.get(index), handleSlots.get(index));
+                service.remove(handles.get(index), handleSlots.get(index));
+            }
+            else {
+                time += random.nextInt(20) == 0 ? -nextDelta(random) : nextDelta(random);
+                sorted.setTime(time);
+                service.setTime(time);
+                List<ScheduleHandle> expected = new ArrayList<ScheduleHandle>();
+                List<ScheduleHandle> received = new ArrayList<ScheduleHandle>();
+                sorted.evaluate(expected);
+                service.evaluate(received);
+                assertEquals(expected, received);
+            }
+            assertEquals(sorted.getScheduleHandleCount(), service.getScheduleHandleCount());
+            assertEquals(sorted.getNearestTimeHandle(), service.getNearestTimeHandle());
+        }
+    }
+
+    private long nextDelta(Random random) {
+        switch (random.nextInt(4)) {
+            case 0: return random.nextInt(3);
+            case 1: return random.nextInt(1000);
+            case 2: return random.nextInt(100000);
+            default: return random.nextInt(Integer.MAX_VALUE);
+        }
+    }
+
+    private void checkCallbacks(Integer[] results)
+    {
+        for (int i = 0; i < callbacks.length; i++)
+        {
+            assertEquals((int) results[i], (int) callbacks[i].clearAndGetOrderTriggered());
+        }
+    }
+
+    private void evaluateSchedule()
+    {
+        Collection<ScheduleHandle> handles = new LinkedList<ScheduleHandle>();
+        service.evaluate(handles);
+
+        for (ScheduleHandle handle : handles)
+        {
+            ScheduleHandleCallback cb = (ScheduleHandleCallback) handle;
+            cb.scheduledTrigger(null);
+        }
+    }
+}
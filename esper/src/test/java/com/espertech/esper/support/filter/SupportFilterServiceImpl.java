@@ -49,6 +49,23 @@ public class SupportFilterServiceImpl implements FilterService
         removed.add(callback);
     }
 
+    public FilterServiceEntry[] removeAddBulk(FilterHandle[] removeCallbacks, FilterServiceEntry[] removeEntries, FilterValueSet[] addValueSets, FilterHandle[] addCallbacks)
+    {
+        if (removeCallbacks != null) {
+            for (int i = 0; i < removeCallbacks.length; i++) {
+                remove(removeCallbacks[i], removeEntries[i]);
+            }
+        }
+        if (addCallbacks == null) {
+            return null;
+        }
+        FilterServiceEntry[] entries = new FilterServiceEntry[addCallbacks.length];
+        for (int i = 0; i < addCallbacks.length; i++) {
+            entries[i] = add(addValueSets[i], addCallbacks[i]);
+        }
+        return entries;
+    }
+
     public long getNumEventsEvaluated()
     {
         throw new UnsupportedOperationException();
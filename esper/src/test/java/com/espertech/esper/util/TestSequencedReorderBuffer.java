@@ -0,0 +1,143 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.util;
+
+import com.espertech.esper.timer.TimeSourceService;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class TestSequencedReorderBuffer extends TestCase
+{
+    private SupportTimeSource timeSource;
+    private SequencedReorderBuffer<String> buffer;
+
+    public void setUp()
+    {
+        timeSource = new SupportTimeSource();
+        buffer = new SequencedReorderBuffer<String>("test", 100, timeSource);
+    }
+
+    public void testInOrder()
+    {
+        assertEquals(Arrays.asList("a"), buffer.add(0, "a"));
+        assertNull(buffer.next());
+        assertEquals(Arrays.asList("b"), buffer.add(1, "b"));
+        assertNull(buffer.next());
+        assertEquals(0, buffer.getNumPending());
+    }
+
+    public void testGapFilled()
+    {
+        assertNull(buffer.add(2, "c"));
+        assertNull(buffer.add(1, "b"));
+        assertEquals(2, buffer.getNumPending());
+
+        assertEquals(Arrays.asList("a", "b", "c"), buffer.add(0, "a"));
+        assertNull(buffer.next());
+        assertEquals(0, buffer.getNumPending());
+    }
+
+    public void testAddWhileDraining()
+    {
+        assertEquals(Arrays.asList("a"), buffer.add(0, "a"));
+
+        // draining thread still processing, others never wait
+        assertNull(buffer.add(1, "b"));
+        assertNull(buffer.add(2, "c"));
+
+        assertEquals(Arrays.asList("b", "c"), buffer.next());
+        assertNull(buffer.next());
+
+        // drain role released
+        assertEquals(Arrays.asList("d"), buffer.add(3, "d"));
+        assertNull(buffer.next());
+    }
+
+    public void testPollWhileDraining()
+    {
+        assertEquals(Arrays.asList("a"), buffer.add(0, "a"));
+        assertNull(buffer.add(1, "b"));
+        assertEquals(Arrays.asList("b"), buffer.poll());
+
+        // poll keeps the drain role
+        assertNull(buffer.poll());
+        assertNull(buffer.add(2, "c"));
+        assertEquals(Arrays.asList("c"), buffer.next());
+        assertNull(buffer.next());
+    }
+
+    public void testGapTimeout()
+    {
+        timeSource.time = 1000;
+        assertNull(buffer.add(1, "b"));
+
+        timeSource.time = 1100;
+        assertNull(buffer.add(2, "c"));
+
+        timeSource.time = 1101;
+        assertEquals(Arrays.asList("b", "c", "d"), buffer.add(3, "d"));
+        assertNull(buffer.next());
+
+        // late arrival after the gap was skipped
+        assertEquals(Arrays.asList("a"), buffer.add(0, "a"));
+        assertNull(buffer.next());
+    }
+
+    public void testReleaseExpired()
+    {
+        timeSource.time = 1000;
+        assertNull(buffer.add(1, "b"));
+        assertNull(buffer.add(2, "c"));
+
+        // no further add, the scheduled check releases the held items once the gap timed out
+        timeSource.time = 1100;
+        assertNull(buffer.releaseExpired());
+        timeSource.time = 1101;
+        assertEquals(Arrays.asList("b", "c"), buffer.releaseExpired());
+
+        // the check does not take over while draining
+        assertNull(buffer.add(0, "a"));
+        assertNull(buffer.releaseExpired());
+        assertEquals(Arrays.asList("a"), buffer.next());
+        assertNull(buffer.next());
+        assertEquals(0, buffer.getNumPending());
+        assertNull(buffer.releaseExpired());
+    }
+
+    public void testAbandon()
+    {
+        assertNull(buffer.add(1, "b"));
+        List<String> items = buffer.add(0, "a");
+        assertEquals(Arrays.asList("a", "b"), items);
+
+        // processing "a" failed
+        buffer.abandon(items.subList(1, 2));
+        assertEquals(1, buffer.getNumPending());
+
+        assertEquals(Arrays.asList("b", "c"), buffer.add(2, "c"));
+        buffer.abandon(Collections.<String>emptyList());
+        assertEquals(0, buffer.getNumPending());
+    }
+
+    private static class SupportTimeSource implements TimeSourceService
+    {
+        private long time;
+
+        public long getTimeMillis()
+        {
+            return time;
+        }
+    }
+}